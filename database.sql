@@ -29,6 +29,42 @@ CREATE TYPE infra_type AS ENUM (
     'PRODUCTION_AREA'   -- Khu sản xuất/Nông nghiệp
 );
 
+-- GEOHASH: mã ô lưới lưu cạnh geom để tìm theo bán kính / bbox bằng range scan trên B-tree
+/*
+ * Geohash precision 12 dạng số 60 bit (x = 30 bit kinh độ, y = 30 bit vĩ độ, xen kẽ, kinh độ trước).
+ * Mọi điểm của một ô precision p nằm trong khoảng [mã << s, (mã + 1) << s), s = 5 * (12 - p).
+ * Phải tính giống hệt GeohashUtil.cell ở backend (entity listener tính phía Java cho các lần ghi qua JPA).
+ */
+-- Đưa 30 bit thấp vào các vị trí bit chẵn (mask 0x0000FFFF0000FFFF, 0x00FF00FF00FF00FF, ...)
+CREATE FUNCTION geohash_spread(v BIGINT) RETURNS BIGINT AS $$
+BEGIN
+    v := (v | (v << 16)) & 281470681808895;
+    v := (v | (v << 8)) & 71777214294589695;
+    v := (v | (v << 4)) & 1085102592571150095;
+    v := (v | (v << 2)) & 3689348814741910323;
+    RETURN (v | (v << 1)) & 6148914691236517205;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE STRICT PARALLEL SAFE;
+
+CREATE FUNCTION geohash_cell(lon DOUBLE PRECISION, lat DOUBLE PRECISION) RETURNS BIGINT AS $$
+    SELECT (geohash_spread(LEAST(GREATEST(CAST(floor((lon + 180) / (CAST(360 AS DOUBLE PRECISION) / 1073741824)) AS BIGINT), 0), 1073741823)) << 1)
+         | geohash_spread(LEAST(GREATEST(CAST(floor((lat + 90) / (CAST(180 AS DOUBLE PRECISION) / 1073741824)) AS BIGINT), 0), 1073741823));
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+-- Điểm: mã của điểm. Đường / vùng: ô nhỏ nhất chứa cả envelope (các bit sau precision của ô bằng 0)
+CREATE FUNCTION geohash_cell(g GEOMETRY) RETURNS BIGINT AS $$
+DECLARE
+    low BIGINT := geohash_cell(ST_XMin(g), ST_YMin(g));
+    high BIGINT := geohash_cell(ST_XMax(g), ST_YMax(g));
+    shift INT := 0;
+BEGIN
+    WHILE (low >> shift) <> (high >> shift) LOOP
+        shift := shift + 5;
+    END LOOP;
+    RETURN (low >> shift) << shift;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE STRICT PARALLEL SAFE;
+
 -- QUẢN LÝ NGƯỜI DÙNG (USERS)
 CREATE TABLE users (
     user_id SERIAL PRIMARY KEY,
@@ -45,6 +81,8 @@ CREATE TABLE users (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
+-- username, email đã có index UNIQUE; phone_number dùng cho đăng nhập và tra cứu JWT subject
+CREATE INDEX idx_users_phone_number ON users(phone_number);
 
 -- NHÓM DỮ LIỆU DÂN CƯ & Y TẾ (Cứu trợ & Ưu tiên)
 /* 
@@ -70,9 +108,11 @@ CREATE TABLE households (
     asset_description TEXT,                 -- Mô tả tài sản giá trị cần bảo vệ
     
     -- Vị trí không gian (Point)
-    geom GEOMETRY(POINT, 4326) NOT NULL
+    geom GEOMETRY(POINT, 4326) NOT NULL,
+    geohash BIGINT                          -- geohash_cell(geom), backend cập nhật khi ghi
 );
 CREATE INDEX idx_households_geom ON households USING GIST (geom);
+CREATE INDEX idx_households_geohash ON households(geohash);
 
 /* 
  * Bảng: LỰC LƯỢNG Y TẾ (Medical Resources)
@@ -86,9 +126,11 @@ CREATE TABLE medical_resources (
     contact_phone VARCHAR(15),
     specialization VARCHAR(100),            -- Chuyên khoa (nếu là Bác sĩ)
     is_active BOOLEAN DEFAULT TRUE,
-    geom GEOMETRY(POINT, 4326) NOT NULL
+    geom GEOMETRY(POINT, 4326) NOT NULL,
+    geohash BIGINT                          -- geohash_cell(geom)
 );
 CREATE INDEX idx_medical_geom ON medical_resources USING GIST (geom);
+CREATE INDEX idx_medical_geohash ON medical_resources(geohash);
 
 -- NHÓM HẠ TẦNG (INFRASTRUCTURE) - BẢN ĐỒ GIÁM SÁT
 /*
@@ -110,9 +152,11 @@ CREATE TABLE infrastructure (
     -- VD Đê bao: {"repair_history": ["2020", "2022"]}
     properties JSONB,
     -- Vị trí: Dùng GEOMETRY để lưu được cả Điểm (Hố ga, Cây) và Đường (Cống, Đê)
-    geom GEOMETRY(GEOMETRY, 4326) NOT NULL
+    geom GEOMETRY(GEOMETRY, 4326) NOT NULL,
+    geohash BIGINT                          -- geohash_cell(geom): ô nhỏ nhất chứa cả đường / vùng
 );
 CREATE INDEX idx_infra_geom ON infrastructure USING GIST (geom);
+CREATE INDEX idx_infra_geohash ON infrastructure(geohash);
 CREATE INDEX idx_infra_type ON infrastructure(type);
 
 -- NHÓM DỮ LIỆU MÔI TRƯỜNG & LỊCH SỬ (AI/DỰ BÁO)
@@ -135,15 +179,32 @@ CREATE TABLE climate_data (
 );
 CREATE INDEX idx_climate_date ON climate_data(record_date);
 
+/*
+ * Bảng: VÙNG NGẬP LỊCH SỬ (Historical Data)
+ * Mục đích: Trả lời "địa chỉ này từng ngập chưa?" theo từng năm.
+ */
+CREATE TABLE historical_data (
+    history_id SERIAL PRIMARY KEY,
+    year INT NOT NULL,
+    alert_level VARCHAR(50),                -- VD: "Báo động 3"
+    impact_summary TEXT,
+    reference_geom GEOMETRY(POLYGON, 4326)  -- Vùng bị ngập
+);
+CREATE INDEX idx_historical_geom ON historical_data USING GIST (reference_geom);
+CREATE INDEX idx_historical_year ON historical_data(year);
+
 
 -- NHÓM SỰ KIỆN & PHẢN ÁNH (REPORTS) - CORE FEATURE
 /*
  * Bảng: PHẢN ÁNH / SỰ KIỆN (Reports)
  * Mục đích: Ghi nhận sự cố từ người dân, hỗ trợ quy trình xác minh.
  * Nguồn tham khảo:,,,
+ * Partition theo tháng trên created_at (reports_pYYYYMM): truy vấn có điều kiện created_at chỉ đọc các tháng
+ * liên quan. Backend (ReportPartitionMaintainer) tạo trước partition các tháng tới và detach partition cũ.
+ * Khoá chính phải chứa cột partition nên là (report_id, created_at); report_id vẫn duy nhất nhờ sequence.
  */
 CREATE TABLE reports (
-    report_id SERIAL PRIMARY KEY,
+    report_id SERIAL,
     
     -- Thông tin người gửi (Hỗ trợ cả người dùng vãng lai qua Form)
     user_id INT REFERENCES users(user_id),  -- Có thể NULL nếu không đăng nhập
@@ -163,14 +224,238 @@ CREATE TABLE reports (
     verified_by INT REFERENCES users(user_id), -- ID của Tổ trưởng/Cán bộ đã xác minh
     verified_at TIMESTAMP,
     admin_note TEXT,                        -- Ghi chú xử lý của phường
+    version INT NOT NULL DEFAULT 0,         -- Tăng mỗi lần cập nhật: phát hiện hai người xác minh cùng một report
     
     -- Thời gian & Vị trí
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    geom GEOMETRY(POINT, 4326) NOT NULL     -- Vị trí ghim trên bản đồ
-);
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    geom GEOMETRY(POINT, 4326) NOT NULL,    -- Vị trí ghim trên bản đồ
+
+    -- Sự cố (incident) mà report thuộc về, do backend (IncidentClusterer) gán khi tạo report
+    incident_id BIGINT,
+    geohash BIGINT,                         -- geohash_cell(geom)
+
+    PRIMARY KEY (report_id, created_at)
+) PARTITION BY RANGE (created_at);
+-- Index tạo trên bảng cha được tạo tự động cho mọi partition
 CREATE INDEX idx_reports_geom ON reports USING GIST (geom);
-CREATE INDEX idx_reports_status ON reports(status);
+CREATE INDEX idx_reports_status ON reports(status, created_at);
 CREATE INDEX idx_reports_time ON reports(created_at);
+CREATE INDEX idx_reports_incident ON reports(incident_id) WHERE incident_id IS NOT NULL;
+CREATE INDEX idx_reports_geohash ON reports(geohash);
+
+-- Sự cố = nhóm report cùng loại, gần nhau trong không gian và thời gian. Không có bảng riêng: thông tin sự cố
+-- (số report, mức thiệt hại...) tổng hợp từ các report thành viên. Backend lấy id theo block 50 giá trị một lần
+CREATE SEQUENCE incident_id_seq INCREMENT BY 50;
+-- Trên DB đã có: ALTER TABLE reports ADD COLUMN incident_id BIGINT; rồi tạo index và sequence như trên
+-- ALTER TABLE reports ADD COLUMN version INT NOT NULL DEFAULT 0;
+-- Cột geohash trên DB đã có (tương tự cho households, medical_resources, infrastructure):
+-- ALTER TABLE reports ADD COLUMN geohash BIGINT; UPDATE reports SET geohash = geohash_cell(geom);
+-- CREATE INDEX idx_reports_geohash ON reports(geohash);
+
+-- Tạo partition của tháng chứa month nếu chưa có, trả về tên partition.
+-- Nếu reports_default đã có report của tháng đó (không thể tạo partition trực tiếp): tách reports_default ra,
+-- chuyển các report đó sang bảng partition mới rồi gắn lại cả hai, trong cùng một transaction. Trigger sao chép
+-- từ bảng cha bị bỏ khi detach và chỉ có lại khi attach, nên việc chuyển không đếm lại climate_daily
+CREATE OR REPLACE FUNCTION reports_create_partition(month DATE) RETURNS text AS $$
+DECLARE
+    start_day DATE := date_trunc('month', month);
+    end_day DATE := CAST(start_day + interval '1 month' AS DATE);
+    partition_name text := 'reports_p' || to_char(start_day, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+    IF to_regclass('reports_default') IS NULL
+            OR NOT EXISTS (SELECT 1 FROM reports_default WHERE created_at >= start_day AND created_at < end_day) THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF reports FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, start_day, end_day);
+        RETURN partition_name;
+    END IF;
+    ALTER TABLE reports DETACH PARTITION reports_default;
+    EXECUTE format('CREATE TABLE %I (LIKE reports INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM reports_default WHERE created_at >= %L AND created_at < %L '
+                   'RETURNING *) INSERT INTO %I SELECT * FROM moved', start_day, end_day, partition_name);
+    EXECUTE format('ALTER TABLE reports ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, start_day, end_day);
+    ALTER TABLE reports ATTACH PARTITION reports_default DEFAULT;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+-- Trên DB đã có: chạy lại CREATE OR REPLACE FUNCTION reports_create_partition như trên
+
+-- 12 tháng trước đến 3 tháng tới; report ngoài các khoảng này (VD: import dữ liệu cũ) vào reports_default
+SELECT reports_create_partition(CAST(m AS DATE))
+FROM generate_series(date_trunc('month', CURRENT_DATE) - interval '12 months',
+                     date_trunc('month', CURRENT_DATE) + interval '3 months', interval '1 month') AS m;
+CREATE TABLE reports_default PARTITION OF reports DEFAULT;
+
+-- Chuyển bảng reports cũ (không partition) sang bảng partition:
+-- ALTER TABLE reports RENAME TO reports_legacy;
+-- ALTER SEQUENCE reports_report_id_seq RENAME TO reports_legacy_report_id_seq;
+-- DROP INDEX idx_reports_geom, idx_reports_status, idx_reports_time, idx_reports_flood_day;
+-- (chạy CREATE TABLE reports, các index, partition và trigger climate_daily trên reports ở file này)
+-- ALTER TABLE reports DISABLE TRIGGER trg_climate_daily_report_insert; -- climate_daily đã đếm các report này
+-- INSERT INTO reports (report_id, user_id, guest_name, guest_phone, event_type, description, damage_level, image_url,
+--                      status, verified_by, verified_at, admin_note, created_at, geom, geohash)
+-- SELECT report_id, user_id, guest_name, guest_phone, event_type, description, damage_level, image_url,
+--        status, verified_by, verified_at, admin_note, created_at, geom, geohash_cell(geom) FROM reports_legacy;
+-- ALTER TABLE reports ENABLE TRIGGER trg_climate_daily_report_insert;
+-- SELECT setval('reports_report_id_seq', (SELECT MAX(report_id) FROM reports));
+
+/*
+ * Bảng: TỔNG HỢP KHÍ HẬU THEO NGÀY (Climate Daily)
+ * Mục đích: Phục vụ LOGIC 1 mà không phải JOIN theo DATE(created_at) = DATE(record_date) (không dùng được index).
+ * Logic: Trigger cập nhật tăng dần khi có climate_data thực đo hoặc reports FLOOD mới;
+ *        UPDATE/DELETE tính lại các ngày bị ảnh hưởng. Backend giữ bản sao sắp xếp theo giá trị trong RAM.
+ */
+CREATE TABLE climate_daily (
+    day DATE PRIMARY KEY,
+    max_tide FLOAT,                         -- Đỉnh triều thực đo trong ngày
+    total_rain FLOAT,                       -- Tổng lượng mưa thực đo trong ngày
+    flood_reports INT NOT NULL DEFAULT 0,   -- Số report FLOOD trong ngày
+    updated_at TIMESTAMP NOT NULL DEFAULT clock_timestamp(),
+    -- Transaction ghi gần nhất: backend đọc delta theo xid thay vì updated_at, vì updated_at được ghi trước khi
+    -- commit nên transaction commit muộn (VD: bulk import dài) có thể rơi sau mốc đã đọc
+    updated_xid xid8 NOT NULL DEFAULT pg_current_xact_id()
+);
+CREATE INDEX idx_climate_daily_tide ON climate_daily(max_tide) WHERE flood_reports > 0;
+CREATE INDEX idx_climate_daily_rain ON climate_daily(total_rain) WHERE flood_reports > 0;
+CREATE INDEX idx_climate_daily_xid ON climate_daily(updated_xid);
+-- Trên DB đã có: ALTER TABLE climate_daily ADD COLUMN updated_xid xid8 NOT NULL DEFAULT pg_current_xact_id();
+-- DROP INDEX idx_climate_daily_updated; rồi tạo index và các function trigger như trên
+CREATE INDEX idx_reports_flood_day ON reports ((CAST(created_at AS DATE))) WHERE event_type = 'FLOOD';
+
+-- Tính lại toàn bộ các ngày cho trước từ dữ liệu gốc
+CREATE FUNCTION climate_daily_recompute(days DATE[]) RETURNS void AS $$
+    INSERT INTO climate_daily (day, max_tide, total_rain, flood_reports, updated_at, updated_xid)
+    SELECT d.day,
+           (SELECT MAX(c.value) FROM climate_data c
+             WHERE c.type = 'TIDE' AND NOT COALESCE(c.is_forecast, FALSE)
+               AND c.record_date >= d.day AND c.record_date < d.day + 1),
+           (SELECT SUM(c.value) FROM climate_data c
+             WHERE c.type = 'RAIN' AND NOT COALESCE(c.is_forecast, FALSE)
+               AND c.record_date >= d.day AND c.record_date < d.day + 1),
+           (SELECT COUNT(*) FROM reports r
+             WHERE r.event_type = 'FLOOD' AND CAST(r.created_at AS DATE) = d.day),
+           clock_timestamp(), pg_current_xact_id()
+    FROM unnest(days) AS d(day)
+    WHERE d.day IS NOT NULL
+    ORDER BY d.day
+    ON CONFLICT (day) DO UPDATE SET
+        max_tide = EXCLUDED.max_tide,
+        total_rain = EXCLUDED.total_rain,
+        flood_reports = EXCLUDED.flood_reports,
+        updated_at = EXCLUDED.updated_at,
+        updated_xid = EXCLUDED.updated_xid;
+$$ LANGUAGE sql;
+
+-- INSERT (kể cả batch/COPY): gộp theo ngày trong một câu lệnh; ORDER BY để các batch đồng thời khoá ngày theo cùng thứ tự
+CREATE FUNCTION climate_daily_on_climate_insert() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO climate_daily AS d (day, max_tide, total_rain)
+    SELECT CAST(n.record_date AS DATE),
+           MAX(n.value) FILTER (WHERE n.type = 'TIDE'),
+           SUM(n.value) FILTER (WHERE n.type = 'RAIN')
+    FROM new_rows n
+    WHERE NOT COALESCE(n.is_forecast, FALSE)
+    GROUP BY 1
+    ORDER BY 1
+    ON CONFLICT (day) DO UPDATE SET
+        max_tide = GREATEST(d.max_tide, EXCLUDED.max_tide),
+        total_rain = CASE WHEN EXCLUDED.total_rain IS NULL THEN d.total_rain
+                          ELSE COALESCE(d.total_rain, 0) + EXCLUDED.total_rain END,
+        updated_at = clock_timestamp(), updated_xid = pg_current_xact_id();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION climate_daily_on_climate_update() RETURNS trigger AS $$
+BEGIN
+    PERFORM climate_daily_recompute(ARRAY(
+        SELECT CAST(record_date AS DATE) FROM old_rows
+        UNION SELECT CAST(record_date AS DATE) FROM new_rows));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION climate_daily_on_climate_delete() RETURNS trigger AS $$
+BEGIN
+    PERFORM climate_daily_recompute(ARRAY(SELECT DISTINCT CAST(record_date AS DATE) FROM old_rows));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION climate_daily_on_climate_truncate() RETURNS trigger AS $$
+BEGIN
+    UPDATE climate_daily SET max_tide = NULL, total_rain = NULL,
+        updated_at = clock_timestamp(), updated_xid = pg_current_xact_id();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_climate_daily_insert AFTER INSERT ON climate_data
+    REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION climate_daily_on_climate_insert();
+CREATE TRIGGER trg_climate_daily_update AFTER UPDATE ON climate_data
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION climate_daily_on_climate_update();
+CREATE TRIGGER trg_climate_daily_delete AFTER DELETE ON climate_data
+    REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION climate_daily_on_climate_delete();
+CREATE TRIGGER trg_climate_daily_truncate AFTER TRUNCATE ON climate_data
+    FOR EACH STATEMENT EXECUTE FUNCTION climate_daily_on_climate_truncate();
+
+CREATE FUNCTION climate_daily_on_report_insert() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO climate_daily AS d (day, flood_reports)
+    SELECT CAST(n.created_at AS DATE), COUNT(*)
+    FROM new_rows n
+    WHERE n.event_type = 'FLOOD' AND n.created_at IS NOT NULL
+    GROUP BY 1
+    ORDER BY 1
+    ON CONFLICT (day) DO UPDATE SET
+        flood_reports = d.flood_reports + EXCLUDED.flood_reports,
+        updated_at = clock_timestamp(), updated_xid = pg_current_xact_id();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Chỉ tính lại khi event_type/created_at thay đổi (xác minh report không ảnh hưởng)
+CREATE FUNCTION climate_daily_on_report_update() RETURNS trigger AS $$
+BEGIN
+    PERFORM climate_daily_recompute(ARRAY(
+        SELECT CAST(o.created_at AS DATE) FROM old_rows o JOIN new_rows n ON n.report_id = o.report_id
+         WHERE o.event_type IS DISTINCT FROM n.event_type OR o.created_at IS DISTINCT FROM n.created_at
+        UNION
+        SELECT CAST(n.created_at AS DATE) FROM old_rows o JOIN new_rows n ON n.report_id = o.report_id
+         WHERE o.event_type IS DISTINCT FROM n.event_type OR o.created_at IS DISTINCT FROM n.created_at));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION climate_daily_on_report_delete() RETURNS trigger AS $$
+BEGIN
+    PERFORM climate_daily_recompute(ARRAY(
+        SELECT DISTINCT CAST(created_at AS DATE) FROM old_rows WHERE event_type = 'FLOOD'));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION climate_daily_on_report_truncate() RETURNS trigger AS $$
+BEGIN
+    UPDATE climate_daily SET flood_reports = 0, updated_at = clock_timestamp(), updated_xid = pg_current_xact_id()
+    WHERE flood_reports <> 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_climate_daily_report_insert AFTER INSERT ON reports
+    REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION climate_daily_on_report_insert();
+CREATE TRIGGER trg_climate_daily_report_update AFTER UPDATE ON reports
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION climate_daily_on_report_update();
+CREATE TRIGGER trg_climate_daily_report_delete AFTER DELETE ON reports
+    REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION climate_daily_on_report_delete();
+CREATE TRIGGER trg_climate_daily_report_truncate AFTER TRUNCATE ON reports
+    FOR EACH STATEMENT EXECUTE FUNCTION climate_daily_on_report_truncate();
 
 -- VÍ DỤ TRUY VẤN NGHIỆP VỤ (BUSINESS LOGIC EXAMPLES)
 /*
@@ -186,6 +471,13 @@ CREATE INDEX idx_reports_time ON reports(created_at);
 --   AND c.value BETWEEN 1.65 AND 1.75 -- Tìm biên độ gần đúng (+/- 5cm)
 --   AND r.event_type = 'FLOOD'
 -- ORDER BY r.created_at DESC;
+-- Backend (GET /api/climate-data/analogs) dùng climate_daily + idx_reports_flood_day thay cho JOIN trên:
+-- SELECT r.image_url, r.description, r.created_at, d.max_tide as tide_level
+-- FROM climate_daily d
+-- JOIN reports r ON CAST(r.created_at AS DATE) = d.day AND r.event_type = 'FLOOD'
+-- WHERE d.flood_reports > 0
+--   AND d.max_tide BETWEEN 1.65 AND 1.75
+-- ORDER BY r.created_at DESC;
 
 /*
  * LOGIC 2: LỚP BẢN ĐỒ CỨU TRỢ KHẨN CẤP
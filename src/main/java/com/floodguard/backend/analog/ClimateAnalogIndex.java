@@ -0,0 +1,182 @@
+package com.floodguard.backend.analog;
+
+import com.floodguard.backend.model.ClimateDaily;
+import com.floodguard.backend.repository.ClimateDailyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of climate_daily (days with flood reports only), sorted by daily max tide and by daily
+ * total rain, so a "value ± tolerance" lookup is a binary search plus a scan of the matching range instead of
+ * a date join in PostgreSQL.
+ * <p>
+ * climate_daily itself is maintained by triggers; this index pulls rows changed since its watermark at most
+ * once per refresh-ms, on the first query after that interval. The watermark is a transaction id, not a time:
+ * each row carries the xid that last wrote it, and after a read the watermark moves to the xmin of a snapshot
+ * taken just before that read. Every transaction below xmin had finished by then, so a change that commits
+ * late (a long bulk import) is still picked up on a later refresh. Every change rebuilds an immutable
+ * snapshot that readers use without locking.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClimateAnalogIndex {
+
+    public enum Measure {
+        TIDE,
+        RAIN;
+
+        // Đỉnh triều hoặc tổng lượng mưa của ngày, null nếu ngày đó không có số đo
+        public Double valueOf(ClimateDaily day) {
+            return this == TIDE ? day.getMaxTide() : day.getTotalRain();
+        }
+    }
+
+    private final ClimateDailyRepository climateDailyRepository;
+
+    @Value("${climate.analog.refresh-ms:2000}")
+    private long refreshMs;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<LocalDate, ClimateDaily> days = new HashMap<>();
+    // Lần đọc sau lấy các dòng có updated_xid >= watermark
+    private long watermark;
+    private volatile long lastRefreshNanos;
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            writeLock.lock();
+            try {
+                long start = System.nanoTime();
+                long xmin = climateDailyRepository.currentSnapshotXmin();
+                List<ClimateDaily> all = climateDailyRepository.findByFloodReportsGreaterThan(0);
+                days.clear();
+                all.forEach(this::apply);
+                rebuild();
+                watermark = xmin;
+                lastRefreshNanos = start;
+            } finally {
+                writeLock.unlock();
+            }
+            log.info("Climate analog index loaded with {} flood days", days.size());
+        } catch (RuntimeException e) {
+            log.warn("Climate analog index not loaded, falling back to database queries: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Nạp các ngày thay đổi kể từ lần trước nếu đã quá refresh-ms; chỉ một thread làm, các thread khác
+     * dùng snapshot hiện tại
+     */
+    public void refreshIfStale() {
+        if (snapshot == null || System.nanoTime() - lastRefreshNanos < refreshMs * 1_000_000L
+                || !writeLock.tryLock()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            // Lấy xmin trước khi đọc: transaction nào có xid < xmin đã kết thúc nên lần đọc dưới thấy được
+            long xmin = climateDailyRepository.currentSnapshotXmin();
+            List<ClimateDaily> changed = climateDailyRepository.findWrittenSince(watermark);
+            boolean modified = false;
+            for (ClimateDaily day : changed) {
+                modified |= apply(day);
+            }
+            if (modified) {
+                rebuild();
+            }
+            watermark = xmin;
+            lastRefreshNanos = start;
+        } catch (RuntimeException e) {
+            log.warn("Climate analog index refresh failed, serving previous snapshot: {}", e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Các ngày có report FLOOD với giá trị trong [min, max], gần target nhất trước, cùng độ lệch thì ngày mới trước
+     */
+    public List<ClimateDaily> find(Measure measure, double target, double min, double max, int limit) {
+        Sorted sorted = snapshot.byMeasure().get(measure);
+        int from = lowerBound(sorted.values(), min);
+        List<ClimateDaily> result = new ArrayList<>();
+        for (int i = from; i < sorted.values().length && sorted.values()[i] <= max; i++) {
+            result.add(sorted.days()[i]);
+        }
+        result.sort(closestFirst(measure, target));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public static Comparator<ClimateDaily> closestFirst(Measure measure, double target) {
+        return Comparator.<ClimateDaily>comparingDouble(day -> Math.abs(measure.valueOf(day) - target))
+                .thenComparing(ClimateDaily::getDay, Comparator.reverseOrder());
+    }
+
+    // Trả về true nếu index thay đổi
+    private boolean apply(ClimateDaily day) {
+        if (day.getFloodReports() == null || day.getFloodReports() <= 0) {
+            return days.remove(day.getDay()) != null;
+        }
+        ClimateDaily copy = ClimateDaily.builder()
+                .day(day.getDay())
+                .maxTide(day.getMaxTide())
+                .totalRain(day.getTotalRain())
+                .floodReports(day.getFloodReports())
+                .updatedAt(day.getUpdatedAt())
+                .build();
+        return !copy.equals(days.put(copy.getDay(), copy));
+    }
+
+    private void rebuild() {
+        Map<Measure, Sorted> byMeasure = new HashMap<>();
+        for (Measure measure : Measure.values()) {
+            ClimateDaily[] sortedDays = days.values().stream()
+                    .filter(day -> measure.valueOf(day) != null)
+                    .sorted(Comparator.comparingDouble(measure::valueOf))
+                    .toArray(ClimateDaily[]::new);
+            double[] values = Arrays.stream(sortedDays).mapToDouble(measure::valueOf).toArray();
+            byMeasure.put(measure, new Sorted(values, sortedDays));
+        }
+        snapshot = new Snapshot(byMeasure);
+    }
+
+    private static int lowerBound(double[] values, double min) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < min) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private record Sorted(double[] values, ClimateDaily[] days) {
+    }
+
+    private record Snapshot(Map<Measure, Sorted> byMeasure) {
+    }
+}
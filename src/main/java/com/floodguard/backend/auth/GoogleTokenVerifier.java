@@ -0,0 +1,170 @@
+package com.floodguard.backend.auth;
+
+import com.floodguard.backend.exception.BackpressureException;
+import com.floodguard.backend.exception.CustomException;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared Google ID token verifier.
+ * <p>
+ * One GoogleIdTokenVerifier (one HTTP transport, one GooglePublicKeysManager) lives for the whole application, so
+ * Google's signing certificates are fetched once per Cache-Control max-age instead of once per login. A background
+ * thread refreshes them shortly before GooglePublicKeysManager would consider them stale (5 minutes before expiry),
+ * so logins normally never wait for the certificate endpoint. Verification itself runs on a small bounded pool:
+ * request threads are released while it runs, and when the pool is saturated (e.g. the certificate endpoint is
+ * slow) logins fail fast with 503 + Retry-After instead of piling up.
+ */
+@Slf4j
+@Component
+public class GoogleTokenVerifier {
+
+    // GooglePublicKeysManager tự refresh (chặn caller) khi còn dưới 5 phút trước hạn: refresh nền sớm hơn 1 phút
+    private static final long LIBRARY_REFRESH_SKEW_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long REFRESH_MARGIN_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long MIN_REFRESH_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+
+    @Value("${google.client-id}")
+    private String clientId;
+
+    @Value("${google.certs-url:https://www.googleapis.com/oauth2/v1/certs}")
+    private String certsUrl;
+
+    @Value("${google.verify.threads:4}")
+    private int threads;
+
+    @Value("${google.verify.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${google.verify.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${google.verify.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    private GooglePublicKeysManager publicKeys;
+    private GoogleIdTokenVerifier verifier;
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void init() {
+        publicKeys = new GooglePublicKeysManager.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance())
+                .setPublicCertsEncodedUrl(certsUrl)
+                .build();
+        verifier = new GoogleIdTokenVerifier.Builder(publicKeys)
+                .setAudience(List.of(clientId))
+                .build();
+        AtomicInteger workers = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "google-token-verifier-" + workers.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "google-keys-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Không chặn startup khi Google không truy cập được: thử lại ở nền
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher.execute(this::refreshKeys);
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Xác thực ID token trên pool riêng.
+     * Future lỗi với CustomException 401 khi token không hợp lệ, 503 khi quá tải / quá thời gian / không lấy được key
+     */
+    public CompletableFuture<GoogleIdToken.Payload> verify(String idToken) {
+        CompletableFuture<GoogleIdToken.Payload> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> verifyNow(idToken), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new BackpressureException("Too many Google logins in progress, please retry later", retryAfterSeconds));
+        }
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        cause = new BackpressureException("Google token verification timed out, please retry",
+                                retryAfterSeconds);
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    private GoogleIdToken.Payload verifyNow(String idToken) {
+        GoogleIdToken token;
+        try {
+            token = verifier.verify(idToken);
+        } catch (IllegalArgumentException e) {
+            // Token không parse được (không phải JWS)
+            throw new CustomException("Failed to verify Google token: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
+        } catch (IOException e) {
+            throw new CustomException("Google public keys unavailable: " + e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (GeneralSecurityException e) {
+            throw new CustomException("Failed to verify Google token: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
+        }
+        if (token == null) {
+            throw new CustomException("Invalid Google ID token", HttpStatus.UNAUTHORIZED);
+        }
+        return token.getPayload();
+    }
+
+    void refreshKeys() {
+        long delay;
+        try {
+            publicKeys.refresh();
+            delay = nextRefreshDelay(System.currentTimeMillis(), publicKeys.getExpirationTimeMilliseconds());
+            log.debug("Google public keys refreshed, next refresh in {} s", delay / 1000);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            delay = MIN_REFRESH_DELAY_MS;
+            log.warn("Google public keys not refreshed, retrying in {} s: {}", delay / 1000, e.getMessage());
+        }
+        if (!refresher.isShutdown()) {
+            refresher.schedule(this::refreshKeys, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Refresh trước thời điểm GooglePublicKeysManager coi key là hết hạn, theo max-age của lần tải trước
+    static long nextRefreshDelay(long now, long expiration) {
+        return Math.max(MIN_REFRESH_DELAY_MS, expiration - LIBRARY_REFRESH_SKEW_MS - REFRESH_MARGIN_MS - now);
+    }
+}
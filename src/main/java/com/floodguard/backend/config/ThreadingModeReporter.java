@@ -0,0 +1,40 @@
+package com.floodguard.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Logs the request threading mode at startup. spring.threads.virtual.enabled (profile "virtual") only takes
+ * effect on Java 21+; on older runtimes Spring Boot silently keeps the platform thread pool, so warn about it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ThreadingModeReporter {
+
+    private final Environment environment;
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        String pool = dataSource instanceof HikariDataSource hikari
+                ? hikari.getMaximumPoolSize() + " connections, " + hikari.getConnectionTimeout() + " ms acquire timeout"
+                : dataSource.getClass().getSimpleName();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Serving requests and @Async tasks on virtual threads, database pool: {}", pool);
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads (needs 21+), "
+                    + "serving requests on the platform thread pool, database pool: {}", Runtime.version().feature(), pool);
+        } else {
+            log.info("Serving requests on the platform thread pool, database pool: {}", pool);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -21,13 +23,14 @@ public class AuthController {
      * POST /api/auth/google
      */
     @PostMapping("/google")
-    public ResponseEntity<ApiResponse<AuthDTO.AuthResponse>> loginWithGoogle(
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthDTO.AuthResponse>>> loginWithGoogle(
             @Valid @RequestBody AuthDTO.GoogleLoginRequest request) {
-        AuthDTO.AuthResponse response = authService.loginWithGoogle(request);
-        String message = response.getUser().isNewUser()
-                ? "Account created and logged in successfully"
-                : "Logged in successfully";
-        return ResponseEntity.ok(ApiResponse.success(message, response));
+        return authService.loginWithGoogle(request).thenApply(response -> {
+            String message = response.getUser().isNewUser()
+                    ? "Account created and logged in successfully"
+                    : "Logged in successfully";
+            return ResponseEntity.ok(ApiResponse.success(message, response));
+        });
     }
 
     /**
@@ -0,0 +1,77 @@
+package com.floodguard.backend.controller;
+
+import com.floodguard.backend.dto.ClimateDataDTO;
+import com.floodguard.backend.response.ApiResponse;
+import com.floodguard.backend.service.ClimateDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/climate-data")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ClimateDataController {
+
+    private final ClimateDataService climateDataService;
+
+    /**
+     * Trạm đo mưa/triều đẩy số liệu theo batch: application/x-ndjson (mỗi dòng một reading) hoặc
+     * application/octet-stream (bản ghi nhị phân 18 byte, xem ClimateDataServiceImpl.BINARY_RECORD_SIZE).
+     * Trả 202 khi reading đã vào buffer; 503 + Retry-After khi buffer đầy
+     */
+    @PostMapping(value = "/ingest",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<ClimateDataDTO.IngestResponse>> ingest(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        ClimateDataDTO.IngestResponse response = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? climateDataService.ingestNdjson(body)
+                : climateDataService.ingestBinary(body);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Climate readings accepted", response));
+    }
+
+    @GetMapping("/ingest/metrics")
+    public ResponseEntity<ApiResponse<ClimateDataDTO.IngestMetrics>> getIngestMetrics() {
+        ClimateDataDTO.IngestMetrics metrics = climateDataService.getIngestMetrics();
+        return ResponseEntity.ok(ApiResponse.success("Climate ingest metrics retrieved successfully", metrics));
+    }
+
+    /**
+     * LOGIC 1 - gợi nhớ: ảnh ngập trong quá khứ vào những ngày có đỉnh triều (type=TIDE, m) hoặc tổng
+     * lượng mưa (type=RAIN, mm) thực đo trong khoảng value ± tolerance. VD: ?type=TIDE&value=1.7&tolerance=0.05
+     */
+    @GetMapping("/analogs")
+    public ResponseEntity<ApiResponse<ClimateDataDTO.AnalogResponse>> findAnalogs(
+            @RequestParam(defaultValue = "TIDE") String type,
+            @RequestParam double value,
+            @RequestParam(defaultValue = "0.05") double tolerance,
+            @RequestParam(defaultValue = "50") int limit) {
+        ClimateDataDTO.AnalogResponse response = climateDataService.findAnalogs(type, value, tolerance, limit);
+        return ResponseEntity.ok(ApiResponse.success("Climate analogs retrieved successfully", response));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ClimateDataDTO.Response>> getById(@PathVariable Long id) {
+        ClimateDataDTO.Response response = climateDataService.getById(id);
+        return ResponseEntity.ok(ApiResponse.success("Climate data retrieved successfully", response));
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<ClimateDataDTO.Response>>> getByRange(
+            @RequestParam(required = false) String type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        List<ClimateDataDTO.Response> responses = climateDataService.getByRange(type, from, to);
+        return ResponseEntity.ok(ApiResponse.success("Climate data retrieved successfully", responses));
+    }
+}
@@ -3,9 +3,12 @@ package com.floodguard.backend.controller;
 import com.floodguard.backend.dto.HistoricalDataDTO;
 import com.floodguard.backend.response.ApiResponse;
 import com.floodguard.backend.service.HistoricalDataService;
+import com.floodguard.backend.util.GeometryEncoder;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,8 +20,45 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class HistoricalDataController {
 
+    private static final String GEOMETRY_OPTIONS = "geometryOptions";
+
     private final HistoricalDataService historicalDataService;
 
+    /**
+     * Encoding của reference_geom: query param geometry=wkt|wkb|twkb|geojson, hoặc tham số geometry
+     * của header Accept (VD: "application/json; geometry=twkb"). precision: số chữ số thập phân cho
+     * twkb/geojson; zoom: đơn giản hoá polygon theo mức zoom bản đồ
+     */
+    @ModelAttribute(GEOMETRY_OPTIONS)
+    public HistoricalDataDTO.GeometryOptions geometryOptions(
+            @RequestParam(required = false) String geometry,
+            @RequestParam(required = false) Integer precision,
+            @RequestParam(required = false) Integer zoom,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String format = geometry != null ? geometry : acceptParameter(accept, "geometry");
+        String digits = precision != null ? precision.toString() : acceptParameter(accept, "precision");
+
+        HistoricalDataDTO.GeometryOptions options = HistoricalDataDTO.GeometryOptions.builder().build();
+        if (format != null) {
+            options.setFormat(GeometryEncoder.Format.parse(format));
+        }
+        if (digits != null) {
+            int value = Integer.parseInt(digits);
+            if (value < GeometryEncoder.MIN_PRECISION || value > GeometryEncoder.MAX_PRECISION) {
+                throw new IllegalArgumentException("precision must be between " + GeometryEncoder.MIN_PRECISION
+                        + " and " + GeometryEncoder.MAX_PRECISION);
+            }
+            options.setPrecision(value);
+        }
+        if (zoom != null) {
+            if (zoom < 0 || zoom > GeometryEncoder.MAX_ZOOM) {
+                throw new IllegalArgumentException("zoom must be between 0 and " + GeometryEncoder.MAX_ZOOM);
+            }
+            options.setZoom(zoom);
+        }
+        return options;
+    }
+
     @PostMapping
     public ResponseEntity<ApiResponse<HistoricalDataDTO.Response>> create(
             @Valid @RequestBody HistoricalDataDTO.CreateRequest request) {
@@ -28,55 +68,75 @@ public class HistoricalDataController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<HistoricalDataDTO.Response>> getById(@PathVariable Long id) {
-        HistoricalDataDTO.Response response = historicalDataService.getById(id);
+    public ResponseEntity<ApiResponse<HistoricalDataDTO.Response>> getById(
+            @PathVariable Long id,
+            @ModelAttribute(name = GEOMETRY_OPTIONS, binding = false) HistoricalDataDTO.GeometryOptions options) {
+        HistoricalDataDTO.Response response = historicalDataService.getById(id, options);
         return ResponseEntity.ok(ApiResponse.success("Historical data retrieved successfully", response));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<HistoricalDataDTO.Response>>> getAll() {
-        List<HistoricalDataDTO.Response> responses = historicalDataService.getAll();
+    public ResponseEntity<ApiResponse<List<HistoricalDataDTO.Response>>> getAll(
+            @ModelAttribute(name = GEOMETRY_OPTIONS, binding = false) HistoricalDataDTO.GeometryOptions options) {
+        List<HistoricalDataDTO.Response> responses = historicalDataService.getAll(options);
         return ResponseEntity.ok(ApiResponse.success("Historical data retrieved successfully", responses));
     }
 
     @GetMapping("/year/{year}")
-    public ResponseEntity<ApiResponse<List<HistoricalDataDTO.Response>>> getByYear(@PathVariable Integer year) {
-        List<HistoricalDataDTO.Response> responses = historicalDataService.getByYear(year);
+    public ResponseEntity<ApiResponse<List<HistoricalDataDTO.Response>>> getByYear(
+            @PathVariable Integer year,
+            @ModelAttribute(name = GEOMETRY_OPTIONS, binding = false) HistoricalDataDTO.GeometryOptions options) {
+        List<HistoricalDataDTO.Response> responses = historicalDataService.getByYear(year, options);
         return ResponseEntity.ok(ApiResponse.success("Historical data retrieved successfully", responses));
     }
 
     @GetMapping("/alert-level/{alertLevel}")
     public ResponseEntity<ApiResponse<List<HistoricalDataDTO.Response>>> getByAlertLevel(
-            @PathVariable String alertLevel) {
-        List<HistoricalDataDTO.Response> responses = historicalDataService.getByAlertLevel(alertLevel);
+            @PathVariable String alertLevel,
+            @ModelAttribute(name = GEOMETRY_OPTIONS, binding = false) HistoricalDataDTO.GeometryOptions options) {
+        List<HistoricalDataDTO.Response> responses = historicalDataService.getByAlertLevel(alertLevel, options);
         return ResponseEntity.ok(ApiResponse.success("Historical data retrieved successfully", responses));
     }
 
     @GetMapping("/year-range")
     public ResponseEntity<ApiResponse<List<HistoricalDataDTO.Response>>> getByYearRange(
             @RequestParam Integer startYear,
-            @RequestParam Integer endYear) {
-        List<HistoricalDataDTO.Response> responses = historicalDataService.getByYearRange(startYear, endYear);
+            @RequestParam Integer endYear,
+            @ModelAttribute(name = GEOMETRY_OPTIONS, binding = false) HistoricalDataDTO.GeometryOptions options) {
+        List<HistoricalDataDTO.Response> responses = historicalDataService.getByYearRange(startYear, endYear,
+                options);
         return ResponseEntity.ok(ApiResponse.success("Historical data retrieved successfully", responses));
     }
 
     @GetMapping("/containing-point")
     public ResponseEntity<ApiResponse<List<HistoricalDataDTO.Response>>> findContainingPoint(
             @RequestParam double longitude,
-            @RequestParam double latitude) {
-        List<HistoricalDataDTO.Response> responses = historicalDataService.findContainingPoint(longitude, latitude);
+            @RequestParam double latitude,
+            @ModelAttribute(name = GEOMETRY_OPTIONS, binding = false) HistoricalDataDTO.GeometryOptions options) {
+        List<HistoricalDataDTO.Response> responses = historicalDataService.findContainingPoint(longitude, latitude,
+                options);
         return ResponseEntity
                 .ok(ApiResponse.success("Historical data containing point retrieved successfully", responses));
     }
 
+    // Batch: tối đa 10000 điểm, kết quả theo đúng thứ tự điểm gửi lên
+    @PostMapping("/containing-points")
+    public ResponseEntity<ApiResponse<List<HistoricalDataDTO.PointMatch>>> findContainingPoints(
+            @Valid @RequestBody HistoricalDataDTO.PointsRequest request) {
+        List<HistoricalDataDTO.PointMatch> matches = historicalDataService.findContainingPoints(request.getPoints());
+        return ResponseEntity
+                .ok(ApiResponse.success("Historical data containing points retrieved successfully", matches));
+    }
+
     @GetMapping("/in-bounds")
     public ResponseEntity<ApiResponse<List<HistoricalDataDTO.Response>>> findInBoundingBox(
             @RequestParam double minLon,
             @RequestParam double minLat,
             @RequestParam double maxLon,
-            @RequestParam double maxLat) {
+            @RequestParam double maxLat,
+            @ModelAttribute(name = GEOMETRY_OPTIONS, binding = false) HistoricalDataDTO.GeometryOptions options) {
         List<HistoricalDataDTO.Response> responses = historicalDataService.findInBoundingBox(minLon, minLat, maxLon,
-                maxLat);
+                maxLat, options);
         return ResponseEntity
                 .ok(ApiResponse.success("Historical data in bounding box retrieved successfully", responses));
     }
@@ -94,4 +154,17 @@ public class HistoricalDataController {
         historicalDataService.delete(id);
         return ResponseEntity.ok(ApiResponse.success("Historical data deleted successfully", null));
     }
+
+    private static String acceptParameter(String accept, String name) {
+        if (accept == null) {
+            return null;
+        }
+        for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+            String value = mediaType.getParameter(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
 }
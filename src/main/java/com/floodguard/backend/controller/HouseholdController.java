@@ -0,0 +1,67 @@
+package com.floodguard.backend.controller;
+
+import com.floodguard.backend.dto.HouseholdDTO;
+import com.floodguard.backend.response.ApiResponse;
+import com.floodguard.backend.service.HouseholdService;
+import com.floodguard.backend.spatial.HouseholdPriorityIndex;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/households")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class HouseholdController {
+
+    private final HouseholdService householdService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<HouseholdDTO.Response>> create(
+            @Valid @RequestBody HouseholdDTO.CreateRequest request) {
+        HouseholdDTO.Response response = householdService.create(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Household created successfully", response));
+    }
+
+    /**
+     * LOGIC 2 - lớp cứu trợ khẩn cấp: hộ dân trong bán kính quanh điểm vỡ đê, xếp theo mức ưu tiên.
+     * VD: ?longitude=106.75&latitude=10.85&radius=200&vulnerabilities=ELDERLY,SICK
+     */
+    @GetMapping("/rescue-priority")
+    public ResponseEntity<ApiResponse<HouseholdDTO.RescuePriorityResponse>> findRescuePriority(
+            @RequestParam double longitude,
+            @RequestParam double latitude,
+            @RequestParam(defaultValue = "200") double radius,
+            @RequestParam(required = false) Set<HouseholdPriorityIndex.Vulnerability> vulnerabilities,
+            @RequestParam(required = false) Integer maxFloors,
+            @RequestParam(defaultValue = "200") int limit) {
+        HouseholdDTO.RescuePriorityResponse response = householdService.findRescuePriority(
+                longitude, latitude, radius, vulnerabilities, maxFloors, limit);
+        return ResponseEntity.ok(ApiResponse.success("Rescue priority households retrieved successfully", response));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<HouseholdDTO.Response>> getById(@PathVariable Long id) {
+        HouseholdDTO.Response response = householdService.getById(id);
+        return ResponseEntity.ok(ApiResponse.success("Household retrieved successfully", response));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<HouseholdDTO.Response>> update(
+            @PathVariable Long id,
+            @Valid @RequestBody HouseholdDTO.UpdateRequest request) {
+        HouseholdDTO.Response response = householdService.update(id, request);
+        return ResponseEntity.ok(ApiResponse.success("Household updated successfully", response));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> delete(@PathVariable Long id) {
+        householdService.delete(id);
+        return ResponseEntity.ok(ApiResponse.success("Household deleted successfully", null));
+    }
+}
@@ -0,0 +1,42 @@
+package com.floodguard.backend.controller;
+
+import com.floodguard.backend.dto.IncidentDTO;
+import com.floodguard.backend.response.ApiResponse;
+import com.floodguard.backend.service.IncidentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/incidents")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class IncidentController {
+
+    private final IncidentService incidentService;
+
+    /**
+     * Sự cố (nhóm report trùng lặp) có report mới từ since, mặc định 24 giờ gần nhất.
+     * VD: /api/incidents?eventType=FLOOD&minReports=2
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<IncidentDTO.Response>>> getActive(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(defaultValue = "1") int minReports,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<IncidentDTO.Response> response = incidentService.getActiveSince(
+                since != null ? since : LocalDateTime.now().minusDays(1), eventType, minReports, limit);
+        return ResponseEntity.ok(ApiResponse.success("Incidents retrieved successfully", response));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<IncidentDTO.DetailResponse>> getById(@PathVariable Long id) {
+        IncidentDTO.DetailResponse response = incidentService.getById(id);
+        return ResponseEntity.ok(ApiResponse.success("Incident retrieved successfully", response));
+    }
+}
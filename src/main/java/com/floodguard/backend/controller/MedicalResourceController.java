@@ -0,0 +1,81 @@
+package com.floodguard.backend.controller;
+
+import com.floodguard.backend.dto.MedicalResourceDTO;
+import com.floodguard.backend.response.ApiResponse;
+import com.floodguard.backend.service.MedicalResourceService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/medical-resources")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class MedicalResourceController {
+
+    private final MedicalResourceService medicalResourceService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<MedicalResourceDTO.Response>> create(
+            @Valid @RequestBody MedicalResourceDTO.CreateRequest request) {
+        MedicalResourceDTO.Response response = medicalResourceService.create(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Medical resource created successfully", response));
+    }
+
+    /**
+     * k lực lượng y tế đang hoạt động gần điểm nhất.
+     * VD: ?longitude=106.75&latitude=10.85&specialization=Cấp cứu&k=3&maxDistance=5000
+     */
+    @GetMapping("/nearest")
+    public ResponseEntity<ApiResponse<MedicalResourceDTO.NearestResponse>> findNearest(
+            @RequestParam double longitude,
+            @RequestParam double latitude,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(defaultValue = "5") int k,
+            @RequestParam(required = false) Double maxDistance) {
+        MedicalResourceDTO.NearestResponse response = medicalResourceService.findNearest(
+                longitude, latitude, specialization, k, maxDistance);
+        return ResponseEntity.ok(ApiResponse.success("Nearest medical resources retrieved successfully", response));
+    }
+
+    /**
+     * Như /nearest cho một danh sách hộ dân (tối đa 1000), VD: các hộ cần cứu trợ của một sự cố
+     */
+    @PostMapping("/nearest/households")
+    public ResponseEntity<ApiResponse<MedicalResourceDTO.HouseholdNearestResponse>> findNearestForHouseholds(
+            @Valid @RequestBody MedicalResourceDTO.HouseholdNearestRequest request) {
+        MedicalResourceDTO.HouseholdNearestResponse response = medicalResourceService.findNearestForHouseholds(request);
+        return ResponseEntity.ok(ApiResponse.success("Nearest medical resources retrieved successfully", response));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<MedicalResourceDTO.Response>> getById(@PathVariable Long id) {
+        MedicalResourceDTO.Response response = medicalResourceService.getById(id);
+        return ResponseEntity.ok(ApiResponse.success("Medical resource retrieved successfully", response));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<MedicalResourceDTO.Response>> update(
+            @PathVariable Long id,
+            @Valid @RequestBody MedicalResourceDTO.UpdateRequest request) {
+        MedicalResourceDTO.Response response = medicalResourceService.update(id, request);
+        return ResponseEntity.ok(ApiResponse.success("Medical resource updated successfully", response));
+    }
+
+    @PatchMapping("/{id}/availability")
+    public ResponseEntity<ApiResponse<MedicalResourceDTO.Response>> setAvailability(
+            @PathVariable Long id,
+            @Valid @RequestBody MedicalResourceDTO.AvailabilityRequest request) {
+        MedicalResourceDTO.Response response = medicalResourceService.setAvailability(id, request.getIsActive());
+        return ResponseEntity.ok(ApiResponse.success("Medical resource availability updated successfully", response));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> delete(@PathVariable Long id) {
+        medicalResourceService.delete(id);
+        return ResponseEntity.ok(ApiResponse.success("Medical resource deleted successfully", null));
+    }
+}
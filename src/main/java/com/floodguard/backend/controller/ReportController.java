@@ -1,18 +1,28 @@
 package com.floodguard.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.floodguard.backend.dto.ReportDTO;
 import com.floodguard.backend.response.ApiResponse;
+import com.floodguard.backend.service.ReportBulkService;
 import com.floodguard.backend.service.ReportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -21,15 +31,55 @@ import java.util.Map;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportBulkService reportBulkService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity<ApiResponse<ReportDTO.Response>> create(
+    public ResponseEntity<ApiResponse<?>> create(
             @Valid @RequestBody ReportDTO.CreateRequest request) {
+        if (reportService.isAsyncIngestEnabled()) {
+            ReportDTO.AcceptedResponse accepted = reportService.submit(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Report accepted for processing", accepted));
+        }
         ReportDTO.Response response = reportService.create(request);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Report created successfully", response));
     }
 
+    // Import hàng loạt bằng COPY: Content-Type text/csv (có header) hoặc application/x-ndjson
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<ReportDTO.BulkImportResponse>> bulkImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        ReportDTO.BulkImportResponse response = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? reportBulkService.importNdjson(body)
+                : reportBulkService.importCsv(body);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Reports imported successfully", response));
+    }
+
+    @GetMapping(value = "/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = reportBulkService::exportCsv;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reports.csv\"")
+                .body(body);
+    }
+
+    /**
+     * Live feed thay cho việc poll /pending: event "report-created", "report-updated", "report-verified"
+     * (data = ReportDTO.Response) trong bbox; "resync" khi client đọc chậm và đã bị bỏ event, cần tải lại /pending.
+     * VD: /api/reports/feed?bbox=106.6,10.7,106.9,10.9&eventTypes=FLOOD,LANDSLIDE
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeFeed(
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) Set<String> eventTypes) {
+        return reportService.subscribeFeed(bbox != null ? parseBbox(bbox) : null, eventTypes);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ReportDTO.Response>> getById(@PathVariable Long id) {
         ReportDTO.Response response = reportService.getById(id);
@@ -42,6 +92,30 @@ public class ReportController {
         return ResponseEntity.ok(ApiResponse.success("Reports retrieved successfully", responses));
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<ReportDTO.PageResponse>> getPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        ReportDTO.PageResponse response = reportService.getPage(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("Reports retrieved successfully", response));
+    }
+
+    // NDJSON: mỗi dòng một ReportDTO.Response, ghi ra ngay khi đọc từ JDBC cursor
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = outputStream -> reportService.streamAll(response -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(response));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<ApiResponse<List<ReportDTO.Response>>> getByUserId(@PathVariable Long userId) {
         List<ReportDTO.Response> responses = reportService.getByUserId(userId);
@@ -66,9 +140,13 @@ public class ReportController {
         return ResponseEntity.ok(ApiResponse.success("Reports retrieved successfully", responses));
     }
 
+    // since: chỉ lấy report của đợt hiện tại (VD: ?since=2026-10-15T00:00:00), tránh quét cả các tháng cũ
     @GetMapping("/pending")
-    public ResponseEntity<ApiResponse<List<ReportDTO.Response>>> getPendingReports() {
-        List<ReportDTO.Response> responses = reportService.getPendingReports();
+    public ResponseEntity<ApiResponse<List<ReportDTO.Response>>> getPendingReports(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        List<ReportDTO.Response> responses = since != null
+                ? reportService.getPendingReports(since)
+                : reportService.getPendingReports();
         return ResponseEntity.ok(ApiResponse.success("Pending reports retrieved successfully", responses));
     }
 
@@ -89,6 +167,20 @@ public class ReportController {
         return ResponseEntity.ok(ApiResponse.success("Nearby reports retrieved successfully", responses));
     }
 
+    // bbox = minLon,minLat,maxLon,maxLat
+    @GetMapping("/heatmap")
+    public ResponseEntity<ApiResponse<ReportDTO.HeatmapResponse>> getHeatmap(
+            @RequestParam String bbox,
+            @RequestParam int zoom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String eventType) {
+        double[] box = parseBbox(bbox);
+        ReportDTO.HeatmapResponse response = reportService.getHeatmap(box[0], box[1], box[2], box[3], zoom,
+                from, to, eventType);
+        return ResponseEntity.ok(ApiResponse.success("Heatmap retrieved successfully", response));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ReportDTO.Response>> update(
             @PathVariable Long id,
@@ -105,6 +197,14 @@ public class ReportController {
         return ResponseEntity.ok(ApiResponse.success("Report verification status updated", response));
     }
 
+    // Xác minh hàng loạt: {"reports":[{"reportId":1,"version":0}, ...]} hoặc bộ lọc bbox / from-to / incidentId
+    @PatchMapping("/verify")
+    public ResponseEntity<ApiResponse<ReportDTO.BulkVerifyResponse>> bulkVerify(
+            @Valid @RequestBody ReportDTO.BulkVerifyRequest request) {
+        ReportDTO.BulkVerifyResponse response = reportBulkService.verify(request);
+        return ResponseEntity.ok(ApiResponse.success("Reports verification status updated", response));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> delete(@PathVariable Long id) {
         reportService.delete(id);
@@ -123,4 +223,28 @@ public class ReportController {
         Map<String, Long> stats = reportService.getCountByVerifyStatus();
         return ResponseEntity.ok(ApiResponse.success("Statistics retrieved successfully", stats));
     }
+
+    // VD: /api/reports/statistics/time-series?granularity=HOUR&from=2026-10-01T00:00:00&areaCode=HCM-Q1&eventType=FLOOD
+    @GetMapping("/statistics/time-series")
+    public ResponseEntity<ApiResponse<ReportDTO.TimeSeriesResponse>> getTimeSeries(
+            @RequestParam(defaultValue = "HOUR") String granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String areaCode,
+            @RequestParam(required = false) String eventType) {
+        ReportDTO.TimeSeriesResponse series = reportService.getTimeSeries(granularity, from, to, areaCode, eventType);
+        return ResponseEntity.ok(ApiResponse.success("Statistics retrieved successfully", series));
+    }
+
+    private double[] parseBbox(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        double[] values = new double[4];
+        for (int i = 0; i < 4; i++) {
+            values[i] = Double.parseDouble(parts[i].trim());
+        }
+        return values;
+    }
 }
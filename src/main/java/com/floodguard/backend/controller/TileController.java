@@ -0,0 +1,44 @@
+package com.floodguard.backend.controller;
+
+import com.floodguard.backend.dto.TileDTO;
+import com.floodguard.backend.service.TileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/tiles")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class TileController {
+
+    private static final MediaType MVT = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
+    private final TileService tileService;
+
+    /**
+     * Mapbox Vector Tile cho layer reports | infrastructure | households
+     * GET /api/tiles/{layer}/{z}/{x}/{y}.mvt
+     */
+    @GetMapping("/{layer}/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getTile(
+            @PathVariable String layer,
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y,
+            WebRequest request) {
+        TileDTO.Tile tile = tileService.getTile(layer, z, x, y);
+        if (request.checkNotModified(tile.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tile.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MVT)
+                .eTag(tile.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(tile.getData());
+    }
+}
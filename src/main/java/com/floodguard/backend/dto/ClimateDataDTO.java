@@ -0,0 +1,117 @@
+package com.floodguard.backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ClimateDataDTO {
+
+    // Một dòng NDJSON: {"recordDate":"2026-10-17T08:00:00","type":"TIDE","value":1.62,"isForecast":false}
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Reading {
+        private LocalDateTime recordDate;
+        private String type; // RAIN, TIDE
+        private Double value;
+        private Boolean isForecast;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        private Long dataId;
+        private LocalDateTime recordDate;
+        private String type;
+        private Double value;
+        private Boolean isForecast;
+        private String description;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IngestResponse {
+        // Đã vào buffer, sẽ được ghi xuống DB trong vài trăm ms
+        private long accepted;
+        // Bỏ qua do thiếu record_date, type không hợp lệ hoặc value không phải số hữu hạn
+        private long rejected;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IngestSecond {
+        private LocalDateTime second;
+        private long accepted;
+        private long written;
+        private long batches;
+        // Độ trễ từ lúc nhận reading đến lúc batch chứa nó commit
+        private double p50LatencyMs;
+        private double p99LatencyMs;
+        private double maxLatencyMs;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IngestMetrics {
+        private int bufferCapacity;
+        private int bufferSize;
+        private long totalAccepted;
+        private long totalRejected;
+        private long totalWritten;
+        private long totalFailed;
+        // 60 giây gần nhất, cũ nhất trước
+        private List<IngestSecond> lastSeconds;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AnalogDay {
+        private LocalDate day;
+        private Double maxTide;
+        private Double totalRain;
+        private Integer floodReports;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AnalogReport {
+        private Long reportId;
+        private LocalDateTime reportTime;
+        private String description;
+        private String imageUrl;
+        private Integer damageLevel;
+        private Double longitude;
+        private Double latitude;
+        // Đỉnh triều / tổng mưa của ngày report được gửi
+        private Double dayValue;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AnalogResponse {
+        private String type;
+        private Double value;
+        private Double tolerance;
+        // Gần giá trị cần tìm nhất trước
+        private List<AnalogDay> days;
+        // Mới nhất trước
+        private List<AnalogReport> reports;
+    }
+}
@@ -1,8 +1,13 @@
 package com.floodguard.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.floodguard.backend.util.GeometryEncoder;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
+import java.util.List;
+
 public class HistoricalDataDTO {
 
     @Data
@@ -43,5 +48,61 @@ public class HistoricalDataDTO {
         private String alertLevel;
         private String impactSummary;
         private String referenceGeomWkt;
+
+        // Chỉ có khi client chọn geometry=wkb|twkb|geojson, khi đó referenceGeomWkt = null
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String geometryEncoding;
+
+        // Base64 (wkb, twkb) hoặc object GeoJSON {type, coordinates}
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Object referenceGeom;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GeometryOptions {
+        @Builder.Default
+        private GeometryEncoder.Format format = GeometryEncoder.Format.WKT;
+
+        // Số chữ số thập phân cho twkb/geojson (6 ≈ 0.1 m)
+        @Builder.Default
+        private int precision = 6;
+
+        // Mức zoom bản đồ để đơn giản hoá polygon, null = giữ nguyên
+        private Integer zoom;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PointQuery {
+        @NotNull(message = "Longitude is required")
+        private Double longitude;
+
+        @NotNull(message = "Latitude is required")
+        private Double latitude;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PointsRequest {
+        @NotEmpty(message = "Points are required")
+        @Size(max = 10000, message = "At most 10000 points per request")
+        private List<@Valid PointQuery> points;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PointMatch {
+        private Double longitude;
+        private Double latitude;
+        private List<Long> historyIds;
     }
 }
@@ -0,0 +1,116 @@
+package com.floodguard.backend.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.List;
+
+public class HouseholdDTO {
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CreateRequest {
+
+        private Long userId;
+
+        @NotBlank(message = "Address is required")
+        private String address;
+
+        @Min(value = 1, message = "Number of people must be at least 1")
+        private Integer numPeople;
+
+        private Boolean hasElderly;
+        private Boolean hasChildren;
+        private Boolean hasSickPerson;
+        private Boolean hasPregnant;
+
+        @Min(value = 1, message = "Number of floors must be at least 1")
+        private Integer numFloors;
+
+        private String businessType;
+        private String assetDescription;
+
+        @NotNull(message = "Longitude is required")
+        private Double longitude;
+
+        @NotNull(message = "Latitude is required")
+        private Double latitude;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UpdateRequest {
+        private String address;
+
+        @Min(value = 1, message = "Number of people must be at least 1")
+        private Integer numPeople;
+
+        private Boolean hasElderly;
+        private Boolean hasChildren;
+        private Boolean hasSickPerson;
+        private Boolean hasPregnant;
+
+        @Min(value = 1, message = "Number of floors must be at least 1")
+        private Integer numFloors;
+
+        private String businessType;
+        private String assetDescription;
+        private Double longitude;
+        private Double latitude;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        private Long householdId;
+        private Long userId;
+        private String address;
+        private Integer numPeople;
+        private Boolean hasElderly;
+        private Boolean hasChildren;
+        private Boolean hasSickPerson;
+        private Boolean hasPregnant;
+        private Integer numFloors;
+        private String businessType;
+        private String assetDescription;
+        private Double longitude;
+        private Double latitude;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RescueCandidate {
+        private Long householdId;
+        private String address;
+        private Integer numPeople;
+        private Boolean hasElderly;
+        private Boolean hasChildren;
+        private Boolean hasSickPerson;
+        private Boolean hasPregnant;
+        private Integer numFloors;
+        private Double distanceMeters;
+        // Càng cao càng cần ưu tiên, xem HouseholdPriorityIndex.pack
+        private Integer priorityScore;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RescuePriorityResponse {
+        private Double longitude;
+        private Double latitude;
+        private Double radiusMeters;
+        // Tổng số hộ thoả điều kiện, có thể lớn hơn số phần tử households (bị cắt theo limit)
+        private Integer totalMatched;
+        private List<RescueCandidate> households;
+    }
+}
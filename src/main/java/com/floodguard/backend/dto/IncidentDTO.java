@@ -0,0 +1,36 @@
+package com.floodguard.backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class IncidentDTO {
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        private Long incidentId;
+        private String eventType;
+        // Tâm các report thành viên
+        private Double longitude;
+        private Double latitude;
+        private LocalDateTime firstReportAt;
+        private LocalDateTime lastReportAt;
+        private Long reportCount;
+        private Long unverifiedCount;
+        private Integer maxDamageLevel;
+        private Double avgDamageLevel;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DetailResponse {
+        private Response incident;
+        private List<ReportDTO.Response> reports;
+    }
+}
@@ -0,0 +1,153 @@
+package com.floodguard.backend.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.List;
+
+public class MedicalResourceDTO {
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CreateRequest {
+
+        @NotBlank(message = "Name is required")
+        @Size(max = 150, message = "Name must be at most 150 characters")
+        private String name;
+
+        // STATION, CLINIC, PHARMACY, DOCTOR
+        private String type;
+
+        @Size(max = 15, message = "Contact phone must be at most 15 characters")
+        private String contactPhone;
+
+        @Size(max = 100, message = "Specialization must be at most 100 characters")
+        private String specialization;
+
+        private Boolean isActive;
+
+        @NotNull(message = "Longitude is required")
+        private Double longitude;
+
+        @NotNull(message = "Latitude is required")
+        private Double latitude;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UpdateRequest {
+
+        @Size(max = 150, message = "Name must be at most 150 characters")
+        private String name;
+
+        private String type;
+
+        @Size(max = 15, message = "Contact phone must be at most 15 characters")
+        private String contactPhone;
+
+        @Size(max = 100, message = "Specialization must be at most 100 characters")
+        private String specialization;
+
+        private Boolean isActive;
+        private Double longitude;
+        private Double latitude;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AvailabilityRequest {
+
+        @NotNull(message = "isActive is required")
+        private Boolean isActive;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        private Long resourceId;
+        private String name;
+        private String type;
+        private String contactPhone;
+        private String specialization;
+        private Boolean isActive;
+        private Double longitude;
+        private Double latitude;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NearestResource {
+        private Long resourceId;
+        private String name;
+        private String type;
+        private String contactPhone;
+        private String specialization;
+        private Double longitude;
+        private Double latitude;
+        private Double distanceMeters;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NearestResponse {
+        private Double longitude;
+        private Double latitude;
+        private String specialization;
+        // Gần nhất trước
+        private List<NearestResource> resources;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HouseholdNearestRequest {
+
+        @NotEmpty(message = "householdIds is required")
+        @Size(max = 1000, message = "At most 1000 households per request")
+        private List<Long> householdIds;
+
+        private String specialization;
+
+        @Min(value = 1, message = "k must be at least 1")
+        @Max(value = 50, message = "k must be at most 50")
+        private Integer k;
+
+        @Positive(message = "maxDistance must be positive")
+        private Double maxDistance;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HouseholdNearest {
+        private Long householdId;
+        private String address;
+        private List<NearestResource> resources;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HouseholdNearestResponse {
+        private String specialization;
+        // Theo thứ tự householdIds của request
+        private List<HouseholdNearest> households;
+        // Id không tồn tại hoặc hộ chưa có toạ độ
+        private List<Long> notFound;
+    }
+}
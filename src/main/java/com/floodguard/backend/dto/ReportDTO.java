@@ -1,9 +1,11 @@
 package com.floodguard.backend.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class ReportDTO {
 
@@ -59,6 +61,81 @@ public class ReportDTO {
     public static class VerifyRequest {
         @NotBlank(message = "Verify status is required")
         private String verifyStatus; // PENDING | VERIFIED | PROCESSED
+
+        private String adminNote;
+
+        // Version client đã đọc; khác version hiện tại (người khác vừa xác minh) → 409
+        private Integer version;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkVerifyTarget {
+        @NotNull(message = "Report id is required")
+        private Long reportId;
+
+        // null = không kiểm tra xung đột cho report này
+        private Integer version;
+    }
+
+    /**
+     * Chọn report theo danh sách id (reports) hoặc theo bộ lọc không gian / thời gian, không dùng cả hai
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkVerifyRequest {
+        @Valid
+        @Size(max = 10000, message = "At most 10000 reports per request")
+        private List<BulkVerifyTarget> reports;
+
+        private Long incidentId;
+        private Double minLongitude;
+        private Double minLatitude;
+        private Double maxLongitude;
+        private Double maxLatitude;
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private String eventType;
+
+        // Chỉ cập nhật report đang ở trạng thái này; mặc định UNVERIFIED khi dùng bộ lọc
+        private String expectedStatus;
+
+        @NotBlank(message = "Verify status is required")
+        private String verifyStatus;
+
+        private String adminNote;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkVerifyConflict {
+        private Long reportId;
+        private String currentStatus;
+        private Integer currentVersion;
+        private Long verifiedBy;
+        private LocalDateTime verifiedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkVerifyResponse {
+        private String verifyStatus;
+        private int updatedCount;
+        private List<Response> updated;
+        // Report đã bị người khác thay đổi (version / trạng thái không khớp), không được cập nhật
+        private List<BulkVerifyConflict> conflicts;
+        private List<Long> notFound;
+        // Bộ lọc khớp nhiều report hơn giới hạn một lần: gọi lại để xử lý tiếp
+        private boolean hasMore;
+        private long elapsedMs;
     }
 
     @Data
@@ -79,5 +156,84 @@ public class ReportDTO {
         private String imageUrl;
         private Integer damageLevel;
         private String verifyStatus;
+        private Long incidentId;
+        private Integer version;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PageResponse {
+        private List<Response> items;
+        // Opaque keyset cursor (created_at, report_id) of the last item, null on the last page
+        private String nextCursor;
+        private boolean hasMore;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HeatmapCell {
+        private Double longitude;
+        private Double latitude;
+        private Long count;
+        private Integer maxDamageLevel;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HeatmapResponse {
+        private Double cellSize;
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private List<HeatmapCell> cells;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AcceptedResponse {
+        // Id tạm thời, report_id thật được cấp khi batch được ghi xuống DB
+        private String provisionalId;
+        private LocalDateTime acceptedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkImportResponse {
+        private long rowsImported;
+        private long elapsedMs;
+        private double rowsPerSecond;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimeSeriesPoint {
+        private LocalDateTime bucketStart;
+        private long count;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimeSeriesResponse {
+        private String granularity; // HOUR | DAY
+        private String areaCode;
+        private String eventType;
+        // [from, to): biên bucket chứa from / to của request
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private long total;
+        private List<TimeSeriesPoint> points;
     }
 }
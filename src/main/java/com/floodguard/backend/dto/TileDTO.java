@@ -0,0 +1,15 @@
+package com.floodguard.backend.dto;
+
+import lombok.*;
+
+public class TileDTO {
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tile {
+        private byte[] data;
+        private String etag;
+    }
+}
@@ -0,0 +1,70 @@
+package com.floodguard.backend.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.locationtech.jts.geom.Point;
+
+/**
+ * Thay đổi dữ liệu gửi qua pg_notify cho các node khác (payload JSON ~100 byte, giới hạn của NOTIFY là 8000).
+ * Chỉ mang id và toạ độ: node nhận tự đọc lại bản ghi nếu cần.
+ *
+ * @param id     null = thay đổi hàng loạt (VD: bulk import), node nhận làm mới toàn bộ
+ * @param origin node đã ghi, node đó bỏ qua notification của chính mình
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEvent(Entity entity, Action action, Long id, Double longitude, Double latitude,
+                          Double previousLongitude, Double previousLatitude, String origin) {
+
+    public enum Entity {
+        REPORT,
+        LOCATION,
+        HISTORICAL_DATA,
+        HOUSEHOLD,
+        MEDICAL_RESOURCE
+    }
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        VERIFIED,
+        DELETED,
+        // Kết nối LISTEN vừa được nối lại, có thể đã lỡ notification: làm mới mọi cache
+        RESYNC
+    }
+
+    public static ChangeEvent of(Entity entity, Action action, Long id) {
+        return new ChangeEvent(entity, action, id, null, null, null, null, null);
+    }
+
+    public static ChangeEvent of(Entity entity, Action action, Long id, Point point) {
+        return of(entity, action, id, point, null);
+    }
+
+    // Đường ghi bằng SQL (ingest queue) chỉ có toạ độ, không có Point
+    public static ChangeEvent of(Entity entity, Action action, Long id, Double longitude, Double latitude) {
+        return new ChangeEvent(entity, action, id, longitude, latitude, null, null, null);
+    }
+
+    // previous: toạ độ cũ khi bản ghi bị dời chỗ, để node khác xoá cả tile cũ
+    public static ChangeEvent of(Entity entity, Action action, Long id, Point point, Point previous) {
+        boolean moved = previous != null && point != null && !previous.equalsExact(point);
+        return new ChangeEvent(entity, action, id,
+                point != null ? point.getX() : null, point != null ? point.getY() : null,
+                moved ? previous.getX() : null, moved ? previous.getY() : null, null);
+    }
+
+    static ChangeEvent resync() {
+        return new ChangeEvent(null, Action.RESYNC, null, null, null, null, null, null);
+    }
+
+    ChangeEvent withOrigin(String node) {
+        return new ChangeEvent(entity, action, id, longitude, latitude, previousLongitude, previousLatitude, node);
+    }
+
+    public boolean hasLocation() {
+        return longitude != null && latitude != null;
+    }
+
+    public boolean hasPreviousLocation() {
+        return previousLongitude != null && previousLatitude != null;
+    }
+}
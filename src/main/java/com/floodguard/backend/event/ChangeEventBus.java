@@ -0,0 +1,218 @@
+package com.floodguard.backend.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node change events over PostgreSQL LISTEN/NOTIFY, so the in-memory indexes, tile cache and live feed
+ * of every backend instance follow writes made on the others without extra infrastructure.
+ * <p>
+ * publish() runs pg_notify on the writing transaction's connection: PostgreSQL delivers the notification only
+ * when that transaction commits and drops it on rollback. Each node keeps one dedicated connection (outside the
+ * Hikari pool) that LISTENs on the channel; notifications from other nodes are re-published in-process as
+ * {@link ChangeEvent} application events (see RemoteChangeApplier). After a reconnect a RESYNC event is
+ * published because notifications sent while disconnected are lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeEventBus {
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${events.bus.enabled:true}")
+    private boolean enabled;
+
+    @Value("${events.bus.channel:floodguard_changes}")
+    private String channel;
+
+    @Value("${events.bus.reconnect-ms:2000}")
+    private long reconnectMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private Thread listener;
+    private volatile Connection connection;
+    private volatile boolean running;
+
+    /**
+     * Gửi event cho các node khác khi transaction hiện tại commit (không có transaction thì gửi ngay)
+     */
+    public void publish(ChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event.withOrigin(nodeId));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    /**
+     * Như publish() cho nhiều event trong một câu lệnh (VD: một batch của ingest queue)
+     */
+    public void publishAll(List<ChangeEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+        String[] payloads = new String[events.size()];
+        try {
+            for (int i = 0; i < payloads.length; i++) {
+                payloads[i] = objectMapper.writeValueAsString(events.get(i).withOrigin(nodeId));
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, payload) FROM unnest(?) AS payload",
+                (PreparedStatementSetter) ps -> {
+                    ps.setString(1, channel);
+                    ps.setArray(2, ps.getConnection().createArrayOf("text", payloads));
+                }, rs -> null);
+    }
+
+    // Chạy trước khi các index load (Ordered mặc định) để không lỡ thay đổi xảy ra trong lúc load
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("events.bus.channel must be a lowercase SQL identifier: " + channel);
+        }
+        running = true;
+        try {
+            connection = listen();
+        } catch (SQLException e) {
+            log.warn("Change event listener not connected, retrying in background: {}", e.getMessage());
+        }
+        listener = new Thread(this::runListener, "change-event-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (listener == null) {
+            return;
+        }
+        running = false;
+        listener.join(TimeUnit.SECONDS.toMillis(5));
+        closeQuietly(connection);
+    }
+
+    private void runListener() {
+        boolean resync = connection == null;
+        while (running) {
+            try {
+                if (connection == null) {
+                    connection = listen();
+                    log.info("Change event listener reconnected to channel {}", channel);
+                    if (resync) {
+                        dispatch(ChangeEvent.resync());
+                    }
+                }
+                PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(POLL_TIMEOUT_MS);
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Change event listener disconnected, reconnecting in {} ms: {}", reconnectMs, e.getMessage());
+                closeQuietly(connection);
+                connection = null;
+                resync = true;
+                try {
+                    Thread.sleep(reconnectMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection listen() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        properties.setProperty("password", dataSourceProperties.determinePassword());
+        // Phát hiện kết nối chết thay vì chờ notification mãi
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("connectTimeout", "5");
+        properties.setProperty("ApplicationName", "floodguard-change-listener");
+        Connection listening = DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+        try (Statement statement = listening.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        } catch (SQLException e) {
+            closeQuietly(listening);
+            throw e;
+        }
+        return listening;
+    }
+
+    private void receive(String payload) {
+        try {
+            ChangeEvent event = objectMapper.readValue(payload, ChangeEvent.class);
+            if (!nodeId.equals(event.origin())) {
+                dispatch(event);
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed change event {}: {}", payload, e.getOriginalMessage());
+        }
+    }
+
+    private void dispatch(ChangeEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Applying change event {} failed: {}", event, e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Closing change event listener connection failed: {}", e.getMessage());
+        }
+    }
+}
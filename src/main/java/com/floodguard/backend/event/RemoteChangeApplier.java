@@ -0,0 +1,152 @@
+package com.floodguard.backend.event;
+
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.exception.ResourceNotFoundException;
+import com.floodguard.backend.feed.ReportFeedHub;
+import com.floodguard.backend.incident.IncidentClusterer;
+import com.floodguard.backend.repository.HistoricalDataRepository;
+import com.floodguard.backend.repository.HouseholdRepository;
+import com.floodguard.backend.repository.LocationRepository;
+import com.floodguard.backend.repository.MedicalResourceRepository;
+import com.floodguard.backend.service.ReportService;
+import com.floodguard.backend.service.TileService;
+import com.floodguard.backend.spatial.HistoricalDataSpatialIndex;
+import com.floodguard.backend.spatial.HouseholdPriorityIndex;
+import com.floodguard.backend.spatial.LocationSpatialIndex;
+import com.floodguard.backend.spatial.MedicalResourceIndex;
+import com.floodguard.backend.stats.ReportHeatmapCache;
+import com.floodguard.backend.stats.ReportStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Áp dụng thay đổi do node khác ghi (nhận qua ChangeEventBus) vào cache trong bộ nhớ của node này:
+ * spatial index, tile cache, live feed và thống kê report. Chạy trên thread listener, mỗi event một lần.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RemoteChangeApplier {
+
+    private final LocationSpatialIndex locationSpatialIndex;
+    private final HistoricalDataSpatialIndex historicalDataSpatialIndex;
+    private final HouseholdPriorityIndex householdPriorityIndex;
+    private final MedicalResourceIndex medicalResourceIndex;
+    private final LocationRepository locationRepository;
+    private final HistoricalDataRepository historicalDataRepository;
+    private final HouseholdRepository householdRepository;
+    private final MedicalResourceRepository medicalResourceRepository;
+    private final TileService tileService;
+    private final ReportService reportService;
+    private final ReportFeedHub reportFeedHub;
+    private final IncidentClusterer incidentClusterer;
+    private final ReportHeatmapCache reportHeatmapCache;
+    private final ReportStatistics reportStatistics;
+
+    @EventListener
+    public void onRemoteChange(ChangeEvent event) {
+        if (event.action() == ChangeEvent.Action.RESYNC) {
+            resync();
+            return;
+        }
+        switch (event.entity()) {
+            case REPORT -> applyReport(event);
+            case LOCATION -> {
+                if (event.action() == ChangeEvent.Action.DELETED) {
+                    locationSpatialIndex.remove(event.id());
+                } else {
+                    locationRepository.findById(event.id()).ifPresent(locationSpatialIndex::put);
+                }
+            }
+            case HISTORICAL_DATA -> {
+                if (event.action() == ChangeEvent.Action.DELETED) {
+                    historicalDataSpatialIndex.remove(event.id());
+                } else {
+                    historicalDataRepository.findById(event.id()).ifPresent(historicalDataSpatialIndex::put);
+                }
+            }
+            case HOUSEHOLD -> {
+                if (event.action() == ChangeEvent.Action.DELETED) {
+                    householdPriorityIndex.remove(event.id());
+                } else {
+                    householdRepository.findById(event.id()).ifPresent(householdPriorityIndex::put);
+                }
+                invalidateTiles(TileService.LAYER_HOUSEHOLDS, event);
+            }
+            case MEDICAL_RESOURCE -> {
+                if (event.action() == ChangeEvent.Action.DELETED) {
+                    medicalResourceIndex.remove(event.id());
+                } else {
+                    medicalResourceRepository.findById(event.id()).ifPresent(medicalResourceIndex::put);
+                }
+            }
+        }
+    }
+
+    private void applyReport(ChangeEvent event) {
+        invalidateTiles(TileService.LAYER_REPORTS, event);
+        invalidateHeatmap(event);
+        // Event chỉ mang id và toạ độ, không đủ để cập nhật bộ đếm tại chỗ: đối soát lại (gom nhiều event một lần)
+        reportStatistics.requestRemoteReconcile();
+        // Report mới của node khác: đưa sự cố của nó vào lưới gom cụm của node này
+        boolean cluster = event.action() == ChangeEvent.Action.CREATED && incidentClusterer.isEnabled();
+        boolean publish = reportFeedHub.getSubscriberCount() > 0;
+        if (event.id() == null || event.action() == ChangeEvent.Action.DELETED || !(cluster || publish)) {
+            return;
+        }
+        String feedEvent = switch (event.action()) {
+            case CREATED -> ReportFeedHub.REPORT_CREATED;
+            case VERIFIED -> ReportFeedHub.REPORT_VERIFIED;
+            default -> ReportFeedHub.REPORT_UPDATED;
+        };
+        try {
+            ReportDTO.Response report = reportService.getById(event.id());
+            if (cluster && report.getIncidentId() != null && report.getLongitude() != null) {
+                incidentClusterer.track(report.getIncidentId(), report.getEventType(), report.getLongitude(),
+                        report.getLatitude(), report.getReportTime());
+            }
+            if (publish) {
+                reportFeedHub.publish(feedEvent, report);
+            }
+        } catch (ResourceNotFoundException e) {
+            // Đã bị xoá ngay sau đó, event DELETED sẽ tới sau
+            log.debug("Report {} no longer exists, not forwarded to live feed", event.id());
+        }
+    }
+
+    private void invalidateHeatmap(ChangeEvent event) {
+        if (event.id() == null) {
+            reportHeatmapCache.invalidateAll();
+        } else if (event.hasLocation()) {
+            reportHeatmapCache.invalidatePoint(event.longitude(), event.latitude());
+        }
+    }
+
+    private void invalidateTiles(String layer, ChangeEvent event) {
+        if (event.id() == null) {
+            tileService.invalidateLayer(layer);
+            return;
+        }
+        if (event.hasLocation()) {
+            tileService.invalidatePoint(layer, event.longitude(), event.latitude());
+        }
+        if (event.hasPreviousLocation()) {
+            tileService.invalidatePoint(layer, event.previousLongitude(), event.previousLatitude());
+        }
+    }
+
+    private void resync() {
+        log.info("Reloading in-memory indexes and tile cache after change event listener reconnect");
+        locationSpatialIndex.load();
+        historicalDataSpatialIndex.load();
+        householdPriorityIndex.load();
+        medicalResourceIndex.load();
+        tileService.invalidateLayer(TileService.LAYER_REPORTS);
+        reportHeatmapCache.invalidateAll();
+        reportStatistics.requestReconcile();
+        tileService.invalidateLayer(TileService.LAYER_INFRASTRUCTURE);
+        tileService.invalidateLayer(TileService.LAYER_HOUSEHOLDS);
+    }
+}
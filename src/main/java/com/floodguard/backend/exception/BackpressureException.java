@@ -0,0 +1,18 @@
+package com.floodguard.backend.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an ingestion queue is full; mapped to 503 with a Retry-After header
+ */
+@Getter
+public class BackpressureException extends CustomException {
+
+    private final long retryAfterSeconds;
+
+    public BackpressureException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
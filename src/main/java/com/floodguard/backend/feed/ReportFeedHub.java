@@ -0,0 +1,362 @@
+package com.floodguard.backend.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.exception.BackpressureException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events fan-out of report changes (GET /api/reports/feed).
+ * <p>
+ * Each subscriber registers a bbox and an optional event-type filter. Subscriptions are indexed by ~1 km grid
+ * cell (very large or missing bboxes go to a short "wide" list), so publishing an event only looks at the
+ * subscribers of the report's cell. The event is serialized once and offered to a bounded per-client queue;
+ * when a client falls behind its oldest events are dropped and it receives a "resync" event telling it to
+ * reload /api/reports/pending. A few dispatcher threads drain the queues and write to the emitters, so neither
+ * the publishing request thread nor the 10k idle connections hold a thread.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportFeedHub {
+
+    public static final String REPORT_CREATED = "report-created";
+    public static final String REPORT_UPDATED = "report-updated";
+    public static final String REPORT_VERIFIED = "report-verified";
+    public static final String RESYNC = "resync";
+
+    private static final double CELL_DEGREES = 0.01;
+    // bbox phủ nhiều ô hơn (cỡ cả thành phố) thì để vào danh sách wide thay vì đăng ký từng ô
+    private static final long MAX_CELLS_PER_SUBSCRIPTION = 1024;
+    private static final int MAX_EVENTS_PER_FLUSH = 64;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${reports.feed.max-subscribers:20000}")
+    private int maxSubscribers;
+
+    @Value("${reports.feed.client-queue-capacity:256}")
+    private int clientQueueCapacity;
+
+    @Value("${reports.feed.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${reports.feed.heartbeat-seconds:20}")
+    private long heartbeatSeconds;
+
+    @Value("${reports.feed.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${reports.feed.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    private final ConcurrentHashMap<Long, Set<Subscription>> cells = new ConcurrentHashMap<>();
+    private final Set<Subscription> wide = ConcurrentHashMap.newKeySet();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong subscriptionIds = new AtomicLong();
+    private final BlockingQueue<Subscription> ready = new LinkedBlockingQueue<>();
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private ScheduledExecutorService heartbeat;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < dispatchThreads; i++) {
+            Thread dispatcher = new Thread(this::runDispatcher, "report-feed-dispatcher-" + i);
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+            dispatchers.add(dispatcher);
+        }
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        heartbeat.shutdownNow();
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        subscriptions.forEach(Subscription::close);
+    }
+
+    /**
+     * @param bbox       null = mọi report (kể cả report không có toạ độ)
+     * @param eventTypes null hoặc rỗng = mọi loại sự kiện
+     */
+    public SseEmitter subscribe(Envelope bbox, Set<String> eventTypes) {
+        return subscribe(new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes)), bbox, eventTypes);
+    }
+
+    // Đăng ký với emitter do caller tạo (timeout riêng, hoặc emitter giả trong test / benchmark)
+    public SseEmitter subscribe(SseEmitter emitter, Envelope bbox, Set<String> eventTypes) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new BackpressureException("Too many live feed subscribers, please retry later", retryAfterSeconds);
+        }
+        Subscription subscription = new Subscription(subscriptionIds.incrementAndGet(), bbox,
+                eventTypes == null || eventTypes.isEmpty() ? null : Set.copyOf(eventTypes), emitter,
+                new ArrayBlockingQueue<>(clientQueueCapacity));
+        register(subscription);
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(error -> unregister(subscription));
+        // Comment đầu tiên để header được flush ngay, client biết kết nối đã sẵn sàng
+        subscription.offer(FeedEvent.HEARTBEAT);
+        return emitter;
+    }
+
+    public void publish(String eventName, ReportDTO.Response report) {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        LazyEvent event = new LazyEvent(eventName, report);
+        Double longitude = report.getLongitude();
+        Double latitude = report.getLatitude();
+        if (longitude != null && latitude != null) {
+            Set<Subscription> cell = cells.get(cellKey(col(longitude), row(latitude)));
+            if (cell != null) {
+                for (Subscription subscription : cell) {
+                    deliver(subscription, event, longitude, latitude, report.getEventType());
+                }
+            }
+        }
+        for (Subscription subscription : wide) {
+            deliver(subscription, event, longitude, latitude, report.getEventType());
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void deliver(Subscription subscription, LazyEvent event, Double longitude, Double latitude,
+                         String eventType) {
+        if (subscription.matches(longitude, latitude, eventType)) {
+            subscription.offer(event.get());
+        }
+    }
+
+    private void register(Subscription subscription) {
+        subscriptions.add(subscription);
+        Envelope bbox = subscription.bbox();
+        if (bbox == null || cellCount(bbox) > MAX_CELLS_PER_SUBSCRIPTION) {
+            wide.add(subscription);
+            return;
+        }
+        for (long row = row(bbox.getMinY()); row <= row(bbox.getMaxY()); row++) {
+            for (long col = col(bbox.getMinX()); col <= col(bbox.getMaxX()); col++) {
+                cells.computeIfAbsent(cellKey(col, row), key -> ConcurrentHashMap.newKeySet()).add(subscription);
+            }
+        }
+    }
+
+    private void unregister(Subscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        Envelope bbox = subscription.bbox();
+        if (!wide.remove(subscription) && bbox != null) {
+            for (long row = row(bbox.getMinY()); row <= row(bbox.getMaxY()); row++) {
+                for (long col = col(bbox.getMinX()); col <= col(bbox.getMaxX()); col++) {
+                    cells.computeIfPresent(cellKey(col, row), (key, members) -> {
+                        members.remove(subscription);
+                        return members.isEmpty() ? null : members;
+                    });
+                }
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscription subscription : subscriptions) {
+            // Chỉ cần khi client đang rảnh, không đẩy event thật ra khỏi queue
+            if (subscription.queue().isEmpty()) {
+                subscription.offer(FeedEvent.HEARTBEAT);
+            }
+        }
+    }
+
+    private void runDispatcher() {
+        while (running) {
+            try {
+                Subscription subscription = ready.poll(1, TimeUnit.SECONDS);
+                if (subscription != null) {
+                    subscription.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Report feed dispatch failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static long cellCount(Envelope bbox) {
+        return (row(bbox.getMaxY()) - row(bbox.getMinY()) + 1) * (col(bbox.getMaxX()) - col(bbox.getMinX()) + 1);
+    }
+
+    private static long col(double longitude) {
+        return (long) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    private static long row(double latitude) {
+        return (long) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    private static long cellKey(long col, long row) {
+        return row * 100_000 + col;
+    }
+
+    record FeedEvent(long id, String name, String json) {
+        static final FeedEvent HEARTBEAT = new FeedEvent(0, null, null);
+    }
+
+    // Chỉ serialize khi có ít nhất một subscriber nhận, và chỉ một lần cho mọi subscriber
+    private final class LazyEvent {
+        private final String name;
+        private final ReportDTO.Response report;
+        private FeedEvent event;
+
+        private LazyEvent(String name, ReportDTO.Response report) {
+            this.name = name;
+            this.report = report;
+        }
+
+        private FeedEvent get() {
+            if (event == null) {
+                try {
+                    event = new FeedEvent(sequence.incrementAndGet(), name, objectMapper.writeValueAsString(report));
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return event;
+        }
+    }
+
+    private final class Subscription {
+        private final long id;
+        private final Envelope bbox;
+        private final Set<String> eventTypes;
+        private final SseEmitter emitter;
+        private final BlockingQueue<FeedEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private Subscription(long id, Envelope bbox, Set<String> eventTypes, SseEmitter emitter,
+                             BlockingQueue<FeedEvent> queue) {
+            this.id = id;
+            this.bbox = bbox;
+            this.eventTypes = eventTypes;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        private Envelope bbox() {
+            return bbox;
+        }
+
+        private BlockingQueue<FeedEvent> queue() {
+            return queue;
+        }
+
+        private boolean matches(Double longitude, Double latitude, String eventType) {
+            if (eventTypes != null && !eventTypes.contains(eventType)) {
+                return false;
+            }
+            return bbox == null || (longitude != null && latitude != null && bbox.contains(longitude, latitude));
+        }
+
+        private void offer(FeedEvent event) {
+            // Client chậm: bỏ event cũ nhất, client sẽ nhận "resync" ở lần flush tới
+            while (!queue.offer(event)) {
+                if (queue.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                ready.add(this);
+            }
+        }
+
+        // Chỉ một dispatcher flush một subscription tại một thời điểm (cờ scheduled), nên thứ tự event được giữ
+        private void flush() {
+            try {
+                FeedEvent event;
+                int sent = 0;
+                while (sent++ < MAX_EVENTS_PER_FLUSH && (event = queue.poll()) != null) {
+                    long lost = dropped.getAndSet(0);
+                    if (lost > 0) {
+                        emitter.send(SseEmitter.event().name(RESYNC).data(lost));
+                    }
+                    if (event.name() == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.id()))
+                                .name(event.name())
+                                .data(event.json(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Report feed subscriber {} disconnected: {}", id, e.getMessage());
+                close();
+                return;
+            }
+            if (!queue.isEmpty()) {
+                // Còn event: xếp lại cuối hàng để các subscriber khác không phải chờ
+                ready.add(this);
+                return;
+            }
+            scheduled.set(false);
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                ready.add(this);
+            }
+        }
+
+        private void close() {
+            unregister(this);
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("Report feed subscriber {} already closed: {}", id, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.floodguard.backend.incident;
+
+import com.floodguard.backend.util.GeoUtil;
+import com.floodguard.backend.util.GeohashUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Online clustering of new reports into incidents (reports.incident_id).
+ * <p>
+ * Active incidents are kept in an in-memory grid of geohash cells, with the precision chosen so that a cell is
+ * at least reports.incidents.radius-meters high. A new report joins the nearest incident of the same event type
+ * whose first report lies within radius-meters and whose last report is at most window-minutes old; otherwise
+ * it opens a new incident. Incidents idle for longer than the window are evicted, so the grid only ever holds
+ * the incidents of the current event. Assignment is a handful of hash lookups under one lock; incident ids come
+ * from incident_id_seq in blocks of {@value #ID_BLOCK}, fetched before taking the lock, so the database is only
+ * hit once per block of new incidents and never while other assignments wait.
+ * <p>
+ * An assignment is tentative until the report is written: the caller confirms it after commit, or releases it on
+ * rollback, which drops an incident with no committed member and restores the last report time it moved. Pending
+ * assignments are visible to later ones, so reports of the same batch still join each other. Aggregates (member
+ * count, damage level...) are not kept here: they are read from the members. Incidents written by other nodes are
+ * fed in through {@link #track}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IncidentClusterer {
+
+    // Phải khớp INCREMENT BY của incident_id_seq trong database.sql
+    static final int ID_BLOCK = 50;
+
+    private static final double MIN_METERS_PER_DEGREE_LAT = 110574.0;
+
+    // Sự cố đang hoạt động: report đầu tiên + thời điểm report gần nhất
+    private static final String ACTIVE_INCIDENTS_SQL = "SELECT a.incident_id, f.event_type, " +
+            "ST_X(f.geom) AS longitude, ST_Y(f.geom) AS latitude, a.last_report_at " +
+            "FROM (SELECT incident_id, MAX(created_at) AS last_report_at FROM reports " +
+            "      WHERE incident_id IS NOT NULL AND created_at >= ? GROUP BY incident_id) a " +
+            "CROSS JOIN LATERAL (SELECT r.event_type, r.geom FROM reports r WHERE r.incident_id = a.incident_id " +
+            "      ORDER BY r.created_at, r.report_id LIMIT 1) f";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${reports.incidents.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reports.incidents.radius-meters:150}")
+    private double radiusMeters;
+
+    @Value("${reports.incidents.window-minutes:60}")
+    private long windowMinutes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Geohash của ô -> sự cố có report đầu tiên nằm trong ô, chỉ truy cập khi giữ lock
+    private final Map<Long, List<Incident>> cells = new HashMap<>();
+    private int activeIncidents;
+    // Ghi khi giữ lock; đọc không khoá chỉ để quyết định lấy block mới trước khi vào lock
+    private volatile long nextId;
+    private volatile long blockEnd;
+
+    private int precision;
+    private Duration window;
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    void init() {
+        window = Duration.ofMinutes(windowMinutes);
+        precision = precisionFor(radiusMeters);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        load(LocalDateTime.now());
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "incident-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> evictIdle(LocalDateTime.now()), 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gán tạm report mới vào sự cố gần nhất cùng loại trong bán kính / khoảng thời gian, hoặc mở sự cố mới.
+     * Người gọi phải {@link #confirm} sau khi commit hoặc {@link #release} khi report không được ghi.
+     *
+     * @return sự cố được gán, null khi tắt clustering
+     */
+    public Assignment assign(String eventType, double longitude, double latitude, LocalDateTime at) {
+        if (!enabled) {
+            return null;
+        }
+        // nextval chạy ngoài lock; block thừa (node khác / thread khác đã lấy trước) chỉ để lại khoảng trống id
+        Long freshBlock = nextId >= blockEnd ? fetchIdBlock() : null;
+        lock.lock();
+        try {
+            if (freshBlock != null && nextId >= blockEnd) {
+                nextId = freshBlock;
+                blockEnd = freshBlock + ID_BLOCK;
+            }
+            Incident nearest = findNearest(eventType, longitude, latitude, at);
+            if (nearest != null) {
+                LocalDateTime previous = nearest.lastReportAt;
+                if (at.isAfter(previous)) {
+                    nearest.lastReportAt = at;
+                }
+                nearest.pending++;
+                return new Assignment(nearest, false, previous, at);
+            }
+            Incident opened = new Incident(nextIncidentId(), eventType, longitude, latitude, at);
+            opened.confirmed = false;
+            opened.pending = 1;
+            add(opened);
+            return new Assignment(opened, true, null, at);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report của assignment đã commit
+     */
+    public void confirm(Assignment assignment) {
+        if (assignment == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            assignment.incident.pending--;
+            assignment.incident.confirmed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report của assignment không được ghi (rollback, dòng bị loại): bỏ sự cố chưa có report nào commit, trả lại
+     * thời điểm report gần nhất nếu chưa report nào khác đẩy nó đi tiếp
+     */
+    public void release(Assignment assignment) {
+        if (assignment == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            Incident incident = assignment.incident;
+            incident.pending--;
+            if (!incident.confirmed && incident.pending == 0) {
+                remove(incident);
+            } else if (!assignment.opened && incident.lastReportAt.equals(assignment.at)
+                    && assignment.previousLastReportAt.isBefore(assignment.at)) {
+                incident.lastReportAt = assignment.previousLastReportAt;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ghi nhận report đã được gán sự cố ở nơi khác (node khác): thêm sự cố nếu chưa có, cập nhật thời điểm gần nhất
+     */
+    public void track(long incidentId, String eventType, double longitude, double latitude, LocalDateTime at) {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            Incident known = find(incidentId, longitude, latitude);
+            if (known == null) {
+                add(new Incident(incidentId, eventType, longitude, latitude, at));
+            } else if (at.isAfter(known.lastReportAt)) {
+                known.lastReportAt = at;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveIncidentCount() {
+        lock.lock();
+        try {
+            return activeIncidents;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void load(LocalDateTime now) {
+        List<Incident> active = new ArrayList<>();
+        try {
+            jdbcTemplate.query(ACTIVE_INCIDENTS_SQL, rs -> {
+                active.add(new Incident(rs.getLong(1), rs.getString(2), rs.getDouble(3), rs.getDouble(4),
+                        rs.getTimestamp(5).toLocalDateTime()));
+            }, Timestamp.valueOf(now.minus(window)));
+        } catch (RuntimeException e) {
+            log.warn("Active incidents not loaded, clustering starts empty: {}", e.getMessage());
+            return;
+        }
+        lock.lock();
+        try {
+            cells.clear();
+            activeIncidents = 0;
+            active.forEach(this::add);
+        } finally {
+            lock.unlock();
+        }
+        log.info("Incident clusterer loaded {} active incidents (radius {} m, window {} min, geohash precision {})",
+                active.size(), radiusMeters, windowMinutes, precision);
+    }
+
+    void evictIdle(LocalDateTime now) {
+        LocalDateTime idleBefore = now.minus(window);
+        lock.lock();
+        try {
+            Iterator<List<Incident>> lists = cells.values().iterator();
+            while (lists.hasNext()) {
+                List<Incident> incidents = lists.next();
+                int before = incidents.size();
+                incidents.removeIf(incident -> incident.lastReportAt.isBefore(idleBefore));
+                activeIncidents -= before - incidents.size();
+                if (incidents.isEmpty()) {
+                    lists.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Incident findNearest(String eventType, double longitude, double latitude, LocalDateTime at) {
+        LocalDateTime idleBefore = at.minus(window);
+        Incident nearest = null;
+        double nearestMeters = Double.MAX_VALUE;
+        Envelope envelope = GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters);
+        long minX = GeohashUtil.cellX(envelope.getMinX(), precision);
+        long maxX = GeohashUtil.cellX(envelope.getMaxX(), precision);
+        long minY = GeohashUtil.cellY(envelope.getMinY(), precision);
+        long maxY = GeohashUtil.cellY(envelope.getMaxY(), precision);
+        for (long x = minX; x <= maxX; x++) {
+            for (long y = minY; y <= maxY; y++) {
+                List<Incident> incidents = cells.get(GeohashUtil.hash(x, y, precision));
+                if (incidents == null) {
+                    continue;
+                }
+                for (Incident incident : incidents) {
+                    if (!Objects.equals(incident.eventType, eventType) || incident.lastReportAt.isBefore(idleBefore)) {
+                        continue;
+                    }
+                    double meters = GeoUtil.haversineMeters(longitude, latitude, incident.longitude, incident.latitude);
+                    if (meters <= radiusMeters && meters < nearestMeters) {
+                        nearest = incident;
+                        nearestMeters = meters;
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private Incident find(long incidentId, double longitude, double latitude) {
+        // Report thành viên nằm trong bán kính quanh report đầu tiên: tìm trong các ô của bán kính đó
+        Envelope envelope = GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters);
+        long minX = GeohashUtil.cellX(envelope.getMinX(), precision);
+        long maxX = GeohashUtil.cellX(envelope.getMaxX(), precision);
+        long minY = GeohashUtil.cellY(envelope.getMinY(), precision);
+        long maxY = GeohashUtil.cellY(envelope.getMaxY(), precision);
+        for (long x = minX; x <= maxX; x++) {
+            for (long y = minY; y <= maxY; y++) {
+                for (Incident incident : cells.getOrDefault(GeohashUtil.hash(x, y, precision), List.of())) {
+                    if (incident.id == incidentId) {
+                        return incident;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void add(Incident incident) {
+        long cell = GeohashUtil.encode(incident.longitude, incident.latitude, precision);
+        cells.computeIfAbsent(cell, key -> new ArrayList<>(2)).add(incident);
+        activeIncidents++;
+    }
+
+    private void remove(Incident incident) {
+        long cell = GeohashUtil.encode(incident.longitude, incident.latitude, precision);
+        List<Incident> incidents = cells.get(cell);
+        // Có thể đã bị evictIdle bỏ trước đó
+        if (incidents != null && incidents.remove(incident)) {
+            activeIncidents--;
+            if (incidents.isEmpty()) {
+                cells.remove(cell);
+            }
+        }
+    }
+
+    // Gọi khi giữ lock. Block thường đã được assign lấy trước khi vào lock; lấy tại đây chỉ khi thread khác dùng
+    // hết block giữa lúc kiểm tra và lúc vào lock
+    private long nextIncidentId() {
+        if (nextId >= blockEnd) {
+            nextId = fetchIdBlock();
+            blockEnd = nextId + ID_BLOCK;
+        }
+        return nextId++;
+    }
+
+    private long fetchIdBlock() {
+        return Objects.requireNonNull(jdbcTemplate.queryForObject("SELECT nextval('incident_id_seq')", Long.class));
+    }
+
+    // Precision lớn nhất mà chiều cao ô vẫn >= bán kính: vùng tìm kiếm chỉ phủ vài ô
+    static int precisionFor(double radiusMeters) {
+        for (int precision = GeohashUtil.MAX_PRECISION; precision > 1; precision--) {
+            if (GeohashUtil.cellHeightDegrees(precision) * MIN_METERS_PER_DEGREE_LAT >= radiusMeters) {
+                return precision;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Sự cố gán tạm cho một report chưa commit
+     */
+    public static final class Assignment {
+        private final Incident incident;
+        private final boolean opened;
+        private final LocalDateTime previousLastReportAt;
+        private final LocalDateTime at;
+
+        private Assignment(Incident incident, boolean opened, LocalDateTime previousLastReportAt, LocalDateTime at) {
+            this.incident = incident;
+            this.opened = opened;
+            this.previousLastReportAt = previousLastReportAt;
+            this.at = at;
+        }
+
+        public long incidentId() {
+            return incident.id;
+        }
+    }
+
+    private static final class Incident {
+        private final long id;
+        private final String eventType;
+        private final double longitude;
+        private final double latitude;
+        private LocalDateTime lastReportAt;
+        // Số report gán tạm chưa commit; confirmed: đã có report commit (sự cố nạp từ DB / node khác luôn true)
+        private int pending;
+        private boolean confirmed = true;
+
+        private Incident(long id, String eventType, double longitude, double latitude, LocalDateTime lastReportAt) {
+            this.id = id;
+            this.eventType = eventType;
+            this.longitude = longitude;
+            this.latitude = latitude;
+            this.lastReportAt = lastReportAt;
+        }
+    }
+}
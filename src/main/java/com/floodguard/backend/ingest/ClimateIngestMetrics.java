@@ -0,0 +1,143 @@
+package com.floodguard.backend.ingest;
+
+import com.floodguard.backend.dto.ClimateDataDTO;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-second throughput and commit latency of the climate ingest pipeline.
+ * <p>
+ * Producers only touch LongAdders; everything else is written by the flusher thread alone, which rolls the
+ * current second into an immutable 60-second history. Latencies go into a log-linear histogram
+ * (8 sub-buckets per power of two, about 12% resolution), so percentiles cost no sorting or allocation.
+ */
+final class ClimateIngestMetrics {
+
+    private static final int HISTORY_SECONDS = 60;
+    private static final int SUB_BUCKETS = 8;
+    private static final int LATENCY_BUCKETS = 288;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile long totalWritten;
+    private volatile long totalFailed;
+    private volatile List<ClimateDataDTO.IngestSecond> history = List.of();
+
+    // Chỉ thread flusher truy cập
+    private final ArrayDeque<ClimateDataDTO.IngestSecond> seconds = new ArrayDeque<>(HISTORY_SECONDS);
+    private final long[] latencyBuckets = new long[LATENCY_BUCKETS];
+    private long currentSecond = -1;
+    private long acceptedAtSecondStart;
+    private long writtenInSecond;
+    private long batchesInSecond;
+    private long maxLatencyMicros;
+
+    void recordAccepted(long count) {
+        accepted.add(count);
+    }
+
+    void recordRejected(long count) {
+        rejected.add(count);
+    }
+
+    void recordBatch(List<ClimateIngestPipeline.QueuedReading> batch, long committedNanos) {
+        for (ClimateIngestPipeline.QueuedReading reading : batch) {
+            long micros = Math.max(0, (committedNanos - reading.receivedNanos()) / 1_000);
+            latencyBuckets[bucket(micros)]++;
+            maxLatencyMicros = Math.max(maxLatencyMicros, micros);
+        }
+        writtenInSecond += batch.size();
+        batchesInSecond++;
+        totalWritten += batch.size();
+    }
+
+    void recordFailed(long count) {
+        totalFailed += count;
+    }
+
+    /**
+     * Gọi định kỳ từ flusher (ít nhất mỗi linger-ms): chốt số liệu giây vừa qua khi sang giây mới
+     */
+    void tick(long epochMillis) {
+        long second = epochMillis / 1000;
+        if (second == currentSecond) {
+            return;
+        }
+        long acceptedNow = accepted.sum();
+        if (currentSecond >= 0) {
+            seconds.addLast(ClimateDataDTO.IngestSecond.builder()
+                    .second(LocalDateTime.ofInstant(Instant.ofEpochSecond(currentSecond), ZoneId.systemDefault()))
+                    .accepted(acceptedNow - acceptedAtSecondStart)
+                    .written(writtenInSecond)
+                    .batches(batchesInSecond)
+                    .p50LatencyMs(percentileMillis(0.50))
+                    .p99LatencyMs(percentileMillis(0.99))
+                    .maxLatencyMs(maxLatencyMicros / 1000.0)
+                    .build());
+            if (seconds.size() > HISTORY_SECONDS) {
+                seconds.removeFirst();
+            }
+            history = Collections.unmodifiableList(new ArrayList<>(seconds));
+        }
+        currentSecond = second;
+        acceptedAtSecondStart = acceptedNow;
+        writtenInSecond = 0;
+        batchesInSecond = 0;
+        maxLatencyMicros = 0;
+        Arrays.fill(latencyBuckets, 0);
+    }
+
+    ClimateDataDTO.IngestMetrics snapshot(int bufferSize, int bufferCapacity) {
+        return ClimateDataDTO.IngestMetrics.builder()
+                .bufferCapacity(bufferCapacity)
+                .bufferSize(bufferSize)
+                .totalAccepted(accepted.sum())
+                .totalRejected(rejected.sum())
+                .totalWritten(totalWritten)
+                .totalFailed(totalFailed)
+                .lastSeconds(history)
+                .build();
+    }
+
+    private double percentileMillis(double percentile) {
+        if (writtenInSecond == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * writtenInSecond);
+        long seen = 0;
+        for (int bucket = 0; bucket < LATENCY_BUCKETS; bucket++) {
+            seen += latencyBuckets[bucket];
+            if (seen >= rank) {
+                // Cận trên của bucket, không vượt quá max thực tế
+                return Math.min(lowerBound(bucket + 1), maxLatencyMicros) / 1000.0;
+            }
+        }
+        return maxLatencyMicros / 1000.0;
+    }
+
+    // 0..7 µs chính xác, sau đó mỗi luỹ thừa của 2 chia thành 8 bucket đều nhau
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) ((micros >>> (exponent - 3)) & (SUB_BUCKETS - 1));
+        return Math.min((exponent - 2) * SUB_BUCKETS + subBucket, LATENCY_BUCKETS - 1);
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 2;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 3);
+    }
+}
@@ -0,0 +1,202 @@
+package com.floodguard.backend.ingest;
+
+import com.floodguard.backend.dto.ClimateDataDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coalesces climate readings from many concurrent sensor requests into large JDBC batch inserts.
+ * <p>
+ * Request threads publish into a lock-free {@link MpscRingBuffer} and return immediately; a single flusher
+ * thread drains it into batches of up to batch-size rows, waiting at most linger-ms for a batch to fill. The idle
+ * flusher parks in the buffer's await() and is woken by the next reading.
+ * The buffer is bounded: when it is full, offer() returns false and the caller answers 503 + Retry-After.
+ * Readings are held in memory only (sensors re-send on error), so a crash loses at most one buffer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClimateIngestPipeline {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO climate_data (record_date, type, value, is_forecast) VALUES (?, ?, ?, ?)";
+
+    private static final long RETRY_BACKOFF_MS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${climate.ingest.buffer-capacity:65536}")
+    private int bufferCapacity;
+
+    @Value("${climate.ingest.batch-size:2000}")
+    private int batchSize;
+
+    @Value("${climate.ingest.linger-ms:50}")
+    private long lingerMs;
+
+    @Value("${climate.ingest.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private final ClimateIngestMetrics metrics = new ClimateIngestMetrics();
+    private MpscRingBuffer<QueuedReading> buffer;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        buffer = new MpscRingBuffer<>(bufferCapacity);
+        running = true;
+        flusher = new Thread(this::runFlusher, "climate-ingest-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        flusher.interrupt();
+    }
+
+    /**
+     * @return false nếu buffer đầy (không chờ)
+     */
+    public boolean offer(LocalDateTime recordDate, String type, double value, boolean forecast) {
+        if (!buffer.offer(new QueuedReading(recordDate, type, value, forecast, System.nanoTime()))) {
+            return false;
+        }
+        metrics.recordAccepted(1);
+        return true;
+    }
+
+    public void recordRejected(long count) {
+        metrics.recordRejected(count);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public ClimateDataDTO.IngestMetrics metrics() {
+        return metrics.snapshot(buffer.size(), buffer.capacity());
+    }
+
+    private void runFlusher() {
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        List<QueuedReading> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                metrics.tick(System.currentTimeMillis());
+                if (buffer.drain(batch::add, batchSize) == 0) {
+                    // Thức dậy ít nhất mỗi linger-ms để chốt số liệu theo giây
+                    buffer.await(lingerNanos);
+                    continue;
+                }
+                long deadline = System.nanoTime() + lingerNanos;
+                long remaining;
+                while (batch.size() < batchSize && running && (remaining = deadline - System.nanoTime()) > 0) {
+                    if (buffer.drain(batch::add, batchSize - batch.size()) == 0) {
+                        buffer.await(remaining);
+                    }
+                }
+                if (!flushWithRetry(batch)) {
+                    int lost = batch.size() + buffer.size();
+                    metrics.recordFailed(lost);
+                    log.warn("Stopping with {} unwritten climate readings", lost);
+                    return;
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Climate ingest flusher failed", e);
+                metrics.recordFailed(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean flushWithRetry(List<QueuedReading> batch) throws InterruptedException {
+        while (true) {
+            try {
+                flush(batch);
+                return true;
+            } catch (DataAccessException | TransactionException e) {
+                if (!running) {
+                    return false;
+                }
+                // Buffer tiếp tục đầy lên trong lúc chờ, request mới sẽ nhận 503
+                log.warn("Climate batch of {} not written, retrying: {}", batch.size(), e.getMessage());
+                Thread.sleep(RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void flush(List<QueuedReading> batch) {
+        List<QueuedReading> written = batch;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind));
+        } catch (DataIntegrityViolationException e) {
+            // Một dòng vi phạm ràng buộc (VD: CHECK của type) làm hỏng cả batch: ghi lại từng dòng, chỉ bỏ dòng lỗi
+            log.warn("Climate batch of {} rejected, inserting row by row: {}", batch.size(), e.getMessage());
+            written = insertOneByOne(batch);
+            metrics.recordFailed(batch.size() - written.size());
+        }
+        if (!written.isEmpty()) {
+            metrics.recordBatch(written, System.nanoTime());
+        }
+    }
+
+    // Một transaction, mỗi dòng một savepoint: lỗi khác (mất kết nối...) rollback cả batch để retry không ghi trùng
+    private List<QueuedReading> insertOneByOne(List<QueuedReading> batch) {
+        List<QueuedReading> written = new ArrayList<>(batch.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            written.clear();
+            for (QueuedReading reading : batch) {
+                Object savepoint = status.createSavepoint();
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, reading));
+                    status.releaseSavepoint(savepoint);
+                    written.add(reading);
+                } catch (DataIntegrityViolationException rowError) {
+                    status.rollbackToSavepoint(savepoint);
+                    log.error("Dropping climate reading {} {} at {}: {}", reading.type(), reading.value(),
+                            reading.recordDate(), rowError.getMessage());
+                }
+            }
+        });
+        return written;
+    }
+
+    private void bind(PreparedStatement ps, QueuedReading reading) throws SQLException {
+        ps.setObject(1, reading.recordDate());
+        ps.setString(2, reading.type());
+        ps.setDouble(3, reading.value());
+        ps.setBoolean(4, reading.forecast());
+    }
+
+    record QueuedReading(LocalDateTime recordDate, String type, double value, boolean forecast,
+                         long receivedNanos) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.floodguard.backend.ingest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * <p>
+ * Each slot carries a sequence number (Vyukov's bounded queue): a producer claims a position with one CAS on
+ * the tail and publishes the element by advancing the slot sequence; the consumer only reads sequences, so
+ * producers never block. offer() returns false instead of waiting when the buffer is full. An idle consumer can
+ * park in await() and is unparked by the next offer().
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    // Consumer đang park trong await(), null nếu không chờ
+    private volatile Thread waiter;
+
+    /**
+     * @param requestedCapacity làm tròn lên luỹ thừa của 2
+     */
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Ring buffer capacity must be between 2 and 2^30");
+        }
+        this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    // Volatile: phần tử được ghi trước khi consumer thấy sequence mới, và việc đọc waiter bên dưới
+                    // không bị đảo lên trước (nếu không consumer vừa park có thể không được đánh thức)
+                    sequences.set(index, position + 1);
+                    Thread parked = waiter;
+                    if (parked != null) {
+                        LockSupport.unpark(parked);
+                    }
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // Slot chưa được consumer giải phóng: buffer đầy
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Chỉ gọi từ một thread consumer duy nhất
+     *
+     * @return số phần tử đã lấy ra
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long position = head.get();
+        int drained = 0;
+        try {
+            while (drained < limit) {
+                int index = (int) (position & mask);
+                if (sequences.get(index) != position + 1) {
+                    break;
+                }
+                E element = (E) elements[index];
+                elements[index] = null;
+                sequences.lazySet(index, position + capacity);
+                position++;
+                drained++;
+                consumer.accept(element);
+            }
+        } finally {
+            head.lazySet(position);
+        }
+        return drained;
+    }
+
+    /**
+     * Chờ tới khi có phần tử để drain hoặc hết timeoutNanos (có thể trả về sớm hơn, VD: khi bị unpark).
+     * Chỉ gọi từ thread consumer
+     *
+     * @return true nếu có phần tử
+     */
+    public boolean await(long timeoutNanos) {
+        if (available()) {
+            return true;
+        }
+        waiter = Thread.currentThread();
+        try {
+            // Kiểm tra lại sau khi đăng ký: offer() chạy giữa hai bước vẫn thấy waiter hoặc phần tử đã có
+            if (!available()) {
+                LockSupport.parkNanos(this, timeoutNanos);
+            }
+        } finally {
+            waiter = null;
+        }
+        return available();
+    }
+
+    private boolean available() {
+        long position = head.get();
+        return sequences.get((int) (position & mask)) == position + 1;
+    }
+
+    // Xấp xỉ khi có producer đang ghi
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,526 @@
+package com.floodguard.backend.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.exception.BackpressureException;
+import com.floodguard.backend.event.ChangeEvent;
+import com.floodguard.backend.event.ChangeEventBus;
+import com.floodguard.backend.exception.CustomException;
+import com.floodguard.backend.feed.ReportFeedHub;
+import com.floodguard.backend.incident.IncidentClusterer;
+import com.floodguard.backend.model.ReportStatus;
+import com.floodguard.backend.service.TileService;
+import com.floodguard.backend.stats.ReportHeatmapCache;
+import com.floodguard.backend.stats.ReportStatistics;
+import com.floodguard.backend.util.GeohashUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind queue for report submissions (reports.ingest.async-enabled=true).
+ * <p>
+ * An accepted report is first appended and fsync'ed to a local spool file, then queued in memory; a single
+ * flusher thread drains the queue into JDBC batch inserts of up to batch-size rows, waiting at most linger-ms
+ * for a batch to fill. Committed ids are appended to the spool as commit markers; the file is truncated whenever
+ * nothing is in flight and otherwise rewritten with only the in-flight entries once committed entries make up
+ * most of it, so on restart only accepted-but-uncommitted reports are replayed (at-least-once: a crash between
+ * the DB commit and the marker replays that batch).
+ * Each committed batch gets the same follow-up as ReportServiceImpl.create: a ChangeEvent per report (sent with
+ * the insert transaction), then tile / heatmap invalidation, statistics counters and the live feed.
+ * Capacity is bounded by a semaphore; when it is exhausted submit() fails with 503 + Retry-After.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportIngestQueue {
+
+    private static final String INSERT_SQL = "INSERT INTO reports " +
+            "(report_id, user_id, guest_name, guest_phone, event_type, description, image_url, damage_level, " +
+            "created_at, geom, incident_id, geohash) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ST_SetSRID(ST_Point(?, ?), 4326), ?, ?)";
+    // Lấy trước id cho cả batch: biết report_id để gửi ChangeEvent / feed mà không cần RETURNING từng dòng
+    private static final String NEXT_IDS_SQL = "SELECT nextval('reports_report_id_seq') FROM generate_series(1, ?)";
+    private static final String USERS_SQL = "SELECT user_id, full_name, management_area_code FROM users " +
+            "WHERE user_id = ANY(CAST(CAST(? AS text) AS bigint[]))";
+
+    private static final char ACCEPTED = 'A';
+    private static final char COMMITTED = 'C';
+    private static final long RETRY_BACKOFF_MS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final TileService tileService;
+    private final IncidentClusterer incidentClusterer;
+    private final ReportHeatmapCache heatmapCache;
+    private final ChangeEventBus changeEventBus;
+    private final ReportFeedHub reportFeedHub;
+    private final ReportStatistics reportStatistics;
+
+    @Value("${reports.ingest.async-enabled:false}")
+    private boolean enabled;
+
+    @Value("${reports.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${reports.ingest.linger-ms:200}")
+    private long lingerMs;
+
+    @Value("${reports.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${reports.ingest.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    @Value("${reports.ingest.spool-file:data/report-ingest.spool}")
+    private String spoolFile;
+
+    // Spool lớn hơn ngưỡng này và quá nửa là entry đã commit thì được ghi lại chỉ với entry đang chờ
+    @Value("${reports.ingest.spool-compact-bytes:1048576}")
+    private long spoolCompactBytes;
+
+    private final BlockingQueue<PendingReport> queue = new LinkedBlockingQueue<>();
+    private final ReentrantLock spoolLock = new ReentrantLock();
+    private Semaphore permits;
+    private Path spoolPath;
+    private FileChannel spool;
+    // provisionalId -> dòng ACCEPTED của report chưa commit, theo thứ tự trong spool
+    private final Map<String, String> spooledLines = new LinkedHashMap<>();
+    // provisionalId -> sự cố gán tạm, chờ batch commit; chỉ thread flusher truy cập
+    private final Map<String, IncidentClusterer.Assignment> incidentAssignments = new HashMap<>();
+    private long spoolBytes;
+    private long liveBytes;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        permits = new Semaphore(queueCapacity);
+        Path path = Path.of(spoolFile);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        spoolPath = path;
+        List<PendingReport> replay = readSpool(path);
+        spool = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        spool.truncate(0);
+        for (PendingReport pending : replay) {
+            appendToSpool(pending);
+            queue.add(pending);
+        }
+        if (!replay.isEmpty()) {
+            log.info("Replaying {} spooled reports from {}", replay.size(), path);
+        }
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "report-ingest-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        flusher.interrupt();
+        spool.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ReportDTO.AcceptedResponse submit(ReportDTO.CreateRequest request) {
+        if (!permits.tryAcquire()) {
+            throw new BackpressureException("Report ingestion queue is full, please retry later", retryAfterSeconds);
+        }
+
+        PendingReport pending = new PendingReport("tmp-" + UUID.randomUUID(), LocalDateTime.now(), request, true,
+                null, null);
+        try {
+            appendToSpool(pending);
+        } catch (IOException e) {
+            permits.release();
+            log.error("Could not spool report", e);
+            throw new CustomException("Could not accept report", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        queue.add(pending);
+
+        return ReportDTO.AcceptedResponse.builder()
+                .provisionalId(pending.provisionalId())
+                .acceptedAt(pending.acceptedAt())
+                .build();
+    }
+
+    private void runFlusher() {
+        List<PendingReport> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingReport first = queue.poll(lingerMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingReport next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                batch.replaceAll(this::assignIncident);
+                if (!flushWithRetry(batch)) {
+                    log.warn("Stopping with {} unwritten reports left in spool for replay", batch.size() + queue.size());
+                    return;
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Phần chưa ghi vẫn còn trong spool và sẽ được replay khi khởi động lại
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Report ingest flusher failed", e);
+            }
+        }
+    }
+
+    private boolean flushWithRetry(List<PendingReport> batch) throws InterruptedException {
+        while (true) {
+            try {
+                flush(batch);
+                return true;
+            } catch (DataAccessException | TransactionException e) {
+                if (!running) {
+                    return false;
+                }
+                log.warn("Report batch of {} not written, retrying: {}", batch.size(), e.getMessage());
+                Thread.sleep(RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    private PendingReport assignIncident(PendingReport pending) {
+        ReportDTO.CreateRequest request = pending.request();
+        if (pending.incidentId() != null || request.getLongitude() == null || request.getLatitude() == null) {
+            return pending;
+        }
+        try {
+            IncidentClusterer.Assignment incident = incidentClusterer.assign(request.getEventType(),
+                    request.getLongitude(), request.getLatitude(), pending.acceptedAt());
+            if (incident == null) {
+                return pending;
+            }
+            incidentAssignments.put(pending.provisionalId(), incident);
+            return pending.withIncidentId(incident.incidentId());
+        } catch (DataAccessException e) {
+            // Không lấy được id sự cố: vẫn ghi report, chỉ không gom cụm
+            log.warn("Report {} not clustered into an incident: {}", pending.provisionalId(), e.getMessage());
+            return pending;
+        }
+    }
+
+    private void flush(List<PendingReport> batch) {
+        assignReportIds(batch);
+        List<PendingReport> written = batch;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind);
+                notifyOtherNodes(batch);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Một dòng lỗi (FK user_id, event_type không hợp lệ...) làm hỏng cả batch: ghi lại từng dòng
+            log.warn("Report batch rejected, inserting {} rows one by one: {}", batch.size(), e.getMessage());
+            written = insertOneByOne(batch);
+        }
+
+        markCommitted(batch);
+        settleIncidents(batch, written);
+        publishCommitted(written);
+    }
+
+    // Giữ sự cố của các dòng đã ghi, bỏ sự cố gán cho dòng bị loại
+    private void settleIncidents(List<PendingReport> batch, List<PendingReport> written) {
+        Set<String> committed = written.stream().map(PendingReport::provisionalId).collect(Collectors.toSet());
+        for (PendingReport pending : batch) {
+            IncidentClusterer.Assignment incident = incidentAssignments.remove(pending.provisionalId());
+            if (committed.contains(pending.provisionalId())) {
+                incidentClusterer.confirm(incident);
+            } else {
+                incidentClusterer.release(incident);
+            }
+        }
+    }
+
+    // Id lấy một lần cho batch và giữ nguyên khi retry
+    private void assignReportIds(List<PendingReport> batch) {
+        int missing = (int) batch.stream().filter(pending -> pending.reportId() == null).count();
+        if (missing == 0) {
+            return;
+        }
+        Iterator<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, missing).iterator();
+        batch.replaceAll(pending -> pending.reportId() != null ? pending : pending.withReportId(ids.next()));
+    }
+
+    // Một transaction, mỗi dòng một savepoint: lỗi khác (mất kết nối...) rollback cả batch để retry không ghi trùng
+    private List<PendingReport> insertOneByOne(List<PendingReport> batch) {
+        List<PendingReport> written = new ArrayList<>(batch.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            written.clear();
+            for (PendingReport pending : batch) {
+                Object savepoint = status.createSavepoint();
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, pending));
+                    status.releaseSavepoint(savepoint);
+                    written.add(pending);
+                } catch (DataIntegrityViolationException rowError) {
+                    status.rollbackToSavepoint(savepoint);
+                    log.error("Dropping report {}: {}", pending.provisionalId(), rowError.getMessage());
+                }
+            }
+            notifyOtherNodes(written);
+        });
+        return written;
+    }
+
+    // Trong transaction ghi: pg_notify chỉ tới các node khác khi commit
+    private void notifyOtherNodes(List<PendingReport> written) {
+        changeEventBus.publishAll(written.stream()
+                .map(pending -> ChangeEvent.of(ChangeEvent.Entity.REPORT, ChangeEvent.Action.CREATED,
+                        pending.reportId(), pending.request().getLongitude(), pending.request().getLatitude()))
+                .toList());
+    }
+
+    // Sau commit, giống ReportServiceImpl.create: tile / heatmap, bộ đếm thống kê, live feed
+    private void publishCommitted(List<PendingReport> written) {
+        Map<Long, Sender> senders = sendersOf(written);
+        for (PendingReport pending : written) {
+            ReportDTO.CreateRequest request = pending.request();
+            if (request.getLongitude() != null && request.getLatitude() != null) {
+                tileService.invalidatePoint(TileService.LAYER_REPORTS, request.getLongitude(), request.getLatitude());
+                heatmapCache.invalidatePoint(request.getLongitude(), request.getLatitude());
+            }
+            Sender sender = senders.get(request.getUserId());
+            reportStatistics.apply(null, new ReportStatistics.Snapshot(sender != null ? sender.areaCode() : null,
+                    request.getEventType(), ReportStatus.UNVERIFIED, pending.acceptedAt()));
+            reportFeedHub.publish(ReportFeedHub.REPORT_CREATED, ReportDTO.Response.builder()
+                    .reportId(pending.reportId())
+                    .longitude(request.getLongitude())
+                    .latitude(request.getLatitude())
+                    .userId(request.getUserId())
+                    .userFullName(sender != null ? sender.fullName() : null)
+                    .reportTime(pending.acceptedAt())
+                    .eventType(request.getEventType())
+                    .description(request.getDescription())
+                    .imageUrl(request.getImageUrl())
+                    .damageLevel(request.getDamageLevel() != null ? request.getDamageLevel() : 0)
+                    .verifyStatus(ReportStatus.UNVERIFIED.name())
+                    .incidentId(pending.incidentId())
+                    .version(0)
+                    .build());
+        }
+    }
+
+    // Người gửi của các report trong batch theo user_id, một câu lệnh
+    private Map<Long, Sender> sendersOf(List<PendingReport> written) {
+        String ids = written.stream()
+                .map(pending -> pending.request().getUserId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",", "{", "}"));
+        Map<Long, Sender> senders = new HashMap<>();
+        if (ids.length() == 2) {
+            return senders;
+        }
+        try {
+            jdbcTemplate.query(USERS_SQL, rs -> {
+                senders.put(rs.getLong(1), new Sender(rs.getString(2), rs.getString(3)));
+            }, ids);
+        } catch (DataAccessException e) {
+            // Chỉ thiếu tên người gửi / khu vực trong feed và thống kê, đối soát định kỳ sẽ sửa bộ đếm
+            log.warn("Could not read senders of {} reports: {}", written.size(), e.getMessage());
+        }
+        return senders;
+    }
+
+    private void bind(PreparedStatement ps, PendingReport pending) throws SQLException {
+        ReportDTO.CreateRequest request = pending.request();
+        ps.setLong(1, pending.reportId());
+        ps.setObject(2, request.getUserId(), Types.BIGINT);
+        ps.setString(3, request.getGuestName());
+        ps.setString(4, request.getGuestPhone());
+        ps.setString(5, request.getEventType());
+        ps.setString(6, request.getDescription());
+        ps.setString(7, request.getImageUrl());
+        ps.setInt(8, request.getDamageLevel() != null ? request.getDamageLevel() : 0);
+        ps.setObject(9, pending.acceptedAt());
+        ps.setObject(10, request.getLongitude(), Types.DOUBLE);
+        ps.setObject(11, request.getLatitude(), Types.DOUBLE);
+        ps.setObject(12, pending.incidentId(), Types.BIGINT);
+        ps.setObject(13, request.getLongitude() != null && request.getLatitude() != null
+                ? GeohashUtil.cell(request.getLongitude(), request.getLatitude()) : null, Types.BIGINT);
+    }
+
+    private void appendToSpool(PendingReport pending) throws IOException {
+        String line = ACCEPTED + objectMapper.writeValueAsString(pending) + "\n";
+        spoolLock.lock();
+        try {
+            long bytes = write(line);
+            spooledLines.put(pending.provisionalId(), line);
+            spoolBytes += bytes;
+            liveBytes += bytes;
+        } finally {
+            spoolLock.unlock();
+        }
+    }
+
+    private void markCommitted(List<PendingReport> batch) {
+        String line = COMMITTED + batch.stream().map(PendingReport::provisionalId).collect(Collectors.joining(",")) + "\n";
+        spoolLock.lock();
+        try {
+            spoolBytes += write(line);
+            for (PendingReport pending : batch) {
+                String accepted = spooledLines.remove(pending.provisionalId());
+                if (accepted != null) {
+                    liveBytes -= accepted.getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+            if (spooledLines.isEmpty()) {
+                spool.truncate(0);
+                spool.force(false);
+                spoolBytes = 0;
+            } else if (spoolBytes >= spoolCompactBytes && spoolBytes > 2 * liveBytes) {
+                compactSpool();
+            }
+        } catch (IOException e) {
+            log.error("Could not write commit marker to spool, batch may be replayed on restart", e);
+        } finally {
+            spoolLock.unlock();
+        }
+
+        int counted = (int) batch.stream().filter(PendingReport::counted).count();
+        permits.release(counted);
+    }
+
+    private long write(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            spool.write(buffer);
+        }
+        spool.force(false);
+        return buffer.limit();
+    }
+
+    // Gọi khi giữ spoolLock: ghi entry chưa commit ra file tạm rồi rename đè spool (atomic), crash giữa chừng
+    // thì spool cũ vẫn nguyên vẹn
+    private void compactSpool() throws IOException {
+        Path compacted = spoolPath.resolveSibling(spoolPath.getFileName() + ".compact");
+        try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(String.join("", spooledLines.values()).getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(compacted, spoolPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        spool.close();
+        spool = FileChannel.open(spoolPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.debug("Report spool compacted from {} to {} bytes", spoolBytes, liveBytes);
+        spoolBytes = liveBytes;
+    }
+
+    private List<PendingReport> readSpool(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        Map<String, PendingReport> pending = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            String body = line.substring(1);
+            if (line.charAt(0) == COMMITTED) {
+                Arrays.stream(body.split(",")).forEach(pending::remove);
+                continue;
+            }
+            try {
+                PendingReport report = objectMapper.readValue(body, PendingReport.class);
+                // Replay không chiếm permit để không chặn request mới sau khi khởi động
+                pending.put(report.provisionalId(), new PendingReport(
+                        report.provisionalId(), report.acceptedAt(), report.request(), false, null, null));
+            } catch (IOException e) {
+                // Dòng ghi dở khi crash: chưa fsync nên chưa từng được trả 202
+                log.warn("Skipping unreadable spool line: {}", e.getMessage());
+            }
+        }
+        return new ArrayList<>(pending.values());
+    }
+
+    private record Sender(String fullName, String areaCode) {
+    }
+
+    // incidentId, reportId: gán trên thread flusher ngay trước lần ghi đầu tiên, giữ nguyên khi retry
+    record PendingReport(String provisionalId, LocalDateTime acceptedAt, ReportDTO.CreateRequest request,
+                         boolean counted, Long incidentId, Long reportId) {
+
+        PendingReport withIncidentId(Long incidentId) {
+            return new PendingReport(provisionalId, acceptedAt, request, counted, incidentId, reportId);
+        }
+
+        PendingReport withReportId(Long reportId) {
+            return new PendingReport(provisionalId, acceptedAt, request, counted, incidentId, reportId);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.floodguard.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Tổng hợp theo ngày của climate_data thực đo và reports FLOOD, do trigger trong DB duy trì (chỉ đọc)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "climate_daily")
+public class ClimateDaily {
+
+    @Id
+    private LocalDate day;
+
+    @Column(name = "max_tide")
+    private Double maxTide;
+
+    @Column(name = "total_rain")
+    private Double totalRain;
+
+    @Column(name = "flood_reports", nullable = false)
+    private Integer floodReports;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
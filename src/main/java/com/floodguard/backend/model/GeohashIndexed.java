@@ -0,0 +1,13 @@
+package com.floodguard.backend.model;
+
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Entity có cột geohash đi kèm geom, được GeohashListener cập nhật mỗi lần ghi
+ */
+public interface GeohashIndexed {
+
+    Geometry getGeom();
+
+    void setGeohash(Long geohash);
+}
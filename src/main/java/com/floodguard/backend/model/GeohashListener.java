@@ -0,0 +1,18 @@
+package com.floodguard.backend.model;
+
+import com.floodguard.backend.util.GeohashUtil;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * JPA entity listener: tính lại cột geohash từ geom trước mỗi INSERT / UPDATE.
+ * Các đường ghi bằng SQL (ingest queue, bulk import) tính bằng geohash_cell() trong database.sql
+ */
+public class GeohashListener {
+
+    @PrePersist
+    @PreUpdate
+    void updateGeohash(GeohashIndexed entity) {
+        entity.setGeohash(GeohashUtil.cell(entity.getGeom()));
+    }
+}
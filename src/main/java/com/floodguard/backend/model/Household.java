@@ -10,7 +10,8 @@ import org.locationtech.jts.geom.Point;
 @AllArgsConstructor
 @Entity
 @Table(name = "households")
-public class Household {
+@EntityListeners(GeohashListener.class)
+public class Household implements GeohashIndexed {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -55,4 +56,8 @@ public class Household {
 
     @Column(columnDefinition = "geometry(Point, 4326)")
     private Point geom;
+
+    // Geohash precision 12 của geom (GeohashListener), index B-tree cho tìm theo khoảng ô
+    @Column(name = "geohash")
+    private Long geohash;
 }
@@ -15,7 +15,8 @@ import java.util.Map;
 @AllArgsConstructor
 @Entity
 @Table(name = "infrastructure")
-public class Infrastructure {
+@EntityListeners(GeohashListener.class)
+public class Infrastructure implements GeohashIndexed {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -43,4 +44,8 @@ public class Infrastructure {
 
     @Column(columnDefinition = "geometry(Geometry, 4326)")
     private Geometry geom;
+
+    // Ô geohash nhỏ nhất chứa geom (GeohashListener), index B-tree cho tìm theo khoảng ô
+    @Column(name = "geohash")
+    private Long geohash;
 }
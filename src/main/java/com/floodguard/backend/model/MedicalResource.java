@@ -10,7 +10,8 @@ import org.locationtech.jts.geom.Point;
 @AllArgsConstructor
 @Entity
 @Table(name = "medical_resources")
-public class MedicalResource {
+@EntityListeners(GeohashListener.class)
+public class MedicalResource implements GeohashIndexed {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,4 +36,8 @@ public class MedicalResource {
 
     @Column(columnDefinition = "geometry(Point, 4326)")
     private Point geom;
+
+    // Geohash precision 12 của geom (GeohashListener), index B-tree cho tìm theo khoảng ô
+    @Column(name = "geohash")
+    private Long geohash;
 }
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "reports")
-public class Report {
+@EntityListeners(GeohashListener.class)
+public class Report implements GeohashIndexed {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -61,10 +62,22 @@ public class Report {
     @Column(name = "admin_note", columnDefinition = "TEXT")
     private String adminNote;
 
+    // Optimistic locking: UPDATE kèm điều kiện version, bulk verify cũng tăng cột này
+    @Version
+    @Column(name = "version")
+    private Integer version;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(columnDefinition = "geometry(Point, 4326)")
     private Point geom;
+
+    @Column(name = "incident_id")
+    private Long incidentId;
+
+    // Geohash precision 12 của geom (GeohashListener), index B-tree cho tìm theo khoảng ô
+    @Column(name = "geohash")
+    private Long geohash;
 }
@@ -20,6 +20,7 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
 public class User implements UserDetails {
 
     @Id
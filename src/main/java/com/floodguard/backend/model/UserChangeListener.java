@@ -0,0 +1,25 @@
+package com.floodguard.backend.model;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener on User: publishes a {@link UserChangedEvent} so caches keyed on the user
+ * (UserDetailsServiceImpl) evict it after the change commits.
+ * Bulk/native updates of users bypass this and fall back to the cache TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    void onChange(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId()));
+    }
+}
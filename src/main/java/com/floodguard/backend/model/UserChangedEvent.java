@@ -0,0 +1,7 @@
+package com.floodguard.backend.model;
+
+/**
+ * User vừa được cập nhật hoặc xoá qua JPA (xem UserChangeListener)
+ */
+public record UserChangedEvent(Long userId) {
+}
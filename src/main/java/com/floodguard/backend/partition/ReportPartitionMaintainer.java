@@ -0,0 +1,168 @@
+package com.floodguard.backend.partition;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of reports (see database.sql) ahead of time: every reports.partitions.check-hours
+ * it creates the partitions of the current month and the next reports.partitions.months-ahead months, so inserts
+ * never land in reports_default. Each month is created in its own transaction, so one failing month is logged
+ * and retried on the next check without undoing the others; a month whose rows already sit in reports_default
+ * (e.g. imported before its partition existed) gets them moved into the new partition by reports_create_partition.
+ * <p>
+ * When reports.partitions.retention-months is set, partitions entirely older than that are detached and moved to
+ * the archive schema: they disappear from every report query and statistic but stay queryable (or can be dumped
+ * and dropped) there. Nodes coordinate with a transaction-scoped advisory lock taken by every step, only one runs
+ * the maintenance.
+ * Databases where reports is not partitioned yet are left untouched.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportPartitionMaintainer {
+
+    private static final long ADVISORY_LOCK_KEY = 0x7265706f72747300L; // "reports\0"
+    private static final Pattern PARTITION_NAME = Pattern.compile("reports_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${reports.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reports.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    // 0 = giữ mọi partition
+    @Value("${reports.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${reports.partitions.archive-schema:report_archive}")
+    private String archiveSchema;
+
+    @Value("${reports.partitions.check-hours:6}")
+    private long checkHours;
+
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!archiveSchema.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("reports.partitions.archive-schema must be a lowercase SQL identifier: "
+                    + archiveSchema);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-partition-maintainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::maintainQuietly, 0, checkHours, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain(YearMonth.now());
+        } catch (RuntimeException e) {
+            log.warn("Report partition maintenance failed, retrying in {} h: {}", checkHours, e.getMessage());
+        }
+    }
+
+    /**
+     * Tạo partition các tháng [current, current + monthsAhead], detach partition cũ hơn retention.
+     * Trả về false khi node khác đang chạy hoặc reports chưa được partition
+     */
+    boolean maintain(YearMonth current) {
+        if (!Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> isPartitioned()))) {
+            log.info("Table reports is not partitioned, skipping partition maintenance");
+            return false;
+        }
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                if (!locked(() -> jdbcTemplate.queryForObject("SELECT reports_create_partition(?)", String.class,
+                        month.atDay(1)))) {
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Report partition of {} not created, retrying in {} h: {}", month, checkHours,
+                        e.getMessage());
+            }
+        }
+        if (retentionMonths > 0) {
+            return locked(() -> detachOlderThan(current.minusMonths(retentionMonths)));
+        }
+        return true;
+    }
+
+    // Một transaction cho mỗi bước, giữ advisory lock; false khi node khác đang giữ lock
+    private boolean locked(Runnable step) {
+        Boolean done = new TransactionTemplate(transactionManager).execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                    ADVISORY_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return false;
+            }
+            step.run();
+            return true;
+        });
+        return Boolean.TRUE.equals(done);
+    }
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('reports'))",
+                Boolean.class);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    // Partition của tháng < cutoff (toàn bộ dữ liệu cũ hơn retention) được chuyển sang schema archive
+    private void detachOlderThan(YearMonth cutoff) {
+        List<String> expired = new ArrayList<>();
+        for (String name : jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('reports')", String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches() && YearMonth.parse(matcher.group(1), PARTITION_MONTH).isBefore(cutoff)) {
+                expired.add(name);
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+        for (String name : expired) {
+            jdbcTemplate.execute("ALTER TABLE reports DETACH PARTITION " + name);
+            jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + archiveSchema);
+            log.info("Report partition {} detached and archived to schema {}", name, archiveSchema);
+        }
+    }
+}
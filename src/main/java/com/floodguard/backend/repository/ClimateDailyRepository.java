@@ -0,0 +1,34 @@
+package com.floodguard.backend.repository;
+
+import com.floodguard.backend.model.ClimateDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ClimateDailyRepository extends JpaRepository<ClimateDaily, LocalDate> {
+
+    List<ClimateDaily> findByFloodReportsGreaterThan(Integer floodReports);
+
+    // xmin của snapshot hiện tại: mọi transaction có xid nhỏ hơn đã commit hoặc rollback
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)", nativeQuery = true)
+    long currentSnapshotXmin();
+
+    // Delta cho index trong RAM: các ngày do transaction có xid >= xid ghi, dùng idx_climate_daily_xid
+    @Query(value = "SELECT * FROM climate_daily WHERE updated_xid >= CAST(CAST(:xid AS text) AS xid8)",
+            nativeQuery = true)
+    List<ClimateDaily> findWrittenSince(@Param("xid") long xid);
+
+    // Dự phòng khi index chưa sẵn sàng: dùng partial index idx_climate_daily_tide / idx_climate_daily_rain
+    @Query(value = "SELECT * FROM climate_daily WHERE flood_reports > 0 AND max_tide BETWEEN :min AND :max",
+            nativeQuery = true)
+    List<ClimateDaily> findFloodDaysByTideBetween(@Param("min") double min, @Param("max") double max);
+
+    @Query(value = "SELECT * FROM climate_daily WHERE flood_reports > 0 AND total_rain BETWEEN :min AND :max",
+            nativeQuery = true)
+    List<ClimateDaily> findFloodDaysByRainBetween(@Param("min") double min, @Param("max") double max);
+}
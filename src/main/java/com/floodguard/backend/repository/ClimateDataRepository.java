@@ -0,0 +1,17 @@
+package com.floodguard.backend.repository;
+
+import com.floodguard.backend.model.ClimateData;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClimateDataRepository extends JpaRepository<ClimateData, Long> {
+
+    List<ClimateData> findByRecordDateBetweenOrderByRecordDateAsc(LocalDateTime from, LocalDateTime to);
+
+    List<ClimateData> findByTypeAndRecordDateBetweenOrderByRecordDateAsc(String type, LocalDateTime from,
+            LocalDateTime to);
+}
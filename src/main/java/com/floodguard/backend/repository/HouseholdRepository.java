@@ -0,0 +1,77 @@
+package com.floodguard.backend.repository;
+
+import com.floodguard.backend.model.Household;
+import com.floodguard.backend.util.GeoUtil;
+import com.floodguard.backend.util.GeohashUtil;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HouseholdRepository extends JpaRepository<Household, Long> {
+
+    // Find households within a radius (in meters) - "&&" uses idx_households_geom, ST_DWithin refines
+    @Query(value = "SELECT * FROM households WHERE geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326) " +
+            "AND ST_DWithin(geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, :radius)", nativeQuery = true)
+    List<Household> findInEnvelopeWithinRadius(
+            @Param("lon") double longitude,
+            @Param("lat") double latitude,
+            @Param("radius") double radiusMeters,
+            @Param("minLon") double minLon,
+            @Param("minLat") double minLat,
+            @Param("maxLon") double maxLon,
+            @Param("maxLat") double maxLat);
+
+    default List<Household> findWithinRadius(double longitude, double latitude, double radiusMeters) {
+        Envelope envelope = GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters);
+        return findInEnvelopeWithinRadius(longitude, latitude, radiusMeters,
+                envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY());
+    }
+
+    // Như findInEnvelopeWithinRadius nhưng ứng viên lấy bằng range scan trên idx_households_geohash
+    @Query(value = "SELECT h.* FROM households h JOIN " + GeohashUtil.CELL_RANGES_SQL +
+            "ON h.geohash >= c.low AND h.geohash < c.high " +
+            "WHERE ST_DWithin(h.geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, :radius)", nativeQuery = true)
+    List<Household> findInCellRangesWithinRadius(
+            @Param("lon") double longitude,
+            @Param("lat") double latitude,
+            @Param("radius") double radiusMeters,
+            @Param("lows") String lows,
+            @Param("highs") String highs);
+
+    default List<Household> findWithinRadiusByCell(double longitude, double latitude, double radiusMeters) {
+        GeohashUtil.CellRanges ranges = GeohashUtil.cover(
+                GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters), GeohashUtil.COVER_CELLS);
+        return findInCellRangesWithinRadius(longitude, latitude, radiusMeters,
+                ranges.lowsLiteral(), ranges.highsLiteral());
+    }
+
+    @Query(value = "SELECT h.* FROM households h JOIN " + GeohashUtil.CELL_RANGES_SQL +
+            "ON h.geohash >= c.low AND h.geohash < c.high " +
+            "WHERE h.geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)", nativeQuery = true)
+    List<Household> findInCellRangesWithinBbox(
+            @Param("minLon") double minLon,
+            @Param("minLat") double minLat,
+            @Param("maxLon") double maxLon,
+            @Param("maxLat") double maxLat,
+            @Param("lows") String lows,
+            @Param("highs") String highs);
+
+    default List<Household> findWithinBboxByCell(double minLon, double minLat, double maxLon, double maxLat) {
+        GeohashUtil.CellRanges ranges = GeohashUtil.cover(
+                new Envelope(minLon, maxLon, minLat, maxLat), GeohashUtil.COVER_CELLS);
+        return findInCellRangesWithinBbox(minLon, minLat, maxLon, maxLat, ranges.lowsLiteral(), ranges.highsLiteral());
+    }
+
+    // Mapbox Vector Tile của layer households (không đưa địa chỉ / thông tin cá nhân vào tile)
+    @Query(value = "WITH bounds AS (SELECT ST_TileEnvelope(:z, :x, :y) AS geom), " +
+            "tile AS (SELECT ST_AsMVTGeom(ST_Transform(h.geom, 3857), bounds.geom) AS geom, " +
+            "h.household_id, h.num_people, h.num_floors, h.has_elderly, h.has_children, h.has_sick_person, h.has_pregnant " +
+            "FROM households h, bounds WHERE h.geom && ST_Transform(bounds.geom, 4326)) " +
+            "SELECT ST_AsMVT(tile.*, 'households') FROM tile", nativeQuery = true)
+    byte[] findMvtTile(@Param("z") int z, @Param("x") int x, @Param("y") int y);
+}
@@ -0,0 +1,68 @@
+package com.floodguard.backend.repository;
+
+import com.floodguard.backend.model.InfraType;
+import com.floodguard.backend.model.Infrastructure;
+import com.floodguard.backend.util.GeoUtil;
+import com.floodguard.backend.util.GeohashUtil;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InfrastructureRepository extends JpaRepository<Infrastructure, Long> {
+
+    List<Infrastructure> findByType(InfraType type);
+
+    // Đường / vùng có ô lớn hơn ô phủ (VD: cống dài cắt qua biên ô) nằm ở mã của các ô cha, không thuộc khoảng nào
+    String CELL_CANDIDATES = "(SELECT i.* FROM infrastructure i JOIN " + GeohashUtil.CELL_RANGES_SQL +
+            "ON i.geohash >= c.low AND i.geohash < c.high " +
+            "UNION ALL SELECT i.* FROM infrastructure i " +
+            "WHERE i.geohash = ANY(CAST(CAST(:ancestors AS text) AS bigint[]))) i ";
+
+    @Query(value = "SELECT i.* FROM " + CELL_CANDIDATES +
+            "WHERE ST_DWithin(i.geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, :radius)", nativeQuery = true)
+    List<Infrastructure> findInCellRangesWithinRadius(
+            @Param("lon") double longitude,
+            @Param("lat") double latitude,
+            @Param("radius") double radiusMeters,
+            @Param("lows") String lows,
+            @Param("highs") String highs,
+            @Param("ancestors") String ancestors);
+
+    default List<Infrastructure> findWithinRadiusByCell(double longitude, double latitude, double radiusMeters) {
+        GeohashUtil.CellRanges ranges = GeohashUtil.cover(
+                GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters), GeohashUtil.COVER_CELLS);
+        return findInCellRangesWithinRadius(longitude, latitude, radiusMeters,
+                ranges.lowsLiteral(), ranges.highsLiteral(), ranges.ancestorsLiteral());
+    }
+
+    @Query(value = "SELECT i.* FROM " + CELL_CANDIDATES +
+            "WHERE ST_Intersects(i.geom, ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326))", nativeQuery = true)
+    List<Infrastructure> findInCellRangesWithinBbox(
+            @Param("minLon") double minLon,
+            @Param("minLat") double minLat,
+            @Param("maxLon") double maxLon,
+            @Param("maxLat") double maxLat,
+            @Param("lows") String lows,
+            @Param("highs") String highs,
+            @Param("ancestors") String ancestors);
+
+    default List<Infrastructure> findWithinBboxByCell(double minLon, double minLat, double maxLon, double maxLat) {
+        GeohashUtil.CellRanges ranges = GeohashUtil.cover(
+                new Envelope(minLon, maxLon, minLat, maxLat), GeohashUtil.COVER_CELLS);
+        return findInCellRangesWithinBbox(minLon, minLat, maxLon, maxLat,
+                ranges.lowsLiteral(), ranges.highsLiteral(), ranges.ancestorsLiteral());
+    }
+
+    // Mapbox Vector Tile của layer infrastructure (điểm và đường)
+    @Query(value = "WITH bounds AS (SELECT ST_TileEnvelope(:z, :x, :y) AS geom), " +
+            "tile AS (SELECT ST_AsMVTGeom(ST_Transform(i.geom, 3857), bounds.geom) AS geom, " +
+            "i.infra_id, i.name, CAST(i.type AS text) AS type, i.status " +
+            "FROM infrastructure i, bounds WHERE i.geom && ST_Transform(bounds.geom, 4326)) " +
+            "SELECT ST_AsMVT(tile.*, 'infrastructure') FROM tile", nativeQuery = true)
+    byte[] findMvtTile(@Param("z") int z, @Param("x") int x, @Param("y") int y);
+}
@@ -1,6 +1,8 @@
 package com.floodguard.backend.repository;
 
 import com.floodguard.backend.model.Location;
+import com.floodguard.backend.util.GeoUtil;
+import org.locationtech.jts.geom.Envelope;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,11 +18,23 @@ public interface LocationRepository extends JpaRepository<Location, Long> {
     List<Location> findByAddressContaining(String address);
 
     // Spatial query - find locations within a radius (in meters)
-    @Query(value = "SELECT * FROM locations WHERE ST_DWithin(geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, :radius)", nativeQuery = true)
-    List<Location> findLocationsWithinRadius(
+    // "&&" on the envelope uses the GIST index on geom, geography ST_DWithin only refines the candidates
+    @Query(value = "SELECT * FROM locations WHERE geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326) " +
+            "AND ST_DWithin(geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, :radius)", nativeQuery = true)
+    List<Location> findLocationsInEnvelopeWithinRadius(
             @Param("lon") double longitude,
             @Param("lat") double latitude,
-            @Param("radius") double radiusMeters);
+            @Param("radius") double radiusMeters,
+            @Param("minLon") double minLon,
+            @Param("minLat") double minLat,
+            @Param("maxLon") double maxLon,
+            @Param("maxLat") double maxLat);
+
+    default List<Location> findLocationsWithinRadius(double longitude, double latitude, double radiusMeters) {
+        Envelope envelope = GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters);
+        return findLocationsInEnvelopeWithinRadius(longitude, latitude, radiusMeters,
+                envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY());
+    }
 
     // Find locations within a bounding box
     @Query(value = "SELECT * FROM locations WHERE ST_Intersects(geom, ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326))", nativeQuery = true)
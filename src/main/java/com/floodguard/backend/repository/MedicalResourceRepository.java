@@ -0,0 +1,66 @@
+package com.floodguard.backend.repository;
+
+import com.floodguard.backend.model.MedicalResource;
+import com.floodguard.backend.util.GeoUtil;
+import com.floodguard.backend.util.GeohashUtil;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MedicalResourceRepository extends JpaRepository<MedicalResource, Long> {
+
+    // Ứng viên lấy bằng range scan trên idx_medical_geohash, geography ST_DWithin chỉ lọc lại
+    @Query(value = "SELECT m.* FROM medical_resources m JOIN " + GeohashUtil.CELL_RANGES_SQL +
+            "ON m.geohash >= c.low AND m.geohash < c.high " +
+            "WHERE ST_DWithin(m.geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, :radius)", nativeQuery = true)
+    List<MedicalResource> findInCellRangesWithinRadius(
+            @Param("lon") double longitude,
+            @Param("lat") double latitude,
+            @Param("radius") double radiusMeters,
+            @Param("lows") String lows,
+            @Param("highs") String highs);
+
+    default List<MedicalResource> findWithinRadiusByCell(double longitude, double latitude, double radiusMeters) {
+        GeohashUtil.CellRanges ranges = GeohashUtil.cover(
+                GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters), GeohashUtil.COVER_CELLS);
+        return findInCellRangesWithinRadius(longitude, latitude, radiusMeters,
+                ranges.lowsLiteral(), ranges.highsLiteral());
+    }
+
+    @Query(value = "SELECT m.* FROM medical_resources m JOIN " + GeohashUtil.CELL_RANGES_SQL +
+            "ON m.geohash >= c.low AND m.geohash < c.high " +
+            "WHERE m.geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)", nativeQuery = true)
+    List<MedicalResource> findInCellRangesWithinBbox(
+            @Param("minLon") double minLon,
+            @Param("minLat") double minLat,
+            @Param("maxLon") double maxLon,
+            @Param("maxLat") double maxLat,
+            @Param("lows") String lows,
+            @Param("highs") String highs);
+
+    default List<MedicalResource> findWithinBboxByCell(double minLon, double minLat, double maxLon, double maxLat) {
+        GeohashUtil.CellRanges ranges = GeohashUtil.cover(
+                new Envelope(minLon, maxLon, minLat, maxLat), GeohashUtil.COVER_CELLS);
+        return findInCellRangesWithinBbox(minLon, minLat, maxLon, maxLat, ranges.lowsLiteral(), ranges.highsLiteral());
+    }
+
+    // Dự phòng khi MedicalResourceIndex chưa nạp xong; specialization null = mọi chuyên khoa
+    @Query(value = "SELECT m.* FROM medical_resources m " +
+            "WHERE m.is_active = TRUE AND m.geom IS NOT NULL " +
+            "AND (CAST(:specialization AS text) IS NULL OR lower(trim(m.specialization)) = CAST(:specialization AS text)) " +
+            "AND (CAST(:maxDistance AS float8) IS NULL OR ST_DWithin(m.geom::geography, " +
+            "ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, CAST(:maxDistance AS float8))) " +
+            "ORDER BY ST_Distance(m.geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography), m.resource_id " +
+            "LIMIT :k", nativeQuery = true)
+    List<MedicalResource> findNearestActive(
+            @Param("lon") double longitude,
+            @Param("lat") double latitude,
+            @Param("specialization") String specialization,
+            @Param("maxDistance") Double maxDistanceMeters,
+            @Param("k") int k);
+}
@@ -2,17 +2,42 @@ package com.floodguard.backend.repository;
 
 import com.floodguard.backend.model.Report;
 import com.floodguard.backend.model.ReportStatus;
+import com.floodguard.backend.repository.projection.HeatmapCellView;
+import com.floodguard.backend.repository.projection.IncidentView;
+import com.floodguard.backend.repository.projection.ReportView;
+import com.floodguard.backend.repository.projection.TimeBucketCountView;
+import com.floodguard.backend.util.GeoUtil;
+import com.floodguard.backend.util.GeohashUtil;
+import jakarta.persistence.QueryHint;
+import org.locationtech.jts.geom.Envelope;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Long> {
 
+        // Projection dùng chung: join users + ST_X/ST_Y trong một câu lệnh, tránh N+1 khi đọc report.user
+        String VIEW_SELECT = "SELECT r.report_id AS \"reportId\", ST_X(r.geom) AS \"longitude\", ST_Y(r.geom) AS \"latitude\", " +
+                        "r.user_id AS \"userId\", u.full_name AS \"userFullName\", r.created_at AS \"reportTime\", " +
+                        "r.event_type AS \"eventType\", r.description AS \"description\", r.image_url AS \"imageUrl\", " +
+                        "r.damage_level AS \"damageLevel\", CAST(r.status AS text) AS \"verifyStatus\", " +
+                        "r.incident_id AS \"incidentId\", r.version AS \"version\" " +
+                        "FROM reports r LEFT JOIN users u ON u.user_id = r.user_id ";
+
         // Find by user's ID (using property path)
         List<Report> findByUserUserId(Long userId);
 
@@ -40,11 +65,237 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
         @Query("SELECT r.status, COUNT(r) FROM Report r GROUP BY r.status")
         List<Object[]> countByStatus();
 
-        // Find reports within radius using direct geom field
+        // Fallback của ReportStatistics: số report tạo mới theo bucket, khu vực = management_area_code của người gửi
+        @Query(value = "SELECT date_trunc(:field, r.created_at) AS \"bucket\", COUNT(*) AS \"count\" FROM reports r " +
+                        "LEFT JOIN users u ON u.user_id = r.user_id " +
+                        "WHERE r.created_at >= :from AND r.created_at < :to " +
+                        "AND (CAST(:areaCode AS text) IS NULL OR COALESCE(u.management_area_code, '') = CAST(:areaCode AS text)) " +
+                        "AND (CAST(:eventType AS text) IS NULL OR r.event_type = CAST(:eventType AS text)) " +
+                        "GROUP BY 1", nativeQuery = true)
+        List<TimeBucketCountView> countCreatedPerBucket(
+                        @Param("field") String field,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("areaCode") String areaCode,
+                        @Param("eventType") String eventType);
+
+        // Radius search: "&&" on the envelope hits idx_reports_geom, geography ST_DWithin only refines the candidates
         @Query(value = "SELECT r.* FROM reports r " +
+                        "WHERE r.geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326) " +
+                        "AND ST_DWithin(r.geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, :radius)", nativeQuery = true)
+        List<Report> findInEnvelopeWithinRadius(
+                        @Param("lon") double longitude,
+                        @Param("lat") double latitude,
+                        @Param("radius") double radiusMeters,
+                        @Param("minLon") double minLon,
+                        @Param("minLat") double minLat,
+                        @Param("maxLon") double maxLon,
+                        @Param("maxLat") double maxLat);
+
+        default List<Report> findWithinRadius(double longitude, double latitude, double radiusMeters) {
+                Envelope envelope = GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters);
+                return findInEnvelopeWithinRadius(longitude, latitude, radiusMeters,
+                                envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY());
+        }
+
+        // Như findInEnvelopeWithinRadius nhưng ứng viên lấy bằng range scan trên idx_reports_geohash thay cho GIST
+        @Query(value = "SELECT r.* FROM reports r JOIN " + GeohashUtil.CELL_RANGES_SQL +
+                        "ON r.geohash >= c.low AND r.geohash < c.high " +
                         "WHERE ST_DWithin(r.geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, :radius)", nativeQuery = true)
-        List<Report> findWithinRadius(
+        List<Report> findInCellRangesWithinRadius(
                         @Param("lon") double longitude,
                         @Param("lat") double latitude,
-                        @Param("radius") double radiusMeters);
+                        @Param("radius") double radiusMeters,
+                        @Param("lows") String lows,
+                        @Param("highs") String highs);
+
+        default List<Report> findWithinRadiusByCell(double longitude, double latitude, double radiusMeters) {
+                GeohashUtil.CellRanges ranges = GeohashUtil.cover(
+                                GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters), GeohashUtil.COVER_CELLS);
+                return findInCellRangesWithinRadius(longitude, latitude, radiusMeters,
+                                ranges.lowsLiteral(), ranges.highsLiteral());
+        }
+
+        @Query(value = VIEW_SELECT + "JOIN " + GeohashUtil.CELL_RANGES_SQL +
+                        "ON r.geohash >= c.low AND r.geohash < c.high " +
+                        "WHERE ST_DWithin(r.geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, :radius)", nativeQuery = true)
+        List<ReportView> findViewsInCellRangesWithinRadius(
+                        @Param("lon") double longitude,
+                        @Param("lat") double latitude,
+                        @Param("radius") double radiusMeters,
+                        @Param("lows") String lows,
+                        @Param("highs") String highs);
+
+        default List<ReportView> findViewsWithinRadiusByCell(double longitude, double latitude, double radiusMeters) {
+                GeohashUtil.CellRanges ranges = GeohashUtil.cover(
+                                GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters), GeohashUtil.COVER_CELLS);
+                return findViewsInCellRangesWithinRadius(longitude, latitude, radiusMeters,
+                                ranges.lowsLiteral(), ranges.highsLiteral());
+        }
+
+        @Query(value = "SELECT r.* FROM reports r JOIN " + GeohashUtil.CELL_RANGES_SQL +
+                        "ON r.geohash >= c.low AND r.geohash < c.high " +
+                        "WHERE r.geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)", nativeQuery = true)
+        List<Report> findInCellRangesWithinBbox(
+                        @Param("minLon") double minLon,
+                        @Param("minLat") double minLat,
+                        @Param("maxLon") double maxLon,
+                        @Param("maxLat") double maxLat,
+                        @Param("lows") String lows,
+                        @Param("highs") String highs);
+
+        default List<Report> findWithinBboxByCell(double minLon, double minLat, double maxLon, double maxLat) {
+                GeohashUtil.CellRanges ranges = GeohashUtil.cover(
+                                new Envelope(minLon, maxLon, minLat, maxLat), GeohashUtil.COVER_CELLS);
+                return findInCellRangesWithinBbox(minLon, minLat, maxLon, maxLat,
+                                ranges.lowsLiteral(), ranges.highsLiteral());
+        }
+
+        // Keyset pagination on (created_at, report_id) - first page
+        @Query(value = VIEW_SELECT +
+                        "ORDER BY r.created_at DESC, r.report_id DESC LIMIT :limit", nativeQuery = true)
+        List<ReportView> findFirstPage(@Param("limit") int limit);
+
+        // Keyset pagination - rows strictly after the cursor, walks idx_reports_time.
+        // The plain created_at bound lets the planner prune newer partitions (row comparisons are not used for pruning)
+        @Query(value = VIEW_SELECT +
+                        "WHERE r.created_at <= :createdAt AND (r.created_at, r.report_id) < (:createdAt, :reportId) " +
+                        "ORDER BY r.created_at DESC, r.report_id DESC LIMIT :limit", nativeQuery = true)
+        List<ReportView> findPageAfter(
+                        @Param("createdAt") LocalDateTime createdAt,
+                        @Param("reportId") Long reportId,
+                        @Param("limit") int limit);
+
+        // Server-side cursor: rows are fetched in chunks of the fetch size, must be consumed inside a transaction
+        @QueryHints({
+                        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HINT_READ_ONLY, value = "true")
+        })
+        @Query("SELECT r FROM Report r LEFT JOIN FETCH r.user ORDER BY r.createdAt DESC, r.reportId DESC")
+        Stream<Report> streamAllOrderByCreatedAtDesc();
+
+        // DTO projections - one round trip per list call
+        @Query(value = VIEW_SELECT + "WHERE r.report_id = :id", nativeQuery = true)
+        Optional<ReportView> findViewById(@Param("id") Long id);
+
+        @Query(value = VIEW_SELECT, nativeQuery = true)
+        List<ReportView> findAllViews();
+
+        @Query(value = VIEW_SELECT + "WHERE r.user_id = :userId", nativeQuery = true)
+        List<ReportView> findViewsByUserId(@Param("userId") Long userId);
+
+        @Query(value = VIEW_SELECT + "WHERE r.event_type = :eventType", nativeQuery = true)
+        List<ReportView> findViewsByEventType(@Param("eventType") String eventType);
+
+        @Query(value = VIEW_SELECT + "WHERE r.status = CAST(:status AS report_status)", nativeQuery = true)
+        List<ReportView> findViewsByStatus(@Param("status") String status);
+
+        // Chỉ đọc các partition từ tháng của since trở đi
+        @Query(value = VIEW_SELECT + "WHERE r.status = CAST(:status AS report_status) AND r.created_at >= :since " +
+                        "ORDER BY r.created_at DESC", nativeQuery = true)
+        List<ReportView> findViewsByStatusSince(@Param("status") String status, @Param("since") LocalDateTime since);
+
+        @Query(value = VIEW_SELECT + "WHERE r.created_at BETWEEN :start AND :end", nativeQuery = true)
+        List<ReportView> findViewsByCreatedAtBetween(
+                        @Param("start") LocalDateTime start,
+                        @Param("end") LocalDateTime end);
+
+        @Query(value = VIEW_SELECT +
+                        "WHERE r.geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326) " +
+                        "AND ST_DWithin(r.geom::geography, ST_SetSRID(ST_Point(:lon, :lat), 4326)::geography, :radius)", nativeQuery = true)
+        List<ReportView> findViewsInEnvelopeWithinRadius(
+                        @Param("lon") double longitude,
+                        @Param("lat") double latitude,
+                        @Param("radius") double radiusMeters,
+                        @Param("minLon") double minLon,
+                        @Param("minLat") double minLat,
+                        @Param("maxLon") double maxLon,
+                        @Param("maxLat") double maxLat);
+
+        default List<ReportView> findViewsWithinRadius(double longitude, double latitude, double radiusMeters) {
+                Envelope envelope = GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters);
+                return findViewsInEnvelopeWithinRadius(longitude, latitude, radiusMeters,
+                                envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY());
+        }
+
+        // Heatmap: gom report vào lưới ô vuông cellSize (độ) ngay trong DB
+        @Query(value = "SELECT ST_X(g.cell) AS \"longitude\", ST_Y(g.cell) AS \"latitude\", " +
+                        "g.cnt AS \"count\", g.max_damage AS \"maxDamageLevel\" FROM (" +
+                        "SELECT ST_SnapToGrid(r.geom, :cellSize) AS cell, COUNT(*) AS cnt, MAX(r.damage_level) AS max_damage " +
+                        "FROM reports r " +
+                        "WHERE r.geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326) " +
+                        "AND r.created_at >= :from AND r.created_at < :to " +
+                        "AND (CAST(:eventType AS text) IS NULL OR r.event_type = CAST(:eventType AS text)) " +
+                        "GROUP BY cell) g", nativeQuery = true)
+        List<HeatmapCellView> aggregateHeatmap(
+                        @Param("cellSize") double cellSize,
+                        @Param("minLon") double minLon,
+                        @Param("minLat") double minLat,
+                        @Param("maxLon") double maxLon,
+                        @Param("maxLat") double maxLat,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("eventType") String eventType);
+
+        // LOGIC 1: report FLOOD của các ngày tương đồng, dùng partial index idx_reports_flood_day.
+        // Điều kiện trên CAST(created_at AS DATE) không dùng để loại partition được: thêm [from, to) bao các ngày.
+        // rankedDays: mảng date theo thứ tự xếp hạng; report của ngày khớp sát hơn đứng trước, LIMIT cắt ngày xa nhất
+        @Query(value = VIEW_SELECT +
+                        "JOIN unnest(CAST(CAST(:rankedDays AS text) AS date[])) WITH ORDINALITY AS d(day, rank) " +
+                        "ON CAST(r.created_at AS DATE) = d.day " +
+                        "WHERE r.event_type = 'FLOOD' AND r.created_at >= :from AND r.created_at < :to " +
+                        "ORDER BY d.rank, r.created_at DESC, r.report_id DESC LIMIT :limit", nativeQuery = true)
+        List<ReportView> findFloodViewsOnRankedDaysBetween(
+                        @Param("rankedDays") String rankedDays,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("limit") int limit);
+
+        /**
+         * @param rankedDays các ngày theo thứ tự ưu tiên (không trùng), không rỗng
+         */
+        default List<ReportView> findFloodViewsOnDays(List<LocalDate> rankedDays, int limit) {
+                LocalDate first = Collections.min(rankedDays);
+                LocalDate last = Collections.max(rankedDays);
+                String literal = rankedDays.stream().map(LocalDate::toString)
+                                .collect(Collectors.joining(",", "{", "}"));
+                return findFloodViewsOnRankedDaysBetween(literal, first.atStartOfDay(), last.plusDays(1).atStartOfDay(),
+                                limit);
+        }
+
+        // Sự cố: tổng hợp các report thành viên, vị trí = tâm các report
+        String INCIDENT_SELECT = "SELECT r.incident_id AS \"incidentId\", MIN(r.event_type) AS \"eventType\", " +
+                        "ST_X(ST_Centroid(ST_Collect(r.geom))) AS \"longitude\", ST_Y(ST_Centroid(ST_Collect(r.geom))) AS \"latitude\", " +
+                        "MIN(r.created_at) AS \"firstReportAt\", MAX(r.created_at) AS \"lastReportAt\", " +
+                        "COUNT(*) AS \"reportCount\", COUNT(*) FILTER (WHERE r.status = 'UNVERIFIED') AS \"unverifiedCount\", " +
+                        "MAX(r.damage_level) AS \"maxDamageLevel\", CAST(AVG(r.damage_level) AS float8) AS \"avgDamageLevel\" " +
+                        "FROM reports r ";
+
+        // Sự cố có report từ since: chỉ quét các partition từ since, sau đó gom mọi thành viên qua idx_reports_incident
+        @Query(value = INCIDENT_SELECT +
+                        "WHERE r.incident_id IN (SELECT a.incident_id FROM reports a " +
+                        "WHERE a.incident_id IS NOT NULL AND a.created_at >= :since " +
+                        "AND (CAST(:eventType AS text) IS NULL OR a.event_type = CAST(:eventType AS text))) " +
+                        "GROUP BY r.incident_id HAVING COUNT(*) >= :minReports " +
+                        "ORDER BY MAX(r.created_at) DESC LIMIT :limit", nativeQuery = true)
+        List<IncidentView> findIncidentsActiveSince(
+                        @Param("since") LocalDateTime since,
+                        @Param("eventType") String eventType,
+                        @Param("minReports") int minReports,
+                        @Param("limit") int limit);
+
+        @Query(value = INCIDENT_SELECT + "WHERE r.incident_id = :incidentId GROUP BY r.incident_id", nativeQuery = true)
+        Optional<IncidentView> findIncidentById(@Param("incidentId") Long incidentId);
+
+        @Query(value = VIEW_SELECT + "WHERE r.incident_id = :incidentId ORDER BY r.created_at, r.report_id",
+                        nativeQuery = true)
+        List<ReportView> findViewsByIncidentId(@Param("incidentId") Long incidentId);
+
+        // Mapbox Vector Tile của layer reports cho tile z/x/y (EPSG:3857)
+        @Query(value = "WITH bounds AS (SELECT ST_TileEnvelope(:z, :x, :y) AS geom), " +
+                        "tile AS (SELECT ST_AsMVTGeom(ST_Transform(r.geom, 3857), bounds.geom) AS geom, " +
+                        "r.report_id, r.event_type, r.damage_level, CAST(r.status AS text) AS status " +
+                        "FROM reports r, bounds WHERE r.geom && ST_Transform(bounds.geom, 4326)) " +
+                        "SELECT ST_AsMVT(tile.*, 'reports') FROM tile", nativeQuery = true)
+        byte[] findMvtTile(@Param("z") int z, @Param("x") int x, @Param("y") int y);
 }
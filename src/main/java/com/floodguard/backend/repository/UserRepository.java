@@ -3,6 +3,8 @@ package com.floodguard.backend.repository;
 import com.floodguard.backend.model.User;
 import com.floodguard.backend.model.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +19,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByPhoneNumber(String phoneNumber);
 
+    // Tra cứu identifier trong 1 câu lệnh, thứ tự ưu tiên như trước: phone_number → email → username.
+    // Mỗi nhánh OR dùng index riêng (BitmapOr)
+    @Query(value = "SELECT * FROM users " +
+            "WHERE phone_number = :identifier OR email = :identifier OR username = :identifier " +
+            "ORDER BY CASE WHEN phone_number = :identifier THEN 0 WHEN email = :identifier THEN 1 ELSE 2 END, user_id " +
+            "LIMIT 1", nativeQuery = true)
+    Optional<User> findByIdentifier(@Param("identifier") String identifier);
+
+    // Identifier dạng email: email hoặc username (user đăng nhập Google có username = email)
+    @Query(value = "SELECT * FROM users WHERE email = :identifier OR username = :identifier " +
+            "ORDER BY CASE WHEN email = :identifier THEN 0 ELSE 1 END, user_id LIMIT 1", nativeQuery = true)
+    Optional<User> findByEmailIdentifier(@Param("identifier") String identifier);
+
+    // Identifier dạng số điện thoại: phone_number hoặc username (đăng ký bằng SĐT có username = SĐT)
+    @Query(value = "SELECT * FROM users WHERE phone_number = :identifier OR username = :identifier " +
+            "ORDER BY CASE WHEN phone_number = :identifier THEN 0 ELSE 1 END, user_id LIMIT 1", nativeQuery = true)
+    Optional<User> findByPhoneIdentifier(@Param("identifier") String identifier);
+
     List<User> findByRole(UserRole role);
 
     List<User> findByManagementAreaCode(String managementAreaCode);
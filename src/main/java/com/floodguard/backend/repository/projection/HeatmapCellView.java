@@ -0,0 +1,15 @@
+package com.floodguard.backend.repository.projection;
+
+/**
+ * One grid cell of the report heatmap aggregated by ST_SnapToGrid.
+ */
+public interface HeatmapCellView {
+
+    Double getLongitude();
+
+    Double getLatitude();
+
+    Long getCount();
+
+    Integer getMaxDamageLevel();
+}
@@ -0,0 +1,29 @@
+package com.floodguard.backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate of the member reports of one incident (reports.incident_id).
+ */
+public interface IncidentView {
+
+    Long getIncidentId();
+
+    String getEventType();
+
+    Double getLongitude();
+
+    Double getLatitude();
+
+    LocalDateTime getFirstReportAt();
+
+    LocalDateTime getLastReportAt();
+
+    Long getReportCount();
+
+    Long getUnverifiedCount();
+
+    Integer getMaxDamageLevel();
+
+    Double getAvgDamageLevel();
+}
@@ -0,0 +1,36 @@
+package com.floodguard.backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of a report joined with its author, matching the fields of ReportDTO.Response.
+ * Column aliases in the native queries must match the getter names.
+ */
+public interface ReportView {
+
+    Long getReportId();
+
+    Double getLongitude();
+
+    Double getLatitude();
+
+    Long getUserId();
+
+    String getUserFullName();
+
+    LocalDateTime getReportTime();
+
+    String getEventType();
+
+    String getDescription();
+
+    String getImageUrl();
+
+    Integer getDamageLevel();
+
+    String getVerifyStatus();
+
+    Long getIncidentId();
+
+    Integer getVersion();
+}
@@ -0,0 +1,13 @@
+package com.floodguard.backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of rows in one date_trunc bucket.
+ */
+public interface TimeBucketCountView {
+
+    LocalDateTime getBucket();
+
+    Long getCount();
+}
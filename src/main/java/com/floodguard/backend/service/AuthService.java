@@ -2,13 +2,16 @@ package com.floodguard.backend.service;
 
 import com.floodguard.backend.dto.AuthDTO;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
 
     /**
      * Đăng nhập bằng Google ID Token
-     * Nếu user chưa tồn tại sẽ tự động tạo mới
+     * Nếu user chưa tồn tại sẽ tự động tạo mới.
+     * Token được xác thực trên pool riêng, request thread không phải chờ
      */
-    AuthDTO.AuthResponse loginWithGoogle(AuthDTO.GoogleLoginRequest request);
+    CompletableFuture<AuthDTO.AuthResponse> loginWithGoogle(AuthDTO.GoogleLoginRequest request);
 
     /**
      * Đăng nhập bằng email/password
@@ -0,0 +1,28 @@
+package com.floodguard.backend.service;
+
+import com.floodguard.backend.dto.ClimateDataDTO;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ClimateDataService {
+
+    // Đưa reading vào buffer ghi theo batch, không chờ ghi xuống DB
+    ClimateDataDTO.IngestResponse ingestNdjson(InputStream ndjson);
+
+    ClimateDataDTO.IngestResponse ingestBinary(InputStream binary);
+
+    ClimateDataDTO.IngestMetrics getIngestMetrics();
+
+    ClimateDataDTO.Response getById(Long id);
+
+    // type = null: cả RAIN và TIDE
+    List<ClimateDataDTO.Response> getByRange(String type, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * LOGIC 1: report FLOOD của những ngày có đỉnh triều (type=TIDE) hoặc tổng lượng mưa (type=RAIN)
+     * thực đo trong khoảng value ± tolerance
+     */
+    ClimateDataDTO.AnalogResponse findAnalogs(String type, double value, double tolerance, int limit);
+}
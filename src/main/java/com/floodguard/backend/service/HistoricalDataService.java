@@ -8,19 +8,25 @@ public interface HistoricalDataService {
 
     HistoricalDataDTO.Response create(HistoricalDataDTO.CreateRequest request);
 
-    HistoricalDataDTO.Response getById(Long id);
+    HistoricalDataDTO.Response getById(Long id, HistoricalDataDTO.GeometryOptions options);
 
-    List<HistoricalDataDTO.Response> getAll();
+    List<HistoricalDataDTO.Response> getAll(HistoricalDataDTO.GeometryOptions options);
 
-    List<HistoricalDataDTO.Response> getByYear(Integer year);
+    List<HistoricalDataDTO.Response> getByYear(Integer year, HistoricalDataDTO.GeometryOptions options);
 
-    List<HistoricalDataDTO.Response> getByAlertLevel(String alertLevel);
+    List<HistoricalDataDTO.Response> getByAlertLevel(String alertLevel, HistoricalDataDTO.GeometryOptions options);
 
-    List<HistoricalDataDTO.Response> getByYearRange(Integer startYear, Integer endYear);
+    List<HistoricalDataDTO.Response> getByYearRange(Integer startYear, Integer endYear,
+            HistoricalDataDTO.GeometryOptions options);
 
-    List<HistoricalDataDTO.Response> findContainingPoint(double longitude, double latitude);
+    List<HistoricalDataDTO.Response> findContainingPoint(double longitude, double latitude,
+            HistoricalDataDTO.GeometryOptions options);
 
-    List<HistoricalDataDTO.Response> findInBoundingBox(double minLon, double minLat, double maxLon, double maxLat);
+    // Với mỗi điểm (theo đúng thứ tự gửi lên) trả về id các vùng ngập lịch sử chứa điểm đó
+    List<HistoricalDataDTO.PointMatch> findContainingPoints(List<HistoricalDataDTO.PointQuery> points);
+
+    List<HistoricalDataDTO.Response> findInBoundingBox(double minLon, double minLat, double maxLon, double maxLat,
+            HistoricalDataDTO.GeometryOptions options);
 
     HistoricalDataDTO.Response update(Long id, HistoricalDataDTO.UpdateRequest request);
 
@@ -0,0 +1,24 @@
+package com.floodguard.backend.service;
+
+import com.floodguard.backend.dto.HouseholdDTO;
+import com.floodguard.backend.spatial.HouseholdPriorityIndex;
+
+import java.util.Set;
+
+public interface HouseholdService {
+
+    HouseholdDTO.Response create(HouseholdDTO.CreateRequest request);
+
+    HouseholdDTO.Response getById(Long id);
+
+    HouseholdDTO.Response update(Long id, HouseholdDTO.UpdateRequest request);
+
+    void delete(Long id);
+
+    /**
+     * LOGIC 2: hộ dân trong bán kính quanh điểm sự cố (VD: vỡ đê), có ít nhất một yếu tố dễ tổn thương
+     * trong vulnerabilities, xếp theo mức độ ưu tiên cứu trợ
+     */
+    HouseholdDTO.RescuePriorityResponse findRescuePriority(double longitude, double latitude, double radiusMeters,
+            Set<HouseholdPriorityIndex.Vulnerability> vulnerabilities, Integer maxFloors, int limit);
+}
@@ -0,0 +1,16 @@
+package com.floodguard.backend.service;
+
+import com.floodguard.backend.dto.IncidentDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IncidentService {
+
+    /**
+     * Sự cố có report mới từ since, report gần nhất trước; minReports = 2 để chỉ lấy các nhóm report trùng lặp
+     */
+    List<IncidentDTO.Response> getActiveSince(LocalDateTime since, String eventType, int minReports, int limit);
+
+    IncidentDTO.DetailResponse getById(Long incidentId);
+}
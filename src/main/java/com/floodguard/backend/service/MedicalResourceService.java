@@ -0,0 +1,33 @@
+package com.floodguard.backend.service;
+
+import com.floodguard.backend.dto.MedicalResourceDTO;
+
+public interface MedicalResourceService {
+
+    MedicalResourceDTO.Response create(MedicalResourceDTO.CreateRequest request);
+
+    MedicalResourceDTO.Response getById(Long id);
+
+    MedicalResourceDTO.Response update(Long id, MedicalResourceDTO.UpdateRequest request);
+
+    /**
+     * Bật/tắt resource (is_active) khi lực lượng y tế rời hoặc quay lại vị trí trực
+     */
+    MedicalResourceDTO.Response setAvailability(Long id, boolean active);
+
+    void delete(Long id);
+
+    /**
+     * k resource đang hoạt động gần điểm nhất theo chuyên khoa (null = mọi chuyên khoa)
+     *
+     * @param maxDistanceMeters null = không giới hạn
+     */
+    MedicalResourceDTO.NearestResponse findNearest(double longitude, double latitude, String specialization, int k,
+            Double maxDistanceMeters);
+
+    /**
+     * Như findNearest cho từng hộ dân trong danh sách (VD: các hộ của một sự cố), toạ độ hộ đọc một lần
+     */
+    MedicalResourceDTO.HouseholdNearestResponse findNearestForHouseholds(
+            MedicalResourceDTO.HouseholdNearestRequest request);
+}
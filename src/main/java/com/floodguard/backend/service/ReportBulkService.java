@@ -0,0 +1,31 @@
+package com.floodguard.backend.service;
+
+import com.floodguard.backend.dto.ReportDTO;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ReportBulkService {
+
+    /**
+     * Import CSV có header (user_id, guest_name, guest_phone, event_type, description, image_url,
+     * damage_level, created_at, longitude/lon, latitude/lat) bằng COPY FROM STDIN
+     */
+    ReportDTO.BulkImportResponse importCsv(InputStream csv);
+
+    /**
+     * Import NDJSON, mỗi dòng một ReportDTO.CreateRequest có longitude/latitude
+     */
+    ReportDTO.BulkImportResponse importNdjson(InputStream ndjson);
+
+    /**
+     * Ghi toàn bộ reports ra CSV bằng COPY TO STDOUT; file xuất ra có thể import lại
+     */
+    void exportCsv(OutputStream outputStream);
+
+    /**
+     * Xác minh hàng loạt bằng một câu UPDATE ... RETURNING: theo danh sách id (kèm version để phát hiện xung đột)
+     * hoặc theo bbox / khoảng thời gian / sự cố / loại sự kiện
+     */
+    ReportDTO.BulkVerifyResponse verify(ReportDTO.BulkVerifyRequest request);
+}
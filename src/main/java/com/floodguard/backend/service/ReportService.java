@@ -1,29 +1,47 @@
 package com.floodguard.backend.service;
 
 import com.floodguard.backend.dto.ReportDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface ReportService {
 
     ReportDTO.Response create(ReportDTO.CreateRequest request);
 
+    // Write-behind: xếp hàng report để ghi theo batch, trả về id tạm
+    boolean isAsyncIngestEnabled();
+
+    ReportDTO.AcceptedResponse submit(ReportDTO.CreateRequest request);
+
     ReportDTO.Response getById(Long id);
 
     List<ReportDTO.Response> getAll();
 
+    ReportDTO.PageResponse getPage(String cursor, int size);
+
+    void streamAll(Consumer<ReportDTO.Response> consumer);
+
     List<ReportDTO.Response> getByUserId(Long userId);
 
     List<ReportDTO.Response> getByLocationId(Long locationId);
 
+    // Các report thuộc một sự cố, cũ nhất trước
+    List<ReportDTO.Response> getByIncidentId(Long incidentId);
+
     List<ReportDTO.Response> getByEventType(String eventType);
 
     List<ReportDTO.Response> getByVerifyStatus(String verifyStatus);
 
     List<ReportDTO.Response> getPendingReports();
 
+    // Report chờ xác minh tạo từ since (VD: từ đầu đợt mưa bão hiện tại), chỉ đọc các partition liên quan
+    List<ReportDTO.Response> getPendingReports(LocalDateTime since);
+
     List<ReportDTO.Response> getByTimeRange(LocalDateTime start, LocalDateTime end);
 
     List<ReportDTO.Response> findWithinRadius(double longitude, double latitude, double radiusMeters);
@@ -34,8 +52,28 @@ public interface ReportService {
 
     void delete(Long id);
 
+    ReportDTO.HeatmapResponse getHeatmap(double minLon, double minLat, double maxLon, double maxLat, int zoom,
+            LocalDateTime from, LocalDateTime to, String eventType);
+
+    /**
+     * Live feed (SSE) của report được tạo / cập nhật / xác minh trong bbox
+     *
+     * @param bbox       minLon, minLat, maxLon, maxLat; null = toàn bộ
+     * @param eventTypes null hoặc rỗng = mọi loại sự kiện
+     */
+    SseEmitter subscribeFeed(double[] bbox, Set<String> eventTypes);
+
     // Statistics
     Map<String, Long> getCountByEventType();
 
     Map<String, Long> getCountByVerifyStatus();
+
+    /**
+     * Số report tạo mới theo giờ / ngày
+     *
+     * @param areaCode  management_area_code của người gửi; null = mọi khu vực
+     * @param eventType null = mọi loại sự kiện
+     */
+    ReportDTO.TimeSeriesResponse getTimeSeries(String granularity, LocalDateTime from, LocalDateTime to,
+            String areaCode, String eventType);
 }
@@ -0,0 +1,25 @@
+package com.floodguard.backend.service;
+
+import com.floodguard.backend.dto.TileDTO;
+
+public interface TileService {
+
+    String LAYER_REPORTS = "reports";
+    String LAYER_INFRASTRUCTURE = "infrastructure";
+    String LAYER_HOUSEHOLDS = "households";
+
+    /**
+     * Lấy Mapbox Vector Tile z/x/y của layer, có cache
+     */
+    TileDTO.Tile getTile(String layer, int z, int x, int y);
+
+    /**
+     * Xoá khỏi cache mọi tile (ở mọi zoom) chứa điểm lon/lat của layer
+     */
+    void invalidatePoint(String layer, double longitude, double latitude);
+
+    /**
+     * Xoá khỏi cache toàn bộ tile của layer (dùng sau khi import hàng loạt)
+     */
+    void invalidateLayer(String layer);
+}
@@ -1,11 +1,24 @@
 package com.floodguard.backend.service;
 
+import com.floodguard.backend.model.User;
+import com.floodguard.backend.model.UserChangedEvent;
+import com.floodguard.backend.model.UserRole;
 import com.floodguard.backend.repository.UserRepository;
+import com.floodguard.backend.util.IdentifierUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -13,12 +26,85 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    // Cache ngắn hạn cho JwtAuthenticationFilter; chỉ cache user tìm thấy
+    @Value("${security.user-cache.ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    @Value("${security.user-cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    private Cache<String, CachedUser> cache;
+
+    @PostConstruct
+    void initCache() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
     @Override
     public UserDetails loadUserByUsername(String identifier) throws UsernameNotFoundException {
-        // Tìm theo phoneNumber, email, hoặc username
-        return userRepository.findByPhoneNumber(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
-                .or(() -> userRepository.findByUsername(identifier))
+        CachedUser cached = cache.getIfPresent(identifier);
+        if (cached != null) {
+            return cached.toUser();
+        }
+
+        // Tìm theo phoneNumber, email, hoặc username trong 1 round trip, chọn query theo dạng identifier
+        User user = findByIdentifier(identifier)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with identifier: " + identifier));
+        cache.put(identifier, CachedUser.of(user));
+        return user;
+    }
+
+    private Optional<User> findByIdentifier(String identifier) {
+        return switch (IdentifierUtil.classify(identifier)) {
+            case EMAIL -> userRepository.findByEmailIdentifier(identifier);
+            case PHONE -> userRepository.findByPhoneIdentifier(identifier);
+            case USERNAME -> userRepository.findByIdentifier(identifier);
+        };
+    }
+
+    /**
+     * Xoá user khỏi cache (mọi identifier trỏ tới user đó), gọi khi user được cập nhật hoặc xoá
+     */
+    public void evict(Long userId) {
+        cache.asMap().values().removeIf(user -> user.userId().equals(userId));
+    }
+
+    // fallbackExecution: thay đổi ngoài transaction thì xoá ngay
+    @TransactionalEventListener(fallbackExecution = true)
+    void onUserChanged(UserChangedEvent event) {
+        evict(event.userId());
+    }
+
+    /**
+     * Bản chụp bất biến của User trong cache: mỗi lần trúng cache trả về một User mới,
+     * người gọi sửa principal không làm hỏng bản đang cache
+     */
+    private record CachedUser(Long userId, String username, String passwordHash, String fullName,
+                              String phoneNumber, UserRole role, String managementAreaCode, String email,
+                              LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getUserId(), user.getUsername(), user.getPasswordHash(), user.getFullName(),
+                    user.getPhoneNumber(), user.getRole(), user.getManagementAreaCode(), user.getEmail(),
+                    user.getCreatedAt(), user.getUpdatedAt());
+        }
+
+        User toUser() {
+            return User.builder()
+                    .userId(userId)
+                    .username(username)
+                    .passwordHash(passwordHash)
+                    .fullName(fullName)
+                    .phoneNumber(phoneNumber)
+                    .role(role)
+                    .managementAreaCode(managementAreaCode)
+                    .email(email)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
     }
 }
@@ -1,6 +1,8 @@
 package com.floodguard.backend.service.impl;
 
+import com.floodguard.backend.auth.GoogleTokenVerifier;
 import com.floodguard.backend.dto.AuthDTO;
+import com.floodguard.backend.exception.BackpressureException;
 import com.floodguard.backend.exception.CustomException;
 import com.floodguard.backend.model.User;
 import com.floodguard.backend.model.UserRole;
@@ -8,21 +10,25 @@ import com.floodguard.backend.repository.UserRepository;
 import com.floodguard.backend.config.JwtUtil;
 import com.floodguard.backend.service.AuthService;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
@@ -33,67 +39,70 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
+    private final GoogleTokenVerifier googleTokenVerifier;
+    private final PlatformTransactionManager transactionManager;
+    // Executor của Spring Boot (cũng chạy async MVC): truy vấn DB không chiếm pool nhỏ của GoogleTokenVerifier
+    private final AsyncTaskExecutor applicationTaskExecutor;
 
-    @Value("${google.client-id}")
-    private String googleClientId;
+    @Value("${google.login.timeout-ms:10000}")
+    private long loginTimeoutMs;
 
-    @Override
-    public AuthDTO.AuthResponse loginWithGoogle(AuthDTO.GoogleLoginRequest request) {
-        try {
-            // Verify Google ID Token
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(), GsonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
-
-            GoogleIdToken idToken = verifier.verify(request.getIdToken());
-
-            if (idToken == null) {
-                throw new CustomException("Invalid Google ID token", HttpStatus.UNAUTHORIZED);
-            }
+    @Value("${google.verify.retry-after-seconds:2}")
+    private long retryAfterSeconds;
 
-            GoogleIdToken.Payload payload = idToken.getPayload();
-            String email = payload.getEmail();
-            String fullName = (String) payload.get("name");
-
-            // Kiểm tra user đã tồn tại chưa
-            Optional<User> existingUser = userRepository.findByUsername(email);
-            boolean isNewUser = existingUser.isEmpty();
-
-            User user;
-            if (isNewUser) {
-                // Tạo user mới
-                user = User.builder()
-                        .username(email)
-                        .fullName(fullName != null ? fullName : email.split("@")[0])
-                        .role(UserRole.RESIDENT)
-                        .build();
-                user = userRepository.save(user);
-                log.info("Created new user from Google login: {}", email);
-            } else {
-                user = existingUser.get();
-                log.info("Existing user logged in with Google: {}", email);
-            }
+    @Override
+    // Transaction mở trong callback, sau khi token đã được xác thực
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<AuthDTO.AuthResponse> loginWithGoogle(AuthDTO.GoogleLoginRequest request) {
+        return googleTokenVerifier.verify(request.getIdToken())
+                .thenApplyAsync(payload -> new TransactionTemplate(transactionManager)
+                        .execute(status -> loginGoogleUser(payload)), applicationTaskExecutor)
+                .orTimeout(loginTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        cause = new BackpressureException("Google login timed out, please retry", retryAfterSeconds);
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
 
-            // Tạo JWT token
-            Map<String, Object> claims = new HashMap<>();
-            claims.put("userId", user.getUserId());
-            claims.put("role", user.getRole().name());
-            String token = jwtUtil.generateToken(email, claims);
-
-            return AuthDTO.AuthResponse.builder()
-                    .accessToken(token)
-                    .tokenType("Bearer")
-                    .expiresIn(jwtUtil.getExpiration())
-                    .user(mapToUserInfo(user, isNewUser))
+    private AuthDTO.AuthResponse loginGoogleUser(GoogleIdToken.Payload payload) {
+        String email = payload.getEmail();
+        String fullName = (String) payload.get("name");
+
+        // Kiểm tra user đã tồn tại chưa
+        Optional<User> existingUser = userRepository.findByUsername(email);
+        boolean isNewUser = existingUser.isEmpty();
+
+        User user;
+        if (isNewUser) {
+            // Tạo user mới
+            user = User.builder()
+                    .username(email)
+                    .fullName(fullName != null ? fullName : email.split("@")[0])
+                    .role(UserRole.RESIDENT)
                     .build();
-
-        } catch (CustomException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Google login error", e);
-            throw new CustomException("Failed to verify Google token: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
+            user = userRepository.save(user);
+            log.info("Created new user from Google login: {}", email);
+        } else {
+            user = existingUser.get();
+            log.info("Existing user logged in with Google: {}", email);
         }
+
+        // Tạo JWT token
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getUserId());
+        claims.put("role", user.getRole().name());
+        String token = jwtUtil.generateToken(email, claims);
+
+        return AuthDTO.AuthResponse.builder()
+                .accessToken(token)
+                .tokenType("Bearer")
+                .expiresIn(jwtUtil.getExpiration())
+                .user(mapToUserInfo(user, isNewUser))
+                .build();
     }
 
     @Override
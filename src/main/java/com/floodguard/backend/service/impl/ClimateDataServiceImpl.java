@@ -0,0 +1,248 @@
+package com.floodguard.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floodguard.backend.analog.ClimateAnalogIndex;
+import com.floodguard.backend.dto.ClimateDataDTO;
+import com.floodguard.backend.exception.BackpressureException;
+import com.floodguard.backend.exception.ResourceNotFoundException;
+import com.floodguard.backend.ingest.ClimateIngestPipeline;
+import com.floodguard.backend.model.ClimateDaily;
+import com.floodguard.backend.model.ClimateData;
+import com.floodguard.backend.repository.ClimateDailyRepository;
+import com.floodguard.backend.repository.ClimateDataRepository;
+import com.floodguard.backend.repository.ReportRepository;
+import com.floodguard.backend.repository.projection.ReportView;
+import com.floodguard.backend.service.ClimateDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ClimateDataServiceImpl implements ClimateDataService {
+
+    /**
+     * Bản ghi nhị phân big-endian 18 byte: int64 epoch millis, uint8 type (0 = RAIN, 1 = TIDE),
+     * float64 value, uint8 flags (bit 0 = is_forecast). Thời điểm quy đổi theo múi giờ của server.
+     */
+    public static final int BINARY_RECORD_SIZE = 18;
+    private static final String[] BINARY_TYPES = {"RAIN", "TIDE"};
+    private static final int MAX_ANALOG_REPORTS = 500;
+    private static final int MAX_ANALOG_DAYS = 1000;
+
+    private final ClimateDataRepository climateDataRepository;
+    private final ClimateDailyRepository climateDailyRepository;
+    private final ReportRepository reportRepository;
+    private final ClimateAnalogIndex analogIndex;
+    private final ClimateIngestPipeline ingestPipeline;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public ClimateDataDTO.IngestResponse ingestNdjson(InputStream ndjson) {
+        Counter counter = new Counter();
+        try (MappingIterator<ClimateDataDTO.Reading> readings =
+                     objectMapper.readerFor(ClimateDataDTO.Reading.class).readValues(ndjson)) {
+            while (readings.hasNextValue()) {
+                ClimateDataDTO.Reading reading = readings.nextValue();
+                String type = normalizeType(reading.getType());
+                if (reading.getRecordDate() == null || type == null || reading.getValue() == null) {
+                    counter.rejected++;
+                    continue;
+                }
+                offer(counter, reading.getRecordDate(), type, reading.getValue(),
+                        Boolean.TRUE.equals(reading.getIsForecast()));
+            }
+        } catch (JsonProcessingException e) {
+            ingestPipeline.recordRejected(counter.rejected);
+            throw new IllegalArgumentException("Invalid NDJSON after " + counter.accepted + " accepted readings: "
+                    + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return counter.finish();
+    }
+
+    @Override
+    public ClimateDataDTO.IngestResponse ingestBinary(InputStream binary) {
+        Counter counter = new Counter();
+        InputStream input = new BufferedInputStream(binary, 64 * 1024);
+        ByteBuffer record = ByteBuffer.allocate(BINARY_RECORD_SIZE);
+        ZoneId zone = ZoneId.systemDefault();
+        try {
+            int read;
+            while ((read = input.readNBytes(record.array(), 0, BINARY_RECORD_SIZE)) > 0) {
+                if (read < BINARY_RECORD_SIZE) {
+                    ingestPipeline.recordRejected(counter.rejected);
+                    throw new IllegalArgumentException("Truncated binary record after " + counter.accepted
+                            + " accepted readings");
+                }
+                record.clear();
+                long epochMillis = record.getLong();
+                int typeCode = record.get() & 0xFF;
+                double value = record.getDouble();
+                boolean forecast = (record.get() & 1) != 0;
+                if (typeCode >= BINARY_TYPES.length) {
+                    counter.rejected++;
+                    continue;
+                }
+                offer(counter, LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone),
+                        BINARY_TYPES[typeCode], value, forecast);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return counter.finish();
+    }
+
+    @Override
+    public ClimateDataDTO.IngestMetrics getIngestMetrics() {
+        return ingestPipeline.metrics();
+    }
+
+    @Override
+    public ClimateDataDTO.Response getById(Long id) {
+        ClimateData data = climateDataRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("ClimateData", "id", id));
+        return mapToResponse(data);
+    }
+
+    @Override
+    public List<ClimateDataDTO.Response> getByRange(String type, LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        List<ClimateData> data;
+        if (type == null) {
+            data = climateDataRepository.findByRecordDateBetweenOrderByRecordDateAsc(from, to);
+        } else {
+            String normalized = normalizeType(type);
+            if (normalized == null) {
+                throw new IllegalArgumentException("type must be RAIN or TIDE");
+            }
+            data = climateDataRepository.findByTypeAndRecordDateBetweenOrderByRecordDateAsc(normalized, from, to);
+        }
+        return data.stream().map(this::mapToResponse).collect(Collectors.toList());
+    }
+
+    @Override
+    public ClimateDataDTO.AnalogResponse findAnalogs(String type, double value, double tolerance, int limit) {
+        String normalized = normalizeType(type);
+        if (normalized == null) {
+            throw new IllegalArgumentException("type must be RAIN or TIDE");
+        }
+        if (!Double.isFinite(value) || !Double.isFinite(tolerance) || tolerance < 0) {
+            throw new IllegalArgumentException("value and tolerance must be finite, tolerance must not be negative");
+        }
+        if (limit < 1 || limit > MAX_ANALOG_REPORTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_ANALOG_REPORTS);
+        }
+
+        ClimateAnalogIndex.Measure measure = ClimateAnalogIndex.Measure.valueOf(normalized);
+        double min = value - tolerance;
+        double max = value + tolerance;
+        List<ClimateDaily> days;
+        if (analogIndex.isReady()) {
+            analogIndex.refreshIfStale();
+            days = analogIndex.find(measure, value, min, max, MAX_ANALOG_DAYS);
+        } else {
+            days = new ArrayList<>(measure == ClimateAnalogIndex.Measure.TIDE
+                    ? climateDailyRepository.findFloodDaysByTideBetween(min, max)
+                    : climateDailyRepository.findFloodDaysByRainBetween(min, max));
+            days.sort(ClimateAnalogIndex.closestFirst(measure, value));
+            days = days.subList(0, Math.min(days.size(), MAX_ANALOG_DAYS));
+        }
+
+        Map<LocalDate, Double> dayValues = new HashMap<>();
+        days.forEach(day -> dayValues.put(day.getDay(), measure.valueOf(day)));
+        List<ReportView> reports = dayValues.isEmpty()
+                ? List.of()
+                : reportRepository.findFloodViewsOnDays(days.stream().map(ClimateDaily::getDay).toList(), limit);
+
+        return ClimateDataDTO.AnalogResponse.builder()
+                .type(normalized)
+                .value(value)
+                .tolerance(tolerance)
+                .days(days.stream().map(day -> ClimateDataDTO.AnalogDay.builder()
+                        .day(day.getDay())
+                        .maxTide(day.getMaxTide())
+                        .totalRain(day.getTotalRain())
+                        .floodReports(day.getFloodReports())
+                        .build()).collect(Collectors.toList()))
+                .reports(reports.stream().map(report -> ClimateDataDTO.AnalogReport.builder()
+                        .reportId(report.getReportId())
+                        .reportTime(report.getReportTime())
+                        .description(report.getDescription())
+                        .imageUrl(report.getImageUrl())
+                        .damageLevel(report.getDamageLevel())
+                        .longitude(report.getLongitude())
+                        .latitude(report.getLatitude())
+                        .dayValue(dayValues.get(report.getReportTime().toLocalDate()))
+                        .build()).collect(Collectors.toList()))
+                .build();
+    }
+
+    private void offer(Counter counter, LocalDateTime recordDate, String type, double value, boolean forecast) {
+        if (!Double.isFinite(value)) {
+            counter.rejected++;
+            return;
+        }
+        if (!ingestPipeline.offer(recordDate, type, value, forecast)) {
+            ingestPipeline.recordRejected(counter.rejected);
+            // Các reading trước đó đã được nhận: client gửi lại phần còn lại
+            throw new BackpressureException("Climate ingest buffer is full after " + counter.accepted
+                    + " accepted readings, please retry the rest later", ingestPipeline.getRetryAfterSeconds());
+        }
+        counter.accepted++;
+    }
+
+    private static String normalizeType(String type) {
+        if (type == null) {
+            return null;
+        }
+        String normalized = type.trim().toUpperCase(Locale.ROOT);
+        return "RAIN".equals(normalized) || "TIDE".equals(normalized) ? normalized : null;
+    }
+
+    private ClimateDataDTO.Response mapToResponse(ClimateData data) {
+        return ClimateDataDTO.Response.builder()
+                .dataId(data.getDataId())
+                .recordDate(data.getRecordDate())
+                .type(data.getType())
+                .value(data.getValue())
+                .isForecast(data.getIsForecast())
+                .description(data.getDescription())
+                .build();
+    }
+
+    private final class Counter {
+        private long accepted;
+        private long rejected;
+
+        private ClimateDataDTO.IngestResponse finish() {
+            ingestPipeline.recordRejected(rejected);
+            return ClimateDataDTO.IngestResponse.builder()
+                    .accepted(accepted)
+                    .rejected(rejected)
+                    .build();
+        }
+    }
+}
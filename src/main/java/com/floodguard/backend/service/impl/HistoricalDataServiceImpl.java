@@ -1,10 +1,15 @@
 package com.floodguard.backend.service.impl;
 
 import com.floodguard.backend.dto.HistoricalDataDTO;
+import com.floodguard.backend.event.ChangeEvent;
+import com.floodguard.backend.event.ChangeEventBus;
 import com.floodguard.backend.exception.ResourceNotFoundException;
 import com.floodguard.backend.model.HistoricalData;
 import com.floodguard.backend.repository.HistoricalDataRepository;
 import com.floodguard.backend.service.HistoricalDataService;
+import com.floodguard.backend.spatial.HistoricalDataSpatialIndex;
+import com.floodguard.backend.util.GeometryEncoder;
+import com.floodguard.backend.util.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.Polygon;
@@ -14,7 +19,9 @@ import org.locationtech.jts.io.WKTWriter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,7 +29,12 @@ import java.util.stream.Collectors;
 @Transactional
 public class HistoricalDataServiceImpl implements HistoricalDataService {
 
+    private static final HistoricalDataDTO.GeometryOptions DEFAULT_GEOMETRY =
+            HistoricalDataDTO.GeometryOptions.builder().build();
+
     private final HistoricalDataRepository historicalDataRepository;
+    private final HistoricalDataSpatialIndex spatialIndex;
+    private final ChangeEventBus changeEventBus;
     private final WKTReader wktReader = new WKTReader();
     private final WKTWriter wktWriter = new WKTWriter();
 
@@ -36,63 +48,101 @@ public class HistoricalDataServiceImpl implements HistoricalDataService {
                 .build();
 
         HistoricalData saved = historicalDataRepository.save(historicalData);
+        TransactionUtil.afterCommit(() -> spatialIndex.put(saved));
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.HISTORICAL_DATA, ChangeEvent.Action.CREATED,
+                saved.getHistoryId()));
         return mapToResponse(saved);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public HistoricalDataDTO.Response getById(Long id) {
+    public HistoricalDataDTO.Response getById(Long id, HistoricalDataDTO.GeometryOptions options) {
         HistoricalData data = historicalDataRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("HistoricalData", "id", id));
-        return mapToResponse(data);
+        return mapToResponse(data, options);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<HistoricalDataDTO.Response> getAll() {
+    public List<HistoricalDataDTO.Response> getAll(HistoricalDataDTO.GeometryOptions options) {
         return historicalDataRepository.findAll().stream()
-                .map(this::mapToResponse)
+                .map(data -> mapToResponse(data, options))
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<HistoricalDataDTO.Response> getByYear(Integer year) {
+    public List<HistoricalDataDTO.Response> getByYear(Integer year, HistoricalDataDTO.GeometryOptions options) {
         return historicalDataRepository.findByYear(year).stream()
-                .map(this::mapToResponse)
+                .map(data -> mapToResponse(data, options))
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<HistoricalDataDTO.Response> getByAlertLevel(String alertLevel) {
+    public List<HistoricalDataDTO.Response> getByAlertLevel(String alertLevel, HistoricalDataDTO.GeometryOptions options) {
         return historicalDataRepository.findByAlertLevel(alertLevel).stream()
-                .map(this::mapToResponse)
+                .map(data -> mapToResponse(data, options))
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<HistoricalDataDTO.Response> getByYearRange(Integer startYear, Integer endYear) {
+    public List<HistoricalDataDTO.Response> getByYearRange(Integer startYear, Integer endYear,
+            HistoricalDataDTO.GeometryOptions options) {
         return historicalDataRepository.findByYearBetween(startYear, endYear).stream()
-                .map(this::mapToResponse)
+                .map(data -> mapToResponse(data, options))
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<HistoricalDataDTO.Response> findContainingPoint(double longitude, double latitude) {
+    public List<HistoricalDataDTO.Response> findContainingPoint(double longitude, double latitude,
+            HistoricalDataDTO.GeometryOptions options) {
+        if (spatialIndex.isReady()) {
+            return spatialIndex.findContainingPoint(longitude, latitude).stream()
+                    .map(entry -> mapToResponse(entry, options))
+                    .collect(Collectors.toList());
+        }
         return historicalDataRepository.findHistoryContainingPoint(longitude, latitude).stream()
-                .map(this::mapToResponse)
+                .map(data -> mapToResponse(data, options))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<HistoricalDataDTO.PointMatch> findContainingPoints(List<HistoricalDataDTO.PointQuery> points) {
+        boolean indexed = spatialIndex.isReady();
+        List<HistoricalDataDTO.PointMatch> matches = new ArrayList<>(points.size());
+        for (HistoricalDataDTO.PointQuery point : points) {
+            List<Long> historyIds = indexed
+                    ? spatialIndex.findContainingPoint(point.getLongitude(), point.getLatitude()).stream()
+                            .map(entry -> entry.data().getHistoryId())
+                            .toList()
+                    : historicalDataRepository.findHistoryContainingPoint(point.getLongitude(), point.getLatitude())
+                            .stream()
+                            .map(HistoricalData::getHistoryId)
+                            .toList();
+            matches.add(HistoricalDataDTO.PointMatch.builder()
+                    .longitude(point.getLongitude())
+                    .latitude(point.getLatitude())
+                    .historyIds(historyIds)
+                    .build());
+        }
+        return matches;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<HistoricalDataDTO.Response> findInBoundingBox(double minLon, double minLat, double maxLon,
-            double maxLat) {
+            double maxLat, HistoricalDataDTO.GeometryOptions options) {
+        if (spatialIndex.isReady()) {
+            return spatialIndex.findInBoundingBox(minLon, minLat, maxLon, maxLat).stream()
+                    .map(entry -> mapToResponse(entry, options))
+                    .collect(Collectors.toList());
+        }
         return historicalDataRepository.findHistoryInBoundingBox(minLon, minLat, maxLon, maxLat).stream()
-                .map(this::mapToResponse)
+                .map(data -> mapToResponse(data, options))
                 .collect(Collectors.toList());
     }
 
@@ -115,6 +165,8 @@ public class HistoricalDataServiceImpl implements HistoricalDataService {
         }
 
         HistoricalData updated = historicalDataRepository.save(data);
+        TransactionUtil.afterCommit(() -> spatialIndex.put(updated));
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.HISTORICAL_DATA, ChangeEvent.Action.UPDATED, id));
         return mapToResponse(updated);
     }
 
@@ -124,6 +176,8 @@ public class HistoricalDataServiceImpl implements HistoricalDataService {
             throw new ResourceNotFoundException("HistoricalData", "id", id);
         }
         historicalDataRepository.deleteById(id);
+        TransactionUtil.afterCommit(() -> spatialIndex.remove(id));
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.HISTORICAL_DATA, ChangeEvent.Action.DELETED, id));
     }
 
     private Polygon parsePolygon(String wkt) {
@@ -142,18 +196,42 @@ public class HistoricalDataServiceImpl implements HistoricalDataService {
         }
     }
 
+    private HistoricalDataDTO.Response mapToResponse(HistoricalDataSpatialIndex.Entry entry,
+            HistoricalDataDTO.GeometryOptions options) {
+        // WKT gốc đã được index giữ sẵn, chỉ ghi lại khi polygon bị đơn giản hoá
+        String cachedWkt = options.getZoom() == null ? entry.wkt() : null;
+        return buildResponse(entry.data(), entry.geometry(options.getZoom()), cachedWkt, options);
+    }
+
     private HistoricalDataDTO.Response mapToResponse(HistoricalData data) {
-        String wkt = null;
-        if (data.getReferenceGeom() != null) {
-            wkt = wktWriter.write(data.getReferenceGeom());
+        return mapToResponse(data, DEFAULT_GEOMETRY);
+    }
+
+    private HistoricalDataDTO.Response mapToResponse(HistoricalData data, HistoricalDataDTO.GeometryOptions options) {
+        Geometry geometry = data.getReferenceGeom();
+        if (geometry != null && options.getZoom() != null) {
+            geometry = GeometryEncoder.simplify(geometry, options.getZoom());
         }
+        return buildResponse(data, geometry, null, options);
+    }
 
-        return HistoricalDataDTO.Response.builder()
+    private HistoricalDataDTO.Response buildResponse(HistoricalData data, Geometry geometry, String cachedWkt,
+            HistoricalDataDTO.GeometryOptions options) {
+        HistoricalDataDTO.Response.ResponseBuilder builder = HistoricalDataDTO.Response.builder()
                 .historyId(data.getHistoryId())
                 .year(data.getYear())
                 .alertLevel(data.getAlertLevel())
-                .impactSummary(data.getImpactSummary())
-                .referenceGeomWkt(wkt)
-                .build();
+                .impactSummary(data.getImpactSummary());
+
+        if (geometry != null) {
+            GeometryEncoder.Format format = options.getFormat();
+            if (format == GeometryEncoder.Format.WKT) {
+                builder.referenceGeomWkt(cachedWkt != null ? cachedWkt : wktWriter.write(geometry));
+            } else {
+                builder.geometryEncoding(format.name().toLowerCase(Locale.ROOT))
+                        .referenceGeom(GeometryEncoder.encode(geometry, format, options.getPrecision()));
+            }
+        }
+        return builder.build();
     }
 }
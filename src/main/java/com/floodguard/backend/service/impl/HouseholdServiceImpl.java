@@ -0,0 +1,237 @@
+package com.floodguard.backend.service.impl;
+
+import com.floodguard.backend.dto.HouseholdDTO;
+import com.floodguard.backend.event.ChangeEvent;
+import com.floodguard.backend.event.ChangeEventBus;
+import com.floodguard.backend.exception.ResourceNotFoundException;
+import com.floodguard.backend.model.Household;
+import com.floodguard.backend.model.User;
+import com.floodguard.backend.repository.HouseholdRepository;
+import com.floodguard.backend.repository.UserRepository;
+import com.floodguard.backend.service.HouseholdService;
+import com.floodguard.backend.service.TileService;
+import com.floodguard.backend.spatial.HouseholdPriorityIndex;
+import com.floodguard.backend.util.GeoUtil;
+import com.floodguard.backend.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class HouseholdServiceImpl implements HouseholdService {
+
+    private static final double MAX_RESCUE_RADIUS_METERS = 5_000;
+    private static final int MAX_RESCUE_LIMIT = 5_000;
+
+    private final HouseholdRepository householdRepository;
+    private final UserRepository userRepository;
+    private final HouseholdPriorityIndex priorityIndex;
+    private final TileService tileService;
+    private final ChangeEventBus changeEventBus;
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), GeoUtil.SRID);
+
+    @Override
+    public HouseholdDTO.Response create(HouseholdDTO.CreateRequest request) {
+        User user = null;
+        if (request.getUserId() != null) {
+            user = userRepository.findById(request.getUserId())
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", request.getUserId()));
+        }
+
+        Household household = Household.builder()
+                .user(user)
+                .address(request.getAddress())
+                .numPeople(request.getNumPeople() != null ? request.getNumPeople() : 1)
+                .hasElderly(Boolean.TRUE.equals(request.getHasElderly()))
+                .hasChildren(Boolean.TRUE.equals(request.getHasChildren()))
+                .hasSickPerson(Boolean.TRUE.equals(request.getHasSickPerson()))
+                .hasPregnant(Boolean.TRUE.equals(request.getHasPregnant()))
+                .numFloors(request.getNumFloors())
+                .businessType(request.getBusinessType())
+                .assetDescription(request.getAssetDescription())
+                .geom(createPoint(request.getLongitude(), request.getLatitude()))
+                .build();
+
+        Household saved = householdRepository.save(household);
+        afterWrite(ChangeEvent.Action.CREATED, saved, null);
+        return mapToResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public HouseholdDTO.Response getById(Long id) {
+        return mapToResponse(findHousehold(id));
+    }
+
+    @Override
+    public HouseholdDTO.Response update(Long id, HouseholdDTO.UpdateRequest request) {
+        Household household = findHousehold(id);
+        Point previous = household.getGeom();
+
+        if (request.getAddress() != null) {
+            household.setAddress(request.getAddress());
+        }
+        if (request.getNumPeople() != null) {
+            household.setNumPeople(request.getNumPeople());
+        }
+        if (request.getHasElderly() != null) {
+            household.setHasElderly(request.getHasElderly());
+        }
+        if (request.getHasChildren() != null) {
+            household.setHasChildren(request.getHasChildren());
+        }
+        if (request.getHasSickPerson() != null) {
+            household.setHasSickPerson(request.getHasSickPerson());
+        }
+        if (request.getHasPregnant() != null) {
+            household.setHasPregnant(request.getHasPregnant());
+        }
+        if (request.getNumFloors() != null) {
+            household.setNumFloors(request.getNumFloors());
+        }
+        if (request.getBusinessType() != null) {
+            household.setBusinessType(request.getBusinessType());
+        }
+        if (request.getAssetDescription() != null) {
+            household.setAssetDescription(request.getAssetDescription());
+        }
+        if (request.getLongitude() != null || request.getLatitude() != null) {
+            if (request.getLongitude() == null || request.getLatitude() == null) {
+                throw new IllegalArgumentException("Longitude and latitude must be updated together");
+            }
+            household.setGeom(createPoint(request.getLongitude(), request.getLatitude()));
+        }
+
+        Household saved = householdRepository.save(household);
+        afterWrite(ChangeEvent.Action.UPDATED, saved, previous);
+        return mapToResponse(saved);
+    }
+
+    @Override
+    public void delete(Long id) {
+        Household household = findHousehold(id);
+        Point geom = household.getGeom();
+        householdRepository.delete(household);
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.HOUSEHOLD, ChangeEvent.Action.DELETED, id, geom));
+        TransactionUtil.afterCommit(() -> {
+            priorityIndex.remove(id);
+            tileService.invalidatePoint(TileService.LAYER_HOUSEHOLDS, geom.getX(), geom.getY());
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public HouseholdDTO.RescuePriorityResponse findRescuePriority(double longitude, double latitude,
+            double radiusMeters, Set<HouseholdPriorityIndex.Vulnerability> vulnerabilities, Integer maxFloors,
+            int limit) {
+        if (radiusMeters <= 0 || radiusMeters > MAX_RESCUE_RADIUS_METERS) {
+            throw new IllegalArgumentException("radius must be between 0 and " + MAX_RESCUE_RADIUS_METERS + " meters");
+        }
+        if (limit < 1 || limit > MAX_RESCUE_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RESCUE_LIMIT);
+        }
+        if (maxFloors != null && maxFloors < 1) {
+            throw new IllegalArgumentException("maxFloors must be at least 1");
+        }
+        // Không chỉ định thì lấy hộ có ít nhất một yếu tố dễ tổn thương bất kỳ
+        int mask = HouseholdPriorityIndex.Vulnerability.mask(vulnerabilities == null || vulnerabilities.isEmpty()
+                ? EnumSet.allOf(HouseholdPriorityIndex.Vulnerability.class)
+                : vulnerabilities);
+
+        HouseholdPriorityIndex.Result result;
+        if (priorityIndex.isReady()) {
+            result = priorityIndex.findRescuePriority(longitude, latitude, radiusMeters, mask, maxFloors, limit);
+        } else {
+            List<HouseholdPriorityIndex.Candidate> matches = new ArrayList<>();
+            for (Household household : householdRepository.findWithinRadius(longitude, latitude, radiusMeters)) {
+                int packed = HouseholdPriorityIndex.pack(household);
+                HouseholdPriorityIndex.Candidate candidate = new HouseholdPriorityIndex.Candidate(
+                        household.getHouseholdId(), household.getAddress(), packed,
+                        GeoUtil.distanceMeters(longitude, latitude, household.getGeom().getX(),
+                                household.getGeom().getY()));
+                if ((packed & mask) != 0
+                        && (maxFloors == null || candidate.numFloors() == null || candidate.numFloors() <= maxFloors)) {
+                    matches.add(candidate);
+                }
+            }
+            result = HouseholdPriorityIndex.rank(matches, limit);
+        }
+
+        return HouseholdDTO.RescuePriorityResponse.builder()
+                .longitude(longitude)
+                .latitude(latitude)
+                .radiusMeters(radiusMeters)
+                .totalMatched(result.totalMatched())
+                .households(result.candidates().stream().map(this::mapToCandidate).collect(Collectors.toList()))
+                .build();
+    }
+
+    private Household findHousehold(Long id) {
+        return householdRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Household", "id", id));
+    }
+
+    private void afterWrite(ChangeEvent.Action action, Household saved, Point previous) {
+        Point geom = saved.getGeom();
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.HOUSEHOLD, action, saved.getHouseholdId(), geom,
+                previous));
+        TransactionUtil.afterCommit(() -> {
+            priorityIndex.put(saved);
+            tileService.invalidatePoint(TileService.LAYER_HOUSEHOLDS, geom.getX(), geom.getY());
+            if (previous != null && !previous.equalsExact(geom)) {
+                tileService.invalidatePoint(TileService.LAYER_HOUSEHOLDS, previous.getX(), previous.getY());
+            }
+        });
+    }
+
+    private Point createPoint(double longitude, double latitude) {
+        Point point = geometryFactory.createPoint(new Coordinate(longitude, latitude));
+        point.setSRID(GeoUtil.SRID);
+        return point;
+    }
+
+    private HouseholdDTO.RescueCandidate mapToCandidate(HouseholdPriorityIndex.Candidate candidate) {
+        return HouseholdDTO.RescueCandidate.builder()
+                .householdId(candidate.householdId())
+                .address(candidate.address())
+                .numPeople(candidate.numPeople())
+                .hasElderly(candidate.has(HouseholdPriorityIndex.Vulnerability.ELDERLY))
+                .hasChildren(candidate.has(HouseholdPriorityIndex.Vulnerability.CHILDREN))
+                .hasSickPerson(candidate.has(HouseholdPriorityIndex.Vulnerability.SICK))
+                .hasPregnant(candidate.has(HouseholdPriorityIndex.Vulnerability.PREGNANT))
+                .numFloors(candidate.numFloors())
+                .distanceMeters(candidate.distanceMeters())
+                .priorityScore(candidate.score())
+                .build();
+    }
+
+    private HouseholdDTO.Response mapToResponse(Household household) {
+        return HouseholdDTO.Response.builder()
+                .householdId(household.getHouseholdId())
+                .userId(household.getUser() != null ? household.getUser().getUserId() : null)
+                .address(household.getAddress())
+                .numPeople(household.getNumPeople())
+                .hasElderly(household.getHasElderly())
+                .hasChildren(household.getHasChildren())
+                .hasSickPerson(household.getHasSickPerson())
+                .hasPregnant(household.getHasPregnant())
+                .numFloors(household.getNumFloors())
+                .businessType(household.getBusinessType())
+                .assetDescription(household.getAssetDescription())
+                .longitude(household.getGeom() != null ? household.getGeom().getX() : null)
+                .latitude(household.getGeom() != null ? household.getGeom().getY() : null)
+                .build();
+    }
+}
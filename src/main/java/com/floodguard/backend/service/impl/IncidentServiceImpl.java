@@ -0,0 +1,59 @@
+package com.floodguard.backend.service.impl;
+
+import com.floodguard.backend.dto.IncidentDTO;
+import com.floodguard.backend.exception.ResourceNotFoundException;
+import com.floodguard.backend.repository.ReportRepository;
+import com.floodguard.backend.repository.projection.IncidentView;
+import com.floodguard.backend.service.IncidentService;
+import com.floodguard.backend.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class IncidentServiceImpl implements IncidentService {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final ReportRepository reportRepository;
+    private final ReportService reportService;
+
+    @Override
+    public List<IncidentDTO.Response> getActiveSince(LocalDateTime since, String eventType, int minReports, int limit) {
+        return reportRepository.findIncidentsActiveSince(since, eventType, Math.max(1, minReports),
+                        Math.max(1, Math.min(limit, MAX_LIMIT))).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public IncidentDTO.DetailResponse getById(Long incidentId) {
+        IncidentView incident = reportRepository.findIncidentById(incidentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Incident", "id", incidentId));
+        return IncidentDTO.DetailResponse.builder()
+                .incident(mapToResponse(incident))
+                .reports(reportService.getByIncidentId(incidentId))
+                .build();
+    }
+
+    private IncidentDTO.Response mapToResponse(IncidentView view) {
+        return IncidentDTO.Response.builder()
+                .incidentId(view.getIncidentId())
+                .eventType(view.getEventType())
+                .longitude(view.getLongitude())
+                .latitude(view.getLatitude())
+                .firstReportAt(view.getFirstReportAt())
+                .lastReportAt(view.getLastReportAt())
+                .reportCount(view.getReportCount())
+                .unverifiedCount(view.getUnverifiedCount())
+                .maxDamageLevel(view.getMaxDamageLevel())
+                .avgDamageLevel(view.getAvgDamageLevel())
+                .build();
+    }
+}
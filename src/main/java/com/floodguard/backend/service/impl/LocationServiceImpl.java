@@ -1,10 +1,14 @@
 package com.floodguard.backend.service.impl;
 
 import com.floodguard.backend.dto.LocationDTO;
+import com.floodguard.backend.event.ChangeEvent;
+import com.floodguard.backend.event.ChangeEventBus;
 import com.floodguard.backend.exception.ResourceNotFoundException;
 import com.floodguard.backend.model.Location;
 import com.floodguard.backend.repository.LocationRepository;
 import com.floodguard.backend.service.LocationService;
+import com.floodguard.backend.spatial.LocationSpatialIndex;
+import com.floodguard.backend.util.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -22,6 +26,8 @@ import java.util.stream.Collectors;
 public class LocationServiceImpl implements LocationService {
 
     private final LocationRepository locationRepository;
+    private final LocationSpatialIndex locationSpatialIndex;
+    private final ChangeEventBus changeEventBus;
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 
     @Override
@@ -34,6 +40,8 @@ public class LocationServiceImpl implements LocationService {
                 .build();
 
         Location saved = locationRepository.save(location);
+        TransactionUtil.afterCommit(() -> locationSpatialIndex.put(saved));
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.LOCATION, ChangeEvent.Action.CREATED, saved.getLocationId()));
         return mapToResponse(saved);
     }
 
@@ -64,7 +72,10 @@ public class LocationServiceImpl implements LocationService {
     @Override
     @Transactional(readOnly = true)
     public List<LocationDTO.Response> findWithinRadius(double longitude, double latitude, double radiusMeters) {
-        return locationRepository.findLocationsWithinRadius(longitude, latitude, radiusMeters).stream()
+        List<Location> locations = locationSpatialIndex.isReady()
+                ? locationSpatialIndex.findWithinRadius(longitude, latitude, radiusMeters)
+                : locationRepository.findLocationsWithinRadius(longitude, latitude, radiusMeters);
+        return locations.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -72,7 +83,10 @@ public class LocationServiceImpl implements LocationService {
     @Override
     @Transactional(readOnly = true)
     public List<LocationDTO.Response> findInBoundingBox(double minLon, double minLat, double maxLon, double maxLat) {
-        return locationRepository.findLocationsInBoundingBox(minLon, minLat, maxLon, maxLat).stream()
+        List<Location> locations = locationSpatialIndex.isReady()
+                ? locationSpatialIndex.findInBoundingBox(minLon, minLat, maxLon, maxLat)
+                : locationRepository.findLocationsInBoundingBox(minLon, minLat, maxLon, maxLat);
+        return locations.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -80,7 +94,10 @@ public class LocationServiceImpl implements LocationService {
     @Override
     @Transactional(readOnly = true)
     public List<LocationDTO.Response> findNearest(double longitude, double latitude, int limit) {
-        return locationRepository.findNearestLocations(longitude, latitude, limit).stream()
+        List<Location> locations = locationSpatialIndex.isReady()
+                ? locationSpatialIndex.findNearest(longitude, latitude, limit)
+                : locationRepository.findNearestLocations(longitude, latitude, limit);
+        return locations.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -104,6 +121,8 @@ public class LocationServiceImpl implements LocationService {
         }
 
         Location updated = locationRepository.save(location);
+        TransactionUtil.afterCommit(() -> locationSpatialIndex.put(updated));
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.LOCATION, ChangeEvent.Action.UPDATED, id));
         return mapToResponse(updated);
     }
 
@@ -113,6 +132,8 @@ public class LocationServiceImpl implements LocationService {
             throw new ResourceNotFoundException("Location", "id", id);
         }
         locationRepository.deleteById(id);
+        TransactionUtil.afterCommit(() -> locationSpatialIndex.remove(id));
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.LOCATION, ChangeEvent.Action.DELETED, id));
     }
 
     private Point createPoint(double longitude, double latitude) {
@@ -0,0 +1,267 @@
+package com.floodguard.backend.service.impl;
+
+import com.floodguard.backend.dto.MedicalResourceDTO;
+import com.floodguard.backend.event.ChangeEvent;
+import com.floodguard.backend.event.ChangeEventBus;
+import com.floodguard.backend.exception.ResourceNotFoundException;
+import com.floodguard.backend.model.Household;
+import com.floodguard.backend.model.MedicalResource;
+import com.floodguard.backend.repository.HouseholdRepository;
+import com.floodguard.backend.repository.MedicalResourceRepository;
+import com.floodguard.backend.service.MedicalResourceService;
+import com.floodguard.backend.spatial.MedicalResourceIndex;
+import com.floodguard.backend.util.GeoUtil;
+import com.floodguard.backend.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class MedicalResourceServiceImpl implements MedicalResourceService {
+
+    private static final Set<String> TYPES = Set.of("STATION", "CLINIC", "PHARMACY", "DOCTOR");
+    private static final int DEFAULT_K = 5;
+    private static final int MAX_K = 50;
+
+    private final MedicalResourceRepository medicalResourceRepository;
+    private final HouseholdRepository householdRepository;
+    private final MedicalResourceIndex medicalResourceIndex;
+    private final ChangeEventBus changeEventBus;
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), GeoUtil.SRID);
+
+    @Override
+    public MedicalResourceDTO.Response create(MedicalResourceDTO.CreateRequest request) {
+        MedicalResource resource = MedicalResource.builder()
+                .name(request.getName())
+                .type(normalizeType(request.getType()))
+                .contactPhone(request.getContactPhone())
+                .specialization(request.getSpecialization())
+                .isActive(request.getIsActive() == null || request.getIsActive())
+                .geom(createPoint(request.getLongitude(), request.getLatitude()))
+                .build();
+
+        MedicalResource saved = medicalResourceRepository.save(resource);
+        afterWrite(ChangeEvent.Action.CREATED, saved);
+        return mapToResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MedicalResourceDTO.Response getById(Long id) {
+        return mapToResponse(findResource(id));
+    }
+
+    @Override
+    public MedicalResourceDTO.Response update(Long id, MedicalResourceDTO.UpdateRequest request) {
+        MedicalResource resource = findResource(id);
+
+        if (request.getName() != null) {
+            if (request.getName().isBlank()) {
+                throw new IllegalArgumentException("Name must not be blank");
+            }
+            resource.setName(request.getName());
+        }
+        if (request.getType() != null) {
+            resource.setType(normalizeType(request.getType()));
+        }
+        if (request.getContactPhone() != null) {
+            resource.setContactPhone(request.getContactPhone());
+        }
+        if (request.getSpecialization() != null) {
+            resource.setSpecialization(request.getSpecialization());
+        }
+        if (request.getIsActive() != null) {
+            resource.setIsActive(request.getIsActive());
+        }
+        if (request.getLongitude() != null || request.getLatitude() != null) {
+            if (request.getLongitude() == null || request.getLatitude() == null) {
+                throw new IllegalArgumentException("Longitude and latitude must be updated together");
+            }
+            resource.setGeom(createPoint(request.getLongitude(), request.getLatitude()));
+        }
+
+        MedicalResource saved = medicalResourceRepository.save(resource);
+        afterWrite(ChangeEvent.Action.UPDATED, saved);
+        return mapToResponse(saved);
+    }
+
+    @Override
+    public MedicalResourceDTO.Response setAvailability(Long id, boolean active) {
+        MedicalResource resource = findResource(id);
+        if (active == Boolean.TRUE.equals(resource.getIsActive())) {
+            return mapToResponse(resource);
+        }
+        resource.setIsActive(active);
+        MedicalResource saved = medicalResourceRepository.save(resource);
+        afterWrite(ChangeEvent.Action.UPDATED, saved);
+        return mapToResponse(saved);
+    }
+
+    @Override
+    public void delete(Long id) {
+        MedicalResource resource = findResource(id);
+        Point geom = resource.getGeom();
+        medicalResourceRepository.delete(resource);
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.MEDICAL_RESOURCE, ChangeEvent.Action.DELETED, id,
+                geom));
+        TransactionUtil.afterCommit(() -> medicalResourceIndex.remove(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MedicalResourceDTO.NearestResponse findNearest(double longitude, double latitude, String specialization,
+            int k, Double maxDistanceMeters) {
+        validateNearest(k, maxDistanceMeters);
+        return MedicalResourceDTO.NearestResponse.builder()
+                .longitude(longitude)
+                .latitude(latitude)
+                .specialization(specialization)
+                .resources(nearest(longitude, latitude, specialization, k, maxDistanceMeters))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MedicalResourceDTO.HouseholdNearestResponse findNearestForHouseholds(
+            MedicalResourceDTO.HouseholdNearestRequest request) {
+        int k = request.getK() != null ? request.getK() : DEFAULT_K;
+        validateNearest(k, request.getMaxDistance());
+
+        // Một truy vấn cho toạ độ mọi hộ, kNN sau đó chạy trên index trong bộ nhớ
+        Map<Long, Household> households = householdRepository.findAllById(request.getHouseholdIds()).stream()
+                .collect(Collectors.toMap(Household::getHouseholdId, Function.identity()));
+        Map<Long, MedicalResourceDTO.HouseholdNearest> results = new HashMap<>();
+        List<MedicalResourceDTO.HouseholdNearest> ordered = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        for (Long householdId : request.getHouseholdIds()) {
+            if (results.containsKey(householdId)) {
+                continue;
+            }
+            Household household = households.get(householdId);
+            if (household == null || household.getGeom() == null) {
+                notFound.add(householdId);
+                continue;
+            }
+            MedicalResourceDTO.HouseholdNearest result = MedicalResourceDTO.HouseholdNearest.builder()
+                    .householdId(householdId)
+                    .address(household.getAddress())
+                    .resources(nearest(household.getGeom().getX(), household.getGeom().getY(),
+                            request.getSpecialization(), k, request.getMaxDistance()))
+                    .build();
+            results.put(householdId, result);
+            ordered.add(result);
+        }
+
+        return MedicalResourceDTO.HouseholdNearestResponse.builder()
+                .specialization(request.getSpecialization())
+                .households(ordered)
+                .notFound(notFound)
+                .build();
+    }
+
+    private List<MedicalResourceDTO.NearestResource> nearest(double longitude, double latitude,
+            String specialization, int k, Double maxDistanceMeters) {
+        if (medicalResourceIndex.isReady()) {
+            return medicalResourceIndex.findNearest(specialization, longitude, latitude, k,
+                            maxDistanceMeters != null ? maxDistanceMeters : Double.POSITIVE_INFINITY)
+                    .stream().map(this::mapToNearest).collect(Collectors.toList());
+        }
+        return medicalResourceRepository.findNearestActive(longitude, latitude,
+                        specialization != null ? MedicalResourceIndex.key(specialization) : null, maxDistanceMeters, k)
+                .stream()
+                .map(resource -> mapToNearest(resource, GeoUtil.distanceMeters(longitude, latitude,
+                        resource.getGeom().getX(), resource.getGeom().getY())))
+                .collect(Collectors.toList());
+    }
+
+    private void validateNearest(int k, Double maxDistanceMeters) {
+        if (k < 1 || k > MAX_K) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_K);
+        }
+        if (maxDistanceMeters != null && maxDistanceMeters <= 0) {
+            throw new IllegalArgumentException("maxDistance must be positive");
+        }
+    }
+
+    private MedicalResource findResource(Long id) {
+        return medicalResourceRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("MedicalResource", "id", id));
+    }
+
+    private void afterWrite(ChangeEvent.Action action, MedicalResource saved) {
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.MEDICAL_RESOURCE, action, saved.getResourceId(),
+                saved.getGeom()));
+        TransactionUtil.afterCommit(() -> medicalResourceIndex.put(saved));
+    }
+
+    private String normalizeType(String type) {
+        if (type == null) {
+            return null;
+        }
+        String normalized = type.trim().toUpperCase(Locale.ROOT);
+        if (!TYPES.contains(normalized)) {
+            throw new IllegalArgumentException("type must be one of " + TYPES);
+        }
+        return normalized;
+    }
+
+    private Point createPoint(double longitude, double latitude) {
+        Point point = geometryFactory.createPoint(new Coordinate(longitude, latitude));
+        point.setSRID(GeoUtil.SRID);
+        return point;
+    }
+
+    private MedicalResourceDTO.NearestResource mapToNearest(MedicalResourceIndex.Nearest nearest) {
+        return MedicalResourceDTO.NearestResource.builder()
+                .resourceId(nearest.resourceId())
+                .name(nearest.name())
+                .type(nearest.type())
+                .contactPhone(nearest.contactPhone())
+                .specialization(nearest.specialization())
+                .longitude(nearest.longitude())
+                .latitude(nearest.latitude())
+                .distanceMeters(nearest.distanceMeters())
+                .build();
+    }
+
+    private MedicalResourceDTO.NearestResource mapToNearest(MedicalResource resource, double distanceMeters) {
+        return MedicalResourceDTO.NearestResource.builder()
+                .resourceId(resource.getResourceId())
+                .name(resource.getName())
+                .type(resource.getType())
+                .contactPhone(resource.getContactPhone())
+                .specialization(resource.getSpecialization())
+                .longitude(resource.getGeom().getX())
+                .latitude(resource.getGeom().getY())
+                .distanceMeters(distanceMeters)
+                .build();
+    }
+
+    private MedicalResourceDTO.Response mapToResponse(MedicalResource resource) {
+        return MedicalResourceDTO.Response.builder()
+                .resourceId(resource.getResourceId())
+                .name(resource.getName())
+                .type(resource.getType())
+                .contactPhone(resource.getContactPhone())
+                .specialization(resource.getSpecialization())
+                .isActive(resource.getIsActive())
+                .longitude(resource.getGeom() != null ? resource.getGeom().getX() : null)
+                .latitude(resource.getGeom() != null ? resource.getGeom().getY() : null)
+                .build();
+    }
+}
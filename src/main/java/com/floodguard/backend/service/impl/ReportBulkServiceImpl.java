@@ -0,0 +1,519 @@
+package com.floodguard.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.event.ChangeEvent;
+import com.floodguard.backend.event.ChangeEventBus;
+import com.floodguard.backend.exception.CustomException;
+import com.floodguard.backend.feed.ReportFeedHub;
+import com.floodguard.backend.model.ReportStatus;
+import com.floodguard.backend.service.ReportBulkService;
+import com.floodguard.backend.service.TileService;
+import com.floodguard.backend.stats.ReportHeatmapCache;
+import com.floodguard.backend.stats.ReportStatistics;
+import com.floodguard.backend.util.SecurityUtil;
+import com.floodguard.backend.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import/export of reports through the PostgreSQL COPY protocol.
+ * <p>
+ * Rows are copied into a transaction-scoped staging table, then moved into reports with a single
+ * INSERT ... SELECT that builds geom with ST_SetSRID(ST_Point(lon, lat), 4326), so no entity is created.
+ * <p>
+ * Bulk verification is one statement as well: the target reports are locked (FOR UPDATE, in report_id order so
+ * two bulk calls cannot deadlock), the ones whose version and status still match what the caller saw are updated
+ * with version + 1, and the locked rows come back with their previous state, so conflicts are reported per report
+ * instead of failing the whole batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportBulkServiceImpl implements ReportBulkService {
+
+    // report_id, status nhận vào để file export import lại được, nhưng bị bỏ qua; row_no: số thứ tự dòng trong file
+    private static final String CREATE_STAGING_SQL = "CREATE TEMP TABLE report_import (" +
+            "row_no BIGINT GENERATED ALWAYS AS IDENTITY, report_id BIGINT, user_id INT, guest_name VARCHAR(100), guest_phone VARCHAR(15), " +
+            "event_type VARCHAR(50), description TEXT, image_url TEXT, damage_level INT, status TEXT, " +
+            "created_at TIMESTAMP, lon DOUBLE PRECISION NOT NULL, lat DOUBLE PRECISION NOT NULL) ON COMMIT DROP";
+
+    // Cùng ràng buộc với ReportDTO.CreateRequest và CHECK của bảng reports. created_at không được ở tương lai
+    // (quá độ lệch đồng hồ): report của tháng chưa có partition sẽ nằm trong reports_default và chặn việc tạo
+    // partition tháng đó
+    private static final String INVALID_ROWS_SQL = "SELECT row_no, problem, COUNT(*) OVER () FROM (" +
+            "SELECT row_no, CASE " +
+            "WHEN event_type IS NULL OR btrim(event_type) = '' THEN 'event_type is required' " +
+            "WHEN event_type NOT IN ('RAIN', 'TIDE', 'FLOOD', 'DYKE_BREAK', 'OTHER') THEN 'invalid event_type' " +
+            "WHEN damage_level NOT BETWEEN 0 AND 5 THEN 'damage_level must be between 0 and 5' " +
+            "WHEN NOT (lon BETWEEN -180 AND 180) OR NOT (lat BETWEEN -90 AND 90) THEN 'coordinates out of range' " +
+            "WHEN created_at > LOCALTIMESTAMP + CAST(? AS interval) THEN 'created_at is in the future' " +
+            "WHEN created_at < ? THEN 'created_at is too old' END AS problem " +
+            "FROM report_import) checked WHERE problem IS NOT NULL ORDER BY row_no LIMIT 1";
+    private static final String MAX_CLOCK_SKEW = "5 minutes";
+    private static final LocalDateTime MIN_CREATED_AT = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private static final String INSERT_FROM_STAGING_SQL = "INSERT INTO reports " +
+            "(user_id, guest_name, guest_phone, event_type, description, image_url, damage_level, created_at, geom, " +
+            "geohash) SELECT user_id, guest_name, guest_phone, event_type, description, image_url, " +
+            "COALESCE(damage_level, 0), COALESCE(created_at, CURRENT_TIMESTAMP), ST_SetSRID(ST_Point(lon, lat), 4326), " +
+            "geohash_cell(lon, lat) " +
+            "FROM report_import";
+
+    // Số report vừa chèn theo (khu vực, loại, trạng thái, giờ tạo) để cập nhật ReportStatistics mà không đối soát lại
+    private static final String IMPORT_SQL = "WITH inserted AS (" + INSERT_FROM_STAGING_SQL +
+            " RETURNING user_id, event_type, status, created_at) " +
+            "SELECT COALESCE(u.management_area_code, ''), i.event_type, CAST(i.status AS text), " +
+            "date_trunc('hour', i.created_at), COUNT(*) FROM inserted i LEFT JOIN users u ON u.user_id = i.user_id " +
+            "GROUP BY 1, 2, 3, 4";
+
+    private static final String EXPORT_SQL = "COPY (SELECT report_id, user_id, guest_name, guest_phone, event_type, " +
+            "description, image_url, damage_level, status, created_at, ST_X(geom) AS longitude, ST_Y(geom) AS latitude " +
+            "FROM reports ORDER BY report_id) TO STDOUT WITH (FORMAT csv, HEADER true)";
+
+    private static final Set<String> CSV_COLUMNS = Set.of("report_id", "user_id", "guest_name", "guest_phone",
+            "event_type", "description", "image_url", "damage_level", "status", "created_at", "lon", "lat");
+    private static final Map<String, String> CSV_COLUMN_ALIASES = Map.of("longitude", "lon", "latitude", "lat");
+    private static final String NDJSON_COLUMNS =
+            "user_id, guest_name, guest_phone, event_type, description, image_url, damage_level, lon, lat";
+
+    // Số report tối đa mỗi lần xác minh theo bộ lọc (danh sách id đã bị giới hạn bởi validation của request)
+    static final int MAX_VERIFY_ROWS = 10_000;
+    // Nhiều hơn: một ChangeEvent hàng loạt thay cho từng report (mỗi event khiến node khác đọc lại report đó)
+    private static final int MAX_ROW_EVENTS = 100;
+
+    // %1$s: expected_version, %2$s: cách chọn report (JOIN danh sách id hoặc WHERE theo bộ lọc)
+    private static final String VERIFY_SQL = "WITH locked AS (" +
+            "SELECT r.report_id, r.created_at, r.status, r.version, r.verified_by, r.verified_at, " +
+            "%1$s AS expected_version FROM reports r %2$s ORDER BY r.report_id LIMIT ? FOR UPDATE OF r), " +
+            "updated AS (UPDATE reports r SET status = CAST(? AS report_status), verified_by = ?, verified_at = ?, " +
+            "admin_note = COALESCE(?, r.admin_note), version = r.version + 1 FROM locked l " +
+            "WHERE r.report_id = l.report_id AND r.created_at = l.created_at " +
+            "AND (l.expected_version IS NULL OR l.version = l.expected_version) " +
+            "AND (CAST(? AS text) IS NULL OR CAST(l.status AS text) = ?) RETURNING r.*) " +
+            "SELECT l.report_id, CAST(l.status AS text) AS previous_status, l.version AS previous_version, " +
+            "l.verified_by AS previous_verified_by, l.verified_at AS previous_verified_at, " +
+            "u.report_id IS NOT NULL AS applied, u.version, ST_X(u.geom) AS longitude, ST_Y(u.geom) AS latitude, " +
+            "u.user_id, a.full_name, a.management_area_code, u.created_at, u.event_type, u.description, " +
+            "u.image_url, u.damage_level, u.incident_id " +
+            "FROM locked l LEFT JOIN updated u ON u.report_id = l.report_id AND u.created_at = l.created_at " +
+            "LEFT JOIN users a ON a.user_id = u.user_id ORDER BY l.report_id";
+
+    // Partition theo created_at nên tra theo report_id sẽ dò PK của từng partition, vẫn là index scan
+    private static final String VERIFY_BY_IDS =
+            "JOIN unnest(CAST(? AS bigint[]), CAST(? AS int[])) AS t(report_id, version) ON t.report_id = r.report_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TileService tileService;
+    private final ChangeEventBus changeEventBus;
+    private final ReportStatistics reportStatistics;
+    private final ReportFeedHub reportFeedHub;
+    private final ReportHeatmapCache heatmapCache;
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @Override
+    @Transactional
+    public ReportDTO.BulkImportResponse importCsv(InputStream csv) {
+        List<String> columns = parseHeader(readLine(csv));
+        String copySql = "COPY report_import (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        return importWith(pgConnection -> pgConnection.getCopyAPI().copyIn(copySql, csv));
+    }
+
+    @Override
+    @Transactional
+    public ReportDTO.BulkImportResponse importNdjson(InputStream ndjson) {
+        String copySql = "COPY report_import (" + NDJSON_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+        return importWith(pgConnection -> {
+            try (MappingIterator<ReportDTO.CreateRequest> rows =
+                         objectMapper.readerFor(ReportDTO.CreateRequest.class).readValues(ndjson);
+                 Writer writer = new OutputStreamWriter(
+                         new PGCopyOutputStream(pgConnection, copySql), StandardCharsets.UTF_8)) {
+                StringBuilder line = new StringBuilder(256);
+                while (rows.hasNextValue()) {
+                    ReportDTO.CreateRequest row = rows.nextValue();
+                    line.setLength(0);
+                    appendCsv(line, row.getUserId()).append(',');
+                    appendCsv(line, row.getGuestName()).append(',');
+                    appendCsv(line, row.getGuestPhone()).append(',');
+                    appendCsv(line, row.getEventType()).append(',');
+                    appendCsv(line, row.getDescription()).append(',');
+                    appendCsv(line, row.getImageUrl()).append(',');
+                    appendCsv(line, row.getDamageLevel()).append(',');
+                    appendCsv(line, row.getLongitude()).append(',');
+                    appendCsv(line, row.getLatitude()).append('\n');
+                    writer.write(line.toString());
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid NDJSON: " + e.getOriginalMessage());
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCsv(OutputStream outputStream) {
+        long start = System.nanoTime();
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(EXPORT_SQL, outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        long elapsedNanos = System.nanoTime() - start;
+        log.info("Exported {} reports in {} ms ({} rows/s)", rows, elapsedNanos / 1_000_000,
+                String.format(Locale.ROOT, "%.0f", rowsPerSecond(rows, elapsedNanos)));
+    }
+
+    @Override
+    @Transactional
+    public ReportDTO.BulkVerifyResponse verify(ReportDTO.BulkVerifyRequest request) {
+        long start = System.nanoTime();
+        ReportStatus newStatus = parseStatus(request.getVerifyStatus());
+        boolean byIds = request.getReports() != null && !request.getReports().isEmpty();
+        boolean byFilter = hasFilter(request);
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException(
+                    "Either reports or a filter (bbox, from/to, incidentId, eventType) is required, not both");
+        }
+
+        String expectedStatus = request.getExpectedStatus() != null
+                ? parseStatus(request.getExpectedStatus()).name()
+                : byFilter ? ReportStatus.UNVERIFIED.name() : null;
+        // Id trùng: giữ version gửi sau cùng
+        Map<Long, Integer> targets = new LinkedHashMap<>();
+        List<Object> params = new ArrayList<>();
+        String sql;
+        int limit;
+        if (byIds) {
+            request.getReports().forEach(target -> targets.put(target.getReportId(), target.getVersion()));
+            sql = String.format(VERIFY_SQL, "t.version", VERIFY_BY_IDS);
+            params.add(targets.keySet().toArray(new Long[0]));
+            params.add(targets.values().toArray(new Integer[0]));
+            limit = targets.size();
+        } else {
+            sql = String.format(VERIFY_SQL, "CAST(NULL AS int)", filterClause(request, expectedStatus, params));
+            limit = MAX_VERIFY_ROWS;
+        }
+        params.add(limit);
+        params.add(newStatus.name());
+        params.add(SecurityUtil.currentUserId());
+        params.add(Timestamp.valueOf(LocalDateTime.now()));
+        params.add(request.getAdminNote());
+        params.add(expectedStatus);
+        params.add(expectedStatus);
+
+        List<ReportDTO.Response> updated = new ArrayList<>();
+        List<ReportStatistics.Snapshot> areas = new ArrayList<>();
+        List<ReportDTO.BulkVerifyConflict> conflicts = new ArrayList<>();
+        Set<Long> locked = new HashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            long reportId = rs.getLong("report_id");
+            locked.add(reportId);
+            if (!rs.getBoolean("applied")) {
+                conflicts.add(ReportDTO.BulkVerifyConflict.builder()
+                        .reportId(reportId)
+                        .currentStatus(rs.getString("previous_status"))
+                        .currentVersion(rs.getInt("previous_version"))
+                        .verifiedBy(rs.getObject("previous_verified_by", Long.class))
+                        .verifiedAt(toLocalDateTime(rs.getTimestamp("previous_verified_at")))
+                        .build());
+                return;
+            }
+            Double longitude = rs.getObject("longitude", Double.class);
+            LocalDateTime createdAt = toLocalDateTime(rs.getTimestamp("created_at"));
+            String eventType = rs.getString("event_type");
+            updated.add(ReportDTO.Response.builder()
+                    .reportId(reportId)
+                    .longitude(longitude)
+                    .latitude(rs.getObject("latitude", Double.class))
+                    .userId(rs.getObject("user_id", Long.class))
+                    .userFullName(rs.getString("full_name"))
+                    .reportTime(createdAt)
+                    .eventType(eventType)
+                    .description(rs.getString("description"))
+                    .imageUrl(rs.getString("image_url"))
+                    .damageLevel(rs.getObject("damage_level", Integer.class))
+                    .verifyStatus(newStatus.name())
+                    .incidentId(rs.getObject("incident_id", Long.class))
+                    .version(rs.getInt("version"))
+                    .build());
+            areas.add(new ReportStatistics.Snapshot(rs.getString("management_area_code"), eventType,
+                    ReportStatus.valueOf(rs.getString("previous_status")), createdAt));
+        }, params.toArray());
+
+        List<Long> notFound = targets.keySet().stream().filter(id -> !locked.contains(id)).toList();
+        if (!updated.isEmpty()) {
+            publishVerified(updated, areas, newStatus);
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Bulk verified {} reports as {} ({} conflicts, {} not found) in {} ms", updated.size(), newStatus,
+                conflicts.size(), notFound.size(), elapsedMs);
+        return ReportDTO.BulkVerifyResponse.builder()
+                .verifyStatus(newStatus.name())
+                .updatedCount(updated.size())
+                .updated(updated)
+                .conflicts(conflicts)
+                .notFound(notFound)
+                .hasMore(byFilter && locked.size() == limit)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    // before: trạng thái cũ của từng report trong updated (cùng thứ tự)
+    private void publishVerified(List<ReportDTO.Response> updated, List<ReportStatistics.Snapshot> before,
+            ReportStatus newStatus) {
+        boolean perRow = updated.size() <= MAX_ROW_EVENTS;
+        TransactionUtil.afterCommit(() -> {
+            for (int i = 0; i < updated.size(); i++) {
+                ReportStatistics.Snapshot previous = before.get(i);
+                reportStatistics.apply(previous, new ReportStatistics.Snapshot(previous.area(), previous.eventType(),
+                        newStatus, previous.createdAt()));
+                ReportDTO.Response report = updated.get(i);
+                if (perRow && report.getLongitude() != null) {
+                    tileService.invalidatePoint(TileService.LAYER_REPORTS, report.getLongitude(), report.getLatitude());
+                    heatmapCache.invalidatePoint(report.getLongitude(), report.getLatitude());
+                }
+                reportFeedHub.publish(ReportFeedHub.REPORT_VERIFIED, report);
+            }
+            if (!perRow) {
+                tileService.invalidateLayer(TileService.LAYER_REPORTS);
+                heatmapCache.invalidateAll();
+            }
+        });
+        if (!perRow) {
+            changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.REPORT, ChangeEvent.Action.VERIFIED, null));
+            return;
+        }
+        for (ReportDTO.Response report : updated) {
+            Point point = report.getLongitude() != null
+                    ? geometryFactory.createPoint(new Coordinate(report.getLongitude(), report.getLatitude()))
+                    : null;
+            changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.REPORT, ChangeEvent.Action.VERIFIED,
+                    report.getReportId(), point));
+        }
+    }
+
+    private static boolean hasFilter(ReportDTO.BulkVerifyRequest request) {
+        return request.getIncidentId() != null || request.getEventType() != null
+                || request.getFrom() != null || request.getTo() != null
+                || request.getMinLongitude() != null || request.getMinLatitude() != null
+                || request.getMaxLongitude() != null || request.getMaxLatitude() != null;
+    }
+
+    private static String filterClause(ReportDTO.BulkVerifyRequest request, String expectedStatus,
+            List<Object> params) {
+        StringBuilder where = new StringBuilder("WHERE r.status = CAST(? AS report_status)");
+        params.add(expectedStatus);
+        if (request.getMinLongitude() != null || request.getMinLatitude() != null
+                || request.getMaxLongitude() != null || request.getMaxLatitude() != null) {
+            if (request.getMinLongitude() == null || request.getMinLatitude() == null
+                    || request.getMaxLongitude() == null || request.getMaxLatitude() == null) {
+                throw new IllegalArgumentException("Bbox requires minLongitude, minLatitude, maxLongitude and maxLatitude");
+            }
+            where.append(" AND r.geom && ST_MakeEnvelope(?, ?, ?, ?, 4326)");
+            params.add(request.getMinLongitude());
+            params.add(request.getMinLatitude());
+            params.add(request.getMaxLongitude());
+            params.add(request.getMaxLatitude());
+        }
+        if (request.getFrom() != null) {
+            where.append(" AND r.created_at >= ?");
+            params.add(Timestamp.valueOf(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            where.append(" AND r.created_at < ?");
+            params.add(Timestamp.valueOf(request.getTo()));
+        }
+        if (request.getIncidentId() != null) {
+            where.append(" AND r.incident_id = ?");
+            params.add(request.getIncidentId());
+        }
+        if (request.getEventType() != null) {
+            where.append(" AND r.event_type = ?");
+            params.add(request.getEventType());
+        }
+        return where.toString();
+    }
+
+    private static ReportStatus parseStatus(String status) {
+        try {
+            return ReportStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status: " + status);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private ReportDTO.BulkImportResponse importWith(CopyStep copyStep) {
+        long start = System.nanoTime();
+        Map<ReportStatistics.Snapshot, Long> imported;
+        try {
+            imported = jdbcTemplate.execute((ConnectionCallback<Map<ReportStatistics.Snapshot, Long>>) connection -> {
+                execute(connection, CREATE_STAGING_SQL);
+                try {
+                    copyStep.copy(connection.unwrap(PGConnection.class));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rejectInvalidRows(connection);
+                return insertFromStaging(connection);
+            });
+        } catch (DataAccessException e) {
+            // Lỗi dữ liệu (sai định dạng, event_type không hợp lệ, thiếu toạ độ...) → cả file bị rollback
+            throw new CustomException("Bulk import failed: " + e.getMostSpecificCause().getMessage(),
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        long rows = imported != null ? imported.values().stream().mapToLong(Long::longValue).sum() : 0;
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = rowsPerSecond(rows, elapsedNanos);
+        log.info("Imported {} reports in {} ms ({} rows/s)", rows, elapsedNanos / 1_000_000,
+                String.format(Locale.ROOT, "%.0f", rowsPerSecond));
+
+        if (rows > 0) {
+            TransactionUtil.afterCommit(() -> {
+                tileService.invalidateLayer(TileService.LAYER_REPORTS);
+                heatmapCache.invalidateAll();
+                imported.forEach(reportStatistics::applyCreated);
+            });
+            changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.REPORT, ChangeEvent.Action.CREATED, null));
+        }
+        return ReportDTO.BulkImportResponse.builder()
+                .rowsImported(rows)
+                .elapsedMs(elapsedNanos / 1_000_000)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+    }
+
+    // Một dòng sai là cả file bị từ chối (transaction rollback), báo dòng sai đầu tiên
+    private static void rejectInvalidRows(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INVALID_ROWS_SQL)) {
+            statement.setString(1, MAX_CLOCK_SKEW);
+            statement.setTimestamp(2, Timestamp.valueOf(MIN_CREATED_AT));
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    throw new IllegalArgumentException("Bulk import rejected: " + rs.getLong(3)
+                            + " invalid rows, first at row " + rs.getLong(1) + ": " + rs.getString(2));
+                }
+            }
+        }
+    }
+
+    private static Map<ReportStatistics.Snapshot, Long> insertFromStaging(Connection connection) throws SQLException {
+        Map<ReportStatistics.Snapshot, Long> imported = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(IMPORT_SQL)) {
+            while (rs.next()) {
+                imported.put(new ReportStatistics.Snapshot(rs.getString(1), rs.getString(2),
+                        ReportStatus.valueOf(rs.getString(3)), rs.getTimestamp(4).toLocalDateTime()), rs.getLong(5));
+            }
+        }
+        return imported;
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static double rowsPerSecond(Long rows, long elapsedNanos) {
+        return rows == null || elapsedNanos <= 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+
+    // Đọc dòng header từng byte để phần còn lại của stream được chuyển nguyên vẹn cho COPY
+    private static String readLine(InputStream input) {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        try {
+            int b;
+            while ((b = input.read()) != -1 && b != '\n') {
+                line.write(b);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> parseHeader(String header) {
+        // File xuất từ Excel thường có BOM UTF-8
+        String trimmed = header.replace("\uFEFF", "").trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is required");
+        }
+        List<String> columns = new ArrayList<>();
+        for (String raw : trimmed.split(",")) {
+            String name = raw.trim().replace("\"", "").toLowerCase(Locale.ROOT);
+            name = CSV_COLUMN_ALIASES.getOrDefault(name, name);
+            if (!CSV_COLUMNS.contains(name)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + raw.trim());
+            }
+            columns.add(name);
+        }
+        if (!columns.contains("lon") || !columns.contains("lat")) {
+            throw new IllegalArgumentException("CSV must contain longitude and latitude columns");
+        }
+        return columns;
+    }
+
+    private static StringBuilder appendCsv(StringBuilder line, Object value) {
+        if (value == null) {
+            return line;
+        }
+        String text = value.toString();
+        if (text.isEmpty() || text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+        }
+        return line.append(text);
+    }
+
+    @FunctionalInterface
+    private interface CopyStep {
+        void copy(PGConnection pgConnection) throws SQLException, IOException;
+    }
+}
@@ -1,34 +1,79 @@
 package com.floodguard.backend.service.impl;
 
 import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.event.ChangeEvent;
+import com.floodguard.backend.event.ChangeEventBus;
+import com.floodguard.backend.exception.CustomException;
 import com.floodguard.backend.exception.ResourceNotFoundException;
+import com.floodguard.backend.feed.ReportFeedHub;
+import com.floodguard.backend.incident.IncidentClusterer;
+import com.floodguard.backend.ingest.ReportIngestQueue;
 import com.floodguard.backend.model.Report;
 import com.floodguard.backend.model.ReportStatus;
 import com.floodguard.backend.model.User;
 import com.floodguard.backend.repository.ReportRepository;
 import com.floodguard.backend.repository.UserRepository;
+import com.floodguard.backend.repository.projection.ReportView;
+import com.floodguard.backend.repository.projection.TimeBucketCountView;
 import com.floodguard.backend.service.ReportService;
+import com.floodguard.backend.service.TileService;
+import com.floodguard.backend.stats.ReportHeatmapCache;
+import com.floodguard.backend.stats.ReportStatistics;
+import com.floodguard.backend.util.SecurityUtil;
+import com.floodguard.backend.util.TransactionUtil;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ReportServiceImpl implements ReportService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Heatmap: 32x32 ô trên mỗi tile, from/to làm tròn theo bucket 5 phút để các lần pan lặp lại trúng cache
+    private static final int HEATMAP_CELLS_PER_TILE = 32;
+    private static final int HEATMAP_MAX_ZOOM = 22;
+    private static final long HEATMAP_TIME_BUCKET_MINUTES = 5;
+    private static final LocalDateTime HEATMAP_MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // 256x256 ô: đủ cho viewport vài tile ở mọi zoom, chặn bbox cả nước ở zoom cao
+    private static final long HEATMAP_MAX_CELLS = 65_536;
+    private static final int MAX_TIME_SERIES_BUCKETS = 10_000;
+
     private final ReportRepository reportRepository;
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TileService tileService;
+    private final ReportIngestQueue reportIngestQueue;
+    private final ReportFeedHub reportFeedHub;
+    private final ChangeEventBus changeEventBus;
+    private final ReportStatistics reportStatistics;
+    private final IncidentClusterer incidentClusterer;
+    private final ReportHeatmapCache heatmapCache;
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 
     @Override
@@ -40,8 +85,17 @@ public class ReportServiceImpl implements ReportService {
         }
 
         Point geom = null;
+        Long incidentId = null;
         if (request.getLongitude() != null && request.getLatitude() != null) {
             geom = createPoint(request.getLongitude(), request.getLatitude());
+            // Gán sự cố trước khi insert để không phải UPDATE lại report; rollback thì bỏ lần gán khỏi bộ nhớ
+            IncidentClusterer.Assignment incident = incidentClusterer.assign(request.getEventType(),
+                    request.getLongitude(), request.getLatitude(), LocalDateTime.now());
+            if (incident != null) {
+                incidentId = incident.incidentId();
+                TransactionUtil.afterCompletion(() -> incidentClusterer.confirm(incident),
+                        () -> incidentClusterer.release(incident));
+            }
         }
 
         Report report = Report.builder()
@@ -54,32 +108,86 @@ public class ReportServiceImpl implements ReportService {
                 .damageLevel(request.getDamageLevel() != null ? request.getDamageLevel() : 0)
                 .status(ReportStatus.UNVERIFIED)
                 .geom(geom)
+                .incidentId(incidentId)
                 .build();
 
         Report saved = reportRepository.save(report);
-        return mapToResponse(saved);
+        updateStatisticsAfterCommit(null, saved);
+        invalidateTilesAfterCommit(saved);
+        notifyOtherNodes(ChangeEvent.Action.CREATED, saved);
+        return publishAfterCommit(ReportFeedHub.REPORT_CREATED, mapToResponse(saved));
+    }
+
+    @Override
+    public boolean isAsyncIngestEnabled() {
+        return reportIngestQueue.isEnabled();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReportDTO.AcceptedResponse submit(ReportDTO.CreateRequest request) {
+        if (request.getUserId() != null && !userRepository.existsById(request.getUserId())) {
+            throw new ResourceNotFoundException("User", "id", request.getUserId());
+        }
+        return reportIngestQueue.submit(request);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ReportDTO.Response getById(Long id) {
-        Report report = reportRepository.findById(id)
+        ReportView view = reportRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Report", "id", id));
-        return mapToResponse(report);
+        return mapToResponse(view);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ReportDTO.Response> getAll() {
-        return reportRepository.findAll().stream()
+        return reportRepository.findAllViews().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ReportDTO.PageResponse getPage(String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Lấy dư 1 dòng để biết còn trang sau hay không
+        List<ReportView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reportRepository.findFirstPage(limit + 1);
+        } else {
+            Report last = decodeCursor(cursor);
+            rows = reportRepository.findPageAfter(last.getCreatedAt(), last.getReportId(), limit + 1);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<ReportView> page = hasMore ? rows.subList(0, limit) : rows;
+
+        return ReportDTO.PageResponse.builder()
+                .items(page.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore ? encodeCursor(page.get(page.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ReportDTO.Response> consumer) {
+        try (Stream<Report> reports = reportRepository.streamAllOrderByCreatedAtDesc()) {
+            reports.forEach(report -> {
+                consumer.accept(mapToResponse(report));
+                // Detach để persistence context không giữ lại các dòng đã ghi ra
+                entityManager.detach(report);
+            });
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ReportDTO.Response> getByUserId(Long userId) {
-        return reportRepository.findByUserUserId(userId).stream()
+        return reportRepository.findViewsByUserId(userId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -91,10 +199,18 @@ public class ReportServiceImpl implements ReportService {
         return List.of();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReportDTO.Response> getByIncidentId(Long incidentId) {
+        return reportRepository.findViewsByIncidentId(incidentId).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ReportDTO.Response> getByEventType(String eventType) {
-        return reportRepository.findByEventType(eventType).stream()
+        return reportRepository.findViewsByEventType(eventType).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -104,7 +220,7 @@ public class ReportServiceImpl implements ReportService {
     public List<ReportDTO.Response> getByVerifyStatus(String verifyStatus) {
         try {
             ReportStatus status = ReportStatus.valueOf(verifyStatus.toUpperCase());
-            return reportRepository.findByStatus(status).stream()
+            return reportRepository.findViewsByStatus(status.name()).stream()
                     .map(this::mapToResponse)
                     .collect(Collectors.toList());
         } catch (IllegalArgumentException e) {
@@ -115,7 +231,15 @@ public class ReportServiceImpl implements ReportService {
     @Override
     @Transactional(readOnly = true)
     public List<ReportDTO.Response> getPendingReports() {
-        return reportRepository.findByStatus(ReportStatus.UNVERIFIED).stream()
+        return reportRepository.findViewsByStatus(ReportStatus.UNVERIFIED.name()).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReportDTO.Response> getPendingReports(LocalDateTime since) {
+        return reportRepository.findViewsByStatusSince(ReportStatus.UNVERIFIED.name(), since).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -123,7 +247,7 @@ public class ReportServiceImpl implements ReportService {
     @Override
     @Transactional(readOnly = true)
     public List<ReportDTO.Response> getByTimeRange(LocalDateTime start, LocalDateTime end) {
-        return reportRepository.findByCreatedAtBetween(start, end).stream()
+        return reportRepository.findViewsByCreatedAtBetween(start, end).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -131,7 +255,7 @@ public class ReportServiceImpl implements ReportService {
     @Override
     @Transactional(readOnly = true)
     public List<ReportDTO.Response> findWithinRadius(double longitude, double latitude, double radiusMeters) {
-        return reportRepository.findWithinRadius(longitude, latitude, radiusMeters).stream()
+        return reportRepository.findViewsWithinRadius(longitude, latitude, radiusMeters).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -140,6 +264,7 @@ public class ReportServiceImpl implements ReportService {
     public ReportDTO.Response update(Long id, ReportDTO.UpdateRequest request) {
         Report report = reportRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Report", "id", id));
+        ReportStatistics.Snapshot before = ReportStatistics.Snapshot.of(report);
 
         if (request.getEventType() != null) {
             report.setEventType(request.getEventType());
@@ -154,14 +279,23 @@ public class ReportServiceImpl implements ReportService {
             report.setDamageLevel(request.getDamageLevel());
         }
 
-        Report updated = reportRepository.save(report);
-        return mapToResponse(updated);
+        // Flush như verify: response và sự kiện feed mang version mới để client verify tiếp không bị 409
+        Report updated = reportRepository.saveAndFlush(report);
+        updateStatisticsAfterCommit(before, updated);
+        invalidateTilesAfterCommit(updated);
+        notifyOtherNodes(ChangeEvent.Action.UPDATED, updated);
+        return publishAfterCommit(ReportFeedHub.REPORT_UPDATED, mapToResponse(updated));
     }
 
     @Override
     public ReportDTO.Response verify(Long id, ReportDTO.VerifyRequest request) {
         Report report = reportRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Report", "id", id));
+        if (request.getVersion() != null && !request.getVersion().equals(report.getVersion())) {
+            throw new CustomException("Report " + id + " was modified by another verifier (current version "
+                    + report.getVersion() + ")", HttpStatus.CONFLICT);
+        }
+        ReportStatistics.Snapshot before = ReportStatistics.Snapshot.of(report);
 
         try {
             ReportStatus newStatus = ReportStatus.valueOf(request.getVerifyStatus().toUpperCase());
@@ -170,22 +304,83 @@ public class ReportServiceImpl implements ReportService {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid status: " + request.getVerifyStatus());
         }
+        Long verifierId = SecurityUtil.currentUserId();
+        if (verifierId != null) {
+            report.setVerifiedBy(userRepository.getReferenceById(verifierId));
+        }
+        if (request.getAdminNote() != null) {
+            report.setAdminNote(request.getAdminNote());
+        }
 
-        Report updated = reportRepository.save(report);
-        return mapToResponse(updated);
+        // Flush để @Version trong response là version mới (Hibernate chỉ tăng version khi flush)
+        Report updated = reportRepository.saveAndFlush(report);
+        updateStatisticsAfterCommit(before, updated);
+        invalidateTilesAfterCommit(updated);
+        notifyOtherNodes(ChangeEvent.Action.VERIFIED, updated);
+        return publishAfterCommit(ReportFeedHub.REPORT_VERIFIED, mapToResponse(updated));
     }
 
     @Override
     public void delete(Long id) {
-        if (!reportRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Report", "id", id);
+        Report report = reportRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Report", "id", id));
+        ReportStatistics.Snapshot before = ReportStatistics.Snapshot.of(report);
+        reportRepository.delete(report);
+        TransactionUtil.afterCommit(() -> reportStatistics.apply(before, null));
+        invalidateTilesAfterCommit(report);
+        notifyOtherNodes(ChangeEvent.Action.DELETED, report);
+    }
+
+    @Override
+    // Cache hit không cần mở transaction / lấy connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ReportDTO.HeatmapResponse getHeatmap(double minLon, double minLat, double maxLon, double maxLat, int zoom,
+            LocalDateTime from, LocalDateTime to, String eventType) {
+        if (minLon > maxLon || minLat > maxLat) {
+            throw new IllegalArgumentException("Invalid bbox: min must not exceed max");
+        }
+        int clampedZoom = Math.max(0, Math.min(zoom, HEATMAP_MAX_ZOOM));
+        double cellSize = 360.0 / (1L << clampedZoom) / HEATMAP_CELLS_PER_TILE;
+
+        // Mở rộng bbox ra biên lưới và thời gian ra biên bucket để key cache ổn định
+        ReportHeatmapCache.Key key = new ReportHeatmapCache.Key(
+                cellSize,
+                Math.floor(minLon / cellSize) * cellSize,
+                Math.floor(minLat / cellSize) * cellSize,
+                Math.ceil(maxLon / cellSize) * cellSize,
+                Math.ceil(maxLat / cellSize) * cellSize,
+                floorToBucket(from != null ? from : HEATMAP_MIN_TIME),
+                ceilToBucket(to != null ? to : LocalDateTime.now()),
+                eventType);
+        long cells = Math.max(1, Math.round((key.maxLon() - key.minLon()) / cellSize))
+                * Math.max(1, Math.round((key.maxLat() - key.minLat()) / cellSize));
+        if (cells > HEATMAP_MAX_CELLS) {
+            throw new IllegalArgumentException("bbox spans " + cells + " heatmap cells at zoom " + clampedZoom
+                    + " (max " + HEATMAP_MAX_CELLS + "), use a lower zoom or a smaller bbox");
         }
-        reportRepository.deleteById(id);
+
+        return heatmapCache.getOrLoad(key, this::aggregateHeatmap);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public SseEmitter subscribeFeed(double[] bbox, Set<String> eventTypes) {
+        Envelope envelope = null;
+        if (bbox != null) {
+            if (bbox[0] > bbox[2] || bbox[1] > bbox[3]) {
+                throw new IllegalArgumentException("Invalid bbox: min must not exceed max");
+            }
+            envelope = new Envelope(bbox[0], bbox[2], bbox[1], bbox[3]);
+        }
+        return reportFeedHub.subscribe(envelope, eventTypes);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> getCountByEventType() {
+        if (reportStatistics.isReady()) {
+            return reportStatistics.countByEventType();
+        }
         List<Object[]> results = reportRepository.countByEventType();
         Map<String, Long> counts = new HashMap<>();
         for (Object[] row : results) {
@@ -197,6 +392,9 @@ public class ReportServiceImpl implements ReportService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> getCountByVerifyStatus() {
+        if (reportStatistics.isReady()) {
+            return reportStatistics.countByStatus();
+        }
         List<Object[]> results = reportRepository.countByStatus();
         Map<String, Long> counts = new HashMap<>();
         for (Object[] row : results) {
@@ -206,12 +404,138 @@ public class ReportServiceImpl implements ReportService {
         return counts;
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ReportDTO.TimeSeriesResponse getTimeSeries(String granularity, LocalDateTime from, LocalDateTime to,
+            String areaCode, String eventType) {
+        ReportStatistics.Granularity unit;
+        try {
+            unit = ReportStatistics.Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid granularity: " + granularity + " (HOUR or DAY)");
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (from.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        // Bucket [firstBucket, lastBucket] chứa from và to
+        long firstBucket = unit.bucketOf(from);
+        long buckets = unit.bucketOf(end) - firstBucket + 1;
+        if (buckets > MAX_TIME_SERIES_BUCKETS) {
+            throw new IllegalArgumentException("Time range spans more than " + MAX_TIME_SERIES_BUCKETS + " buckets");
+        }
+
+        long[] counts;
+        if (reportStatistics.isReady() && !from.isBefore(reportStatistics.earliest(unit, LocalDateTime.now()))) {
+            counts = reportStatistics.createdSeries(unit, firstBucket, (int) buckets, areaCode, eventType);
+        } else {
+            counts = new long[(int) buckets];
+            LocalDateTime start = unit.startOf(firstBucket);
+            for (TimeBucketCountView row : reportRepository.countCreatedPerBucket(unit.name().toLowerCase(), start,
+                    unit.startOf(firstBucket + buckets), areaCode, eventType)) {
+                counts[(int) (unit.bucketOf(row.getBucket()) - firstBucket)] = row.getCount();
+            }
+        }
+
+        List<ReportDTO.TimeSeriesPoint> points = new ArrayList<>(counts.length);
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i];
+            points.add(ReportDTO.TimeSeriesPoint.builder()
+                    .bucketStart(unit.startOf(firstBucket + i))
+                    .count(counts[i])
+                    .build());
+        }
+        return ReportDTO.TimeSeriesResponse.builder()
+                .granularity(unit.name())
+                .areaCode(areaCode)
+                .eventType(eventType)
+                .from(unit.startOf(firstBucket))
+                .to(unit.startOf(firstBucket + buckets))
+                .total(total)
+                .points(points)
+                .build();
+    }
+
+    private void updateStatisticsAfterCommit(ReportStatistics.Snapshot before, Report report) {
+        ReportStatistics.Snapshot after = ReportStatistics.Snapshot.of(report);
+        TransactionUtil.afterCommit(() -> reportStatistics.apply(before, after));
+    }
+
+    private void invalidateTilesAfterCommit(Report report) {
+        Point geom = report.getGeom();
+        if (geom != null) {
+            TransactionUtil.afterCommit(() -> {
+                tileService.invalidatePoint(TileService.LAYER_REPORTS, geom.getX(), geom.getY());
+                heatmapCache.invalidatePoint(geom.getX(), geom.getY());
+            });
+        }
+    }
+
+    private void notifyOtherNodes(ChangeEvent.Action action, Report report) {
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Entity.REPORT, action, report.getReportId(), report.getGeom()));
+    }
+
+    private ReportDTO.Response publishAfterCommit(String eventName, ReportDTO.Response response) {
+        TransactionUtil.afterCommit(() -> reportFeedHub.publish(eventName, response));
+        return response;
+    }
+
     private Point createPoint(double longitude, double latitude) {
         Point point = geometryFactory.createPoint(new Coordinate(longitude, latitude));
         point.setSRID(4326);
         return point;
     }
 
+    private ReportDTO.HeatmapResponse aggregateHeatmap(ReportHeatmapCache.Key key) {
+        List<ReportDTO.HeatmapCell> cells = reportRepository.aggregateHeatmap(key.cellSize(),
+                        key.minLon(), key.minLat(), key.maxLon(), key.maxLat(), key.from(), key.to(), key.eventType())
+                .stream()
+                .map(cell -> ReportDTO.HeatmapCell.builder()
+                        .longitude(cell.getLongitude())
+                        .latitude(cell.getLatitude())
+                        .count(cell.getCount())
+                        .maxDamageLevel(cell.getMaxDamageLevel())
+                        .build())
+                .collect(Collectors.toList());
+
+        return ReportDTO.HeatmapResponse.builder()
+                .cellSize(key.cellSize())
+                .from(key.from())
+                .to(key.to())
+                .cells(cells)
+                .build();
+    }
+
+    private static LocalDateTime floorToBucket(LocalDateTime time) {
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        long minutes = ChronoUnit.MINUTES.between(hour, time);
+        return hour.plusMinutes(minutes / HEATMAP_TIME_BUCKET_MINUTES * HEATMAP_TIME_BUCKET_MINUTES);
+    }
+
+    private static LocalDateTime ceilToBucket(LocalDateTime time) {
+        LocalDateTime floor = floorToBucket(time);
+        return floor.equals(time) ? floor : floor.plusMinutes(HEATMAP_TIME_BUCKET_MINUTES);
+    }
+
+    private String encodeCursor(ReportView view) {
+        String raw = view.getReportTime() + "|" + view.getReportId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Report decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return Report.builder()
+                    .createdAt(LocalDateTime.parse(raw.substring(0, separator)))
+                    .reportId(Long.parseLong(raw.substring(separator + 1)))
+                    .build();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
     private ReportDTO.Response mapToResponse(Report report) {
         Double longitude = null;
         Double latitude = null;
@@ -235,6 +559,28 @@ public class ReportServiceImpl implements ReportService {
                 .imageUrl(report.getImageUrl())
                 .damageLevel(report.getDamageLevel())
                 .verifyStatus(report.getStatus().name())
+                .incidentId(report.getIncidentId())
+                .version(report.getVersion())
+                .build();
+    }
+
+    private ReportDTO.Response mapToResponse(ReportView view) {
+        return ReportDTO.Response.builder()
+                .reportId(view.getReportId())
+                .locationId(null)
+                .locationAddress(null)
+                .longitude(view.getLongitude())
+                .latitude(view.getLatitude())
+                .userId(view.getUserId())
+                .userFullName(view.getUserFullName())
+                .reportTime(view.getReportTime())
+                .eventType(view.getEventType())
+                .description(view.getDescription())
+                .imageUrl(view.getImageUrl())
+                .damageLevel(view.getDamageLevel())
+                .verifyStatus(view.getVerifyStatus())
+                .incidentId(view.getIncidentId())
+                .version(view.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,114 @@
+package com.floodguard.backend.service.impl;
+
+import com.floodguard.backend.dto.TileDTO;
+import com.floodguard.backend.repository.HouseholdRepository;
+import com.floodguard.backend.repository.InfrastructureRepository;
+import com.floodguard.backend.repository.ReportRepository;
+import com.floodguard.backend.service.TileService;
+import com.floodguard.backend.util.CacheUtil;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+
+@Service
+@RequiredArgsConstructor
+public class TileServiceImpl implements TileService {
+
+    public static final int MAX_ZOOM = 22;
+
+    // Điểm nằm sát biên được tính cho cả các tile kề nhau (&& bao gồm biên)
+    private static final double EDGE_EPSILON = 1e-6;
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final ReportRepository reportRepository;
+    private final InfrastructureRepository infrastructureRepository;
+    private final HouseholdRepository householdRepository;
+
+    @Value("${tiles.cache.max-bytes:67108864}")
+    private long cacheMaxBytes;
+
+    // Layer không có luồng ghi qua service (infrastructure) chỉ được làm mới theo TTL
+    @Value("${tiles.cache.ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    private AsyncCache<TileKey, TileDTO.Tile> cache;
+
+    @PostConstruct
+    void initCache() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((TileKey key, TileDTO.Tile tile) -> tile.getData().length + ENTRY_OVERHEAD_BYTES)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .buildAsync();
+    }
+
+    @Override
+    public TileDTO.Tile getTile(String layer, int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+        long tilesPerAxis = 1L << z;
+        if (x < 0 || y < 0 || x >= tilesPerAxis || y >= tilesPerAxis) {
+            throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " is out of range");
+        }
+        return CacheUtil.getOrLoad(cache, new TileKey(layer, z, x, y), this::render);
+    }
+
+    @Override
+    public void invalidatePoint(String layer, double longitude, double latitude) {
+        for (int z = 0; z <= MAX_ZOOM; z++) {
+            int tilesPerAxis = 1 << z;
+            double fx = tileX(longitude, tilesPerAxis);
+            double fy = tileY(latitude, tilesPerAxis);
+            for (int x = clamp(fx - EDGE_EPSILON, tilesPerAxis); x <= clamp(fx + EDGE_EPSILON, tilesPerAxis); x++) {
+                for (int y = clamp(fy - EDGE_EPSILON, tilesPerAxis); y <= clamp(fy + EDGE_EPSILON, tilesPerAxis); y++) {
+                    cache.synchronous().invalidate(new TileKey(layer, z, x, y));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidateLayer(String layer) {
+        cache.asMap().keySet().removeIf(key -> key.layer().equals(layer));
+    }
+
+    private TileDTO.Tile render(TileKey key) {
+        byte[] data = switch (key.layer()) {
+            case LAYER_REPORTS -> reportRepository.findMvtTile(key.z(), key.x(), key.y());
+            case LAYER_INFRASTRUCTURE -> infrastructureRepository.findMvtTile(key.z(), key.x(), key.y());
+            case LAYER_HOUSEHOLDS -> householdRepository.findMvtTile(key.z(), key.x(), key.y());
+            default -> throw new IllegalArgumentException("Unknown tile layer: " + key.layer());
+        };
+        if (data == null) {
+            data = new byte[0];
+        }
+        return TileDTO.Tile.builder()
+                .data(data)
+                .etag("\"" + DigestUtils.md5DigestAsHex(data) + "\"")
+                .build();
+    }
+
+    // Toạ độ tile (số thực) theo Web Mercator
+    private static double tileX(double longitude, int tilesPerAxis) {
+        return (longitude + 180) / 360 * tilesPerAxis;
+    }
+
+    private static double tileY(double latitude, int tilesPerAxis) {
+        double latRad = Math.toRadians(latitude);
+        return (1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * tilesPerAxis;
+    }
+
+    private static int clamp(double tileCoordinate, int tilesPerAxis) {
+        return (int) Math.max(0, Math.min(tilesPerAxis - 1, Math.floor(tileCoordinate)));
+    }
+
+    private record TileKey(String layer, int z, int x, int y) {
+    }
+}
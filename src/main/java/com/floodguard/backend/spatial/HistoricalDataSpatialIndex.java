@@ -0,0 +1,131 @@
+package com.floodguard.backend.spatial;
+
+import com.floodguard.backend.model.HistoricalData;
+import com.floodguard.backend.repository.HistoricalDataRepository;
+import com.floodguard.backend.util.GeometryEncoder;
+import lombok.RequiredArgsConstructor;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.io.WKTWriter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory STRtree of historical flood polygons held as JTS PreparedGeometry, answering
+ * "was this point flooded before?" without scanning historical_data.
+ * <p>
+ * Writes go into an overlay over the last built tree (see OverlayTree); readers never lock.
+ * Each entry also keeps its WKT so responses do not re-serialize polygons.
+ */
+@Component
+@RequiredArgsConstructor
+public class HistoricalDataSpatialIndex extends SnapshotIndex<HistoricalData, HistoricalDataSpatialIndex.Entry,
+        OverlayTree<HistoricalDataSpatialIndex.Entry>> {
+
+    private static final Comparator<Entry> BY_ID = Comparator.comparing(entry -> entry.data().getHistoryId());
+
+    private final HistoricalDataRepository historicalDataRepository;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @Override
+    protected List<HistoricalData> loadAll() {
+        return historicalDataRepository.findAll();
+    }
+
+    @Override
+    protected Long idOf(HistoricalData data) {
+        return data.getHistoryId();
+    }
+
+    @Override
+    protected Entry entryOf(HistoricalData data) {
+        HistoricalData copy = HistoricalData.builder()
+                .historyId(data.getHistoryId())
+                .year(data.getYear())
+                .alertLevel(data.getAlertLevel())
+                .impactSummary(data.getImpactSummary())
+                .referenceGeom(data.getReferenceGeom())
+                .build();
+        if (copy.getReferenceGeom() == null) {
+            return new Entry(copy, null, null, new ConcurrentHashMap<>());
+        }
+        PreparedGeometry prepared = PreparedGeometryFactory.prepare(copy.getReferenceGeom());
+        // Khởi tạo sẵn cấu trúc tìm kiếm nội bộ (lazy) của PreparedPolygon trước khi publish snapshot
+        prepared.intersects(geometryFactory.createPoint(copy.getReferenceGeom().getEnvelopeInternal().centre()));
+        return new Entry(copy, prepared, new WKTWriter().write(copy.getReferenceGeom()), new ConcurrentHashMap<>());
+    }
+
+    @Override
+    protected OverlayTree<Entry> build(Collection<Entry> entries) {
+        return OverlayTree.build(entries, entry -> entry.data().getHistoryId(), HistoricalDataSpatialIndex::envelope);
+    }
+
+    @Override
+    protected OverlayTree<Entry> update(OverlayTree<Entry> current, Long historyId, Entry previous, Entry next,
+                                        Collection<Entry> all) {
+        return current.with(historyId, previous, next, () -> all);
+    }
+
+    /**
+     * Same semantics as ST_Intersects(reference_geom, point): points on the boundary match
+     */
+    public List<Entry> findContainingPoint(double longitude, double latitude) {
+        Point point = geometryFactory.createPoint(new Coordinate(longitude, latitude));
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : snapshot().query(point.getEnvelopeInternal())) {
+            if (entry.prepared().intersects(point)) {
+                result.add(entry);
+            }
+        }
+        result.sort(BY_ID);
+        return result;
+    }
+
+    /**
+     * Same semantics as ST_Intersects(reference_geom, ST_MakeEnvelope(...))
+     */
+    public List<Entry> findInBoundingBox(double minLon, double minLat, double maxLon, double maxLat) {
+        Envelope envelope = new Envelope(minLon, maxLon, minLat, maxLat);
+        Geometry box = geometryFactory.toGeometry(envelope);
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : snapshot().query(envelope)) {
+            if (entry.prepared().intersects(box)) {
+                result.add(entry);
+            }
+        }
+        result.sort(BY_ID);
+        return result;
+    }
+
+    private static Envelope envelope(Entry entry) {
+        return entry.prepared() != null ? entry.prepared().getGeometry().getEnvelopeInternal() : null;
+    }
+
+    public record Entry(HistoricalData data, PreparedGeometry prepared, String wkt,
+                        Map<Integer, Geometry> simplifiedByZoom) {
+
+        /**
+         * Polygon đã đơn giản hoá theo zoom (null = bản gốc), tính một lần cho mỗi zoom
+         */
+        public Geometry geometry(Integer zoom) {
+            Geometry geometry = data.getReferenceGeom();
+            if (zoom == null || geometry == null) {
+                return geometry;
+            }
+            return simplifiedByZoom.computeIfAbsent(zoom, z -> GeometryEncoder.simplify(geometry, z));
+        }
+    }
+}
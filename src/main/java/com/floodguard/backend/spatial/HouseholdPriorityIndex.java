@@ -0,0 +1,281 @@
+package com.floodguard.backend.spatial;
+
+import com.floodguard.backend.model.Household;
+import com.floodguard.backend.repository.HouseholdRepository;
+import com.floodguard.backend.util.GeoUtil;
+import lombok.RequiredArgsConstructor;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory index of households for the rescue-priority layer (LOGIC 2 in database.sql).
+ * <p>
+ * Households are kept in flat arrays sorted by a ~250 m grid cell (only non-empty cells are stored, so memory
+ * stays O(n) however wide the area is), with the vulnerability flags, number of floors, number of people and a
+ * precomputed priority score packed into one int per household. A radius query scans the cells of the radius
+ * envelope, rejects by bitmask before any distance maths and refines with the same geodesic distance as
+ * ST_DWithin(geography). A write rebuilds the arrays into a new snapshot (SnapshotIndex); readers never lock.
+ */
+@Component
+@RequiredArgsConstructor
+public class HouseholdPriorityIndex extends SnapshotIndex<Household, Household, HouseholdPriorityIndex.Snapshot> {
+
+    public enum Vulnerability {
+        ELDERLY(1),
+        CHILDREN(1 << 1),
+        SICK(1 << 2),
+        PREGNANT(1 << 3);
+
+        private final int bit;
+
+        Vulnerability(int bit) {
+            this.bit = bit;
+        }
+
+        public static int mask(Collection<Vulnerability> vulnerabilities) {
+            int mask = 0;
+            for (Vulnerability vulnerability : vulnerabilities) {
+                mask |= vulnerability.bit;
+            }
+            return mask;
+        }
+    }
+
+    // Bố cục int đóng gói: bit 0-3 cờ dễ tổn thương, bit 4-11 số tầng (0 = chưa rõ),
+    // bit 12-23 số người, bit 24-31 điểm ưu tiên
+    private static final int FLAGS_MASK = 0xF;
+    private static final int FLOORS_SHIFT = 4;
+    private static final int PEOPLE_SHIFT = 12;
+    private static final int SCORE_SHIFT = 24;
+    private static final int MAX_FLOORS = 0xFF;
+    private static final int MAX_PEOPLE = 0xFFF;
+
+    private static final double CELL_DEGREES = 0.0025;
+
+    public static final Comparator<Candidate> BY_PRIORITY = Comparator
+            .comparingInt(Candidate::score).reversed()
+            .thenComparingDouble(Candidate::distanceMeters)
+            .thenComparingLong(Candidate::householdId);
+
+    private final HouseholdRepository householdRepository;
+
+    @Override
+    protected List<Household> loadAll() {
+        return householdRepository.findAll();
+    }
+
+    @Override
+    protected Long idOf(Household household) {
+        return household.getHouseholdId();
+    }
+
+    @Override
+    protected Household entryOf(Household household) {
+        return Household.builder()
+                .householdId(household.getHouseholdId())
+                .address(household.getAddress())
+                .numPeople(household.getNumPeople())
+                .hasElderly(household.getHasElderly())
+                .hasChildren(household.getHasChildren())
+                .hasSickPerson(household.getHasSickPerson())
+                .hasPregnant(household.getHasPregnant())
+                .numFloors(household.getNumFloors())
+                .geom(household.getGeom())
+                .build();
+    }
+
+    // Mỗi lần ghi dựng lại toàn bộ (~100 ms với 200k hộ): hộ dân đăng ký/cập nhật thưa, không đáng cập nhật tại chỗ
+    @Override
+    protected Snapshot build(Collection<Household> households) {
+        List<Household> located = households.stream()
+                .filter(household -> household.getGeom() != null)
+                .toList();
+        int n = located.size();
+        if (n == 0) {
+            return new Snapshot(0, 0, 0, 0, new long[0], new int[]{0}, new long[0], new double[0],
+                    new double[0], new int[0], new String[0]);
+        }
+
+        double minLon = Double.POSITIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (Household household : located) {
+            minLon = Math.min(minLon, household.getGeom().getX());
+            minLat = Math.min(minLat, household.getGeom().getY());
+            maxLon = Math.max(maxLon, household.getGeom().getX());
+            maxLat = Math.max(maxLat, household.getGeom().getY());
+        }
+        int cols = (int) Math.floor((maxLon - minLon) / CELL_DEGREES) + 1;
+        int rows = (int) Math.floor((maxLat - minLat) / CELL_DEGREES) + 1;
+        Snapshot grid = new Snapshot(minLon, minLat, cols, rows, null, null, null, null, null, null, null);
+
+        // Sắp xếp theo (ô lưới, vị trí trong danh sách) bằng một mảng long để tránh boxing
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            Household household = located.get(i);
+            long key = (long) grid.row(household.getGeom().getY()) * cols + grid.col(household.getGeom().getX());
+            order[i] = key * n + i;
+        }
+        Arrays.sort(order);
+
+        long[] ids = new long[n];
+        double[] longitudes = new double[n];
+        double[] latitudes = new double[n];
+        int[] packed = new int[n];
+        String[] addresses = new String[n];
+        long[] keys = new long[n];
+        int[] starts = new int[n + 1];
+        int cells = 0;
+        for (int i = 0; i < n; i++) {
+            long key = order[i] / n;
+            Household household = located.get((int) (order[i] % n));
+            ids[i] = household.getHouseholdId();
+            longitudes[i] = household.getGeom().getX();
+            latitudes[i] = household.getGeom().getY();
+            packed[i] = pack(household);
+            addresses[i] = household.getAddress();
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells] = i;
+                cells++;
+            }
+        }
+        starts[cells] = n;
+        return new Snapshot(minLon, minLat, cols, rows, Arrays.copyOf(keys, cells),
+                Arrays.copyOf(starts, cells + 1), ids, longitudes, latitudes, packed, addresses);
+    }
+
+    /**
+     * Hộ dân trong bán kính radiusMeters, xếp theo điểm ưu tiên giảm dần rồi khoảng cách tăng dần
+     *
+     * @param anyOfMask hộ phải có ít nhất một cờ trong mask (0 = không lọc)
+     * @param maxFloors bỏ qua hộ có nhiều tầng hơn (null = không lọc, hộ chưa rõ số tầng luôn được giữ)
+     */
+    public Result findRescuePriority(double longitude, double latitude, double radiusMeters, int anyOfMask,
+                                     Integer maxFloors, int limit) {
+        Snapshot current = snapshot();
+        List<Candidate> matches = new ArrayList<>();
+        if (current.cols() == 0) {
+            return new Result(0, matches);
+        }
+        Envelope envelope = GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters);
+        int colMin = Math.max(0, current.col(envelope.getMinX()));
+        int colMax = Math.min(current.cols() - 1, current.col(envelope.getMaxX()));
+        int rowMin = Math.max(0, current.row(envelope.getMinY()));
+        int rowMax = Math.min(current.rows() - 1, current.row(envelope.getMaxY()));
+        int[] packed = current.packed();
+
+        for (int row = rowMin; row <= rowMax && colMin <= colMax; row++) {
+            long lastKey = (long) row * current.cols() + colMax;
+            int cell = lowerBound(current.cellKeys(), (long) row * current.cols() + colMin);
+            for (; cell < current.cellKeys().length && current.cellKeys()[cell] <= lastKey; cell++) {
+                for (int i = current.cellStart()[cell]; i < current.cellStart()[cell + 1]; i++) {
+                    int bits = packed[i];
+                    if (anyOfMask != 0 && (bits & anyOfMask) == 0) {
+                        continue;
+                    }
+                    int floors = (bits >>> FLOORS_SHIFT) & MAX_FLOORS;
+                    if (maxFloors != null && floors > maxFloors) {
+                        continue;
+                    }
+                    double lon = current.longitudes()[i];
+                    double lat = current.latitudes()[i];
+                    if (!envelope.contains(lon, lat)) {
+                        continue;
+                    }
+                    double distance = GeoUtil.distanceMeters(longitude, latitude, lon, lat);
+                    if (distance <= radiusMeters) {
+                        matches.add(new Candidate(current.ids()[i], current.addresses()[i], bits, distance));
+                    }
+                }
+            }
+        }
+        return rank(matches, limit);
+    }
+
+    public static Result rank(List<Candidate> matches, int limit) {
+        matches.sort(BY_PRIORITY);
+        int total = matches.size();
+        return new Result(total, total > limit ? new ArrayList<>(matches.subList(0, limit)) : matches);
+    }
+
+    /**
+     * Điểm ưu tiên: người bệnh 10, người già 8, thai phụ 6, trẻ em 4; nhà 1 tầng +4 (không có chỗ tránh lên cao),
+     * chưa rõ số tầng +2, 2 tầng +1; thêm 1 điểm cho mỗi 2 người, tối đa 5
+     */
+    public static int pack(Household household) {
+        int flags = (Boolean.TRUE.equals(household.getHasElderly()) ? Vulnerability.ELDERLY.bit : 0)
+                | (Boolean.TRUE.equals(household.getHasChildren()) ? Vulnerability.CHILDREN.bit : 0)
+                | (Boolean.TRUE.equals(household.getHasSickPerson()) ? Vulnerability.SICK.bit : 0)
+                | (Boolean.TRUE.equals(household.getHasPregnant()) ? Vulnerability.PREGNANT.bit : 0);
+        Integer numFloors = household.getNumFloors();
+        int floors = numFloors == null || numFloors < 1 ? 0 : Math.min(numFloors, MAX_FLOORS);
+        int people = household.getNumPeople() == null ? 1 : Math.max(0, Math.min(household.getNumPeople(), MAX_PEOPLE));
+
+        int score = ((flags & Vulnerability.SICK.bit) != 0 ? 10 : 0)
+                + ((flags & Vulnerability.ELDERLY.bit) != 0 ? 8 : 0)
+                + ((flags & Vulnerability.PREGNANT.bit) != 0 ? 6 : 0)
+                + ((flags & Vulnerability.CHILDREN.bit) != 0 ? 4 : 0)
+                + (floors == 0 ? 2 : floors == 1 ? 4 : floors == 2 ? 1 : 0)
+                + Math.min(people, 10) / 2;
+        return flags | floors << FLOORS_SHIFT | people << PEOPLE_SHIFT | score << SCORE_SHIFT;
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public record Candidate(long householdId, String address, int packed, double distanceMeters) {
+
+        public boolean has(Vulnerability vulnerability) {
+            return (packed & vulnerability.bit) != 0;
+        }
+
+        // null nếu chưa rõ số tầng
+        public Integer numFloors() {
+            int floors = (packed >>> FLOORS_SHIFT) & MAX_FLOORS;
+            return floors == 0 ? null : floors;
+        }
+
+        public int numPeople() {
+            return (packed >>> PEOPLE_SHIFT) & MAX_PEOPLE;
+        }
+
+        public int score() {
+            return packed >>> SCORE_SHIFT;
+        }
+    }
+
+    public record Result(int totalMatched, List<Candidate> candidates) {
+    }
+
+    record Snapshot(double originLon, double originLat, int cols, int rows, long[] cellKeys,
+                            int[] cellStart, long[] ids, double[] longitudes, double[] latitudes, int[] packed,
+                            String[] addresses) {
+
+        int col(double longitude) {
+            return (int) Math.floor((longitude - originLon) / CELL_DEGREES);
+        }
+
+        int row(double latitude) {
+            return (int) Math.floor((latitude - originLat) / CELL_DEGREES);
+        }
+    }
+}
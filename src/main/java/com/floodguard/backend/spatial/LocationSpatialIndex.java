@@ -0,0 +1,114 @@
+package com.floodguard.backend.spatial;
+
+import com.floodguard.backend.model.Location;
+import com.floodguard.backend.repository.LocationRepository;
+import com.floodguard.backend.util.GeoUtil;
+import lombok.RequiredArgsConstructor;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.index.strtree.ItemDistance;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory STRtree over all locations, answering the radius / bounding box / nearest queries of
+ * LocationRepository without a database round trip.
+ * <p>
+ * STRtree is immutable once built, so a write swaps in a new snapshot sharing the tree with the change in a small
+ * overlay (see OverlayTree); the tree is only rebuilt once the overlay fills up. Readers never lock.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocationSpatialIndex extends SnapshotIndex<Location, Location, OverlayTree<Location>> {
+
+    private static final ItemDistance ENVELOPE_DISTANCE = (a, b) ->
+            ((Envelope) a.getBounds()).distance((Envelope) b.getBounds());
+
+    private final LocationRepository locationRepository;
+
+    @Override
+    protected List<Location> loadAll() {
+        return locationRepository.findAll();
+    }
+
+    @Override
+    protected Long idOf(Location location) {
+        return location.getLocationId();
+    }
+
+    @Override
+    protected Location entryOf(Location location) {
+        return Location.builder()
+                .locationId(location.getLocationId())
+                .address(location.getAddress())
+                .geom(location.getGeom())
+                .locationType(location.getLocationType())
+                .baseElevation(location.getBaseElevation())
+                .build();
+    }
+
+    @Override
+    protected OverlayTree<Location> build(Collection<Location> locations) {
+        return OverlayTree.build(locations, Location::getLocationId, LocationSpatialIndex::envelope);
+    }
+
+    @Override
+    protected OverlayTree<Location> update(OverlayTree<Location> current, Long locationId, Location previous,
+                                           Location next, Collection<Location> all) {
+        return current.with(locationId, previous, next, () -> all);
+    }
+
+    /**
+     * Same semantics as ST_DWithin(geom::geography, point::geography, radius): envelope pre-filter on the tree,
+     * then exact spheroid distance
+     */
+    public List<Location> findWithinRadius(double longitude, double latitude, double radiusMeters) {
+        List<Location> result = new ArrayList<>();
+        for (Location location : snapshot().query(GeoUtil.radiusEnvelope(longitude, latitude, radiusMeters))) {
+            Point geom = location.getGeom();
+            if (GeoUtil.distanceMeters(longitude, latitude, geom.getX(), geom.getY()) <= radiusMeters) {
+                result.add(location);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Same semantics as ST_Intersects(geom, ST_MakeEnvelope(...)): boundary points are included
+     */
+    public List<Location> findInBoundingBox(double minLon, double minLat, double maxLon, double maxLat) {
+        return snapshot().query(new Envelope(minLon, maxLon, minLat, maxLat));
+    }
+
+    /**
+     * Same semantics as ORDER BY geom <-> point LIMIT n: planar distance in degrees
+     */
+    public List<Location> findNearest(double longitude, double latitude, int limit) {
+        OverlayTree<Location> current = snapshot();
+        int k = Math.min(limit, current.size());
+        if (k <= 0) {
+            return List.of();
+        }
+        return current.nearestCandidates(new Envelope(new Coordinate(longitude, latitude)), ENVELOPE_DISTANCE, k)
+                .stream()
+                .sorted(Comparator.comparingDouble((Location location) -> planarDistance(location, longitude, latitude))
+                        .thenComparing(Location::getLocationId))
+                .limit(k)
+                .toList();
+    }
+
+    private static Envelope envelope(Location location) {
+        return location.getGeom() != null ? location.getGeom().getEnvelopeInternal() : null;
+    }
+
+    private static double planarDistance(Location location, double longitude, double latitude) {
+        double dx = location.getGeom().getX() - longitude;
+        double dy = location.getGeom().getY() - latitude;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
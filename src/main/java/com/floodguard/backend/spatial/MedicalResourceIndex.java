@@ -0,0 +1,274 @@
+package com.floodguard.backend.spatial;
+
+import com.floodguard.backend.model.MedicalResource;
+import com.floodguard.backend.repository.MedicalResourceRepository;
+import com.floodguard.backend.util.GeoUtil;
+import lombok.RequiredArgsConstructor;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * In-memory index of the active medical resources, one grid per specialization plus one over all of them, for
+ * the nearest-resource (kNN) queries run for every household of an incident.
+ * <p>
+ * Each grid stores its resources in flat arrays sorted by a ~1 km cell (only non-empty cells are kept). A query
+ * scans rings of cells around the point, keeps the k nearest by geodesic distance (same as
+ * ST_Distance(geography)) and stops as soon as the radius envelope of the k-th distance lies inside the scanned
+ * block. Writes go through SnapshotIndex; turning a resource on or off (is_active) only rebuilds the grids of its
+ * specialization and the shared one, and readers never lock.
+ */
+@Component
+@RequiredArgsConstructor
+public class MedicalResourceIndex
+        extends SnapshotIndex<MedicalResource, MedicalResource, Map<String, MedicalResourceIndex.Grid>> {
+
+    // Key của grid chứa mọi resource đang hoạt động (không lọc chuyên khoa)
+    private static final String ANY_SPECIALIZATION = "";
+    private static final double CELL_DEGREES = 0.01;
+
+    private static final Comparator<Nearest> BY_DISTANCE = Comparator
+            .comparingDouble(Nearest::distanceMeters)
+            .thenComparingLong(Nearest::resourceId);
+
+    private final MedicalResourceRepository medicalResourceRepository;
+
+    @Override
+    protected List<MedicalResource> loadAll() {
+        return medicalResourceRepository.findAll();
+    }
+
+    @Override
+    protected Long idOf(MedicalResource resource) {
+        return resource.getResourceId();
+    }
+
+    @Override
+    protected MedicalResource entryOf(MedicalResource resource) {
+        return MedicalResource.builder()
+                .resourceId(resource.getResourceId())
+                .name(resource.getName())
+                .type(resource.getType())
+                .contactPhone(resource.getContactPhone())
+                .specialization(resource.getSpecialization())
+                .isActive(resource.getIsActive())
+                .geom(resource.getGeom())
+                .build();
+    }
+
+    @Override
+    protected Map<String, Grid> build(Collection<MedicalResource> resources) {
+        Set<String> keys = new HashSet<>();
+        resources.forEach(resource -> keys.add(key(resource.getSpecialization())));
+        return rebuild(Map.of(), keys, resources);
+    }
+
+    // Resource không hoạt động vẫn được giữ trong map để bật lại không cần đọc DB, nhưng không nằm trong grid nào;
+    // chỉ dựng lại grid của chuyên khoa cũ/mới và grid chung
+    @Override
+    protected Map<String, Grid> update(Map<String, Grid> current, Long id, MedicalResource previous,
+                                      MedicalResource next, Collection<MedicalResource> all) {
+        Set<String> keys = new HashSet<>();
+        if (previous != null) {
+            keys.add(key(previous.getSpecialization()));
+        }
+        if (next != null) {
+            keys.add(key(next.getSpecialization()));
+        }
+        return rebuild(current, keys, all);
+    }
+
+    /**
+     * k resource đang hoạt động gần điểm nhất, khoảng cách tăng dần
+     *
+     * @param specialization chuyên khoa (không phân biệt hoa thường), null = mọi resource
+     * @param maxDistanceMeters bỏ qua resource xa hơn (Double.POSITIVE_INFINITY = không giới hạn)
+     */
+    public List<Nearest> findNearest(String specialization, double longitude, double latitude, int k,
+                                     double maxDistanceMeters) {
+        Map<String, Grid> grids = snapshot();
+        Grid grid = grids != null ? grids.get(key(specialization)) : null;
+        if (grid == null || grid.ids().length == 0) {
+            return List.of();
+        }
+        return grid.nearest(longitude, latitude, k, maxDistanceMeters);
+    }
+
+    public static String key(String specialization) {
+        return specialization == null ? ANY_SPECIALIZATION : specialization.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Dựng lại grid của các chuyên khoa trong keys và grid chung trên bản sao của current
+    private static Map<String, Grid> rebuild(Map<String, Grid> current, Set<String> keys,
+                                             Collection<MedicalResource> resources) {
+        Map<String, Grid> next = new HashMap<>(current);
+        Set<String> changed = new HashSet<>(keys);
+        changed.add(ANY_SPECIALIZATION);
+        for (String key : changed) {
+            List<MedicalResource> members = resources.stream()
+                    .filter(resource -> Boolean.TRUE.equals(resource.getIsActive()) && resource.getGeom() != null)
+                    .filter(resource -> key.equals(ANY_SPECIALIZATION) || key.equals(key(resource.getSpecialization())))
+                    .toList();
+            if (members.isEmpty()) {
+                next.remove(key);
+            } else {
+                next.put(key, Grid.of(members));
+            }
+        }
+        return Map.copyOf(next);
+    }
+
+    public record Nearest(long resourceId, String name, String type, String specialization, String contactPhone,
+                          double longitude, double latitude, double distanceMeters) {
+    }
+
+    record Grid(double originLon, double originLat, int cols, int rows, long[] cellKeys, int[] cellStart,
+                        long[] ids, double[] longitudes, double[] latitudes, MedicalResource[] resources) {
+
+        static Grid of(List<MedicalResource> members) {
+            double minLon = Double.POSITIVE_INFINITY;
+            double minLat = Double.POSITIVE_INFINITY;
+            double maxLon = Double.NEGATIVE_INFINITY;
+            double maxLat = Double.NEGATIVE_INFINITY;
+            for (MedicalResource resource : members) {
+                minLon = Math.min(minLon, resource.getGeom().getX());
+                minLat = Math.min(minLat, resource.getGeom().getY());
+                maxLon = Math.max(maxLon, resource.getGeom().getX());
+                maxLat = Math.max(maxLat, resource.getGeom().getY());
+            }
+            int n = members.size();
+            int cols = (int) Math.floor((maxLon - minLon) / CELL_DEGREES) + 1;
+            int rows = (int) Math.floor((maxLat - minLat) / CELL_DEGREES) + 1;
+
+            // Sắp xếp theo (ô lưới, vị trí trong danh sách) bằng một mảng long để tránh boxing
+            long[] order = new long[n];
+            for (int i = 0; i < n; i++) {
+                MedicalResource resource = members.get(i);
+                long row = (long) Math.floor((resource.getGeom().getY() - minLat) / CELL_DEGREES);
+                long col = (long) Math.floor((resource.getGeom().getX() - minLon) / CELL_DEGREES);
+                order[i] = (row * cols + col) * n + i;
+            }
+            Arrays.sort(order);
+
+            long[] ids = new long[n];
+            double[] longitudes = new double[n];
+            double[] latitudes = new double[n];
+            MedicalResource[] sorted = new MedicalResource[n];
+            long[] keys = new long[n];
+            int[] starts = new int[n + 1];
+            int cells = 0;
+            for (int i = 0; i < n; i++) {
+                long key = order[i] / n;
+                MedicalResource resource = members.get((int) (order[i] % n));
+                ids[i] = resource.getResourceId();
+                longitudes[i] = resource.getGeom().getX();
+                latitudes[i] = resource.getGeom().getY();
+                sorted[i] = resource;
+                if (cells == 0 || keys[cells - 1] != key) {
+                    keys[cells] = key;
+                    starts[cells] = i;
+                    cells++;
+                }
+            }
+            starts[cells] = n;
+            return new Grid(minLon, minLat, cols, rows, Arrays.copyOf(keys, cells), Arrays.copyOf(starts, cells + 1),
+                    ids, longitudes, latitudes, sorted);
+        }
+
+        List<Nearest> nearest(double longitude, double latitude, int k, double maxDistanceMeters) {
+            // Max-heap: phần tử đầu là ứng viên xa nhất trong k ứng viên hiện tại
+            PriorityQueue<Nearest> best = new PriorityQueue<>(k + 1, BY_DISTANCE.reversed());
+            long col = (long) Math.floor((longitude - originLon) / CELL_DEGREES);
+            long row = (long) Math.floor((latitude - originLat) / CELL_DEGREES);
+            // Các vòng nhỏ hơn không chạm tới grid khi điểm nằm ngoài grid
+            long ring = Math.max(0, Math.max(Math.max(-col, col - (cols - 1)), Math.max(-row, row - (rows - 1))));
+            for (; ; ring++) {
+                scanRing(col, row, ring, longitude, latitude, k, maxDistanceMeters, best);
+                if (col - ring <= 0 && col + ring >= cols - 1 && row - ring <= 0 && row + ring >= rows - 1) {
+                    break;
+                }
+                double bound = best.size() == k ? best.peek().distanceMeters() : maxDistanceMeters;
+                if (bound < Double.POSITIVE_INFINITY) {
+                    Envelope envelope = GeoUtil.radiusEnvelope(longitude, latitude, bound);
+                    if (envelope.getMinX() >= originLon + (col - ring) * CELL_DEGREES
+                            && envelope.getMaxX() < originLon + (col + ring + 1) * CELL_DEGREES
+                            && envelope.getMinY() >= originLat + (row - ring) * CELL_DEGREES
+                            && envelope.getMaxY() < originLat + (row + ring + 1) * CELL_DEGREES) {
+                        break;
+                    }
+                }
+            }
+            List<Nearest> nearest = new ArrayList<>(best);
+            nearest.sort(BY_DISTANCE);
+            return nearest;
+        }
+
+        // Các ô có max(|dx|, |dy|) = ring quanh ô (col, row)
+        private void scanRing(long col, long row, long ring, double longitude, double latitude, int k,
+                              double maxDistanceMeters, PriorityQueue<Nearest> best) {
+            for (long y = Math.max(0, row - ring); y <= Math.min(rows - 1, row + ring); y++) {
+                if (y == row - ring || y == row + ring) {
+                    scanCells(y, col - ring, col + ring, longitude, latitude, k, maxDistanceMeters, best);
+                } else {
+                    scanCells(y, col - ring, col - ring, longitude, latitude, k, maxDistanceMeters, best);
+                    scanCells(y, col + ring, col + ring, longitude, latitude, k, maxDistanceMeters, best);
+                }
+            }
+        }
+
+        private void scanCells(long y, long fromCol, long toCol, double longitude, double latitude, int k,
+                               double maxDistanceMeters, PriorityQueue<Nearest> best) {
+            long from = Math.max(0, fromCol);
+            long to = Math.min(cols - 1, toCol);
+            if (from > to) {
+                return;
+            }
+            long lastKey = y * cols + to;
+            for (int cell = lowerBound(cellKeys, y * cols + from); cell < cellKeys.length && cellKeys[cell] <= lastKey;
+                 cell++) {
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    double distance = GeoUtil.distanceMeters(longitude, latitude, longitudes[i], latitudes[i]);
+                    if (distance > maxDistanceMeters) {
+                        continue;
+                    }
+                    if (best.size() == k) {
+                        Nearest farthest = best.peek();
+                        if (distance > farthest.distanceMeters()
+                                || distance == farthest.distanceMeters() && ids[i] > farthest.resourceId()) {
+                            continue;
+                        }
+                        best.poll();
+                    }
+                    MedicalResource resource = resources[i];
+                    best.add(new Nearest(ids[i], resource.getName(), resource.getType(), resource.getSpecialization(),
+                            resource.getContactPhone(), longitudes[i], latitudes[i], distance));
+                }
+            }
+        }
+
+        private static int lowerBound(long[] values, long key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
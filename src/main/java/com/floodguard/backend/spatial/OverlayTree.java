@@ -0,0 +1,129 @@
+package com.floodguard.backend.spatial;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.ItemDistance;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Immutable STRtree plus an overlay of the entries written since the tree was built.
+ * <p>
+ * An STRtree cannot be modified after build(), so a write does not rebuild it: it returns a new OverlayTree sharing
+ * the same tree with the written entry (or a removal marker) in the overlay. Queries skip tree entries shadowed by
+ * the overlay and scan the overlay linearly; once the overlay holds {@value #MAX_PENDING} ids the next write
+ * rebuilds the tree from all entries.
+ */
+final class OverlayTree<E> {
+
+    static final int MAX_PENDING = 256;
+
+    private final STRtree tree;
+    private final int treeSize;
+    // id -> entry ghi sau khi dựng cây, null = đã xoá
+    private final Map<Long, E> pending;
+    private final int size;
+    private final Function<E, Long> id;
+    private final Function<E, Envelope> envelope;
+
+    private OverlayTree(STRtree tree, int treeSize, Map<Long, E> pending, int size, Function<E, Long> id,
+                        Function<E, Envelope> envelope) {
+        this.tree = tree;
+        this.treeSize = treeSize;
+        this.pending = pending;
+        this.size = size;
+        this.id = id;
+        this.envelope = envelope;
+    }
+
+    /**
+     * @param envelope null = entry không có hình học, không nằm trong cây
+     */
+    static <E> OverlayTree<E> build(Collection<E> entries, Function<E, Long> id, Function<E, Envelope> envelope) {
+        STRtree tree = new STRtree();
+        int size = 0;
+        for (E entry : entries) {
+            Envelope bounds = envelope.apply(entry);
+            if (bounds != null) {
+                tree.insert(bounds, entry);
+                size++;
+            }
+        }
+        tree.build();
+        return new OverlayTree<>(tree, size, Collections.emptyMap(), size, id, envelope);
+    }
+
+    /**
+     * Snapshot mới sau khi entry id đổi từ previous sang next (null = không tồn tại)
+     *
+     * @param all toàn bộ entry sau thay đổi, chỉ đọc khi overlay đầy và phải dựng lại cây
+     */
+    OverlayTree<E> with(Long entryId, E previous, E next, Supplier<Collection<E>> all) {
+        if (pending.size() >= MAX_PENDING && !pending.containsKey(entryId)) {
+            return build(all.get(), id, envelope);
+        }
+        Map<Long, E> overlay = new HashMap<>(pending);
+        overlay.put(entryId, next);
+        int nextSize = size - (indexed(previous) ? 1 : 0) + (indexed(next) ? 1 : 0);
+        return new OverlayTree<>(tree, treeSize, Collections.unmodifiableMap(overlay), nextSize, id, envelope);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    List<E> query(Envelope search) {
+        List<E> result = new ArrayList<>();
+        for (Object item : tree.query(search)) {
+            E entry = (E) item;
+            if (!pending.containsKey(id.apply(entry))) {
+                result.add(entry);
+            }
+        }
+        for (E entry : pending.values()) {
+            if (entry != null) {
+                Envelope bounds = envelope.apply(entry);
+                if (bounds != null && bounds.intersects(search)) {
+                    result.add(entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ứng viên cho k entry gần nhất theo distance: k + số id trong overlay phần tử gần nhất của cây (phần bị overlay
+     * che bị loại) cùng mọi entry của overlay. Người gọi tự sắp xếp và cắt lấy k.
+     */
+    @SuppressWarnings("unchecked")
+    List<E> nearestCandidates(Envelope search, ItemDistance distance, int k) {
+        List<E> result = new ArrayList<>();
+        int fromTree = Math.min(k + pending.size(), treeSize);
+        if (fromTree > 0) {
+            for (Object item : tree.nearestNeighbour(search, null, distance, fromTree)) {
+                E entry = (E) item;
+                if (!pending.containsKey(id.apply(entry))) {
+                    result.add(entry);
+                }
+            }
+        }
+        for (E entry : pending.values()) {
+            if (indexed(entry)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private boolean indexed(E entry) {
+        return entry != null && envelope.apply(entry) != null;
+    }
+}
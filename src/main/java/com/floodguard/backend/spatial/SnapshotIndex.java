@@ -0,0 +1,109 @@
+package com.floodguard.backend.spatial;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared write path of the in-memory indexes: a map of detached entries by id plus an immutable snapshot S built
+ * from them, swapped in on every write so readers never lock.
+ * <p>
+ * load() reads the table while holding the write lock, so a put/remove committed during the read waits until the
+ * load is done instead of being wiped by it. Writes made before the first load only update the map.
+ *
+ * @param <T> entity type
+ * @param <E> detached entry kept by the index
+ * @param <S> snapshot queried by readers
+ */
+@Slf4j
+abstract class SnapshotIndex<T, E, S> {
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Long, E> entries = new HashMap<>();
+    private volatile S snapshot;
+
+    protected abstract List<T> loadAll();
+
+    protected abstract Long idOf(T entity);
+
+    /**
+     * Bản sao tách khỏi persistence context (chỉ giữ các trường index cần), để entity bên ngoài thay đổi
+     * không ảnh hưởng index
+     */
+    protected abstract E entryOf(T entity);
+
+    protected abstract S build(Collection<E> entries);
+
+    /**
+     * Snapshot mới sau khi entry id đổi từ previous sang next (null = không tồn tại); mặc định dựng lại toàn bộ
+     *
+     * @param all toàn bộ entry sau thay đổi
+     */
+    protected S update(S current, Long id, E previous, E next, Collection<E> all) {
+        return build(all);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        writeLock.lock();
+        try {
+            List<T> all = loadAll();
+            entries.clear();
+            all.forEach(entity -> entries.put(idOf(entity), entryOf(entity)));
+            snapshot = build(entries.values());
+            log.info("{} loaded with {} entries", getClass().getSimpleName(), all.size());
+        } catch (RuntimeException e) {
+            log.warn("{} not loaded, falling back to database queries: {}", getClass().getSimpleName(),
+                    e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public void put(T entity) {
+        writeLock.lock();
+        try {
+            Long id = idOf(entity);
+            E next = entryOf(entity);
+            apply(id, entries.put(id, next), next);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            E previous = entries.remove(id);
+            if (previous != null) {
+                apply(id, previous, null);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Snapshot hiện tại, null khi chưa nạp (người gọi kiểm tra isReady() trước)
+     */
+    protected S snapshot() {
+        return snapshot;
+    }
+
+    private void apply(Long id, E previous, E next) {
+        S current = snapshot;
+        if (current != null) {
+            snapshot = update(current, id, previous, next, entries.values());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.floodguard.backend.stats;
+
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.util.CacheUtil;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Cached heatmap grids of GET /api/reports/heatmap. Every report write invalidates the grids whose bbox contains
+ * the report (same hooks as the report tile layer), bulk writes drop everything; the TTL only bounds staleness for
+ * changes made directly in the database.
+ */
+@Component
+public class ReportHeatmapCache {
+
+    private final AsyncCache<Key, ReportDTO.HeatmapResponse> cache = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .buildAsync();
+
+    public ReportDTO.HeatmapResponse getOrLoad(Key key, Function<Key, ReportDTO.HeatmapResponse> loader) {
+        return CacheUtil.getOrLoad(cache, key, loader);
+    }
+
+    public void invalidatePoint(double longitude, double latitude) {
+        cache.asMap().keySet().removeIf(key -> key.contains(longitude, latitude));
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * bbox đã mở rộng ra biên lưới, from/to đã làm tròn theo bucket thời gian
+     */
+    public record Key(double cellSize, double minLon, double minLat, double maxLon, double maxLat,
+                      LocalDateTime from, LocalDateTime to, String eventType) {
+
+        boolean contains(double longitude, double latitude) {
+            return longitude >= minLon && longitude <= maxLon && latitude >= minLat && latitude <= maxLat;
+        }
+    }
+}
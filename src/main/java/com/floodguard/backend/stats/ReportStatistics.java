@@ -0,0 +1,356 @@
+package com.floodguard.backend.stats;
+
+import com.floodguard.backend.model.Report;
+import com.floodguard.backend.model.ReportStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory report counters for the dashboard: totals per event type and per status, and reports created per
+ * hour / per day for every (management_area_code, event_type) pair, including the "all areas" and "all types"
+ * roll-ups, so any time-series query reads exactly one series and its cost depends only on the number of
+ * buckets requested.
+ * <p>
+ * Counters are LongAdders (striped, no contention between concurrent writers) updated after commit by every write
+ * path of this node (report service, ingest queue, bulk import and bulk verify): every write is applied as "remove
+ * the old state, add the new state", bulk imports as one grouped count per series bucket. Report writes of other
+ * nodes (ChangeEventBus) trigger a rebuild from the database (REPEATABLE READ snapshot) at most
+ * reports.stats.remote-reconcile-delay-seconds later, coalesced; a full rebuild also runs every
+ * reports.stats.reconcile-seconds to correct direct database changes and reporters changing area. Changes applied
+ * while a rebuild runs are replayed on the new counters.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportStatistics {
+
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime truncate(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+
+        public long bucketOf(LocalDateTime time) {
+            long seconds = time.toEpochSecond(ZoneOffset.UTC);
+            return Math.floorDiv(seconds, unit.getDuration().getSeconds());
+        }
+
+        public LocalDateTime startOf(long bucket) {
+            return LocalDateTime.ofEpochSecond(bucket * unit.getDuration().getSeconds(), 0, ZoneOffset.UTC);
+        }
+    }
+
+    // Khoá roll-up: "mọi khu vực" / "mọi loại sự kiện"
+    private static final String ANY = "*";
+    // Report của khách hoặc của user chưa có management_area_code
+    public static final String NO_AREA = "";
+    private static final String NO_EVENT_TYPE = "UNKNOWN";
+
+    private static final String TOTALS_SQL = "SELECT event_type, CAST(status AS text), COUNT(*) FROM reports " +
+            "GROUP BY event_type, status";
+    private static final String BUCKETS_SQL = "SELECT COALESCE(u.management_area_code, ''), r.event_type, " +
+            "date_trunc(?, r.created_at), COUNT(*) FROM reports r LEFT JOIN users u ON u.user_id = r.user_id " +
+            "WHERE r.created_at >= ? GROUP BY 1, 2, 3";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${reports.stats.reconcile-seconds:3600}")
+    private long reconcileSeconds;
+
+    @Value("${reports.stats.remote-reconcile-delay-seconds:30}")
+    private long remoteReconcileDelaySeconds;
+
+    @Value("${reports.stats.hourly-retention-days:35}")
+    private int hourlyRetentionDays;
+
+    @Value("${reports.stats.daily-retention-days:1830}")
+    private int dailyRetentionDays;
+
+    private final Queue<Change> changesDuringReconcile = new ConcurrentLinkedQueue<>();
+    // Read lock: mỗi lần apply (không tranh chấp giữa các writer); write lock: chỉ lúc đổi sang bộ đếm mới
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean remoteReconcileScheduled = new AtomicBoolean();
+    private volatile boolean reconciling;
+    private volatile Counters counters;
+    private ScheduledExecutorService reconciler;
+
+    /**
+     * Trạng thái của một report ở thời điểm trước / sau khi ghi, đủ để cập nhật mọi bộ đếm
+     */
+    public record Snapshot(String area, String eventType, ReportStatus status, LocalDateTime createdAt) {
+
+        // Gọi trong transaction: đọc management_area_code của người gửi (user LAZY)
+        public static Snapshot of(Report report) {
+            String area = report.getUser() != null ? report.getUser().getManagementAreaCode() : null;
+            return new Snapshot(area, report.getEventType(), report.getStatus(), report.getCreatedAt());
+        }
+    }
+
+    private record Change(Snapshot before, Snapshot after, long count) {
+    }
+
+    private record SeriesKey(String area, String eventType) {
+    }
+
+    private static final class Counters {
+        private final Map<String, LongAdder> byEventType = new ConcurrentHashMap<>();
+        private final Map<ReportStatus, LongAdder> byStatus = new ConcurrentHashMap<>();
+        private final Map<SeriesKey, Map<Long, LongAdder>> hourly = new ConcurrentHashMap<>();
+        private final Map<SeriesKey, Map<Long, LongAdder>> daily = new ConcurrentHashMap<>();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcile, 0, reconcileSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+    }
+
+    public boolean isReady() {
+        return counters != null;
+    }
+
+    // VD: sau khi sửa dữ liệu trực tiếp trong database, thay vì chờ tới chu kỳ đối soát kế tiếp
+    public void requestReconcile() {
+        if (reconciler != null) {
+            reconciler.execute(this::reconcile);
+        }
+    }
+
+    /**
+     * Node khác vừa ghi report: đối soát sau remote-reconcile-delay-seconds, mọi lần ghi từ xa trong lúc chờ
+     * dùng chung một lần đối soát
+     */
+    public void requestRemoteReconcile() {
+        if (reconciler != null && remoteReconcileScheduled.compareAndSet(false, true)) {
+            reconciler.schedule(() -> {
+                // Bỏ cờ trước khi đọc: lần ghi từ xa tới trong lúc đối soát có thể nằm ngoài snapshot
+                remoteReconcileScheduled.set(false);
+                reconcile();
+            }, remoteReconcileDelaySeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Áp dụng một lần ghi đã commit: before = null khi tạo mới, after = null khi xoá
+     */
+    public void apply(Snapshot before, Snapshot after) {
+        apply(new Change(before, after, 1));
+    }
+
+    /**
+     * Áp dụng count report cùng trạng thái vừa được tạo (bulk import gom theo khu vực, loại và giờ tạo)
+     */
+    public void applyCreated(Snapshot after, long count) {
+        apply(new Change(null, after, count));
+    }
+
+    private void apply(Change change) {
+        swapLock.readLock().lock();
+        try {
+            // Kể cả lần nạp đầu (counters còn null): thay đổi commit sau khi snapshot bắt đầu phải được phát lại
+            if (reconciling) {
+                changesDuringReconcile.add(change);
+            }
+            Counters current = counters;
+            if (current != null) {
+                apply(current, change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Long> countByEventType() {
+        Map<String, Long> counts = new HashMap<>();
+        counters.byEventType.forEach((type, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                counts.put(type, value);
+            }
+        });
+        return counts;
+    }
+
+    public Map<String, Long> countByStatus() {
+        Map<String, Long> counts = new HashMap<>();
+        counters.byStatus.forEach((status, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                counts.put(status.name(), value);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Số report tạo mới trong mỗi bucket [firstBucket, firstBucket + buckets)
+     *
+     * @param area      null = mọi khu vực, NO_AREA = report không thuộc khu vực nào
+     * @param eventType null = mọi loại sự kiện
+     */
+    public long[] createdSeries(Granularity granularity, long firstBucket, int buckets, String area,
+                                String eventType) {
+        Counters current = counters;
+        Map<Long, LongAdder> series = (granularity == Granularity.HOUR ? current.hourly : current.daily)
+                .get(new SeriesKey(area != null ? area : ANY, eventType != null ? eventType : ANY));
+        long[] counts = new long[buckets];
+        if (series == null) {
+            return counts;
+        }
+        for (int i = 0; i < buckets; i++) {
+            LongAdder count = series.get(firstBucket + i);
+            counts[i] = count != null ? count.sum() : 0;
+        }
+        return counts;
+    }
+
+    // Bucket cũ nhất còn được giữ trong bộ nhớ
+    public LocalDateTime earliest(Granularity granularity, LocalDateTime now) {
+        int days = granularity == Granularity.HOUR ? hourlyRetentionDays : dailyRetentionDays;
+        return granularity.truncate(now.minusDays(days));
+    }
+
+    void reconcile() {
+        long start = System.nanoTime();
+        reconciling = true;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+            snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            snapshot.setReadOnly(true);
+            Counters rebuilt = snapshot.execute(status -> load(now));
+
+            swapLock.writeLock().lock();
+            try {
+                // Thay đổi commit trong lúc đọc snapshot: áp dụng lại lên bộ đếm mới.
+                // Thay đổi vừa kịp nằm trong snapshot có thể bị tính hai lần, lần đối soát sau sẽ sửa
+                Change change;
+                while ((change = changesDuringReconcile.poll()) != null) {
+                    apply(rebuilt, change);
+                }
+                counters = rebuilt;
+                reconciling = false;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            log.debug("Report statistics reconciled in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Report statistics not reconciled, {}: {}",
+                    counters == null ? "falling back to database queries" : "keeping in-memory counters",
+                    e.getMessage());
+        } finally {
+            reconciling = false;
+            changesDuringReconcile.clear();
+        }
+    }
+
+    private Counters load(LocalDateTime now) {
+        Counters loaded = new Counters();
+        jdbcTemplate.query(TOTALS_SQL, rs -> {
+            long count = rs.getLong(3);
+            add(loaded.byEventType, eventTypeKey(rs.getString(1)), count);
+            add(loaded.byStatus, ReportStatus.valueOf(rs.getString(2)), count);
+        });
+        loadBuckets(loaded.hourly, Granularity.HOUR, earliest(Granularity.HOUR, now));
+        loadBuckets(loaded.daily, Granularity.DAY, earliest(Granularity.DAY, now));
+        return loaded;
+    }
+
+    private void loadBuckets(Map<SeriesKey, Map<Long, LongAdder>> target, Granularity granularity,
+                             LocalDateTime since) {
+        String field = granularity == Granularity.HOUR ? "hour" : "day";
+        jdbcTemplate.query(BUCKETS_SQL, rs -> {
+            long bucket = granularity.bucketOf(rs.getTimestamp(3).toLocalDateTime());
+            addToSeries(target, rs.getString(1), eventTypeKey(rs.getString(2)), bucket, rs.getLong(4));
+        }, field, since);
+    }
+
+    private void apply(Counters target, Change change) {
+        if (change.before() != null) {
+            apply(target, change.before(), -change.count());
+        }
+        if (change.after() != null) {
+            apply(target, change.after(), change.count());
+        }
+    }
+
+    private void apply(Counters target, Snapshot snapshot, long delta) {
+        String eventType = eventTypeKey(snapshot.eventType());
+        add(target.byEventType, eventType, delta);
+        if (snapshot.status() != null) {
+            add(target.byStatus, snapshot.status(), delta);
+        }
+        LocalDateTime createdAt = snapshot.createdAt();
+        if (createdAt == null) {
+            return;
+        }
+        String area = snapshot.area() != null ? snapshot.area() : NO_AREA;
+        LocalDateTime now = LocalDateTime.now();
+        if (!createdAt.isBefore(earliest(Granularity.HOUR, now))) {
+            addToSeries(target.hourly, area, eventType, Granularity.HOUR.bucketOf(createdAt), delta);
+        }
+        if (!createdAt.isBefore(earliest(Granularity.DAY, now))) {
+            addToSeries(target.daily, area, eventType, Granularity.DAY.bucketOf(createdAt), delta);
+        }
+    }
+
+    private static void addToSeries(Map<SeriesKey, Map<Long, LongAdder>> target, String area, String eventType,
+                                    long bucket, long delta) {
+        for (SeriesKey key : new SeriesKey[]{new SeriesKey(area, eventType), new SeriesKey(area, ANY),
+                new SeriesKey(ANY, eventType), new SeriesKey(ANY, ANY)}) {
+            add(target.computeIfAbsent(key, k -> new ConcurrentHashMap<>()), bucket, delta);
+        }
+    }
+
+    private static <K> void add(Map<K, LongAdder> counts, K key, long delta) {
+        counts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+    }
+
+    private static String eventTypeKey(String eventType) {
+        return eventType != null ? eventType : NO_EVENT_TYPE;
+    }
+}
@@ -0,0 +1,52 @@
+package com.floodguard.backend.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache utility
+ */
+public class CacheUtil {
+
+    private CacheUtil() {
+    }
+
+    /**
+     * Lấy value trong cache, nếu chưa có thì load trên thread hiện tại; các request đồng thời cùng key chờ
+     * kết quả của lần load đầu tiên.
+     * <p>
+     * Thay cho Cache.get(key, loader) khi loader chặn (truy vấn DB): Cache.get chạy loader bên trong
+     * ConcurrentHashMap.compute, tức là giữ monitor (synchronized) của bin trong suốt lần load, làm virtual
+     * thread bị ghim vào carrier thread và chặn các key khác cùng bin. Ở đây map chỉ bị khoá trong lúc đặt
+     * future, còn thread chờ thì park trên future. Load lỗi thì future bị Caffeine tự xoá khỏi cache.
+     *
+     * @param cache  async cache giữ future của value
+     * @param key    key
+     * @param loader chạy trên thread gọi (giữ nguyên transaction / security context hiện tại)
+     */
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> existing = cache.asMap().putIfAbsent(key, loading);
+        if (existing == null) {
+            try {
+                V value = loader.apply(key);
+                loading.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
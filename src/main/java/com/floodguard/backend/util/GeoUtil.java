@@ -0,0 +1,111 @@
+package com.floodguard.backend.util;
+
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Geodesic helpers on the WGS84 ellipsoid (SRID 4326)
+ */
+public class GeoUtil {
+
+    public static final int SRID = 4326;
+
+    private static final double WGS84_A = 6378137.0;
+    private static final double WGS84_F = 1 / 298.257223563;
+    private static final double WGS84_B = (1 - WGS84_F) * WGS84_A;
+    private static final double MEAN_EARTH_RADIUS = 6371008.8;
+
+    // Số mét nhỏ nhất của 1 độ vĩ (tại xích đạo) và 1 độ kinh (tại xích đạo)
+    private static final double MIN_METERS_PER_DEGREE_LAT = 110574.0;
+    private static final double METERS_PER_DEGREE_LON_EQUATOR = 111319.0;
+    private static final double ENVELOPE_MARGIN = 1.01;
+
+    private GeoUtil() {
+    }
+
+    /**
+     * Khoảng cách trắc địa (mét) trên ellipsoid WGS84 theo công thức Vincenty,
+     * tương đương ST_Distance(geography, geography) của PostGIS
+     *
+     * @return distance in meters
+     */
+    public static double distanceMeters(double lon1, double lat1, double lon2, double lat2) {
+        double l = Math.toRadians(lon2 - lon1);
+        double u1 = Math.atan((1 - WGS84_F) * Math.tan(Math.toRadians(lat1)));
+        double u2 = Math.atan((1 - WGS84_F) * Math.tan(Math.toRadians(lat2)));
+        double sinU1 = Math.sin(u1);
+        double cosU1 = Math.cos(u1);
+        double sinU2 = Math.sin(u2);
+        double cosU2 = Math.cos(u2);
+
+        double lambda = l;
+        double lambdaPrev;
+        double sinSigma;
+        double cosSigma;
+        double sigma;
+        double cosSqAlpha;
+        double cos2SigmaM;
+        int iterations = 100;
+        do {
+            double sinLambda = Math.sin(lambda);
+            double cosLambda = Math.cos(lambda);
+            double t1 = cosU2 * sinLambda;
+            double t2 = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+            sinSigma = Math.sqrt(t1 * t1 + t2 * t2);
+            if (sinSigma == 0) {
+                return 0;
+            }
+            cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            cosSqAlpha = 1 - sinAlpha * sinAlpha;
+            cos2SigmaM = cosSqAlpha != 0 ? cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha : 0;
+            double c = WGS84_F / 16 * cosSqAlpha * (4 + WGS84_F * (4 - 3 * cosSqAlpha));
+            lambdaPrev = lambda;
+            lambda = l + (1 - c) * WGS84_F * sinAlpha
+                    * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+        } while (Math.abs(lambda - lambdaPrev) > 1e-12 && --iterations > 0);
+
+        if (iterations == 0) {
+            // Gần điểm đối cực Vincenty không hội tụ, dùng haversine
+            return haversineMeters(lon1, lat1, lon2, lat2);
+        }
+
+        double uSq = cosSqAlpha * (WGS84_A * WGS84_A - WGS84_B * WGS84_B) / (WGS84_B * WGS84_B);
+        double a = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+        double b = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+        double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+                - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+        return WGS84_B * a * (sigma - deltaSigma);
+    }
+
+    /**
+     * Khoảng cách trên mặt cầu (mét), nhanh hơn Vincenty nhưng sai số tới ~0.5%
+     *
+     * @return distance in meters
+     */
+    public static double haversineMeters(double lon1, double lat1, double lon2, double lat2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * MEAN_EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    /**
+     * Hình chữ nhật (độ) chắc chắn chứa toàn bộ vòng tròn bán kính radiusMeters quanh điểm,
+     * dùng để lọc sơ bộ trước khi tính khoảng cách chính xác
+     *
+     * @return envelope in degrees
+     */
+    public static Envelope radiusEnvelope(double longitude, double latitude, double radiusMeters) {
+        double dLat = radiusMeters / MIN_METERS_PER_DEGREE_LAT * ENVELOPE_MARGIN;
+        double maxAbsLat = Math.min(90, Math.abs(latitude) + dLat);
+        double cos = Math.cos(Math.toRadians(maxAbsLat));
+        double dLon = cos < 1e-9
+                ? 180
+                : Math.min(180, radiusMeters / (METERS_PER_DEGREE_LON_EQUATOR * cos) * ENVELOPE_MARGIN);
+        return new Envelope(longitude - dLon, longitude + dLon,
+                Math.max(-90, latitude - dLat), Math.min(90, latitude + dLat));
+    }
+}
@@ -0,0 +1,221 @@
+package com.floodguard.backend.util;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Geohash (base32, kinh độ nhận bit đầu tiên) dạng số nguyên: ô có toạ độ nguyên (x, y) trên lưới
+ * 2^lonBits x 2^latBits, mã geohash là các bit x, y xen kẽ. Ô lân cận chỉ cần cộng trừ x, y.
+ * <p>
+ * Cột geohash của các bảng không gian lưu mã ở precision {@value #MAX_PRECISION} (60 bit, {@link #cell}):
+ * mọi điểm thuộc một ô precision p nằm trong một khoảng liên tục [hash << s, (hash + 1) << s), s = 5 * (12 - p),
+ * nên tìm theo bán kính / bbox thành vài range scan trên B-tree ({@link #cover}).
+ */
+public class GeohashUtil {
+
+    public static final int MAX_PRECISION = 12;
+    public static final int CELL_BITS = 5 * MAX_PRECISION;
+
+    // Số ô phủ tối đa: ô càng nhỏ càng ít ứng viên thừa nhưng càng nhiều range scan
+    public static final int COVER_CELLS = 16;
+
+    /**
+     * Bảng các khoảng c(low, high) cho native query, tham số :lows / :highs là {@link CellRanges#lowsLiteral()} /
+     * {@link CellRanges#highsLiteral()}. VD: JOIN CELL_RANGES_SQL ON h.geohash >= c.low AND h.geohash < c.high
+     */
+    public static final String CELL_RANGES_SQL = "unnest(CAST(CAST(:lows AS text) AS bigint[]), " +
+            "CAST(CAST(:highs AS text) AS bigint[])) AS c(low, high) ";
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeohashUtil() {
+    }
+
+    public static int lonBits(int precision) {
+        return (5 * precision + 1) / 2;
+    }
+
+    public static int latBits(int precision) {
+        return 5 * precision / 2;
+    }
+
+    public static double cellWidthDegrees(int precision) {
+        return 360.0 / (1L << lonBits(precision));
+    }
+
+    public static double cellHeightDegrees(int precision) {
+        return 180.0 / (1L << latBits(precision));
+    }
+
+    public static long cellX(double longitude, int precision) {
+        return clamp((long) Math.floor((longitude + 180) / cellWidthDegrees(precision)), lonBits(precision));
+    }
+
+    public static long cellY(double latitude, int precision) {
+        return clamp((long) Math.floor((latitude + 90) / cellHeightDegrees(precision)), latBits(precision));
+    }
+
+    /**
+     * Mã geohash của ô (x, y) dưới dạng 5 * precision bit
+     */
+    public static long hash(long x, long y, int precision) {
+        int lonBits = lonBits(precision);
+        int latBits = latBits(precision);
+        long hash = 0;
+        for (int i = 0; i < 5 * precision; i++) {
+            long bit = i % 2 == 0
+                    ? x >>> (lonBits - 1 - i / 2)
+                    : y >>> (latBits - 1 - i / 2);
+            hash = hash << 1 | bit & 1;
+        }
+        return hash;
+    }
+
+    public static long encode(double longitude, double latitude, int precision) {
+        return hash(cellX(longitude, precision), cellY(latitude, precision), precision);
+    }
+
+    /**
+     * Mã precision 12 của điểm, bằng encode(longitude, latitude, 12) nhưng xen bit bằng mask thay cho vòng lặp.
+     * Hàm geohash_cell(lon, lat) trong database.sql tính đúng như vậy cho các đường ghi bằng SQL
+     */
+    public static long cell(double longitude, double latitude) {
+        return spread(cellX(longitude, MAX_PRECISION)) << 1 | spread(cellY(latitude, MAX_PRECISION));
+    }
+
+    /**
+     * Điểm: mã của điểm. Đường / vùng: ô nhỏ nhất chứa cả envelope, viết dưới dạng mã 60 bit với các bit sau
+     * precision của ô bằng 0 (geohash_cell(geometry) trong database.sql)
+     */
+    public static Long cell(Geometry geometry) {
+        if (geometry == null || geometry.isEmpty()) {
+            return null;
+        }
+        if (geometry instanceof Point point) {
+            return cell(point.getX(), point.getY());
+        }
+        Envelope envelope = geometry.getEnvelopeInternal();
+        long min = cell(envelope.getMinX(), envelope.getMinY());
+        long max = cell(envelope.getMaxX(), envelope.getMaxY());
+        int shift = 0;
+        while (min >>> shift != max >>> shift) {
+            shift += 5;
+        }
+        return min >>> shift << shift;
+    }
+
+    /**
+     * Phủ envelope bằng các ô cùng precision (lớn nhất sao cho không quá maxCells ô), trả về các khoảng mã
+     * precision 12 tương ứng, đã sắp xếp và gộp các ô liền nhau theo thứ tự geohash
+     */
+    public static CellRanges cover(Envelope envelope, int maxCells) {
+        for (int precision = MAX_PRECISION; precision >= 1; precision--) {
+            long minX = cellX(envelope.getMinX(), precision);
+            long maxX = cellX(envelope.getMaxX(), precision);
+            long minY = cellY(envelope.getMinY(), precision);
+            long maxY = cellY(envelope.getMaxY(), precision);
+            if ((maxX - minX + 1) * (maxY - minY + 1) > maxCells) {
+                continue;
+            }
+            int shift = CELL_BITS - 5 * precision;
+            long[] cells = new long[(int) ((maxX - minX + 1) * (maxY - minY + 1))];
+            int count = 0;
+            for (long x = minX; x <= maxX; x++) {
+                for (long y = minY; y <= maxY; y++) {
+                    cells[count++] = hash(x, y, precision);
+                }
+            }
+            Arrays.sort(cells);
+            List<long[]> ranges = new ArrayList<>();
+            for (long cell : cells) {
+                long low = cell << shift;
+                long high = cell + 1 << shift;
+                long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+                if (last != null && last[1] == low) {
+                    last[1] = high;
+                } else {
+                    ranges.add(new long[]{low, high});
+                }
+            }
+            return new CellRanges(precision, ranges.stream().mapToLong(range -> range[0]).toArray(),
+                    ranges.stream().mapToLong(range -> range[1]).toArray(), ancestors(cells, precision, shift, ranges));
+        }
+        return new CellRanges(0, new long[]{0}, new long[]{1L << CELL_BITS}, new long[0]);
+    }
+
+    // Mã (dạng cell(Geometry)) của các ô cha của các ô phủ, bỏ các mã đã nằm trong một khoảng
+    private static long[] ancestors(long[] cells, int precision, int shift, List<long[]> ranges) {
+        TreeSet<Long> ancestors = new TreeSet<>();
+        for (long cell : cells) {
+            for (int level = 1; level <= precision; level++) {
+                int ancestorShift = shift + 5 * level;
+                ancestors.add(cell << shift >>> ancestorShift << ancestorShift);
+            }
+        }
+        ancestors.removeIf(ancestor -> ranges.stream().anyMatch(range -> range[0] <= ancestor && ancestor < range[1]));
+        return ancestors.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public static String toBase32(long hash, int precision) {
+        char[] chars = new char[precision];
+        for (int i = precision - 1; i >= 0; i--) {
+            chars[i] = BASE32[(int) (hash & 31)];
+            hash >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static String encodeBase32(double longitude, double latitude, int precision) {
+        return toBase32(encode(longitude, latitude, precision), precision);
+    }
+
+    // Đưa 30 bit thấp của v vào các vị trí bit chẵn
+    private static long spread(long v) {
+        v = (v | v << 16) & 0x0000FFFF0000FFFFL;
+        v = (v | v << 8) & 0x00FF00FF00FF00FFL;
+        v = (v | v << 4) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | v << 2) & 0x3333333333333333L;
+        return (v | v << 1) & 0x5555555555555555L;
+    }
+
+    private static long clamp(long index, int bits) {
+        return Math.max(0, Math.min(index, (1L << bits) - 1));
+    }
+
+    /**
+     * Khoảng [lows[i], highs[i]) trên cột geohash. ancestors: mã của đường / vùng có ô lớn hơn ô phủ
+     * (chỉ cần cho bảng có geometry không phải điểm)
+     */
+    public record CellRanges(int precision, long[] lows, long[] highs, long[] ancestors) {
+
+        // Mảng truyền vào native query dạng literal '{...}' rồi CAST sang bigint[]
+        public String lowsLiteral() {
+            return literal(lows);
+        }
+
+        public String highsLiteral() {
+            return literal(highs);
+        }
+
+        public String ancestorsLiteral() {
+            return literal(ancestors);
+        }
+
+        private static String literal(long[] values) {
+            StringBuilder literal = new StringBuilder(values.length * 20).append('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    literal.append(',');
+                }
+                literal.append(values[i]);
+            }
+            return literal.append('}').toString();
+        }
+    }
+}
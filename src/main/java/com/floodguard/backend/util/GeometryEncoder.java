@@ -0,0 +1,260 @@
+package com.floodguard.backend.util;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.ByteOrderValues;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTWriter;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Geometry encodings for API responses: WKT, WKB (base64), TWKB (base64) and GeoJSON,
+ * plus zoom-based simplification equivalent to ST_SimplifyPreserveTopology
+ */
+public class GeometryEncoder {
+
+    public enum Format {
+        WKT,
+        WKB,
+        TWKB,
+        GEOJSON;
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported geometry format: " + value
+                        + " (expected wkt, wkb, twkb or geojson)");
+            }
+        }
+    }
+
+    public static final int MIN_PRECISION = 0;
+    public static final int MAX_PRECISION = 7;
+    public static final int MAX_ZOOM = 22;
+
+    // Kích thước 1 pixel (độ) ở zoom 0 với tile 256px
+    private static final double DEGREES_PER_PIXEL_AT_ZOOM_0 = 360.0 / 256;
+
+    private GeometryEncoder() {
+    }
+
+    /**
+     * Đơn giản hoá giữ topology với tolerance bằng 1 pixel ở mức zoom, như
+     * ST_SimplifyPreserveTopology(geom, 360 / (256 * 2^zoom))
+     */
+    public static Geometry simplify(Geometry geometry, int zoom) {
+        double tolerance = DEGREES_PER_PIXEL_AT_ZOOM_0 / (1L << zoom);
+        Geometry simplified = TopologyPreservingSimplifier.simplify(geometry, tolerance);
+        simplified.setSRID(geometry.getSRID());
+        return simplified;
+    }
+
+    /**
+     * @return String (WKT, base64 WKB/TWKB) hoặc Map GeoJSON {type, coordinates}
+     */
+    public static Object encode(Geometry geometry, Format format, int precision) {
+        return switch (format) {
+            case WKT -> new WKTWriter().write(geometry);
+            case WKB -> Base64.getEncoder().encodeToString(
+                    new WKBWriter(2, ByteOrderValues.LITTLE_ENDIAN).write(geometry));
+            case TWKB -> Base64.getEncoder().encodeToString(toTwkb(geometry, precision));
+            case GEOJSON -> toGeoJson(geometry, precision);
+        };
+    }
+
+    public static Map<String, Object> toGeoJson(Geometry geometry, int precision) {
+        double scale = Math.pow(10, precision);
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("type", geometry.getGeometryType());
+        if (geometry instanceof GeometryCollection collection && !isMulti(geometry)) {
+            List<Object> geometries = new ArrayList<>();
+            for (int i = 0; i < collection.getNumGeometries(); i++) {
+                geometries.add(toGeoJson(collection.getGeometryN(i), precision));
+            }
+            json.put("geometries", geometries);
+        } else {
+            json.put("coordinates", coordinates(geometry, scale));
+        }
+        return json;
+    }
+
+    /**
+     * Tiny WKB (TWKB 1.0): toạ độ nhân 10^precision, ghi delta zigzag varint so với điểm trước
+     */
+    public static byte[] toTwkb(Geometry geometry, int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("TWKB precision must be between " + MIN_PRECISION
+                    + " and " + MAX_PRECISION);
+        }
+        TwkbOutput out = new TwkbOutput(Math.pow(10, precision));
+        writeTwkb(out, geometry, precision);
+        return out.bytes.toByteArray();
+    }
+
+    private static void writeTwkb(TwkbOutput out, Geometry geometry, int precision) {
+        out.bytes.write((zigZag(precision) << 4) | twkbType(geometry));
+        if (geometry.isEmpty()) {
+            out.bytes.write(0x10);
+            return;
+        }
+        out.bytes.write(0);
+        if (geometry instanceof Point point) {
+            out.writeCoordinates(point.getCoordinates());
+        } else if (geometry instanceof LineString line) {
+            out.writeVarInt(line.getNumPoints());
+            out.writeCoordinates(line.getCoordinates());
+        } else if (geometry instanceof Polygon polygon) {
+            out.writePolygon(polygon);
+        } else if (geometry instanceof MultiPoint || geometry instanceof MultiLineString
+                || geometry instanceof MultiPolygon) {
+            out.writeVarInt(geometry.getNumGeometries());
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                Geometry part = geometry.getGeometryN(i);
+                if (part instanceof Point point) {
+                    out.writeCoordinates(point.getCoordinates());
+                } else if (part instanceof LineString line) {
+                    out.writeVarInt(line.getNumPoints());
+                    out.writeCoordinates(line.getCoordinates());
+                } else {
+                    out.writePolygon((Polygon) part);
+                }
+            }
+        } else {
+            out.writeVarInt(geometry.getNumGeometries());
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                writeTwkb(new TwkbOutput(out), geometry.getGeometryN(i), precision);
+            }
+        }
+    }
+
+    private static int twkbType(Geometry geometry) {
+        if (geometry instanceof Point) {
+            return 1;
+        } else if (geometry instanceof LineString) {
+            return 2;
+        } else if (geometry instanceof Polygon) {
+            return 3;
+        } else if (geometry instanceof MultiPoint) {
+            return 4;
+        } else if (geometry instanceof MultiLineString) {
+            return 5;
+        } else if (geometry instanceof MultiPolygon) {
+            return 6;
+        }
+        return 7;
+    }
+
+    private static boolean isMulti(Geometry geometry) {
+        return geometry instanceof MultiPoint || geometry instanceof MultiLineString
+                || geometry instanceof MultiPolygon;
+    }
+
+    private static Object coordinates(Geometry geometry, double scale) {
+        if (geometry instanceof Point point) {
+            return position(point.getCoordinate(), scale);
+        } else if (geometry instanceof LineString line) {
+            return positions(line.getCoordinates(), scale);
+        } else if (geometry instanceof Polygon polygon) {
+            List<Object> rings = new ArrayList<>(polygon.getNumInteriorRing() + 1);
+            rings.add(positions(polygon.getExteriorRing().getCoordinates(), scale));
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                rings.add(positions(polygon.getInteriorRingN(i).getCoordinates(), scale));
+            }
+            return rings;
+        }
+        List<Object> parts = new ArrayList<>(geometry.getNumGeometries());
+        for (int i = 0; i < geometry.getNumGeometries(); i++) {
+            parts.add(coordinates(geometry.getGeometryN(i), scale));
+        }
+        return parts;
+    }
+
+    private static List<double[]> positions(Coordinate[] coordinates, double scale) {
+        List<double[]> positions = new ArrayList<>(coordinates.length);
+        for (Coordinate coordinate : coordinates) {
+            positions.add(position(coordinate, scale));
+        }
+        return positions;
+    }
+
+    private static double[] position(Coordinate coordinate, double scale) {
+        return new double[]{Math.round(coordinate.x * scale) / scale, Math.round(coordinate.y * scale) / scale};
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static final class TwkbOutput {
+
+        private final ByteArrayOutputStream bytes;
+        private final double scale;
+        // Delta được tính liên tục qua mọi ring/part của cùng một geometry
+        private long lastX;
+        private long lastY;
+
+        private TwkbOutput(double scale) {
+            this.bytes = new ByteArrayOutputStream(256);
+            this.scale = scale;
+        }
+
+        // Geometry con trong collection: ghi chung buffer, delta bắt đầu lại từ 0
+        private TwkbOutput(TwkbOutput parent) {
+            this.bytes = parent.bytes;
+            this.scale = parent.scale;
+        }
+
+        private void writePolygon(Polygon polygon) {
+            writeVarInt(polygon.getNumInteriorRing() + 1);
+            writeVarInt(polygon.getExteriorRing().getNumPoints());
+            writeCoordinates(polygon.getExteriorRing().getCoordinates());
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                writeVarInt(polygon.getInteriorRingN(i).getNumPoints());
+                writeCoordinates(polygon.getInteriorRingN(i).getCoordinates());
+            }
+        }
+
+        private void writeCoordinates(Coordinate[] coordinates) {
+            for (Coordinate coordinate : coordinates) {
+                long x = Math.round(coordinate.x * scale);
+                long y = Math.round(coordinate.y * scale);
+                writeVarLong(zigZag(x - lastX));
+                writeVarLong(zigZag(y - lastY));
+                lastX = x;
+                lastY = y;
+            }
+        }
+
+        private void writeVarInt(int value) {
+            writeVarLong(value);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+
+        private static long zigZag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+}
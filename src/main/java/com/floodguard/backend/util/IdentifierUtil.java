@@ -0,0 +1,34 @@
+package com.floodguard.backend.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Phân loại identifier đăng nhập (subject của JWT) theo hình dạng để chọn đúng index khi tra cứu user
+ */
+public class IdentifierUtil {
+
+    public enum Type {
+        EMAIL,
+        PHONE,
+        USERNAME
+    }
+
+    // VD: 0901234567, +84901234567
+    private static final Pattern PHONE = Pattern.compile("^\\+?[0-9]{8,15}$");
+
+    private IdentifierUtil() {
+    }
+
+    /**
+     * @return EMAIL nếu có '@', PHONE nếu chỉ gồm chữ số (tuỳ chọn '+' ở đầu), còn lại USERNAME
+     */
+    public static Type classify(String identifier) {
+        if (identifier.indexOf('@') >= 0) {
+            return Type.EMAIL;
+        }
+        if (PHONE.matcher(identifier).matches()) {
+            return Type.PHONE;
+        }
+        return Type.USERNAME;
+    }
+}
@@ -0,0 +1,25 @@
+package com.floodguard.backend.util;
+
+import com.floodguard.backend.model.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Security utility
+ */
+public class SecurityUtil {
+
+    private SecurityUtil() {
+    }
+
+    /**
+     * @return user_id của người dùng đang đăng nhập (principal do JwtAuthenticationFilter đặt), null nếu không có
+     */
+    public static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getUserId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.floodguard.backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction utility
+ */
+public class TransactionUtil {
+
+    private TransactionUtil() {
+    }
+
+    /**
+     * Chạy action sau khi transaction hiện tại commit thành công (bỏ qua nếu rollback).
+     * Nếu không có transaction thì chạy ngay.
+     *
+     * @param action action to run
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Chạy onCommit sau khi transaction hiện tại commit thành công, onRollback khi rollback (hoặc không rõ kết quả).
+     * Nếu không có transaction thì chạy onCommit ngay.
+     *
+     * @param onCommit   action to run after commit
+     * @param onRollback action to run after rollback
+     */
+    public static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
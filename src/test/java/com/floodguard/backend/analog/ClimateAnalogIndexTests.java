@@ -0,0 +1,70 @@
+package com.floodguard.backend.analog;
+
+import com.floodguard.backend.model.ClimateDaily;
+import com.floodguard.backend.repository.ClimateDailyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClimateAnalogIndexTests {
+
+    private static final LocalDateTime LOADED_AT = LocalDateTime.of(2026, 10, 1, 8, 0);
+
+    @Test
+    void findsDaysWithinToleranceClosestFirstAndAppliesDeltas() {
+        ClimateDailyRepository repository = mock(ClimateDailyRepository.class);
+        when(repository.currentSnapshotXmin()).thenReturn(1000L, 1010L);
+        when(repository.findByFloodReportsGreaterThan(0)).thenReturn(List.of(
+                day("2023-11-15", 1.68, 12.0, 4),
+                day("2024-10-18", 1.72, null, 2),
+                day("2025-11-05", 1.70, 80.0, 7),
+                day("2022-10-26", 1.60, 30.0, 1),
+                day("2021-11-20", 1.70, 5.0, 3)));
+        ClimateAnalogIndex index = new ClimateAnalogIndex(repository);
+        ReflectionTestUtils.setField(index, "refreshMs", 0L);
+        index.load();
+
+        assertThat(days(index.find(ClimateAnalogIndex.Measure.TIDE, 1.7, 1.65, 1.75, 10)))
+                .containsExactly("2025-11-05", "2021-11-20", "2024-10-18", "2023-11-15");
+        assertThat(days(index.find(ClimateAnalogIndex.Measure.TIDE, 1.7, 1.65, 1.75, 2)))
+                .containsExactly("2025-11-05", "2021-11-20");
+        // Ngày không có số đo mưa không nằm trong index RAIN
+        assertThat(days(index.find(ClimateAnalogIndex.Measure.RAIN, 10, 0, 40, 10)))
+                .containsExactly("2023-11-15", "2021-11-20", "2022-10-26");
+
+        // Delta: report FLOOD duy nhất của 2021-11-20 bị xoá, đỉnh triều 2022-10-26 được cập nhật
+        when(repository.findWrittenSince(1000L)).thenReturn(List.of(
+                day("2021-11-20", 1.70, 5.0, 0),
+                day("2022-10-26", 1.66, 30.0, 1)));
+        index.refreshIfStale();
+
+        assertThat(days(index.find(ClimateAnalogIndex.Measure.TIDE, 1.7, 1.65, 1.75, 10)))
+                .containsExactly("2025-11-05", "2024-10-18", "2023-11-15", "2022-10-26");
+
+        // Mốc tiếp theo là xmin lấy trước lần đọc vừa rồi, không phải updated_at lớn nhất đã thấy
+        index.refreshIfStale();
+        verify(repository).findWrittenSince(1010L);
+    }
+
+    private static ClimateDaily day(String day, Double maxTide, Double totalRain, int floodReports) {
+        return ClimateDaily.builder()
+                .day(LocalDate.parse(day))
+                .maxTide(maxTide)
+                .totalRain(totalRain)
+                .floodReports(floodReports)
+                .updatedAt(LOADED_AT)
+                .build();
+    }
+
+    private static List<String> days(List<ClimateDaily> days) {
+        return days.stream().map(day -> day.getDay().toString()).toList();
+    }
+}
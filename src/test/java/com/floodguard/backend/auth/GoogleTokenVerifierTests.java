@@ -0,0 +1,119 @@
+package com.floodguard.backend.auth;
+
+import com.floodguard.backend.exception.BackpressureException;
+import com.floodguard.backend.exception.CustomException;
+import com.floodguard.backend.support.GoogleKeyServerStub;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class GoogleTokenVerifierTests {
+
+    private static final String CLIENT_ID = "floodguard-test.apps.googleusercontent.com";
+
+    private GoogleKeyServerStub keyServer;
+    private GoogleTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyServer = new GoogleKeyServerStub(3600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifier.stop();
+        keyServer.close();
+    }
+
+    @Test
+    void verifiesLoginsWithOneCertificateFetchPerMaxAge() throws Exception {
+        verifier = started(4, 100, 5000);
+        List<CompletableFuture<GoogleIdToken.Payload>> logins = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            logins.add(verifier.verify(keyServer.signIdToken(CLIENT_ID, "user" + i + "@gmail.com")));
+        }
+
+        for (int i = 0; i < logins.size(); i++) {
+            assertThat(logins.get(i).get(5, TimeUnit.SECONDS).getEmail()).isEqualTo("user" + i + "@gmail.com");
+        }
+        assertThat(keyServer.fetches()).isEqualTo(1);
+        // Lần refresh nền tiếp theo: trước khi thư viện tự refresh (5 phút trước hạn)
+        long now = System.currentTimeMillis();
+        assertThat(GoogleTokenVerifier.nextRefreshDelay(now, now + TimeUnit.HOURS.toMillis(1)))
+                .isEqualTo(TimeUnit.MINUTES.toMillis(54));
+        assertThat(GoogleTokenVerifier.nextRefreshDelay(now, now + TimeUnit.MINUTES.toMillis(2)))
+                .isEqualTo(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    @Test
+    void rejectsTokensForOtherAudiencesOrSignedByOtherKeys() throws Exception {
+        verifier = started(2, 10, 5000);
+
+        assertThat(failure(verifier.verify(keyServer.signIdToken("someone-else", "a@gmail.com"))))
+                .isInstanceOf(CustomException.class)
+                .extracting(e -> ((CustomException) e).getHttpStatus()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        String forged = GoogleKeyServerStub.signIdToken(CLIENT_ID, "a@gmail.com",
+                GoogleKeyServerStub.privateKey(GoogleKeyServerStub.generateKeyStore()));
+        assertThat(failure(verifier.verify(forged)))
+                .isInstanceOf(CustomException.class)
+                .extracting(e -> ((CustomException) e).getHttpStatus()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(failure(verifier.verify("not-a-jwt")))
+                .isInstanceOf(CustomException.class)
+                .extracting(e -> ((CustomException) e).getHttpStatus()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void failsFastWhenCertificateEndpointIsSlow() throws Exception {
+        keyServer.setDelayMillis(2_000);
+        // Chưa có key: lần verify đầu phải tải key (chậm), pool 1 thread + hàng đợi 1 chỗ
+        verifier = created(1, 1, 300);
+        String token = keyServer.signIdToken(CLIENT_ID, "a@gmail.com");
+
+        CompletableFuture<GoogleIdToken.Payload> slow = verifier.verify(token);
+        verifier.verify(token);
+        CompletableFuture<GoogleIdToken.Payload> rejected = verifier.verify(token);
+
+        assertThat(failure(rejected)).isInstanceOf(BackpressureException.class);
+        assertThat(failure(slow)).isInstanceOf(BackpressureException.class).hasMessageContaining("timed out");
+    }
+
+    private GoogleTokenVerifier started(int threads, int queueCapacity, long timeoutMs) throws Exception {
+        GoogleTokenVerifier created = created(threads, queueCapacity, timeoutMs);
+        created.start();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (keyServer.fetches() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return created;
+    }
+
+    private GoogleTokenVerifier created(int threads, int queueCapacity, long timeoutMs) {
+        GoogleTokenVerifier created = new GoogleTokenVerifier();
+        ReflectionTestUtils.setField(created, "clientId", CLIENT_ID);
+        ReflectionTestUtils.setField(created, "certsUrl", keyServer.certsUrl());
+        ReflectionTestUtils.setField(created, "threads", threads);
+        ReflectionTestUtils.setField(created, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(created, "timeoutMs", timeoutMs);
+        ReflectionTestUtils.setField(created, "retryAfterSeconds", 2L);
+        created.init();
+        return created;
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) {
+        Throwable error = catchThrowable(() -> future.get(5, TimeUnit.SECONDS));
+        assertThat(error).isNotNull();
+        // ExecutionException bọc lỗi thật
+        return error.getCause();
+    }
+}
@@ -0,0 +1,164 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.config.JwtUtil;
+import com.floodguard.backend.dto.ClimateDataDTO;
+import com.floodguard.backend.model.User;
+import com.floodguard.backend.repository.UserRepository;
+import com.floodguard.backend.service.ClimateDataService;
+import com.floodguard.backend.service.impl.ClimateDataServiceImpl;
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load generator for POST /api/climate-data/ingest: 500 rain/tide sensors pushing batches over HTTP,
+ * half as NDJSON and half as binary records. Real sensors push one reading per minute; here each push
+ * carries the last READINGS_PER_PUSH minutes and every sensor pushes every PUSH_INTERVAL_MS.
+ * Prints the pipeline's per-second throughput/latency and checks every accepted reading reached the table.
+ * Run with: mvn test -Pbenchmark -Dtest=ClimateIngestLoadBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.show-sql=false")
+class ClimateIngestLoadBenchmark extends PostgisTestSupport {
+
+    private static final int SENSORS = 500;
+    private static final int READINGS_PER_PUSH = 10;
+    private static final long PUSH_INTERVAL_MS = 500;
+    private static final long DURATION_SECONDS = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ClimateDataService climateDataService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void fiveHundredSensors() throws Exception {
+        jdbcTemplate.execute("TRUNCATE climate_data RESTART IDENTITY");
+        userRepository.deleteAllInBatch();
+        User sensorAccount = userRepository.save(User.builder()
+                .username("0900000500").phoneNumber("0900000500").fullName("Trạm đo tự động").build());
+        String token = jwtUtil.generateToken(sensorAccount.getPhoneNumber(),
+                Map.of("userId", sensorAccount.getUserId(), "role", "ADMIN"));
+
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(32);
+        HttpClient client = HttpClient.newBuilder().executor(httpExecutor).build();
+        URI uri = URI.create("http://localhost:" + port + "/api/climate-data/ingest");
+        ScheduledExecutorService sensors = Executors.newScheduledThreadPool(4);
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        AtomicLong minute = new AtomicLong();
+        Random random = new Random(500);
+
+        for (int sensor = 0; sensor < SENSORS; sensor++) {
+            boolean binary = sensor % 2 == 1;
+            String type = sensor % 3 == 0 ? "RAIN" : "TIDE";
+            sensors.scheduleAtFixedRate(() -> {
+                LocalDateTime end = LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(minute.incrementAndGet());
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", binary ? "application/octet-stream" : "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(binary
+                                ? binaryBatch(end, type) : ndjsonBatch(end, type)))
+                        .build();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .thenAccept(response -> statuses.computeIfAbsent(response.statusCode(),
+                                code -> new LongAdder()).increment());
+            }, random.nextInt((int) PUSH_INTERVAL_MS), PUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(DURATION_SECONDS));
+        sensors.shutdownNow();
+        Thread.sleep(2000);
+        httpExecutor.shutdown();
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        ClimateDataDTO.IngestMetrics metrics = climateDataService.getIngestMetrics();
+        while (metrics.getTotalWritten() < metrics.getTotalAccepted() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            metrics = climateDataService.getIngestMetrics();
+        }
+
+        System.out.printf(Locale.ROOT, "%d sensors, %d readings per push every %d ms, %d s%n",
+                SENSORS, READINGS_PER_PUSH, PUSH_INTERVAL_MS, DURATION_SECONDS);
+        System.out.println("  HTTP status counts: " + statuses);
+        System.out.printf(Locale.ROOT, "  %-19s %10s %10s %8s %9s %9s %9s%n",
+                "second", "accepted", "written", "batches", "p50 ms", "p99 ms", "max ms");
+        for (ClimateDataDTO.IngestSecond second : metrics.getLastSeconds()) {
+            System.out.printf(Locale.ROOT, "  %-19s %10d %10d %8d %9.1f %9.1f %9.1f%n", second.getSecond(),
+                    second.getAccepted(), second.getWritten(), second.getBatches(),
+                    second.getP50LatencyMs(), second.getP99LatencyMs(), second.getMaxLatencyMs());
+        }
+        List<ClimateDataDTO.IngestSecond> seconds = metrics.getLastSeconds();
+        System.out.printf(Locale.ROOT, "  peak: %,d readings/s written%n",
+                seconds.stream().mapToLong(ClimateDataDTO.IngestSecond::getWritten).max().orElse(0));
+
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM climate_data", Long.class);
+        assertThat(metrics.getTotalFailed()).isZero();
+        assertThat(rows).isEqualTo(metrics.getTotalAccepted());
+        assertThat(statuses.get(202).sum()).isPositive();
+    }
+
+    private static byte[] ndjsonBatch(LocalDateTime end, String type) {
+        StringBuilder ndjson = new StringBuilder(READINGS_PER_PUSH * 80);
+        for (int i = READINGS_PER_PUSH - 1; i >= 0; i--) {
+            ndjson.append("{\"recordDate\":\"").append(end.minusMinutes(i))
+                    .append("\",\"type\":\"").append(type)
+                    .append("\",\"value\":").append(reading(type))
+                    .append(",\"isForecast\":false}\n");
+        }
+        return ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] binaryBatch(LocalDateTime end, String type) {
+        ByteBuffer buffer = ByteBuffer.allocate(READINGS_PER_PUSH * ClimateDataServiceImpl.BINARY_RECORD_SIZE);
+        for (int i = READINGS_PER_PUSH - 1; i >= 0; i--) {
+            buffer.putLong(end.minusMinutes(i).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            buffer.put((byte) ("RAIN".equals(type) ? 0 : 1));
+            buffer.putDouble(reading(type));
+            buffer.put((byte) 0);
+        }
+        return buffer.array();
+    }
+
+    // Mưa: mm/phút, triều: m
+    private static double reading(String type) {
+        Random random = new Random();
+        return "RAIN".equals(type) ? random.nextDouble() * 2 : 1.2 + random.nextDouble() * 0.6;
+    }
+}
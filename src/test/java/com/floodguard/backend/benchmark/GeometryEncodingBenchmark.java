@@ -0,0 +1,117 @@
+package com.floodguard.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floodguard.backend.dto.HistoricalDataDTO;
+import com.floodguard.backend.util.GeometryEncoder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload size and JSON serialization time of a 5000-vertex flood polygon per geometry encoding,
+ * with and without zoom simplification.
+ * Run with: mvn test -Pbenchmark -Dtest=GeometryEncodingBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GeometryEncodingBenchmark {
+
+    private static final int VERTICES = 5_000;
+    private static final int PRECISION = 6;
+
+    @Param({"WKT", "WKB", "TWKB", "GEOJSON"})
+    public String format;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Geometry polygon;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        polygon = floodPolygon();
+    }
+
+    @Benchmark
+    public byte[] serializeFull() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response(polygon, GeometryEncoder.Format.valueOf(format)));
+    }
+
+    @Benchmark
+    public byte[] simplifyZoom14AndSerialize() throws JsonProcessingException {
+        Geometry simplified = GeometryEncoder.simplify(polygon, 14);
+        return objectMapper.writeValueAsBytes(response(simplified, GeometryEncoder.Format.valueOf(format)));
+    }
+
+    @Test
+    void run() throws RunnerException, JsonProcessingException {
+        Geometry full = floodPolygon();
+        System.out.printf(Locale.ROOT, "payload bytes for a %,d-vertex polygon (precision %d)%n", VERTICES, PRECISION);
+        for (Integer zoom : new Integer[]{null, 16, 14, 12}) {
+            Geometry geometry = zoom == null ? full : GeometryEncoder.simplify(full, zoom);
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "  %-8s %5d pts:",
+                    zoom == null ? "full" : "zoom " + zoom, geometry.getNumPoints()));
+            for (GeometryEncoder.Format encoding : GeometryEncoder.Format.values()) {
+                line.append(String.format(Locale.ROOT, "  %s %,9d", encoding,
+                        objectMapper.writeValueAsBytes(response(geometry, encoding)).length));
+            }
+            System.out.println(line);
+        }
+
+        // forks(0): surefire chạy với classpath jar nên JMH không fork được JVM con
+        new Runner(new OptionsBuilder()
+                .include(GeometryEncodingBenchmark.class.getSimpleName())
+                .forks(0)
+                .build()).run();
+    }
+
+    private static HistoricalDataDTO.Response response(Geometry geometry, GeometryEncoder.Format format) {
+        HistoricalDataDTO.Response.ResponseBuilder builder = HistoricalDataDTO.Response.builder()
+                .historyId(1L)
+                .year(2022)
+                .alertLevel("Báo động 3");
+        if (format == GeometryEncoder.Format.WKT) {
+            return builder.referenceGeomWkt((String) GeometryEncoder.encode(geometry, format, PRECISION)).build();
+        }
+        return builder.geometryEncoding(format.name().toLowerCase(Locale.ROOT))
+                .referenceGeom(GeometryEncoder.encode(geometry, format, PRECISION))
+                .build();
+    }
+
+    // Đường bao ngập gồ ghề quanh một tâm, bán kính ~3 km
+    private static Geometry floodPolygon() {
+        Random random = new Random(2022);
+        Coordinate[] ring = new Coordinate[VERTICES + 1];
+        for (int i = 0; i < VERTICES; i++) {
+            double angle = 2 * Math.PI * i / VERTICES;
+            double radius = 0.03 * (1 + 0.1 * Math.sin(angle * 17) + 0.002 * random.nextGaussian());
+            ring[i] = new Coordinate(106.75 + radius * Math.cos(angle), 10.85 + radius * Math.sin(angle));
+        }
+        ring[VERTICES] = ring[0];
+        return new GeometryFactory(new PrecisionModel(), 4326).createPolygon(ring);
+    }
+}
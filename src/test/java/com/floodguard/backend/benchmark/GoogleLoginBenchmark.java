@@ -0,0 +1,106 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.auth.GoogleTokenVerifier;
+import com.floodguard.backend.support.GoogleKeyServerStub;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Google ID token verifications per second against the local certificate stub (20 ms per certificate fetch,
+ * roughly a round trip to googleapis.com): a new GoogleIdTokenVerifier per login, as AuthServiceImpl used to do,
+ * versus the shared GoogleTokenVerifier with cached, background-refreshed keys.
+ * Run with: mvn test -Pbenchmark -Dtest=GoogleLoginBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class GoogleLoginBenchmark {
+
+    private static final String CLIENT_ID = "floodguard-bench.apps.googleusercontent.com";
+
+    private GoogleKeyServerStub keyServer;
+    private GoogleTokenVerifier sharedVerifier;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        keyServer = new GoogleKeyServerStub(3600);
+        keyServer.setDelayMillis(20);
+        tokens = new String[256];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = keyServer.signIdToken(CLIENT_ID, "user" + i + "@gmail.com");
+        }
+
+        sharedVerifier = new GoogleTokenVerifier();
+        ReflectionTestUtils.setField(sharedVerifier, "clientId", CLIENT_ID);
+        ReflectionTestUtils.setField(sharedVerifier, "certsUrl", keyServer.certsUrl());
+        ReflectionTestUtils.setField(sharedVerifier, "threads", 4);
+        ReflectionTestUtils.setField(sharedVerifier, "queueCapacity", 256);
+        ReflectionTestUtils.setField(sharedVerifier, "timeoutMs", 5000L);
+        ReflectionTestUtils.setField(sharedVerifier, "retryAfterSeconds", 2L);
+        ReflectionTestUtils.invokeMethod(sharedVerifier, "init");
+        sharedVerifier.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n  %,d certificate fetches%n", keyServer.fetches());
+        ReflectionTestUtils.invokeMethod(sharedVerifier, "stop");
+        keyServer.close();
+    }
+
+    @Benchmark
+    public Object perLoginVerifier() throws Exception {
+        GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
+                new NetHttpTransport(), GsonFactory.getDefaultInstance())
+                .setPublicCertsEncodedUrl(keyServer.certsUrl())
+                .setAudience(List.of(CLIENT_ID))
+                .build();
+        return verifier.verify(nextToken());
+    }
+
+    @Benchmark
+    public Object sharedVerifier() {
+        return sharedVerifier.verify(nextToken()).join();
+    }
+
+    private String nextToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    @Test
+    void run() throws RunnerException {
+        // forks(0): surefire chạy với classpath jar nên JMH không fork được JVM con
+        new Runner(new OptionsBuilder()
+                .include(GoogleLoginBenchmark.class.getSimpleName())
+                .forks(0)
+                .build()).run();
+    }
+}
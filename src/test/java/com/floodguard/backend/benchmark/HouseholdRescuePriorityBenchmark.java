@@ -0,0 +1,204 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.model.Household;
+import com.floodguard.backend.repository.HouseholdRepository;
+import com.floodguard.backend.spatial.HouseholdPriorityIndex;
+import com.floodguard.backend.support.PostgisTestSupport;
+import com.floodguard.backend.util.GeoUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rescue-priority query (LOGIC 2) over 200k synthetic households: HouseholdPriorityIndex versus the equivalent
+ * PostGIS query (envelope pre-filter + ST_DWithin geography, score computed in SQL, ORDER BY ... LIMIT).
+ * Run with: mvn test -Pbenchmark -Dtest=HouseholdRescuePriorityBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+public class HouseholdRescuePriorityBenchmark extends PostgisTestSupport {
+
+    private static final int ROWS = 200_000;
+    private static final int LIMIT = 200;
+    private static final int MASK = HouseholdPriorityIndex.Vulnerability.mask(
+            EnumSet.of(HouseholdPriorityIndex.Vulnerability.ELDERLY, HouseholdPriorityIndex.Vulnerability.SICK));
+
+    // Cùng công thức với HouseholdPriorityIndex.pack
+    private static final String POSTGIS_QUERY = "SELECT household_id FROM (" +
+            "SELECT household_id, " +
+            "  (CASE WHEN has_sick_person THEN 10 ELSE 0 END + CASE WHEN has_elderly THEN 8 ELSE 0 END" +
+            "   + CASE WHEN has_pregnant THEN 6 ELSE 0 END + CASE WHEN has_children THEN 4 ELSE 0 END" +
+            "   + CASE WHEN num_floors IS NULL OR num_floors < 1 THEN 2 WHEN num_floors = 1 THEN 4" +
+            "          WHEN num_floors = 2 THEN 1 ELSE 0 END" +
+            "   + LEAST(COALESCE(num_people, 1), 10) / 2) AS score, " +
+            "  ST_Distance(geom::geography, ST_SetSRID(ST_Point(?, ?), 4326)::geography) AS distance " +
+            "FROM households " +
+            "WHERE geom && ST_MakeEnvelope(?, ?, ?, ?, 4326) " +
+            "AND ST_DWithin(geom::geography, ST_SetSRID(ST_Point(?, ?), 4326)::geography, ?) " +
+            "AND (has_elderly OR has_sick_person)) ranked " +
+            "ORDER BY score DESC, distance, household_id LIMIT " + LIMIT;
+
+    @Param({"200", "1000"})
+    public double radiusMeters;
+
+    private HouseholdPriorityIndex index;
+    private Connection connection;
+    private double[][] points;
+    private int next;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO households (address, num_people, has_elderly, has_children, " +
+                    "has_sick_person, has_pregnant, num_floors, geom) " +
+                    "SELECT 'Hộ ' || g, 1 + (random() * 7)::int, random() < 0.25, random() < 0.35, " +
+                    "random() < 0.15, random() < 0.05, CASE WHEN random() < 0.2 THEN NULL ELSE 1 + (random() * 3)::int END, " +
+                    "ST_SetSRID(ST_Point(106.6 + random() * 0.3, 10.7 + random() * 0.2), 4326) " +
+                    "FROM generate_series(1, " + ROWS + ") g");
+            statement.execute("ANALYZE households");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = connect();
+        index = loadIndex(connection);
+        Random random = new Random(42);
+        points = new double[1024][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[]{106.62 + random.nextDouble() * 0.26, 10.72 + random.nextDouble() * 0.16};
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public HouseholdPriorityIndex.Result inMemoryIndex() {
+        double[] point = points[next++ & (points.length - 1)];
+        return index.findRescuePriority(point[0], point[1], radiusMeters, MASK, null, LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> postgis() throws SQLException {
+        double[] point = points[next++ & (points.length - 1)];
+        return queryPostgis(connection, point[0], point[1], radiusMeters);
+    }
+
+    @Test
+    void run() throws RunnerException, SQLException {
+        try (Connection check = connect()) {
+            HouseholdPriorityIndex loaded = loadIndex(check);
+            Random random = new Random(7);
+            for (int i = 0; i < 50; i++) {
+                double lon = 106.62 + random.nextDouble() * 0.26;
+                double lat = 10.72 + random.nextDouble() * 0.16;
+                List<Long> expected = queryPostgis(check, lon, lat, 1000);
+                List<Long> actual = loaded.findRescuePriority(lon, lat, 1000, MASK, null, LIMIT).candidates()
+                        .stream().map(HouseholdPriorityIndex.Candidate::householdId).toList();
+                assertThat(actual).isEqualTo(expected);
+            }
+        }
+
+        // forks(0): surefire chạy với classpath jar nên JMH không fork được JVM con
+        new Runner(new OptionsBuilder()
+                .include(HouseholdRescuePriorityBenchmark.class.getSimpleName())
+                .forks(0)
+                .build()).run();
+    }
+
+    private static List<Long> queryPostgis(Connection connection, double lon, double lat, double radius)
+            throws SQLException {
+        Envelope envelope = GeoUtil.radiusEnvelope(lon, lat, radius);
+        try (PreparedStatement statement = connection.prepareStatement(POSTGIS_QUERY)) {
+            statement.setDouble(1, lon);
+            statement.setDouble(2, lat);
+            statement.setDouble(3, envelope.getMinX());
+            statement.setDouble(4, envelope.getMinY());
+            statement.setDouble(5, envelope.getMaxX());
+            statement.setDouble(6, envelope.getMaxY());
+            statement.setDouble(7, lon);
+            statement.setDouble(8, lat);
+            statement.setDouble(9, radius);
+            List<Long> ids = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+            return ids;
+        }
+    }
+
+    private static HouseholdPriorityIndex loadIndex(Connection connection) throws SQLException {
+        GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+        List<Household> households = new ArrayList<>(ROWS);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT household_id, address, num_people, has_elderly, " +
+                     "has_children, has_sick_person, has_pregnant, num_floors, ST_X(geom), ST_Y(geom) FROM households")) {
+            while (rs.next()) {
+                households.add(Household.builder()
+                        .householdId(rs.getLong(1))
+                        .address(rs.getString(2))
+                        .numPeople(rs.getInt(3))
+                        .hasElderly(rs.getBoolean(4))
+                        .hasChildren(rs.getBoolean(5))
+                        .hasSickPerson(rs.getBoolean(6))
+                        .hasPregnant(rs.getBoolean(7))
+                        .numFloors((Integer) rs.getObject(8))
+                        .geom(geometryFactory.createPoint(new Coordinate(rs.getDouble(9), rs.getDouble(10))))
+                        .build());
+            }
+        }
+        HouseholdRepository repository = mock(HouseholdRepository.class);
+        when(repository.findAll()).thenReturn(households);
+        HouseholdPriorityIndex index = new HouseholdPriorityIndex(repository);
+        index.load();
+        return index;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGIS.getJdbcUrl(), POSTGIS.getUsername(), POSTGIS.getPassword());
+    }
+}
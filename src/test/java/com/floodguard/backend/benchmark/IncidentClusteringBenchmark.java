@@ -0,0 +1,110 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.incident.IncidentClusterer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.RunResult;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Throughput of the incident clustering stage run on report creation: 8 threads assign and confirm reports
+ * scattered around {@value #HOTSPOTS} flooded streets (most join an incident, 10% open a new one elsewhere), with
+ * a 1 ms stand-in for the incident_id_seq round trip, taken outside the clusterer lock. The target is 1,000
+ * reports/s end to end, so the stage must stay orders of magnitude above that.
+ * Run with: mvn test -Pbenchmark -Dtest=IncidentClusteringBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IncidentClusteringBenchmark {
+
+    private static final int HOTSPOTS = 500;
+    // ~1 m theo vĩ độ
+    private static final double METER = 1 / 110574.0;
+
+    private IncidentClusterer clusterer;
+    private double[] hotspots;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        AtomicLong sequence = new AtomicLong(1);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(1);
+            return sequence.getAndAdd(50);
+        });
+        clusterer = new IncidentClusterer(jdbcTemplate);
+        ReflectionTestUtils.setField(clusterer, "enabled", true);
+        ReflectionTestUtils.setField(clusterer, "radiusMeters", 150.0);
+        ReflectionTestUtils.setField(clusterer, "windowMinutes", 60L);
+        ReflectionTestUtils.invokeMethod(clusterer, "init");
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        hotspots = new double[HOTSPOTS * 2];
+        for (int i = 0; i < HOTSPOTS; i++) {
+            hotspots[2 * i] = 106.6 + random.nextDouble() * 0.3;
+            hotspots[2 * i + 1] = 10.7 + random.nextDouble() * 0.2;
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long assign() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        IncidentClusterer.Assignment incident;
+        if (random.nextInt(10) == 0) {
+            incident = clusterer.assign("FLOOD", 106.6 + random.nextDouble() * 0.3, 10.7 + random.nextDouble() * 0.2,
+                    LocalDateTime.now());
+        } else {
+            int hotspot = random.nextInt(HOTSPOTS);
+            incident = clusterer.assign("FLOOD", hotspots[2 * hotspot] + random.nextGaussian() * 40 * METER,
+                    hotspots[2 * hotspot + 1] + random.nextGaussian() * 40 * METER, LocalDateTime.now());
+        }
+        // Report đã commit
+        clusterer.confirm(incident);
+        return incident.incidentId();
+    }
+
+    @Test
+    void run() throws RunnerException {
+        // forks(0): surefire chạy với classpath jar nên JMH không fork được JVM con
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(IncidentClusteringBenchmark.class.getSimpleName())
+                .forks(0)
+                .build()).run();
+
+        double reportsPerSecond = results.iterator().next().getPrimaryResult().getScore();
+        System.out.printf("incident clustering: %,.0f reports/s%n", reportsPerSecond);
+        assertThat(reportsPerSecond).isGreaterThan(1_000);
+    }
+}
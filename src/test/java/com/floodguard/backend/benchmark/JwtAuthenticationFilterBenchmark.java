@@ -0,0 +1,120 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.config.JwtAuthenticationFilter;
+import com.floodguard.backend.config.JwtUtil;
+import com.floodguard.backend.model.User;
+import com.floodguard.backend.model.UserRole;
+import com.floodguard.backend.repository.UserRepository;
+import com.floodguard.backend.service.UserDetailsServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JMH benchmark of JwtAuthenticationFilter with the claims and UserDetails caches warm against the same filter
+ * with both caches emptied before every request (token parsed and user looked up each time).
+ * The repository is a mock, so the uncached path excludes the database round trip.
+ * Run with: mvn test -Pbenchmark -Dtest=JwtAuthenticationFilterBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-benchmark-secret-key-0123456789";
+
+    private JwtAuthenticationFilter filter;
+    private UserDetailsServiceImpl userDetailsService;
+    private Cache<?, ?> claimsCache;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        User user = User.builder()
+                .userId(1L)
+                .username("0901234567")
+                .phoneNumber("0901234567")
+                .fullName("Nguyễn Văn A")
+                .role(UserRole.RESIDENT)
+                .build();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByPhoneIdentifier(anyString())).thenReturn(Optional.of(user));
+        userDetailsService = new UserDetailsServiceImpl(userRepository);
+        ReflectionTestUtils.setField(userDetailsService, "cacheTtlSeconds", 30L);
+        ReflectionTestUtils.setField(userDetailsService, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(userDetailsService, "initCache");
+
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+        claimsCache = (Cache<?, ?>) ReflectionTestUtils.getField(jwtUtil, "claimsCache");
+        token = jwtUtil.generateToken(user.getPhoneNumber(), Map.of("userId", 1L, "role", "RESIDENT"));
+    }
+
+    @Benchmark
+    public Object cached() throws ServletException, IOException {
+        return authenticate();
+    }
+
+    @Benchmark
+    public Object uncached() throws ServletException, IOException {
+        claimsCache.invalidateAll();
+        userDetailsService.evict(1L);
+        return authenticate();
+    }
+
+    private Object authenticate() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void run() throws RunnerException {
+        // forks(0): surefire chạy với classpath jar nên JMH không fork được JVM con
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .forks(0)
+                .build()).run();
+    }
+}
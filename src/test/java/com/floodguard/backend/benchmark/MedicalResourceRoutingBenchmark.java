@@ -0,0 +1,190 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.model.MedicalResource;
+import com.floodguard.backend.repository.MedicalResourceRepository;
+import com.floodguard.backend.spatial.MedicalResourceIndex;
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Nearest active medical resources (k = 5) of one specialization for a household, over 5k synthetic resources in
+ * 20 specializations: MedicalResourceIndex versus the per-household PostGIS query it replaces (is_active and
+ * specialization filter, ORDER BY geography ST_Distance LIMIT k). Run with:
+ * mvn test -Pbenchmark -Dtest=MedicalResourceRoutingBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+public class MedicalResourceRoutingBenchmark extends PostgisTestSupport {
+
+    private static final int ROWS = 5_000;
+    private static final int SPECIALIZATIONS = 20;
+    private static final int K = 5;
+
+    private static final String POSTGIS_QUERY = "SELECT resource_id FROM medical_resources " +
+            "WHERE is_active AND lower(trim(specialization)) = ? " +
+            "ORDER BY ST_Distance(geom::geography, ST_SetSRID(ST_Point(?, ?), 4326)::geography), resource_id " +
+            "LIMIT " + K;
+
+    @Param({"any", "one"})
+    public String filter;
+
+    private MedicalResourceIndex index;
+    private Connection connection;
+    private double[][] points;
+    private int next;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO medical_resources (name, type, specialization, is_active, geom) " +
+                    "SELECT 'Trạm ' || g, 'STATION', 'chuyên khoa ' || (g % " + SPECIALIZATIONS + "), " +
+                    "random() < 0.8, ST_SetSRID(ST_Point(106.6 + random() * 0.3, 10.7 + random() * 0.2), 4326) " +
+                    "FROM generate_series(1, " + ROWS + ") g");
+            statement.execute("ANALYZE medical_resources");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = connect();
+        index = loadIndex(connection);
+        Random random = new Random(42);
+        points = new double[1024][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[]{106.62 + random.nextDouble() * 0.26, 10.72 + random.nextDouble() * 0.16};
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<MedicalResourceIndex.Nearest> inMemoryIndex() {
+        int i = next++ & (points.length - 1);
+        return index.findNearest(specialization(i), points[i][0], points[i][1], K, Double.POSITIVE_INFINITY);
+    }
+
+    @Benchmark
+    public List<Long> postgis() throws SQLException {
+        int i = next++ & (points.length - 1);
+        return queryPostgis(connection, points[i][0], points[i][1], "chuyên khoa " + i % SPECIALIZATIONS);
+    }
+
+    @Test
+    void run() throws RunnerException, SQLException {
+        try (Connection check = connect()) {
+            MedicalResourceIndex loaded = loadIndex(check);
+            Random random = new Random(7);
+            long nanos = 0;
+            for (int i = 0; i < 200; i++) {
+                double lon = 106.62 + random.nextDouble() * 0.26;
+                double lat = 10.72 + random.nextDouble() * 0.16;
+                String specialization = "chuyên khoa " + i % SPECIALIZATIONS;
+                List<Long> expected = queryPostgis(check, lon, lat, specialization);
+                long start = System.nanoTime();
+                List<MedicalResourceIndex.Nearest> nearest =
+                        loaded.findNearest(specialization, lon, lat, K, Double.POSITIVE_INFINITY);
+                nanos += System.nanoTime() - start;
+                assertThat(nearest.stream().map(MedicalResourceIndex.Nearest::resourceId).toList())
+                        .isEqualTo(expected);
+            }
+            // Kể cả khi JIT chưa làm nóng, trung bình mỗi hộ phải dưới 1 ms
+            assertThat(nanos / 200).isLessThan(1_000_000);
+        }
+
+        // forks(0): surefire chạy với classpath jar nên JMH không fork được JVM con
+        new Runner(new OptionsBuilder()
+                .include(MedicalResourceRoutingBenchmark.class.getSimpleName())
+                .forks(0)
+                .build()).run();
+    }
+
+    private String specialization(int i) {
+        return filter.equals("any") ? null : "chuyên khoa " + i % SPECIALIZATIONS;
+    }
+
+    private static List<Long> queryPostgis(Connection connection, double lon, double lat, String specialization)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(POSTGIS_QUERY)) {
+            statement.setString(1, specialization);
+            statement.setDouble(2, lon);
+            statement.setDouble(3, lat);
+            List<Long> ids = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+            return ids;
+        }
+    }
+
+    private static MedicalResourceIndex loadIndex(Connection connection) throws SQLException {
+        GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+        List<MedicalResource> resources = new ArrayList<>(ROWS);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT resource_id, name, type, specialization, is_active, " +
+                     "ST_X(geom), ST_Y(geom) FROM medical_resources")) {
+            while (rs.next()) {
+                resources.add(MedicalResource.builder()
+                        .resourceId(rs.getLong(1))
+                        .name(rs.getString(2))
+                        .type(rs.getString(3))
+                        .specialization(rs.getString(4))
+                        .isActive(rs.getBoolean(5))
+                        .geom(geometryFactory.createPoint(new Coordinate(rs.getDouble(6), rs.getDouble(7))))
+                        .build());
+            }
+        }
+        MedicalResourceRepository repository = mock(MedicalResourceRepository.class);
+        when(repository.findAll()).thenReturn(resources);
+        MedicalResourceIndex index = new MedicalResourceIndex(repository);
+        index.load();
+        return index;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGIS.getJdbcUrl(), POSTGIS.getUsername(), POSTGIS.getPassword());
+    }
+}
@@ -0,0 +1,122 @@
+package com.floodguard.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.event.ChangeEventBus;
+import com.floodguard.backend.feed.ReportFeedHub;
+import com.floodguard.backend.service.TileService;
+import com.floodguard.backend.service.impl.ReportBulkServiceImpl;
+import com.floodguard.backend.stats.ReportHeatmapCache;
+import com.floodguard.backend.stats.ReportStatistics;
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures COPY-based bulk import (CSV and NDJSON) against JDBC batched INSERTs, and the COPY TO STDOUT export.
+ * Run with: mvn test -Pbenchmark -Dtest=ReportBulkImportBenchmark
+ */
+@Tag("benchmark")
+class ReportBulkImportBenchmark extends PostgisTestSupport {
+
+    private static final int ROWS = 200_000;
+    private static final int JDBC_BATCH_SIZE = 1_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ReportBulkServiceImpl bulkService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGIS.getJdbcUrl() + "&reWriteBatchedInserts=true", POSTGIS.getUsername(), POSTGIS.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        bulkService = new ReportBulkServiceImpl(jdbcTemplate, new ObjectMapper(), mock(TileService.class),
+                mock(ChangeEventBus.class), mock(ReportStatistics.class), mock(ReportFeedHub.class),
+                mock(ReportHeatmapCache.class));
+        jdbcTemplate.execute("TRUNCATE reports RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void copyImportOutperformsBatchedInserts() {
+        byte[] csv = csv(ROWS);
+        byte[] ndjson = ndjson(ROWS);
+
+        ReportDTO.BulkImportResponse csvResult = transactionTemplate.execute(status ->
+                bulkService.importCsv(new ByteArrayInputStream(csv)));
+        ReportDTO.BulkImportResponse ndjsonResult = transactionTemplate.execute(status ->
+                bulkService.importNdjson(new ByteArrayInputStream(ndjson)));
+        assertThat(csvResult.getRowsImported()).isEqualTo(ROWS);
+        assertThat(ndjsonResult.getRowsImported()).isEqualTo(ROWS);
+
+        long start = System.nanoTime();
+        Random random = new Random(7);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int offset = 0; offset < ROWS; offset += JDBC_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("INSERT INTO reports (event_type, description, damage_level, geom) " +
+                                "VALUES ('FLOOD', ?, ?, ST_SetSRID(ST_Point(?, ?), 4326))",
+                        Collections.nCopies(JDBC_BATCH_SIZE, 0),
+                        JDBC_BATCH_SIZE, (ps, ignored) -> {
+                            ps.setString(1, "Ngập sâu 0.5m");
+                            ps.setInt(2, random.nextInt(6));
+                            ps.setDouble(3, 106.6 + random.nextDouble() * 0.3);
+                            ps.setDouble(4, 10.7 + random.nextDouble() * 0.2);
+                        });
+            }
+        });
+        double batchRowsPerSecond = ROWS * 1e9 / (System.nanoTime() - start);
+
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> bulkService.exportCsv(export));
+        double exportRowsPerSecond = 3.0 * ROWS * 1e9 / (System.nanoTime() - start);
+        long exportedLines = export.toString(StandardCharsets.UTF_8).lines().count();
+        assertThat(exportedLines).isEqualTo(3L * ROWS + 1);
+
+        System.out.printf(Locale.ROOT, "bulk import of %,d reports%n", ROWS);
+        System.out.printf(Locale.ROOT, "  COPY csv      : %,10.0f rows/s%n", csvResult.getRowsPerSecond());
+        System.out.printf(Locale.ROOT, "  COPY ndjson   : %,10.0f rows/s%n", ndjsonResult.getRowsPerSecond());
+        System.out.printf(Locale.ROOT, "  JDBC batch    : %,10.0f rows/s%n", batchRowsPerSecond);
+        System.out.printf(Locale.ROOT, "  COPY export   : %,10.0f rows/s%n", exportRowsPerSecond);
+        assertThat(csvResult.getRowsPerSecond()).isGreaterThan(batchRowsPerSecond);
+    }
+
+    private static byte[] csv(int rows) {
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder("event_type,description,damage_level,longitude,latitude\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("FLOOD,\"Ngập sâu, nước chảy xiết\",").append(random.nextInt(6)).append(',')
+                    .append(106.6 + random.nextDouble() * 0.3).append(',')
+                    .append(10.7 + random.nextDouble() * 0.2).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ndjson(int rows) {
+        Random random = new Random(43);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            ndjson.append("{\"eventType\":\"TIDE\",\"description\":\"Triều cường\",\"damageLevel\":")
+                    .append(random.nextInt(6))
+                    .append(",\"longitude\":").append(106.6 + random.nextDouble() * 0.3)
+                    .append(",\"latitude\":").append(10.7 + random.nextDouble() * 0.2).append("}\n");
+        }
+        return ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,122 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.RealTimeFloodMonitoringBackendApplication;
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.model.User;
+import com.floodguard.backend.repository.UserRepository;
+import com.floodguard.backend.service.ReportBulkService;
+import com.floodguard.backend.service.ReportService;
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifying {@value #REPORTS} reports with N calls of the single verify (load, mutate, save) against one bulk
+ * call by ids and one by filter (a day of reports), then replays the id call with the versions read before it to
+ * check that every report comes back as a conflict. Run with: mvn test -Pbenchmark -Dtest=ReportBulkVerifyBenchmark
+ */
+@Tag("benchmark")
+class ReportBulkVerifyBenchmark extends PostgisTestSupport {
+
+    private static final int REPORTS = 2_000;
+    private static final String EMAIL = "verifier@floodguard.vn";
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bulkVerifyOutperformsSingleCalls() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                RealTimeFloodMonitoringBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + POSTGIS.getJdbcUrl(),
+                        "spring.datasource.username=" + POSTGIS.getUsername(),
+                        "spring.datasource.password=" + POSTGIS.getPassword(),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            ReportService reportService = context.getBean(ReportService.class);
+            ReportBulkService reportBulkService = context.getBean(ReportBulkService.class);
+
+            jdbcTemplate.update("INSERT INTO users (username, full_name, email, role) VALUES (?, ?, ?, 'ADMIN') " +
+                    "ON CONFLICT DO NOTHING", EMAIL, "Tổ trưởng", EMAIL);
+            User verifier = context.getBean(UserRepository.class).findByEmail(EMAIL).orElseThrow();
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(verifier, null, verifier.getAuthorities()));
+
+            // Mỗi cách xác minh một ngày report riêng
+            LocalDateTime today = LocalDateTime.now().toLocalDate().atStartOfDay();
+            List<Long> singleIds = seed(jdbcTemplate, today.minusDays(1));
+            List<Long> bulkIds = seed(jdbcTemplate, today.minusDays(2));
+            seed(jdbcTemplate, today.minusDays(3));
+
+            long start = System.nanoTime();
+            for (Long id : singleIds) {
+                reportService.verify(id, ReportDTO.VerifyRequest.builder().verifyStatus("VERIFIED").version(0).build());
+            }
+            long singleNanos = System.nanoTime() - start;
+
+            List<ReportDTO.BulkVerifyTarget> targets = new ArrayList<>();
+            bulkIds.forEach(id -> targets.add(new ReportDTO.BulkVerifyTarget(id, 0)));
+            start = System.nanoTime();
+            ReportDTO.BulkVerifyResponse byIds = reportBulkService.verify(ReportDTO.BulkVerifyRequest.builder()
+                    .reports(targets).verifyStatus("VERIFIED").adminNote("Đã xác minh theo cụm").build());
+            long bulkNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            ReportDTO.BulkVerifyResponse byFilter = reportBulkService.verify(ReportDTO.BulkVerifyRequest.builder()
+                    .from(today.minusDays(3)).to(today.minusDays(2)).verifyStatus("VERIFIED").build());
+            long filterNanos = System.nanoTime() - start;
+
+            // Cùng version đã đọc trước lần xác minh trên: mọi report đều là xung đột
+            ReportDTO.BulkVerifyResponse stale = reportBulkService.verify(ReportDTO.BulkVerifyRequest.builder()
+                    .reports(targets).verifyStatus("REJECTED").build());
+
+            System.out.printf(Locale.ROOT, "%,d reports per case%n", REPORTS);
+            System.out.printf(Locale.ROOT, "  %d single calls: %8d ms, %,10.0f reports/s%n",
+                    REPORTS, singleNanos / 1_000_000, REPORTS * 1e9 / singleNanos);
+            System.out.printf(Locale.ROOT, "  bulk by ids    : %8d ms, %,10.0f reports/s%n",
+                    bulkNanos / 1_000_000, REPORTS * 1e9 / bulkNanos);
+            System.out.printf(Locale.ROOT, "  bulk by filter : %8d ms, %,10.0f reports/s%n",
+                    filterNanos / 1_000_000, REPORTS * 1e9 / filterNanos);
+
+            assertThat(byIds.getUpdatedCount()).isEqualTo(REPORTS);
+            assertThat(byFilter.getUpdatedCount()).isEqualTo(REPORTS);
+            assertThat(stale.getUpdatedCount()).isZero();
+            assertThat(stale.getConflicts()).hasSize(REPORTS);
+            assertThat(bulkNanos).isLessThan(singleNanos);
+        }
+    }
+
+    private static List<Long> seed(JdbcTemplate jdbcTemplate, LocalDateTime day) {
+        Random random = new Random(day.getDayOfYear());
+        List<Object[]> rows = new ArrayList<>(REPORTS);
+        for (int i = 0; i < REPORTS; i++) {
+            rows.add(new Object[]{"FLOOD", random.nextInt(6), Timestamp.valueOf(day.plusSeconds(i * 40L)),
+                    106.6 + random.nextDouble() * 0.3, 10.7 + random.nextDouble() * 0.2});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reports (event_type, damage_level, created_at, geom) " +
+                "VALUES (?, ?, ?, ST_SetSRID(ST_Point(?, ?), 4326))", rows);
+        return jdbcTemplate.queryForList("SELECT report_id FROM reports WHERE created_at >= ? AND created_at < ? " +
+                "ORDER BY report_id", Long.class, Timestamp.valueOf(day), Timestamp.valueOf(day.plusDays(1)));
+    }
+}
@@ -0,0 +1,205 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.RealTimeFloodMonitoringBackendApplication;
+import com.floodguard.backend.config.JwtUtil;
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load harness for the report endpoints: boots the application once on the platform thread pool and once with
+ * the "virtual" profile, then keeps {@value #IN_FLIGHT} requests in flight (more than Tomcat's 200 platform
+ * threads) with a 60/30/10 mix of GET /page, GET /nearby and POST, and compares throughput and p99 latency.
+ * The virtual thread run needs Java 21, e.g.
+ * JAVA_HOME=/path/to/jdk-21 mvn test -Pbenchmark -Dtest=ReportEndpointLoadBenchmark
+ * Add -DargLine=-Djdk.tracePinnedThreads=short to print stack traces of virtual threads pinned while blocking.
+ */
+@Tag("benchmark")
+class ReportEndpointLoadBenchmark extends PostgisTestSupport {
+
+    private static final int REPORTS = 50_000;
+    private static final int IN_FLIGHT = 400;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+    private static final String EMAIL = "load-test@floodguard.vn";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @BeforeAll
+    static void seed() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGIS.getJdbcUrl(), POSTGIS.getUsername(), POSTGIS.getPassword()));
+        jdbcTemplate.update("INSERT INTO users (username, full_name, email, role) VALUES (?, ?, ?, 'ADMIN') " +
+                "ON CONFLICT DO NOTHING", EMAIL, "Load test", EMAIL);
+
+        String[] eventTypes = {"FLOOD", "RAIN", "TIDE", "DYKE_BREAK", "OTHER"};
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(REPORTS);
+        for (int i = 0; i < REPORTS; i++) {
+            rows.add(new Object[]{eventTypes[i % eventTypes.length], "Báo cáo " + i, random.nextInt(6),
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 30))),
+                    106.6 + random.nextDouble() * 0.3, 10.7 + random.nextDouble() * 0.2});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reports (event_type, description, damage_level, created_at, geom) " +
+                "VALUES (?, ?, ?, ?, ST_SetSRID(ST_Point(?, ?), 4326))", rows);
+    }
+
+    @Test
+    void compareThroughputAndTailLatencyOfThreadingModes() throws Exception {
+        Result platform = run("platform");
+        System.out.printf(Locale.ROOT, "%d requests in flight for %ds, %,d reports (60%% page / 30%% nearby / 10%% create)%n",
+                IN_FLIGHT, MEASUREMENT.toSeconds(), REPORTS);
+        System.out.println("  " + platform.describe("platform threads"));
+        if (Runtime.version().feature() >= 21) {
+            System.out.println("  " + run("virtual").describe("virtual threads "));
+        } else {
+            System.out.println("  virtual threads : skipped, running on Java " + Runtime.version().feature());
+        }
+
+        assertThat(platform.requests()).isPositive();
+    }
+
+    private Result run(String profile) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                RealTimeFloodMonitoringBackendApplication.class)
+                .profiles(profile)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + POSTGIS.getJdbcUrl(),
+                        "spring.datasource.username=" + POSTGIS.getUsername(),
+                        "spring.datasource.password=" + POSTGIS.getPassword(),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String token = context.getBean(JwtUtil.class).generateToken(EMAIL);
+            Load load = new Load("http://localhost:" + port + "/api/reports", token);
+            load.drive(WARMUP, null);
+            Recorder recorder = new Recorder();
+            long elapsedNanos = load.drive(MEASUREMENT, recorder);
+            return recorder.result(elapsedNanos);
+        }
+    }
+
+    private final class Load {
+        private final String baseUrl;
+        private final String token;
+
+        private Load(String baseUrl, String token) {
+            this.baseUrl = baseUrl;
+            this.token = token;
+        }
+
+        // Giữ đúng IN_FLIGHT request đang chạy: request xong thì gửi request kế tiếp
+        private long drive(Duration duration, Recorder recorder) throws InterruptedException {
+            Semaphore slots = new Semaphore(IN_FLIGHT);
+            long start = System.nanoTime();
+            long deadline = start + duration.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!slots.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    continue;
+                }
+                long sent = System.nanoTime();
+                client.sendAsync(nextRequest(), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            if (recorder != null) {
+                                recorder.record(System.nanoTime() - sent, error == null && response.statusCode() < 300);
+                            }
+                            slots.release();
+                        });
+            }
+            // Chờ các request còn dở
+            slots.acquire(IN_FLIGHT);
+            return System.nanoTime() - start;
+        }
+
+        private HttpRequest nextRequest() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int kind = random.nextInt(10);
+            double lon = 106.6 + random.nextDouble() * 0.3;
+            double lat = 10.7 + random.nextDouble() * 0.2;
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + token);
+            if (kind < 6) {
+                return builder.uri(URI.create(baseUrl + "/page?size=50")).GET().build();
+            }
+            if (kind < 9) {
+                return builder.uri(URI.create(String.format(Locale.ROOT,
+                        "%s/nearby?longitude=%.5f&latitude=%.5f&radiusMeters=500", baseUrl, lon, lat))).GET().build();
+            }
+            String body = String.format(Locale.ROOT,
+                    "{\"eventType\":\"FLOOD\",\"description\":\"Ngập\",\"damageLevel\":2,\"longitude\":%.5f,\"latitude\":%.5f}",
+                    lon, lat);
+            return builder.uri(URI.create(baseUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    }
+
+    private static final class Recorder {
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+
+        private void record(long latencyNanos, boolean ok) {
+            latencies.add(latencyNanos);
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        private Result result(long elapsedNanos) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return new Result(sorted.length, errors.sum(), sorted.length * 1e9 / elapsedNanos,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99));
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+        }
+    }
+
+    private record Result(long requests, long errors, double requestsPerSecond, double p50Millis, double p99Millis) {
+
+        private String describe(String mode) {
+            return String.format(Locale.ROOT, "%s : %,8.0f requests/s, p50 %7.1f ms, p99 %7.1f ms, %,d errors of %,d",
+                    mode, requestsPerSecond, p50Millis, p99Millis, errors, requests);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.floodguard.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.feed.ReportFeedHub;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost of publishing one report change to 10k live feed subscribers with ward-sized bboxes spread over the city
+ * (spatial subscription index + bounded queues + dispatcher threads), with emitters that discard the bytes.
+ * Run with: mvn test -Pbenchmark -Dtest=ReportFeedFanoutBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReportFeedFanoutBenchmark {
+
+    private static final String[] EVENT_TYPES = {"FLOOD", "LANDSLIDE", "STORM"};
+
+    @Param({"10000"})
+    public int subscribers;
+
+    private ReportFeedHub hub;
+    private DiscardingEmitter[] emitters;
+    private ReportDTO.Response[] reports;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hub = new ReportFeedHub(new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(hub, "maxSubscribers", subscribers);
+        ReflectionTestUtils.setField(hub, "clientQueueCapacity", 256);
+        ReflectionTestUtils.setField(hub, "dispatchThreads", 4);
+        ReflectionTestUtils.setField(hub, "heartbeatSeconds", 20L);
+        ReflectionTestUtils.setField(hub, "timeoutMinutes", 30L);
+        ReflectionTestUtils.setField(hub, "retryAfterSeconds", 5L);
+        ReflectionTestUtils.invokeMethod(hub, "start");
+
+        Random random = new Random(42);
+        emitters = new DiscardingEmitter[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            // Cán bộ phường: bbox 1-3 km, 1/10 theo dõi cả thành phố, 1/3 chỉ lọc FLOOD
+            emitters[i] = new DiscardingEmitter();
+            Envelope bbox = null;
+            if (i % 10 != 0) {
+                double lon = 106.6 + random.nextDouble() * 0.3;
+                double lat = 10.7 + random.nextDouble() * 0.2;
+                double size = 0.01 + random.nextDouble() * 0.02;
+                bbox = new Envelope(lon, lon + size, lat, lat + size);
+            }
+            hub.subscribe(emitters[i], bbox, i % 3 == 0 ? Set.of("FLOOD") : null);
+        }
+
+        reports = new ReportDTO.Response[1024];
+        for (int i = 0; i < reports.length; i++) {
+            reports[i] = ReportDTO.Response.builder()
+                    .reportId((long) i)
+                    .eventType(EVENT_TYPES[random.nextInt(EVENT_TYPES.length)])
+                    .longitude(106.6 + random.nextDouble() * 0.3)
+                    .latitude(10.7 + random.nextDouble() * 0.2)
+                    .reportTime(LocalDateTime.now())
+                    .description("Nước ngập ngang bánh xe")
+                    .damageLevel(random.nextInt(5))
+                    .verifyStatus("UNVERIFIED")
+                    .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long delivered = 0;
+        for (DiscardingEmitter emitter : emitters) {
+            delivered += emitter.sent.sum();
+        }
+        System.out.printf("%n  %,d subscribers, %,d events written by dispatchers%n", subscribers, delivered);
+        ReflectionTestUtils.invokeMethod(hub, "stop");
+    }
+
+    @Benchmark
+    public void publish() {
+        hub.publish(ReportFeedHub.REPORT_CREATED, reports[next++ & (reports.length - 1)]);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        // forks(0): surefire chạy với classpath jar nên JMH không fork được JVM con
+        new Runner(new OptionsBuilder()
+                .include(ReportFeedFanoutBenchmark.class.getSimpleName())
+                .forks(0)
+                .build()).run();
+    }
+
+    private static final class DiscardingEmitter extends SseEmitter {
+        private final LongAdder sent = new LongAdder();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build();
+            sent.increment();
+        }
+    }
+}
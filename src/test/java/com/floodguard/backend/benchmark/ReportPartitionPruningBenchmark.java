@@ -0,0 +1,163 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the time-bounded report queries (findByCreatedAtBetween, pending since, keyset page) on the monthly
+ * partitioned reports table with the same rows in an unpartitioned copy carrying the same indexes, and checks that
+ * the planner only touches the partitions of the requested window. 10M rows over two years by default,
+ * -Dbenchmark.rows=N to change. Run with: mvn test -Pbenchmark -Dtest=ReportPartitionPruningBenchmark
+ */
+@Tag("benchmark")
+class ReportPartitionPruningBenchmark extends PostgisTestSupport {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000_000);
+    private static final int MONTHS = 24;
+    private static final int ITERATIONS = 50;
+    private static final Pattern PARTITION = Pattern.compile("reports_(p\\d{6}|default)");
+
+    private static final String BETWEEN = "SELECT report_id, status, created_at FROM %s " +
+            "WHERE created_at BETWEEN ? AND ?";
+    private static final String PENDING_SINCE = "SELECT report_id, created_at FROM %s " +
+            "WHERE status = 'UNVERIFIED' AND created_at >= ? ORDER BY created_at DESC";
+    private static final String PAGE_AFTER = "SELECT report_id, created_at FROM %s " +
+            "WHERE created_at <= ? AND (created_at, report_id) < (?, ?) " +
+            "ORDER BY created_at DESC, report_id DESC LIMIT 50";
+
+    private static LocalDateTime now;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT reports_create_partition(CAST(m AS DATE)) FROM generate_series(" +
+                    "date_trunc('month', CURRENT_DATE) - interval '" + MONTHS + " months', " +
+                    "date_trunc('month', CURRENT_DATE), interval '1 month') AS m");
+            statement.execute("INSERT INTO reports (event_type, damage_level, status, created_at, geom) " +
+                    "SELECT 'FLOOD', (random() * 5)::int, " +
+                    "CASE WHEN random() < 0.05 THEN 'UNVERIFIED' ELSE 'VERIFIED' END::report_status, " +
+                    "now() - random() * interval '" + MONTHS + " months', " +
+                    "ST_SetSRID(ST_Point(106.6 + random() * 0.3, 10.7 + random() * 0.2), 4326) " +
+                    "FROM generate_series(1, " + ROWS + ")");
+            // Bản sao không partition, cùng index
+            statement.execute("CREATE TABLE reports_heap AS SELECT * FROM reports");
+            statement.execute("ALTER TABLE reports_heap ADD PRIMARY KEY (report_id)");
+            statement.execute("CREATE INDEX ON reports_heap (status, created_at)");
+            statement.execute("CREATE INDEX ON reports_heap (created_at)");
+            statement.execute("ANALYZE reports");
+            statement.execute("ANALYZE reports_heap");
+        }
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void partitionedQueriesOnlyReadTheRequestedMonths() throws SQLException {
+        try (Connection connection = connect()) {
+            LocalDateTime dayStart = now.minusDays(200).toLocalDate().atStartOfDay();
+            Set<String> dayPartitions = partitionsIn(plan(connection, BETWEEN, ts(dayStart), ts(dayStart.plusDays(1))));
+            assertThat(dayPartitions).hasSizeBetween(1, 2);
+
+            Set<String> pendingPartitions = partitionsIn(plan(connection, PENDING_SINCE, ts(now.minusDays(3))));
+            assertThat(pendingPartitions).hasSizeBetween(1, 2);
+
+            System.out.printf(Locale.ROOT, "%,d reports over %d months, %d queries per case%n", ROWS, MONTHS, ITERATIONS);
+            compare(connection, "created_at BETWEEN, 1 day ", BETWEEN, at -> new Object[]{ts(at), ts(at.plusDays(1))});
+            compare(connection, "created_at BETWEEN, 7 days", BETWEEN, at -> new Object[]{ts(at), ts(at.plusDays(7))});
+            compare(connection, "pending since 3 days      ", PENDING_SINCE, at -> new Object[]{ts(now.minusDays(3))});
+            compare(connection, "keyset page after cursor  ", PAGE_AFTER, at -> new Object[]{ts(at), ts(at), Long.MAX_VALUE});
+        }
+    }
+
+    // params: tham số truy vấn theo một thời điểm ngẫu nhiên trong khoảng dữ liệu
+    private void compare(Connection connection, String label, String sql, Function<LocalDateTime, Object[]> params)
+            throws SQLException {
+        long heapNanos = 0;
+        long partitionedNanos = 0;
+        Random random = new Random(42);
+        for (int i = 0; i < ITERATIONS; i++) {
+            Object[] values = params.apply(now.minusMinutes(random.nextInt(60 * 24 * 30 * (MONTHS - 1))));
+
+            long start = System.nanoTime();
+            int expected = count(connection, String.format(sql, "reports_heap"), values);
+            heapNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int actual = count(connection, String.format(sql, "reports"), values);
+            partitionedNanos += System.nanoTime() - start;
+
+            assertThat(actual).isEqualTo(expected);
+        }
+        System.out.printf(Locale.ROOT, "  %s: heap %8.2f ms/query, partitioned %8.2f ms/query%n",
+                label, heapNanos / 1e6 / ITERATIONS, partitionedNanos / 1e6 / ITERATIONS);
+    }
+
+    private static int count(Connection connection, String sql, Object... params) throws SQLException {
+        int rows = 0;
+        try (PreparedStatement statement = prepare(connection, sql, params);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String plan(Connection connection, String sql, Object... params) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement statement = prepare(connection,
+                "EXPLAIN (ANALYZE, BUFFERS) " + String.format(sql, "reports"), params);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        System.out.println(plan);
+        return plan.toString();
+    }
+
+    // Partition xuất hiện trong plan (đã loại các partition bị prune)
+    private static Set<String> partitionsIn(String plan) {
+        Set<String> partitions = new TreeSet<>();
+        Matcher matcher = PARTITION.matcher(plan);
+        while (matcher.find()) {
+            partitions.add(matcher.group());
+        }
+        return partitions;
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, Object... params) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+        return statement;
+    }
+
+    private static Timestamp ts(LocalDateTime time) {
+        return Timestamp.valueOf(time);
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGIS.getJdbcUrl(), POSTGIS.getUsername(), POSTGIS.getPassword());
+    }
+}
@@ -0,0 +1,126 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.support.PostgisTestSupport;
+import com.floodguard.backend.util.GeoUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the geography-only radius query with the envelope pre-filter + geography refine variant
+ * on 1M synthetic reports. Run with: mvn test -Pbenchmark -Dtest=ReportRadiusQueryBenchmark
+ */
+@Tag("benchmark")
+class ReportRadiusQueryBenchmark extends PostgisTestSupport {
+
+    private static final int ROWS = 1_000_000;
+    private static final int ITERATIONS = 50;
+    private static final double RADIUS_METERS = 500;
+
+    private static final String GEOGRAPHY_ONLY = "SELECT report_id FROM reports " +
+            "WHERE ST_DWithin(geom::geography, ST_SetSRID(ST_Point(?, ?), 4326)::geography, ?)";
+
+    private static final String ENVELOPE_THEN_GEOGRAPHY = "SELECT report_id FROM reports " +
+            "WHERE geom && ST_MakeEnvelope(?, ?, ?, ?, 4326) " +
+            "AND ST_DWithin(geom::geography, ST_SetSRID(ST_Point(?, ?), 4326)::geography, ?)";
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO reports (event_type, damage_level, created_at, geom) " +
+                    "SELECT 'FLOOD', (random() * 5)::int, now() - random() * interval '365 days', " +
+                    "ST_SetSRID(ST_Point(106.6 + random() * 0.3, 10.7 + random() * 0.2), 4326) " +
+                    "FROM generate_series(1, " + ROWS + ")");
+            statement.execute("ANALYZE reports");
+        }
+    }
+
+    @Test
+    void envelopePrefilterUsesGistIndexAndReturnsSameRows() throws SQLException {
+        Random random = new Random(42);
+        long geographyNanos = 0;
+        long envelopeNanos = 0;
+
+        try (Connection connection = connect()) {
+            printPlan(connection, GEOGRAPHY_ONLY, 106.75, 10.8);
+            String envelopePlan = printPlan(connection, ENVELOPE_THEN_GEOGRAPHY, 106.75, 10.8);
+            assertThat(envelopePlan).contains("idx_reports_geom");
+
+            for (int i = 0; i < ITERATIONS; i++) {
+                double lon = 106.6 + random.nextDouble() * 0.3;
+                double lat = 10.7 + random.nextDouble() * 0.2;
+
+                long start = System.nanoTime();
+                Set<Long> expected = run(connection, GEOGRAPHY_ONLY, lon, lat);
+                geographyNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                Set<Long> actual = run(connection, ENVELOPE_THEN_GEOGRAPHY, lon, lat);
+                envelopeNanos += System.nanoTime() - start;
+
+                assertThat(actual).isEqualTo(expected);
+            }
+        }
+
+        System.out.printf("radius %.0f m over %,d rows, %d queries%n", RADIUS_METERS, ROWS, ITERATIONS);
+        System.out.printf("  geography only      : %8.2f ms/query%n", geographyNanos / 1e6 / ITERATIONS);
+        System.out.printf("  envelope + geography: %8.2f ms/query%n", envelopeNanos / 1e6 / ITERATIONS);
+    }
+
+    private static Set<Long> run(Connection connection, String sql, double lon, double lat) throws SQLException {
+        Set<Long> ids = new HashSet<>();
+        try (PreparedStatement statement = prepare(connection, sql, lon, lat);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static String printPlan(Connection connection, String sql, double lon, double lat) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement statement = prepare(connection, "EXPLAIN (ANALYZE, BUFFERS) " + sql, lon, lat);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        System.out.println(plan);
+        return plan.toString();
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, double lon, double lat)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        int index = 1;
+        if (sql.contains("ST_MakeEnvelope")) {
+            Envelope envelope = GeoUtil.radiusEnvelope(lon, lat, RADIUS_METERS);
+            statement.setDouble(index++, envelope.getMinX());
+            statement.setDouble(index++, envelope.getMinY());
+            statement.setDouble(index++, envelope.getMaxX());
+            statement.setDouble(index++, envelope.getMaxY());
+        }
+        statement.setDouble(index++, lon);
+        statement.setDouble(index++, lat);
+        statement.setDouble(index, RADIUS_METERS);
+        return statement;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGIS.getJdbcUrl(), POSTGIS.getUsername(), POSTGIS.getPassword());
+    }
+}
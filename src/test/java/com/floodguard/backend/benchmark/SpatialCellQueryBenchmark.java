@@ -0,0 +1,138 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.RealTimeFloodMonitoringBackendApplication;
+import com.floodguard.backend.model.Household;
+import com.floodguard.backend.model.Infrastructure;
+import com.floodguard.backend.model.Report;
+import com.floodguard.backend.repository.HouseholdRepository;
+import com.floodguard.backend.repository.InfrastructureRepository;
+import com.floodguard.backend.repository.ReportRepository;
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Radius and bbox searches through the geohash column (range scans on a B-tree) against the current GIST
+ * envelope + ST_DWithin queries, on 1M reports, 200k households and 50k infrastructure items (half of them
+ * drain lines), checking that both return the same rows. Run with:
+ * mvn test -Pbenchmark -Dtest=SpatialCellQueryBenchmark
+ */
+@Tag("benchmark")
+class SpatialCellQueryBenchmark extends PostgisTestSupport {
+
+    private static final int REPORTS = 1_000_000;
+    private static final int HOUSEHOLDS = 200_000;
+    private static final int INFRASTRUCTURE = 50_000;
+    private static final int QUERIES = 200;
+    private static final double[] RADII = {200, 1_000, 5_000};
+
+    @BeforeAll
+    static void seed() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGIS.getJdbcUrl(), POSTGIS.getUsername(), POSTGIS.getPassword()));
+        jdbcTemplate.execute("INSERT INTO reports (event_type, damage_level, created_at, geom) " +
+                "SELECT 'FLOOD', (random() * 5)::int, now() - random() * interval '30 days', " +
+                "ST_SetSRID(ST_Point(106.6 + random() * 0.3, 10.7 + random() * 0.2), 4326) " +
+                "FROM generate_series(1, " + REPORTS + ")");
+        jdbcTemplate.execute("INSERT INTO households (address, geom) " +
+                "SELECT 'Hộ ' || i, ST_SetSRID(ST_Point(106.6 + random() * 0.3, 10.7 + random() * 0.2), 4326) " +
+                "FROM generate_series(1, " + HOUSEHOLDS + ") AS i");
+        // Nửa là hố ga (điểm), nửa là tuyến cống dài 50 m - 2 km
+        jdbcTemplate.execute("INSERT INTO infrastructure (name, type, geom) " +
+                "SELECT 'Hạ tầng ' || i, CAST(CASE WHEN i % 2 = 0 THEN 'MANHOLE' ELSE 'DRAIN_PIPE' END AS infra_type), " +
+                "CASE WHEN i % 2 = 0 THEN ST_SetSRID(ST_Point(x, y), 4326) " +
+                "ELSE ST_SetSRID(ST_MakeLine(ST_Point(x, y), ST_Point(x + random() * 0.02, y)), 4326) END " +
+                "FROM (SELECT i, 106.6 + random() * 0.3 AS x, 10.7 + random() * 0.2 AS y " +
+                "FROM generate_series(1, " + INFRASTRUCTURE + ") AS i) s");
+        jdbcTemplate.execute("UPDATE reports SET geohash = geohash_cell(geom)");
+        jdbcTemplate.execute("UPDATE households SET geohash = geohash_cell(geom)");
+        jdbcTemplate.execute("UPDATE infrastructure SET geohash = geohash_cell(geom)");
+        jdbcTemplate.execute("ANALYZE reports");
+        jdbcTemplate.execute("ANALYZE households");
+        jdbcTemplate.execute("ANALYZE infrastructure");
+    }
+
+    @Test
+    void cellRangeLookupsMatchAndOutperformGeometryPredicates() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                RealTimeFloodMonitoringBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + POSTGIS.getJdbcUrl(),
+                        "spring.datasource.username=" + POSTGIS.getUsername(),
+                        "spring.datasource.password=" + POSTGIS.getPassword(),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run()) {
+            ReportRepository reports = context.getBean(ReportRepository.class);
+            HouseholdRepository households = context.getBean(HouseholdRepository.class);
+            InfrastructureRepository infrastructure = context.getBean(InfrastructureRepository.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            System.out.printf(Locale.ROOT, "%,d reports, %,d households, %,d infrastructure, %d queries per case%n",
+                    REPORTS, HOUSEHOLDS, INFRASTRUCTURE, QUERIES);
+            for (double radius : RADII) {
+                String label = String.format(Locale.ROOT, "%5.0f m", radius);
+                compare("reports        " + label,
+                        p -> ids(reports.findWithinRadius(p[0], p[1], radius), Report::getReportId),
+                        p -> ids(reports.findWithinRadiusByCell(p[0], p[1], radius), Report::getReportId));
+                compare("households     " + label,
+                        p -> ids(households.findWithinRadius(p[0], p[1], radius), Household::getHouseholdId),
+                        p -> ids(households.findWithinRadiusByCell(p[0], p[1], radius), Household::getHouseholdId));
+                compare("infrastructure " + label,
+                        p -> Set.copyOf(jdbcTemplate.queryForList("SELECT infra_id FROM infrastructure " +
+                                "WHERE ST_DWithin(geom::geography, ST_SetSRID(ST_Point(?, ?), 4326)::geography, ?)",
+                                Long.class, p[0], p[1], radius)),
+                        p -> ids(infrastructure.findWithinRadiusByCell(p[0], p[1], radius), Infrastructure::getInfraId));
+            }
+            compare("reports bbox ~1 km ",
+                    p -> Set.copyOf(jdbcTemplate.queryForList("SELECT report_id FROM reports " +
+                                    "WHERE geom && ST_MakeEnvelope(?, ?, ?, ?, 4326)", Long.class,
+                            p[0], p[1], p[0] + 0.01, p[1] + 0.01)),
+                    p -> ids(reports.findWithinBboxByCell(p[0], p[1], p[0] + 0.01, p[1] + 0.01), Report::getReportId));
+        }
+    }
+
+    // Cùng các điểm ngẫu nhiên cho hai cách truy vấn, kết quả phải trùng nhau
+    private static void compare(String label, Function<double[], Set<Long>> geometry,
+            Function<double[], Set<Long>> cells) {
+        Random random = new Random(42);
+        long geometryNanos = 0;
+        long cellNanos = 0;
+        long rows = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            double[] point = {106.62 + random.nextDouble() * 0.26, 10.72 + random.nextDouble() * 0.16};
+
+            long start = System.nanoTime();
+            Set<Long> expected = geometry.apply(point);
+            geometryNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Set<Long> actual = cells.apply(point);
+            cellNanos += System.nanoTime() - start;
+
+            assertThat(actual).isEqualTo(expected);
+            rows += expected.size();
+        }
+        System.out.printf(Locale.ROOT, "  %s: %7.1f rows, geometry %7.2f ms/query, geohash %7.2f ms/query%n",
+                label, (double) rows / QUERIES, geometryNanos / 1e6 / QUERIES, cellNanos / 1e6 / QUERIES);
+    }
+
+    private static <T> Set<Long> ids(List<T> rows, Function<T, Long> id) {
+        return rows.stream().map(id).collect(Collectors.toSet());
+    }
+}
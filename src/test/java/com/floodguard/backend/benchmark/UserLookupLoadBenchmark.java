@@ -0,0 +1,121 @@
+package com.floodguard.backend.benchmark;
+
+import com.floodguard.backend.model.User;
+import com.floodguard.backend.repository.UserRepository;
+import com.floodguard.backend.support.PostgisTestSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of the per-request user lookup done by JwtAuthenticationFilter (UserDetails cache disabled),
+ * comparing the single identifier query with the old phone → email → username chain.
+ * Run with: mvn test -Pbenchmark -Dtest=UserLookupLoadBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "security.user-cache.max-size=0"
+})
+class UserLookupLoadBenchmark extends PostgisTestSupport {
+
+    private static final int USERS = 1_000;
+    private static final int THREADS = 16;
+    private static final int REQUESTS_PER_THREAD = 2_000;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<String> identifiers = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        userRepository.deleteAllInBatch();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            if (i % 2 == 0) {
+                // Đăng nhập Google: subject = email, username = email
+                String email = "user" + i + "@gmail.com";
+                users.add(User.builder().username(email).email(email).fullName("Google " + i).build());
+                identifiers.add(email);
+            } else {
+                String phone = String.format("09%08d", i);
+                users.add(User.builder().username(phone).phoneNumber(phone).fullName("Phone " + i).build());
+                identifiers.add(phone);
+            }
+        }
+        userRepository.saveAll(users);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void singleQueryRemovesWastedRoundTrips() throws Exception {
+        Result legacy = run(identifier -> userRepository.findByPhoneNumber(identifier)
+                .or(() -> userRepository.findByEmail(identifier))
+                .or(() -> userRepository.findByUsername(identifier))
+                .orElseThrow());
+        Result single = run(userDetailsService::loadUserByUsername);
+
+        System.out.printf(Locale.ROOT, "%,d lookups on %d threads, half email / half phone subjects%n",
+                THREADS * REQUESTS_PER_THREAD, THREADS);
+        System.out.printf(Locale.ROOT, "  chained finders : %.2f statements/request, %,10.0f requests/s%n",
+                legacy.statementsPerRequest(), legacy.requestsPerSecond());
+        System.out.printf(Locale.ROOT, "  single query    : %.2f statements/request, %,10.0f requests/s%n",
+                single.statementsPerRequest(), single.requestsPerSecond());
+
+        assertThat(single.statementsPerRequest()).isEqualTo(1.0);
+        assertThat(legacy.statementsPerRequest()).isEqualTo(1.5);
+    }
+
+    private Result run(Consumer<String> lookup) throws Exception {
+        statistics.clear();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        lookup.accept(identifiers.get((offset * 31 + i) % identifiers.size()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        double requests = (double) THREADS * REQUESTS_PER_THREAD;
+        return new Result(statistics.getPrepareStatementCount() / requests, requests * 1e9 / elapsedNanos);
+    }
+
+    private record Result(double statementsPerRequest, double requestsPerSecond) {
+    }
+}
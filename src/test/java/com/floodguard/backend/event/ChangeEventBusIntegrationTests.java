@@ -0,0 +1,94 @@
+package com.floodguard.backend.event;
+
+import com.floodguard.backend.RealTimeFloodMonitoringBackendApplication;
+import com.floodguard.backend.dto.LocationDTO;
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.feed.ReportFeedHub;
+import com.floodguard.backend.model.Location;
+import com.floodguard.backend.service.LocationService;
+import com.floodguard.backend.service.ReportService;
+import com.floodguard.backend.spatial.LocationSpatialIndex;
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hai application context (hai "node") dùng chung một PostGIS: ghi trên node A phải hiện ra trong
+ * index / live feed của node B qua LISTEN/NOTIFY.
+ */
+class ChangeEventBusIntegrationTests extends PostgisTestSupport {
+
+    @Test
+    void writesOnOneNodeReachIndexesAndLiveFeedOfTheOther() throws Exception {
+        try (ConfigurableApplicationContext nodeA = startNode();
+             ConfigurableApplicationContext nodeB = startNode()) {
+            LocationSpatialIndex indexB = nodeB.getBean(LocationSpatialIndex.class);
+            RecordingEmitter feedB = new RecordingEmitter();
+            nodeB.getBean(ReportFeedHub.class).subscribe(feedB, null, null);
+
+            LocationDTO.Response location = nodeA.getBean(LocationService.class).create(LocationDTO.CreateRequest.builder()
+                    .address("Cống Bình Triệu")
+                    .longitude(106.7123)
+                    .latitude(10.8234)
+                    .build());
+            awaitUntil(() -> nearestIds(indexB).contains(location.getLocationId()));
+
+            ReportDTO.Response report = nodeA.getBean(ReportService.class).create(ReportDTO.CreateRequest.builder()
+                    .eventType("FLOOD")
+                    .description("Ngập 40cm")
+                    .longitude(106.7123)
+                    .latitude(10.8234)
+                    .build());
+            awaitUntil(() -> feedB.raw().contains("\"reportId\":" + report.getReportId()));
+            assertThat(feedB.raw()).contains("event:" + ReportFeedHub.REPORT_CREATED);
+
+            nodeA.getBean(LocationService.class).delete(location.getLocationId());
+            awaitUntil(() -> !nearestIds(indexB).contains(location.getLocationId()));
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(RealTimeFloodMonitoringBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + POSTGIS.getJdbcUrl(),
+                        "spring.datasource.username=" + POSTGIS.getUsername(),
+                        "spring.datasource.password=" + POSTGIS.getPassword(),
+                        "spring.jpa.show-sql=false")
+                .run();
+    }
+
+    private static List<Long> nearestIds(LocationSpatialIndex index) {
+        return index.findNearest(106.7123, 10.8234, 5).stream().map(Location::getLocationId).toList();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in 10s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder.build().stream().map(part -> part.getData().toString()).collect(Collectors.joining()));
+        }
+
+        private String raw() {
+            return String.join("", sent);
+        }
+    }
+}
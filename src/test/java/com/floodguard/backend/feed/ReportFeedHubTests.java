@@ -0,0 +1,160 @@
+package com.floodguard.backend.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.exception.BackpressureException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportFeedHubTests {
+
+    private ReportFeedHub hub;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        hub.stop();
+    }
+
+    @Test
+    void deliversOnlyToSubscribersWhoseBboxAndEventTypesMatch() throws Exception {
+        hub = started(256, 10);
+        RecordingEmitter floodsHere = subscribe(new Envelope(106.74, 106.76, 10.84, 10.86), Set.of("FLOOD"));
+        RecordingEmitter elsewhere = subscribe(new Envelope(106.60, 106.62, 10.70, 10.72), null);
+        RecordingEmitter everything = subscribe(null, null);
+        RecordingEmitter landslidesHere = subscribe(new Envelope(106.70, 106.80, 10.80, 10.90), Set.of("LANDSLIDE"));
+
+        hub.publish(ReportFeedHub.REPORT_CREATED, report(1L, "FLOOD", 106.75, 10.85));
+        hub.publish(ReportFeedHub.REPORT_VERIFIED, report(2L, "FLOOD", null, null));
+
+        awaitUntil(() -> everything.events().size() == 2);
+        awaitUntil(() -> floodsHere.events().size() == 1);
+        assertThat(floodsHere.events()).containsExactly("report-created:1");
+        assertThat(everything.events()).containsExactly("report-created:1", "report-verified:2");
+        assertThat(elsewhere.events()).isEmpty();
+        assertThat(landslidesHere.events()).isEmpty();
+    }
+
+    @Test
+    void slowSubscriberKeepsNewestEventsAndIsToldToResync() throws Exception {
+        hub = started(4, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        hub.subscribe(slow, null, null);
+        // Dispatcher đang kẹt ở lần gửi đầu tiên (keep-alive)
+        awaitUntil(() -> slow.blocked);
+
+        for (long id = 1; id <= 20; id++) {
+            hub.publish(ReportFeedHub.REPORT_CREATED, report(id, "FLOOD", 106.75, 10.85));
+        }
+        release.countDown();
+
+        awaitUntil(() -> slow.events().size() == 5);
+        assertThat(slow.events()).containsExactly("resync:16", "report-created:17", "report-created:18",
+                "report-created:19", "report-created:20");
+    }
+
+    @Test
+    void failedSendUnregistersAndSubscriberLimitIsEnforced() throws Exception {
+        hub = started(16, 1);
+        RecordingEmitter broken = new RecordingEmitter(null);
+        broken.fail = true;
+        hub.subscribe(broken, null, null);
+        awaitUntil(() -> hub.getSubscriberCount() == 0);
+
+        subscribe(null, null);
+        assertThatThrownBy(() -> subscribe(null, null)).isInstanceOf(BackpressureException.class);
+    }
+
+    private ReportFeedHub started(int queueCapacity, int maxSubscribers) {
+        ReportFeedHub feedHub = new ReportFeedHub(new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(feedHub, "maxSubscribers", maxSubscribers);
+        ReflectionTestUtils.setField(feedHub, "clientQueueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(feedHub, "dispatchThreads", 1);
+        ReflectionTestUtils.setField(feedHub, "heartbeatSeconds", 3600L);
+        ReflectionTestUtils.setField(feedHub, "timeoutMinutes", 1L);
+        ReflectionTestUtils.setField(feedHub, "retryAfterSeconds", 5L);
+        feedHub.start();
+        return feedHub;
+    }
+
+    private RecordingEmitter subscribe(Envelope bbox, Set<String> eventTypes) {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        hub.subscribe(emitter, bbox, eventTypes);
+        return emitter;
+    }
+
+    private static ReportDTO.Response report(Long id, String eventType, Double longitude, Double latitude) {
+        return ReportDTO.Response.builder()
+                .reportId(id)
+                .eventType(eventType)
+                .longitude(longitude)
+                .latitude(latitude)
+                .verifyStatus("UNVERIFIED")
+                .build();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in 5s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Ghi lại event dưới dạng "tên:reportId" (resync: "resync:số event bị bỏ"), bỏ qua keep-alive
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private volatile boolean blocked;
+        private volatile boolean fail;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            if (release != null && !blocked) {
+                blocked = true;
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String raw = builder.build().stream().map(part -> part.getData().toString()).collect(Collectors.joining());
+            if (!raw.contains("event:")) {
+                return;
+            }
+            String name = raw.substring(raw.indexOf("event:") + 6, raw.indexOf('\n', raw.indexOf("event:")));
+            String data = raw.substring(raw.indexOf("data:") + 5, raw.indexOf('\n', raw.indexOf("data:")));
+            events.add(name + ":" + (ReportFeedHub.RESYNC.equals(name) ? data : MAPPER.readTree(data).get("reportId").asText()));
+        }
+
+        private List<String> events() {
+            return events;
+        }
+    }
+}
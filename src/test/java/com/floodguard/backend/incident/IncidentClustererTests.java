@@ -0,0 +1,118 @@
+package com.floodguard.backend.incident;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IncidentClustererTests {
+
+    // ~1 m theo vĩ độ
+    private static final double METER = 1 / 110574.0;
+
+    private JdbcTemplate jdbcTemplate;
+    private IncidentClusterer clusterer;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        clusterer = new IncidentClusterer(jdbcTemplate);
+        ReentrantLock lock = (ReentrantLock) ReflectionTestUtils.getField(clusterer, "lock");
+        AtomicLong sequence = new AtomicLong(1);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> {
+            // nextval không được chạy khi đang giữ lock gán sự cố
+            assertThat(lock.isHeldByCurrentThread()).isFalse();
+            return sequence.getAndAdd(IncidentClusterer.ID_BLOCK);
+        });
+        ReflectionTestUtils.setField(clusterer, "enabled", true);
+        ReflectionTestUtils.setField(clusterer, "radiusMeters", 150.0);
+        ReflectionTestUtils.setField(clusterer, "windowMinutes", 60L);
+        clusterer.init();
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void joinsNearbyReportsOfSameTypeWithinWindow() {
+        long street = assign("FLOOD", 106.75, 10.85, now);
+
+        assertThat(assign("FLOOD", 106.75, 10.85 + 100 * METER, now.plusMinutes(10))).isEqualTo(street);
+        // Cách report đầu tiên 100 m nhưng nằm ở ô geohash khác
+        assertThat(assign("FLOOD", 106.75, 10.85 - 100 * METER, now.plusMinutes(20))).isEqualTo(street);
+        assertThat(assign("RAIN", 106.75, 10.85, now.plusMinutes(20))).isNotEqualTo(street);
+        assertThat(assign("FLOOD", 106.75, 10.85 + 300 * METER, now.plusMinutes(20))).isNotEqualTo(street);
+        // Cửa sổ tính từ report gần nhất (now + 20 phút)
+        assertThat(assign("FLOOD", 106.75, 10.85, now.plusMinutes(75))).isEqualTo(street);
+        assertThat(assign("FLOOD", 106.75, 10.85, now.plusMinutes(140))).isNotEqualTo(street);
+    }
+
+    @Test
+    void takesIncidentIdsFromSequenceInBlocks() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < IncidentClusterer.ID_BLOCK + 1; i++) {
+            ids.add(assign("FLOOD", 106.6 + i * 0.01, 10.85, now));
+        }
+
+        assertThat(ids).hasSize(IncidentClusterer.ID_BLOCK + 1).contains(1L, 50L, 51L);
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void releasedAssignmentsAreUndone() {
+        IncidentClusterer.Assignment rolledBack = clusterer.assign("FLOOD", 106.75, 10.85, now);
+        clusterer.release(rolledBack);
+        assertThat(clusterer.getActiveIncidentCount()).isZero();
+
+        long street = assign("FLOOD", 106.75, 10.85, now);
+        clusterer.release(clusterer.assign("FLOOD", 106.75, 10.85 + 50 * METER, now.plusMinutes(30)));
+        assertThat(street).isNotEqualTo(rolledBack.incidentId());
+        // Report rollback không kéo dài cửa sổ: tính lại từ report đã commit (now)
+        assertThat(assign("FLOOD", 106.75, 10.85, now.plusMinutes(70))).isNotEqualTo(street);
+    }
+
+    @Test
+    void pendingIncidentIsJoinedAndKeptWhenAnyMemberCommits() {
+        IncidentClusterer.Assignment first = clusterer.assign("FLOOD", 106.75, 10.85, now);
+        IncidentClusterer.Assignment second = clusterer.assign("FLOOD", 106.75, 10.85 + 50 * METER, now);
+        assertThat(second.incidentId()).isEqualTo(first.incidentId());
+
+        clusterer.confirm(second);
+        clusterer.release(first);
+
+        assertThat(clusterer.getActiveIncidentCount()).isEqualTo(1);
+        assertThat(assign("FLOOD", 106.75, 10.85, now.plusMinutes(10))).isEqualTo(first.incidentId());
+    }
+
+    @Test
+    void tracksRemoteIncidentsAndEvictsIdleOnes() {
+        clusterer.track(900, "FLOOD", 106.75, 10.85, now);
+        clusterer.track(900, "FLOOD", 106.75, 10.85 + 50 * METER, now.plusMinutes(30));
+
+        assertThat(clusterer.getActiveIncidentCount()).isEqualTo(1);
+        assertThat(assign("FLOOD", 106.75, 10.85 + 80 * METER, now.plusMinutes(80))).isEqualTo(900L);
+
+        clusterer.evictIdle(now.plusMinutes(200));
+        assertThat(clusterer.getActiveIncidentCount()).isZero();
+    }
+
+    // Report đã commit
+    private long assign(String eventType, double longitude, double latitude, LocalDateTime at) {
+        IncidentClusterer.Assignment incident = clusterer.assign(eventType, longitude, latitude, at);
+        clusterer.confirm(incident);
+        return incident.incidentId();
+    }
+}
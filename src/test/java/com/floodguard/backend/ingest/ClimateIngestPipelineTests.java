@@ -0,0 +1,135 @@
+package com.floodguard.backend.ingest;
+
+import com.floodguard.backend.dto.ClimateDataDTO;
+import com.floodguard.backend.ingest.ClimateIngestPipeline.QueuedReading;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClimateIngestPipelineTests {
+
+    @Test
+    void coalescesReadingsIntoBatchesAndReportsPerSecondMetrics() throws Exception {
+        TransactionTemplate transactionTemplate = working(mock(TransactionStatus.class));
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyReadings(), anyInt(), anySetter())).thenAnswer(invocation -> {
+            synchronized (batchSizes) {
+                batchSizes.add(invocation.<Collection<?>>getArgument(1).size());
+            }
+            return new int[0][];
+        });
+
+        ClimateIngestPipeline pipeline = pipeline(jdbcTemplate, transactionTemplate, 100);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 250; i++) {
+            assertThat(pipeline.offer(now.minusMinutes(i), i % 2 == 0 ? "RAIN" : "TIDE", i * 0.1, false)).isTrue();
+        }
+
+        awaitUntil(() -> pipeline.metrics().getTotalWritten() == 250);
+        // Số liệu theo giây chỉ xuất hiện khi giây đó đã được chốt
+        awaitUntil(() -> written(pipeline.metrics()) == 250);
+        pipeline.stop();
+
+        synchronized (batchSizes) {
+            assertThat(batchSizes).containsExactly(100, 100, 50);
+        }
+        ClimateDataDTO.IngestMetrics metrics = pipeline.metrics();
+        assertThat(metrics.getTotalAccepted()).isEqualTo(250);
+        assertThat(metrics.getLastSeconds()).allSatisfy(second ->
+                assertThat(second.getP99LatencyMs()).isLessThanOrEqualTo(second.getMaxLatencyMs()));
+    }
+
+    @Test
+    void rejectedBatchIsInsertedRowByRowInOneTransaction() throws Exception {
+        TransactionStatus status = mock(TransactionStatus.class);
+        TransactionTemplate transactionTemplate = working(status);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doThrow(new DataIntegrityViolationException("climate_data_type_check"))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyReadings(), anyInt(), anySetter());
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("climate_data_type_check"))
+                .thenReturn(1);
+        ClimateIngestPipeline pipeline = pipeline(jdbcTemplate, transactionTemplate, 3);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            assertThat(pipeline.offer(now, "RAIN", i, false)).isTrue();
+        }
+
+        verify(jdbcTemplate, timeout(3000).times(3)).update(anyString(), any(PreparedStatementSetter.class));
+        awaitUntil(() -> pipeline.metrics().getTotalWritten() == 2);
+        pipeline.stop();
+        // Batch lỗi và lần ghi từng dòng, mỗi lần một transaction; chỉ dòng lỗi bị rollback về savepoint
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+        verify(status, times(2)).releaseSavepoint(any());
+        verify(status, times(1)).rollbackToSavepoint(any());
+        assertThat(pipeline.metrics().getTotalFailed()).isEqualTo(1);
+    }
+
+    private static ClimateIngestPipeline pipeline(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                                  int batchSize) {
+        ClimateIngestPipeline pipeline = new ClimateIngestPipeline(jdbcTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(pipeline, "bufferCapacity", 1024);
+        ReflectionTestUtils.setField(pipeline, "batchSize", batchSize);
+        ReflectionTestUtils.setField(pipeline, "lingerMs", 500L);
+        ReflectionTestUtils.setField(pipeline, "retryAfterSeconds", 1L);
+        pipeline.start();
+        return pipeline;
+    }
+
+    private static TransactionTemplate working(TransactionStatus status) {
+        TransactionTemplate working = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(status);
+            return null;
+        }).when(working).executeWithoutResult(any());
+        return working;
+    }
+
+    private static Collection<QueuedReading> anyReadings() {
+        return any();
+    }
+
+    private static ParameterizedPreparedStatementSetter<QueuedReading> anySetter() {
+        return any();
+    }
+
+    private static long written(ClimateDataDTO.IngestMetrics metrics) {
+        return metrics.getLastSeconds().stream().mapToLong(ClimateDataDTO.IngestSecond::getWritten).sum();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in 5s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.floodguard.backend.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscRingBufferTests {
+
+    @Test
+    void rejectsWhenFullAndReusesSlotsAfterDrain() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertThat(buffer.capacity()).isEqualTo(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 2)).isEqualTo(2);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.offer(5)).isTrue();
+        buffer.drain(drained::add, Integer.MAX_VALUE);
+
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void deliversEveryElementOnceInPerProducerOrder() throws Exception {
+        int producers = 8;
+        int perProducer = 50_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long[] next = new long[producers];
+        long received = 0;
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < (long) producers * perProducer && System.nanoTime() < deadline) {
+            int drained = buffer.drain(element -> {
+                assertThat(element[1]).isEqualTo(next[(int) element[0]]);
+                next[(int) element[0]]++;
+            }, 256);
+            if (drained == 0) {
+                Thread.yield();
+            }
+            received += drained;
+        }
+        executor.shutdown();
+
+        assertThat(received).isEqualTo((long) producers * perProducer);
+        assertThat(next).containsOnly(perProducer);
+    }
+}
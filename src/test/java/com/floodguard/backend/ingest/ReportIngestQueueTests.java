@@ -0,0 +1,205 @@
+package com.floodguard.backend.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.event.ChangeEvent;
+import com.floodguard.backend.event.ChangeEventBus;
+import com.floodguard.backend.exception.BackpressureException;
+import com.floodguard.backend.feed.ReportFeedHub;
+import com.floodguard.backend.incident.IncidentClusterer;
+import com.floodguard.backend.service.TileService;
+import com.floodguard.backend.stats.ReportHeatmapCache;
+import com.floodguard.backend.stats.ReportStatistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportIngestQueueTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ChangeEventBus changeEventBus = mock(ChangeEventBus.class);
+    private final ReportFeedHub reportFeedHub = mock(ReportFeedHub.class);
+    private final ReportStatistics reportStatistics = mock(ReportStatistics.class);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rejectsWhenFullAndReplaysSpoolAfterRestart() throws Exception {
+        Path spool = tempDir.resolve("reports.spool");
+
+        // DB không truy cập được: batch không bao giờ commit
+        TransactionTemplate failing = mock(TransactionTemplate.class);
+        doThrow(new CannotCreateTransactionException("database down")).when(failing).executeWithoutResult(any());
+        ReportIngestQueue down = queue(failing, jdbc(), spool);
+
+        assertThat(down.submit(request()).getProvisionalId()).startsWith("tmp-");
+        assertThatThrownBy(() -> down.submit(request()))
+                .isInstanceOf(BackpressureException.class)
+                .extracting("retryAfterSeconds").isEqualTo(3L);
+        down.stop();
+        assertThat(Files.readAllLines(spool)).hasSize(1);
+
+        JdbcTemplate jdbcTemplate = jdbc();
+        ReportIngestQueue restarted = queue(working(mock(TransactionStatus.class)), jdbcTemplate, spool);
+
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(anyString(), anyBatch(), anyInt(), anySetter());
+        restarted.stop();
+        assertThat(Files.size(spool)).isZero();
+    }
+
+    @Test
+    void rejectedBatchIsInsertedRowByRowInOneTransaction() throws Exception {
+        Path spool = tempDir.resolve("reports.spool");
+        TransactionStatus status = mock(TransactionStatus.class);
+        TransactionTemplate working = working(status);
+        JdbcTemplate jdbcTemplate = jdbc();
+        doThrow(new DataIntegrityViolationException("batch rejected")).when(jdbcTemplate).batchUpdate(anyString(),
+                anyBatch(), anyInt(), anySetter());
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("reports_user_id_fkey"))
+                .thenReturn(1);
+        ReportIngestQueue queue = queue(working, jdbcTemplate, spool, 3);
+        ReflectionTestUtils.setField(queue, "lingerMs", 500L);
+
+        for (int i = 0; i < 3; i++) {
+            queue.submit(request());
+        }
+
+        verify(jdbcTemplate, timeout(3000).times(3)).update(anyString(), any(PreparedStatementSetter.class));
+        queue.stop();
+        // Batch lỗi và lần ghi từng dòng, mỗi lần một transaction; chỉ dòng lỗi bị rollback về savepoint
+        verify(working, times(2)).executeWithoutResult(any());
+        verify(status, times(3)).createSavepoint();
+        verify(status, times(2)).releaseSavepoint(any());
+        verify(status, times(1)).rollbackToSavepoint(any());
+        assertThat(Files.size(spool)).isZero();
+
+        // Chỉ hai report đã ghi được báo cho node khác (trong transaction), vào thống kê và live feed (sau commit)
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ChangeEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(changeEventBus).publishAll(events.capture());
+        assertThat(events.getValue()).extracting(ChangeEvent::id).containsExactly(1L, 3L);
+        verify(reportStatistics, times(2)).apply(isNull(), any());
+        ArgumentCaptor<ReportDTO.Response> published = ArgumentCaptor.forClass(ReportDTO.Response.class);
+        verify(reportFeedHub, times(2)).publish(eq(ReportFeedHub.REPORT_CREATED), published.capture());
+        assertThat(published.getAllValues()).extracting(ReportDTO.Response::getReportId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void spoolIsCompactedWhileReportsAreStillInFlight() throws Exception {
+        Path spool = tempDir.resolve("reports.spool");
+        JdbcTemplate jdbcTemplate = jdbc();
+        AtomicReference<ReportIngestQueue> queue = new AtomicReference<>();
+        List<List<String>> spoolAtFlush = new CopyOnWriteArrayList<>();
+        // Tải liên tục: report mới luôn tới trước khi batch trước commit, spool không bao giờ rỗng
+        doAnswer(invocation -> {
+            spoolAtFlush.add(Files.readAllLines(spool));
+            if (spoolAtFlush.size() == 1) {
+                queue.get().submit(request());
+            }
+            return null;
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyBatch(), anyInt(), anySetter());
+        queue.set(queue(working(mock(TransactionStatus.class)), jdbcTemplate, spool, 2));
+        ReflectionTestUtils.setField(queue.get(), "batchSize", 1);
+        ReflectionTestUtils.setField(queue.get(), "spoolCompactBytes", 1L);
+
+        queue.get().submit(request());
+        verify(jdbcTemplate, timeout(2000).times(2)).batchUpdate(anyString(), anyBatch(), anyInt(), anySetter());
+        queue.get().stop();
+
+        // Lần flush thứ hai chỉ còn thấy dòng ACCEPTED của report thứ hai, không còn report đầu và marker commit
+        assertThat(spoolAtFlush.get(1)).hasSize(1).allMatch(line -> line.startsWith("A"));
+        assertThat(spoolAtFlush.get(1).get(0)).isNotEqualTo(spoolAtFlush.get(0).get(0));
+        assertThat(Files.size(spool)).isZero();
+    }
+
+    private static Collection<Object> anyBatch() {
+        return any();
+    }
+
+    private static ParameterizedPreparedStatementSetter<Object> anySetter() {
+        return any();
+    }
+
+    // report_id lấy trước từ sequence: 1, 2, 3...
+    private static JdbcTemplate jdbc() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenAnswer(invocation ->
+                LongStream.rangeClosed(1, invocation.<Integer>getArgument(2)).boxed().toList());
+        return jdbcTemplate;
+    }
+
+    private TransactionTemplate working(TransactionStatus status) {
+        TransactionTemplate working = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(status);
+            return null;
+        }).when(working).executeWithoutResult(any());
+        return working;
+    }
+
+    private ReportIngestQueue queue(TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate, Path spool)
+            throws Exception {
+        return queue(transactionTemplate, jdbcTemplate, spool, 1);
+    }
+
+    private ReportIngestQueue queue(TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate, Path spool,
+            int capacity) throws Exception {
+        ReportIngestQueue queue = new ReportIngestQueue(jdbcTemplate, transactionTemplate, objectMapper,
+                mock(TileService.class), mock(IncidentClusterer.class), mock(ReportHeatmapCache.class), changeEventBus,
+                reportFeedHub, reportStatistics);
+        ReflectionTestUtils.setField(queue, "enabled", true);
+        ReflectionTestUtils.setField(queue, "batchSize", 10);
+        ReflectionTestUtils.setField(queue, "lingerMs", 20L);
+        ReflectionTestUtils.setField(queue, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(queue, "retryAfterSeconds", 3L);
+        ReflectionTestUtils.setField(queue, "spoolFile", spool.toString());
+        ReflectionTestUtils.setField(queue, "spoolCompactBytes", 1L << 20);
+        queue.start();
+        return queue;
+    }
+
+    private ReportDTO.CreateRequest request() {
+        return ReportDTO.CreateRequest.builder()
+                .eventType("FLOOD")
+                .description("Nước ngập nửa bánh xe")
+                .longitude(106.75)
+                .latitude(10.85)
+                .damageLevel(2)
+                .build();
+    }
+}
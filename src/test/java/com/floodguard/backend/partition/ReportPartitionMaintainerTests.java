@@ -0,0 +1,53 @@
+package com.floodguard.backend.partition;
+
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Không chạy lịch bảo trì nền: test gọi maintain() trực tiếp, không tranh advisory lock
+@SpringBootTest(properties = "reports.partitions.enabled=false")
+class ReportPartitionMaintainerTests extends PostgisTestSupport {
+
+    @Autowired
+    private ReportPartitionMaintainer maintainer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void maintenanceCreatesTheUpcomingMonths() {
+        assertThat(maintainer.maintain(YearMonth.now())).isTrue();
+
+        YearMonth last = YearMonth.now().plusMonths(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                "reports_p" + last.format(DateTimeFormatter.ofPattern("yyyyMM")))).isTrue();
+    }
+
+    @Test
+    void rowsOfTheMonthAreMovedOutOfTheDefaultPartition() {
+        Long reportId = jdbcTemplate.queryForObject("INSERT INTO reports (event_type, created_at, geom) " +
+                "VALUES ('FLOOD', '2010-03-15 08:00', ST_SetSRID(ST_Point(106.7, 10.8), 4326)) RETURNING report_id",
+                Long.class);
+        assertThat(countIn("reports_default", reportId)).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT reports_create_partition(?)", String.class,
+                LocalDate.of(2010, 3, 1))).isEqualTo("reports_p201003");
+
+        assertThat(countIn("reports_default", reportId)).isZero();
+        assertThat(countIn("reports_p201003", reportId)).isEqualTo(1);
+        assertThat(countIn("reports", reportId)).isEqualTo(1);
+    }
+
+    private int countIn(String table, Long reportId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE report_id = ?", Integer.class,
+                reportId);
+    }
+}
@@ -0,0 +1,55 @@
+package com.floodguard.backend.repository;
+
+import com.floodguard.backend.repository.projection.ReportView;
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ReportRepositoryAnalogTests extends PostgisTestSupport {
+
+    private static final LocalDate EXACT = LocalDate.of(2021, 10, 5);
+    private static final LocalDate LOOSE = LocalDate.of(2024, 10, 5);
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        reportRepository.deleteAllInBatch();
+        insertFlood(EXACT, "08:00");
+        insertFlood(LOOSE, "07:00");
+        insertFlood(LOOSE, "09:00");
+        insertFlood(LOOSE.minusDays(1), "09:00");
+    }
+
+    @Test
+    void reportsOfTheClosestDayComeFirstEvenWhenOlder() {
+        // EXACT khớp sát hơn LOOSE nhưng cũ hơn 3 năm: LIMIT không được cắt nó đi
+        assertThat(days(reportRepository.findFloodViewsOnDays(List.of(EXACT, LOOSE), 1))).containsExactly(EXACT);
+        assertThat(days(reportRepository.findFloodViewsOnDays(List.of(EXACT, LOOSE), 10)))
+                .containsExactly(EXACT, LOOSE, LOOSE);
+        assertThat(days(reportRepository.findFloodViewsOnDays(List.of(LOOSE, EXACT), 2)))
+                .containsExactly(LOOSE, LOOSE);
+    }
+
+    private void insertFlood(LocalDate day, String time) {
+        jdbcTemplate.update("INSERT INTO reports (event_type, created_at, geom) " +
+                "VALUES ('FLOOD', CAST(? AS timestamp), ST_SetSRID(ST_Point(106.7, 10.8), 4326))", day + " " + time);
+    }
+
+    private static List<LocalDate> days(List<ReportView> reports) {
+        return reports.stream().map(report -> report.getReportTime().toLocalDate()).toList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.floodguard.backend.service;
+
+import com.floodguard.backend.auth.GoogleTokenVerifier;
+import com.floodguard.backend.config.JwtUtil;
+import com.floodguard.backend.dto.AuthDTO;
+import com.floodguard.backend.exception.BackpressureException;
+import com.floodguard.backend.model.User;
+import com.floodguard.backend.model.UserRole;
+import com.floodguard.backend.repository.UserRepository;
+import com.floodguard.backend.service.impl.AuthServiceImpl;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthServiceGoogleLoginTests {
+
+    private GoogleTokenVerifier googleTokenVerifier;
+    private UserRepository userRepository;
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        googleTokenVerifier = mock(GoogleTokenVerifier.class);
+        userRepository = mock(UserRepository.class);
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.generateToken(anyString(), anyMap())).thenReturn("jwt");
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("app-task-");
+        authService = new AuthServiceImpl(userRepository, jwtUtil, mock(PasswordEncoder.class), googleTokenVerifier,
+                mock(PlatformTransactionManager.class), executor);
+        ReflectionTestUtils.setField(authService, "loginTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(authService, "retryAfterSeconds", 2L);
+    }
+
+    @Test
+    void userLookupRunsOnTheApplicationExecutorNotTheVerifierPool() throws Exception {
+        when(googleTokenVerifier.verify("token")).thenReturn(CompletableFuture.completedFuture(payload()));
+        AtomicReference<String> lookupThread = new AtomicReference<>();
+        when(userRepository.findByUsername("user@gmail.com")).thenAnswer(invocation -> {
+            lookupThread.set(Thread.currentThread().getName());
+            return Optional.of(User.builder().userId(7L).username("user@gmail.com").fullName("User")
+                    .role(UserRole.RESIDENT).build());
+        });
+
+        AuthDTO.AuthResponse response = authService.loginWithGoogle(request()).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getAccessToken()).isEqualTo("jwt");
+        assertThat(response.getUser().getUserId()).isEqualTo(7L);
+        assertThat(lookupThread.get()).startsWith("app-task-");
+    }
+
+    @Test
+    void slowLoginFailsWithRetryAfter() {
+        when(googleTokenVerifier.verify("token")).thenReturn(new CompletableFuture<>());
+
+        Throwable error = catchThrowable(() -> authService.loginWithGoogle(request()).get(5, TimeUnit.SECONDS));
+
+        assertThat(error).isInstanceOf(ExecutionException.class);
+        assertThat(error.getCause()).isInstanceOf(BackpressureException.class)
+                .hasMessageContaining("timed out");
+    }
+
+    private static AuthDTO.GoogleLoginRequest request() {
+        AuthDTO.GoogleLoginRequest request = new AuthDTO.GoogleLoginRequest();
+        request.setIdToken("token");
+        return request;
+    }
+
+    private static GoogleIdToken.Payload payload() {
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload();
+        payload.setEmail("user@gmail.com");
+        payload.set("name", "User");
+        return payload;
+    }
+}
@@ -0,0 +1,150 @@
+package com.floodguard.backend.service;
+
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.model.Report;
+import com.floodguard.backend.repository.ReportRepository;
+import com.floodguard.backend.support.PostgisTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ReportBulkServiceTests extends PostgisTestSupport {
+
+    private static final String HEADER = "event_type,damage_level,created_at,lon,lat\n";
+
+    @Autowired
+    private ReportBulkService reportBulkService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @BeforeEach
+    void clean() {
+        reportRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void validCsvIsImported() {
+        assertThat(reportBulkService.importCsv(csv(HEADER
+                + "FLOOD,3,2024-10-01 08:00:00,106.7,10.8\n"
+                + "TIDE,,,106.71,10.81\n")).getRowsImported()).isEqualTo(2);
+        assertThat(reportRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void fileWithAnInvalidRowIsRejectedAsAWhole() {
+        assertRejected(HEADER + "FLOOD,3,,106.7,10.8\nTSUNAMI,1,,106.7,10.8\n", "row 2: invalid event_type");
+        assertRejected(HEADER + "FLOOD,9,,106.7,10.8\n", "row 1: damage_level must be between 0 and 5");
+        assertRejected(HEADER + "FLOOD,1,,206.7,10.8\n", "row 1: coordinates out of range");
+        assertRejected(HEADER + "FLOOD,1," + LocalDateTime.now().plusDays(1) + ",106.7,10.8\n",
+                "row 1: created_at is in the future");
+        assertRejected(HEADER + "FLOOD,1,1970-01-01 00:00:00,106.7,10.8\n", "row 1: created_at is too old");
+        assertThat(reportRepository.count()).isZero();
+    }
+
+    @Test
+    void ndjsonRowsAreValidatedLikeCsv() {
+        byte[] ndjson = ("{\"eventType\":\"FLOOD\",\"longitude\":106.7,\"latitude\":10.8}\n"
+                + "{\"eventType\":\"FLOOD\",\"damageLevel\":-1,\"longitude\":106.7,\"latitude\":10.8}\n")
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> reportBulkService.importNdjson(new ByteArrayInputStream(ndjson)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1 invalid rows, first at row 2");
+        assertThat(reportRepository.count()).isZero();
+    }
+
+    @Test
+    void bulkVerifyUpdatesMatchingReportsAndReportsConflicts() {
+        reportBulkService.importCsv(csv(HEADER
+                + "FLOOD,3,,106.7,10.8\n"
+                + "FLOOD,2,,106.71,10.81\n"
+                + "TIDE,1,,106.72,10.82\n"));
+        Map<String, List<Long>> ids = reportRepository.findAll().stream().collect(Collectors.groupingBy(
+                Report::getEventType, Collectors.mapping(Report::getReportId, Collectors.toList())));
+
+        ReportDTO.BulkVerifyResponse byFilter = reportBulkService.verify(ReportDTO.BulkVerifyRequest.builder()
+                .verifyStatus("VERIFIED").eventType("FLOOD").build());
+        assertThat(byFilter.getUpdated()).extracting(ReportDTO.Response::getReportId)
+                .containsExactlyInAnyOrderElementsOf(ids.get("FLOOD"));
+        assertThat(byFilter.getUpdated()).extracting(ReportDTO.Response::getVersion).containsOnly(1);
+        assertThat(byFilter.isHasMore()).isFalse();
+
+        Long flood = ids.get("FLOOD").get(0);
+        Long tide = ids.get("TIDE").get(0);
+        ReportDTO.BulkVerifyResponse byIds = reportBulkService.verify(ReportDTO.BulkVerifyRequest.builder()
+                .verifyStatus("REJECTED")
+                .reports(List.of(target(flood, 0), target(tide, 0), target(Long.MAX_VALUE, null)))
+                .build());
+        assertThat(byIds.getUpdated()).extracting(ReportDTO.Response::getReportId).containsExactly(tide);
+        assertThat(byIds.getConflicts()).singleElement().satisfies(conflict -> {
+            assertThat(conflict.getReportId()).isEqualTo(flood);
+            assertThat(conflict.getCurrentStatus()).isEqualTo("VERIFIED");
+            assertThat(conflict.getCurrentVersion()).isEqualTo(1);
+        });
+        assertThat(byIds.getNotFound()).containsExactly(Long.MAX_VALUE);
+    }
+
+    @Test
+    void singleVerifyReturnsTheNewVersion() {
+        ReportDTO.Response created = reportService.create(ReportDTO.CreateRequest.builder()
+                .eventType("FLOOD").longitude(106.7).latitude(10.8).build());
+
+        ReportDTO.Response verified = reportService.verify(created.getReportId(),
+                ReportDTO.VerifyRequest.builder().verifyStatus("VERIFIED").version(created.getVersion()).build());
+
+        assertThat(verified.getVersion()).isEqualTo(created.getVersion() + 1);
+        assertThat(reportRepository.findById(created.getReportId()).orElseThrow().getVersion())
+                .isEqualTo(verified.getVersion());
+    }
+
+    @Test
+    void updateReturnsTheVersionThatVerifyAccepts() {
+        ReportDTO.Response created = reportService.create(ReportDTO.CreateRequest.builder()
+                .eventType("FLOOD").longitude(106.7).latitude(10.8).build());
+
+        ReportDTO.Response updated = reportService.update(created.getReportId(),
+                ReportDTO.UpdateRequest.builder().description("nước lên nhanh").build());
+        assertThat(updated.getVersion()).isEqualTo(created.getVersion() + 1);
+
+        ReportDTO.Response verified = reportService.verify(created.getReportId(),
+                ReportDTO.VerifyRequest.builder().verifyStatus("VERIFIED").version(updated.getVersion()).build());
+        assertThat(verified.getVersion()).isEqualTo(updated.getVersion() + 1);
+
+        ReportDTO.BulkVerifyResponse bulk = reportBulkService.verify(ReportDTO.BulkVerifyRequest.builder()
+                .verifyStatus("REJECTED").reports(List.of(target(created.getReportId(), verified.getVersion())))
+                .build());
+        assertThat(bulk.getConflicts()).isEmpty();
+        assertThat(bulk.getUpdated()).extracting(ReportDTO.Response::getVersion)
+                .containsExactly(verified.getVersion() + 1);
+    }
+
+    private void assertRejected(String content, String problem) {
+        assertThatThrownBy(() -> reportBulkService.importCsv(csv(content)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(problem);
+    }
+
+    private static ReportDTO.BulkVerifyTarget target(Long reportId, Integer version) {
+        return ReportDTO.BulkVerifyTarget.builder().reportId(reportId).version(version).build();
+    }
+
+    private static ByteArrayInputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
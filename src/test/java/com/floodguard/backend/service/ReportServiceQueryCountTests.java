@@ -0,0 +1,85 @@
+package com.floodguard.backend.service;
+
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.model.User;
+import com.floodguard.backend.repository.ReportRepository;
+import com.floodguard.backend.repository.UserRepository;
+import com.floodguard.backend.support.PostgisTestSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReportServiceQueryCountTests extends PostgisTestSupport {
+
+    private static final int REPORTS = 5;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        reportRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        for (int i = 0; i < REPORTS; i++) {
+            User user = userRepository.save(User.builder()
+                    .username("user" + i)
+                    .fullName("User " + i)
+                    .build());
+            reportService.create(ReportDTO.CreateRequest.builder()
+                    .userId(user.getUserId())
+                    .eventType("FLOOD")
+                    .longitude(106.75 + i * 0.0001)
+                    .latitude(10.85)
+                    .build());
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listCallsIssueOneStatementRegardlessOfRowCount() {
+        assertOneStatement(() -> reportService.getAll());
+        assertOneStatement(() -> reportService.getByEventType("FLOOD"));
+        assertOneStatement(() -> reportService.getPendingReports());
+        assertOneStatement(() -> reportService.getByTimeRange(
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1)));
+        assertOneStatement(() -> reportService.findWithinRadius(106.75, 10.85, 1000));
+        assertOneStatement(() -> reportService.getPage(null, REPORTS).getItems());
+    }
+
+    private void assertOneStatement(Supplier<List<ReportDTO.Response>> call) {
+        statistics.clear();
+
+        List<ReportDTO.Response> responses = call.get();
+
+        assertThat(responses).hasSize(REPORTS);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getUserFullName()).startsWith("User ");
+            assertThat(response.getLongitude()).isNotNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,198 @@
+package com.floodguard.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floodguard.backend.dto.ReportDTO;
+import com.floodguard.backend.event.ChangeEvent;
+import com.floodguard.backend.event.ChangeEventBus;
+import com.floodguard.backend.feed.ReportFeedHub;
+import com.floodguard.backend.model.ReportStatus;
+import com.floodguard.backend.service.TileService;
+import com.floodguard.backend.stats.ReportHeatmapCache;
+import com.floodguard.backend.stats.ReportStatistics;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ReportBulkServiceImplTests {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 10, 1, 8, 0);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TileService tileService = mock(TileService.class);
+    private final ChangeEventBus changeEventBus = mock(ChangeEventBus.class);
+    private final ReportStatistics reportStatistics = mock(ReportStatistics.class);
+    private final ReportFeedHub reportFeedHub = mock(ReportFeedHub.class);
+    private final ReportBulkServiceImpl service = new ReportBulkServiceImpl(jdbcTemplate, new ObjectMapper(),
+            tileService, changeEventBus, reportStatistics, reportFeedHub, mock(ReportHeatmapCache.class));
+
+    @Test
+    void requiresEitherIdsOrAFilter() {
+        assertThatThrownBy(() -> service.verify(ReportDTO.BulkVerifyRequest.builder()
+                .verifyStatus("VERIFIED").build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not both");
+        assertThatThrownBy(() -> service.verify(ReportDTO.BulkVerifyRequest.builder()
+                .verifyStatus("VERIFIED").reports(List.of(target(1L, 0))).eventType("FLOOD").build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not both");
+        assertThatThrownBy(() -> service.verify(ReportDTO.BulkVerifyRequest.builder()
+                .verifyStatus("VERIFIED").minLongitude(106.0).maxLongitude(107.0).build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Bbox requires");
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void verifiesByIdsAndReportsConflictsAndMissingIds() {
+        AtomicReference<String> sql = new AtomicReference<>();
+        List<Object> params = new ArrayList<>();
+        returnRows(sql, params, List.of(
+                applied(10L, 6),
+                Map.of("report_id", 11L, "applied", false, "previous_status", "REJECTED", "previous_version", 4,
+                        "previous_verified_by", 7L)));
+
+        ReportDTO.BulkVerifyResponse response = service.verify(ReportDTO.BulkVerifyRequest.builder()
+                .verifyStatus("verified")
+                .adminNote("ok")
+                // Id trùng: version gửi sau cùng được dùng
+                .reports(List.of(target(10L, 1), target(11L, 3), target(12L, null), target(10L, 5)))
+                .build());
+
+        assertThat(sql.get()).contains("t.version AS expected_version").contains("unnest(");
+        assertThat(params.get(0)).isEqualTo(new Long[]{10L, 11L, 12L});
+        assertThat(params.get(1)).isEqualTo(new Integer[]{5, 3, null});
+        assertThat(params.subList(2, 5)).containsExactly(3, "VERIFIED", null);
+        assertThat(params.get(5)).isInstanceOf(Timestamp.class);
+        // Danh sách id: không ràng buộc trạng thái hiện tại
+        assertThat(params.subList(6, params.size())).containsExactly("ok", null, null);
+
+        assertThat(response.getUpdatedCount()).isEqualTo(1);
+        assertThat(response.getUpdated().get(0).getVersion()).isEqualTo(6);
+        assertThat(response.getConflicts()).singleElement().satisfies(conflict -> {
+            assertThat(conflict.getReportId()).isEqualTo(11L);
+            assertThat(conflict.getCurrentStatus()).isEqualTo("REJECTED");
+            assertThat(conflict.getCurrentVersion()).isEqualTo(4);
+            assertThat(conflict.getVerifiedBy()).isEqualTo(7L);
+        });
+        assertThat(response.getNotFound()).containsExactly(12L);
+        assertThat(response.isHasMore()).isFalse();
+        verify(reportStatistics).apply(
+                new ReportStatistics.Snapshot("Q1", "FLOOD", ReportStatus.UNVERIFIED, CREATED_AT),
+                new ReportStatistics.Snapshot("Q1", "FLOOD", ReportStatus.VERIFIED, CREATED_AT));
+        ArgumentCaptor<ChangeEvent> event = ArgumentCaptor.forClass(ChangeEvent.class);
+        verify(changeEventBus).publish(event.capture());
+        assertThat(event.getValue().id()).isEqualTo(10L);
+    }
+
+    @Test
+    void filterBindsItsParametersBeforeTheLimit() {
+        AtomicReference<String> sql = new AtomicReference<>();
+        List<Object> params = new ArrayList<>();
+        returnRows(sql, params, List.of(applied(10L, 1)));
+        LocalDateTime from = LocalDateTime.of(2024, 10, 1, 0, 0);
+
+        ReportDTO.BulkVerifyResponse response = service.verify(ReportDTO.BulkVerifyRequest.builder()
+                .verifyStatus("VERIFIED")
+                .minLongitude(106.6).minLatitude(10.7).maxLongitude(106.9).maxLatitude(10.9)
+                .from(from).to(from.plusDays(1))
+                .incidentId(42L)
+                .eventType("FLOOD")
+                .build());
+
+        assertThat(sql.get()).contains("CAST(NULL AS int) AS expected_version")
+                .contains("WHERE r.status = CAST(? AS report_status) AND r.geom && ST_MakeEnvelope(?, ?, ?, ?, 4326) "
+                        + "AND r.created_at >= ? AND r.created_at < ? AND r.incident_id = ? AND r.event_type = ? ");
+        // Bộ lọc mặc định chỉ lấy report UNVERIFIED
+        assertThat(params.subList(0, 12)).containsExactly("UNVERIFIED", 106.6, 10.7, 106.9, 10.9,
+                Timestamp.valueOf(from), Timestamp.valueOf(from.plusDays(1)), 42L, "FLOOD",
+                ReportBulkServiceImpl.MAX_VERIFY_ROWS, "VERIFIED", null);
+        assertThat(params.subList(13, params.size())).containsExactly(null, "UNVERIFIED", "UNVERIFIED");
+        assertThat(response.getNotFound()).isEmpty();
+        assertThat(response.isHasMore()).isFalse();
+    }
+
+    @Test
+    void filterFillingTheLimitHasMoreAndPublishesOneBulkEvent() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (long id = 1; id <= ReportBulkServiceImpl.MAX_VERIFY_ROWS; id++) {
+            rows.add(applied(id, 1));
+        }
+        returnRows(new AtomicReference<>(), new ArrayList<>(), rows);
+
+        ReportDTO.BulkVerifyResponse response = service.verify(ReportDTO.BulkVerifyRequest.builder()
+                .verifyStatus("VERIFIED").eventType("FLOOD").build());
+
+        assertThat(response.getUpdatedCount()).isEqualTo(ReportBulkServiceImpl.MAX_VERIFY_ROWS);
+        assertThat(response.isHasMore()).isTrue();
+        ArgumentCaptor<ChangeEvent> event = ArgumentCaptor.forClass(ChangeEvent.class);
+        verify(changeEventBus).publish(event.capture());
+        assertThat(event.getValue().id()).isNull();
+        verify(tileService).invalidateLayer(TileService.LAYER_REPORTS);
+        verify(tileService, never()).invalidatePoint(anyString(), anyDouble(), anyDouble());
+        verify(reportFeedHub, times(ReportBulkServiceImpl.MAX_VERIFY_ROWS))
+                .publish(eq(ReportFeedHub.REPORT_VERIFIED), any());
+    }
+
+    // Trả các dòng cho VERIFY_SQL, ghi lại câu lệnh và tham số đã bind
+    private void returnRows(AtomicReference<String> sql, List<Object> params, List<Map<String, Object>> rows) {
+        doAnswer(invocation -> {
+            Object[] arguments = invocation.getArguments();
+            sql.set(invocation.getArgument(0));
+            params.addAll(Arrays.asList(arguments).subList(2, arguments.length));
+            AtomicReference<Map<String, Object>> current = new AtomicReference<>();
+            // Proxy thay cho mock: tới MAX_VERIFY_ROWS dòng, mỗi dòng hơn chục getter
+            ResultSet rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        Object value = current.get().get((String) args[0]);
+                        return switch (method.getName()) {
+                            case "getLong" -> value != null ? ((Number) value).longValue() : 0L;
+                            case "getInt" -> value != null ? ((Number) value).intValue() : 0;
+                            case "getBoolean" -> Boolean.TRUE.equals(value);
+                            default -> value;
+                        };
+                    });
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map<String, Object> row : rows) {
+                current.set(row);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private static Map<String, Object> applied(long reportId, int version) {
+        return Map.ofEntries(Map.entry("report_id", reportId), Map.entry("applied", true),
+                Map.entry("previous_status", "UNVERIFIED"), Map.entry("previous_version", version - 1),
+                Map.entry("version", version), Map.entry("longitude", 106.75), Map.entry("latitude", 10.85),
+                Map.entry("management_area_code", "Q1"), Map.entry("event_type", "FLOOD"),
+                Map.entry("created_at", Timestamp.valueOf(CREATED_AT)));
+    }
+
+    private static ReportDTO.BulkVerifyTarget target(Long reportId, Integer version) {
+        return ReportDTO.BulkVerifyTarget.builder().reportId(reportId).version(version).build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.floodguard.backend.spatial;
+
+import com.floodguard.backend.model.HistoricalData;
+import com.floodguard.backend.repository.HistoricalDataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HistoricalDataSpatialIndexTests {
+
+    private HistoricalDataSpatialIndex index;
+
+    @BeforeEach
+    void setUp() throws ParseException {
+        HistoricalDataRepository repository = mock(HistoricalDataRepository.class);
+        when(repository.findAll()).thenReturn(List.of(
+                history(1L, 2020, "POLYGON((106.70 10.80, 106.80 10.80, 106.80 10.90, 106.70 10.90, 106.70 10.80))"),
+                history(2L, 2022, "POLYGON((106.75 10.85, 106.85 10.85, 106.85 10.95, 106.75 10.95, 106.75 10.85))"),
+                // Hình chữ L: envelope chứa (106.95, 10.95) nhưng polygon thì không
+                history(3L, 2023, "POLYGON((106.90 10.90, 107.00 10.90, 107.00 10.92, 106.92 10.92, " +
+                        "106.92 11.00, 106.90 11.00, 106.90 10.90))")));
+        index = new HistoricalDataSpatialIndex(repository);
+        index.load();
+    }
+
+    @Test
+    void pointQueryIncludesBoundaryAndRejectsEnvelopeOnlyHits() {
+        assertThat(ids(index.findContainingPoint(106.72, 10.82))).containsExactly(1L);
+        assertThat(ids(index.findContainingPoint(106.78, 10.88))).containsExactly(1L, 2L);
+        assertThat(ids(index.findContainingPoint(106.80, 10.86))).containsExactly(1L, 2L);
+        assertThat(index.findContainingPoint(106.95, 10.95)).isEmpty();
+        assertThat(index.findContainingPoint(106.72, 10.82).get(0).wkt()).startsWith("POLYGON ((106.7 10.8");
+    }
+
+    @Test
+    void boundingBoxAndIncrementalUpdates() throws ParseException {
+        assertThat(ids(index.findInBoundingBox(106.94, 10.94, 106.99, 10.99))).isEmpty();
+        assertThat(ids(index.findInBoundingBox(106.79, 10.79, 106.91, 10.91))).containsExactly(1L, 2L, 3L);
+
+        index.remove(1L);
+        index.put(history(2L, 2024, "POLYGON((106.71 10.81, 106.73 10.81, 106.73 10.83, 106.71 10.83, 106.71 10.81))"));
+
+        assertThat(ids(index.findContainingPoint(106.72, 10.82))).containsExactly(2L);
+        assertThat(index.findContainingPoint(106.78, 10.88)).isEmpty();
+    }
+
+    private static HistoricalData history(Long id, int year, String wkt) throws ParseException {
+        Polygon polygon = (Polygon) new WKTReader().read(wkt);
+        polygon.setSRID(4326);
+        return HistoricalData.builder().historyId(id).year(year).referenceGeom(polygon).build();
+    }
+
+    private static List<Long> ids(List<HistoricalDataSpatialIndex.Entry> entries) {
+        return entries.stream().map(entry -> entry.data().getHistoryId()).toList();
+    }
+}
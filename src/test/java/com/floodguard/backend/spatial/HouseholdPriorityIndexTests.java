@@ -0,0 +1,126 @@
+package com.floodguard.backend.spatial;
+
+import com.floodguard.backend.model.Household;
+import com.floodguard.backend.repository.HouseholdRepository;
+import com.floodguard.backend.util.GeoUtil;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HouseholdPriorityIndexTests {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @Test
+    void packKeepsFlagsFloorsPeopleAndScore() {
+        Household household = household(1L, 106.75, 10.85, true, false, true, false, 1, 5);
+        HouseholdPriorityIndex.Candidate candidate =
+                new HouseholdPriorityIndex.Candidate(1L, "a", HouseholdPriorityIndex.pack(household), 0);
+
+        assertThat(candidate.has(HouseholdPriorityIndex.Vulnerability.ELDERLY)).isTrue();
+        assertThat(candidate.has(HouseholdPriorityIndex.Vulnerability.SICK)).isTrue();
+        assertThat(candidate.has(HouseholdPriorityIndex.Vulnerability.CHILDREN)).isFalse();
+        assertThat(candidate.numFloors()).isEqualTo(1);
+        assertThat(candidate.numPeople()).isEqualTo(5);
+        // sick 10 + elderly 8 + 1 tầng 4 + 5 người 2
+        assertThat(candidate.score()).isEqualTo(24);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomHouseholds() {
+        Random random = new Random(7);
+        List<Household> all = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            all.add(household(id, 106.74 + random.nextDouble() * 0.02, 10.84 + random.nextDouble() * 0.02,
+                    random.nextInt(4) == 0, random.nextInt(3) == 0, random.nextInt(6) == 0, random.nextInt(10) == 0,
+                    random.nextInt(5) == 0 ? null : 1 + random.nextInt(4), 1 + random.nextInt(8)));
+        }
+        HouseholdPriorityIndex index = loaded(all);
+        int mask = HouseholdPriorityIndex.Vulnerability.mask(
+                EnumSet.of(HouseholdPriorityIndex.Vulnerability.ELDERLY, HouseholdPriorityIndex.Vulnerability.SICK));
+
+        for (int i = 0; i < 20; i++) {
+            double lon = 106.74 + random.nextDouble() * 0.02;
+            double lat = 10.84 + random.nextDouble() * 0.02;
+            double radius = 100 + random.nextDouble() * 900;
+            Integer maxFloors = i % 2 == 0 ? null : 2;
+
+            List<HouseholdPriorityIndex.Candidate> expected = new ArrayList<>();
+            for (Household household : all) {
+                int packed = HouseholdPriorityIndex.pack(household);
+                double distance = GeoUtil.distanceMeters(lon, lat, household.getGeom().getX(), household.getGeom().getY());
+                HouseholdPriorityIndex.Candidate candidate =
+                        new HouseholdPriorityIndex.Candidate(household.getHouseholdId(), null, packed, distance);
+                if (distance <= radius && (packed & mask) != 0
+                        && (maxFloors == null || candidate.numFloors() == null || candidate.numFloors() <= maxFloors)) {
+                    expected.add(candidate);
+                }
+            }
+            HouseholdPriorityIndex.Result brute = HouseholdPriorityIndex.rank(expected, 50);
+            HouseholdPriorityIndex.Result actual = index.findRescuePriority(lon, lat, radius, mask, maxFloors, 50);
+
+            assertThat(actual.totalMatched()).isEqualTo(brute.totalMatched());
+            assertThat(ids(actual)).isEqualTo(ids(brute));
+        }
+    }
+
+    @Test
+    void ranksByScoreThenDistanceAndReflectsUpdates() {
+        HouseholdPriorityIndex index = loaded(List.of(
+                household(1L, 106.7500, 10.8500, true, false, false, false, 3, 2),    // điểm 9
+                household(2L, 106.7510, 10.8500, false, false, true, false, 1, 2),    // điểm 15, ~109 m
+                household(3L, 106.7505, 10.8500, false, false, true, false, 1, 2),    // điểm 15, ~55 m
+                household(4L, 106.7500, 10.8510, false, true, false, false, 2, 2))); // chỉ có trẻ em
+        int elderlyOrSick = HouseholdPriorityIndex.Vulnerability.mask(
+                EnumSet.of(HouseholdPriorityIndex.Vulnerability.ELDERLY, HouseholdPriorityIndex.Vulnerability.SICK));
+
+        assertThat(ids(index.findRescuePriority(106.75, 10.85, 200, elderlyOrSick, null, 10)))
+                .containsExactly(3L, 2L, 1L);
+        assertThat(ids(index.findRescuePriority(106.75, 10.85, 200, elderlyOrSick, 2, 10)))
+                .containsExactly(3L, 2L);
+
+        index.remove(3L);
+        index.put(household(5L, 106.7501, 10.8500, true, false, true, false, null, 6));
+
+        HouseholdPriorityIndex.Result result = index.findRescuePriority(106.75, 10.85, 200, elderlyOrSick, null, 2);
+        assertThat(ids(result)).containsExactly(5L, 2L);
+        assertThat(result.totalMatched()).isEqualTo(3);
+    }
+
+    private HouseholdPriorityIndex loaded(List<Household> households) {
+        HouseholdRepository repository = mock(HouseholdRepository.class);
+        when(repository.findAll()).thenReturn(households);
+        HouseholdPriorityIndex index = new HouseholdPriorityIndex(repository);
+        index.load();
+        return index;
+    }
+
+    private Household household(Long id, double longitude, double latitude, boolean elderly, boolean children,
+                                boolean sick, boolean pregnant, Integer floors, int people) {
+        return Household.builder()
+                .householdId(id)
+                .address("Hộ " + id)
+                .hasElderly(elderly)
+                .hasChildren(children)
+                .hasSickPerson(sick)
+                .hasPregnant(pregnant)
+                .numFloors(floors)
+                .numPeople(people)
+                .geom(geometryFactory.createPoint(new Coordinate(longitude, latitude)))
+                .build();
+    }
+
+    private static List<Long> ids(HouseholdPriorityIndex.Result result) {
+        return result.candidates().stream().map(HouseholdPriorityIndex.Candidate::householdId).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package com.floodguard.backend.spatial;
+
+import com.floodguard.backend.model.Location;
+import com.floodguard.backend.repository.LocationRepository;
+import com.floodguard.backend.util.GeoUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocationSpatialIndexTests {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+    private LocationSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        LocationRepository repository = mock(LocationRepository.class);
+        when(repository.findAll()).thenReturn(List.of(
+                location(1L, 106.7500, 10.8500),
+                location(2L, 106.7510, 10.8500),   // ~109 m east
+                location(3L, 106.7600, 10.8500),   // ~1.09 km east
+                location(4L, 106.7500, 10.8600))); // ~1.1 km north
+        index = new LocationSpatialIndex(repository);
+        index.load();
+    }
+
+    @Test
+    void vincentyMatchesKnownGeodesicDistance() {
+        // 1 degree of latitude at the equator on WGS84
+        assertThat(GeoUtil.distanceMeters(0, 0, 0, 1)).isCloseTo(110574.39, within(0.01));
+    }
+
+    @Test
+    void radiusQueryRefinesEnvelopeWithGeodesicDistance() {
+        assertThat(ids(index.findWithinRadius(106.75, 10.85, 200))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.findWithinRadius(106.75, 10.85, 1200))).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void boundingBoxIncludesBoundaryPoints() {
+        assertThat(ids(index.findInBoundingBox(106.75, 10.85, 106.751, 10.85))).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void nearestIsOrderedAndReflectsIncrementalUpdates() {
+        assertThat(ids(index.findNearest(106.7599, 10.85, 2))).containsExactly(3L, 2L);
+
+        index.remove(3L);
+        index.put(location(5L, 106.7598, 10.8501));
+
+        assertThat(ids(index.findNearest(106.7599, 10.85, 2))).containsExactly(5L, 2L);
+        assertThat(index.findNearest(106.7599, 10.85, 10)).hasSize(4);
+    }
+
+    @Test
+    void writesBeyondTheOverlayRebuildTheTree() {
+        for (long id = 10; id < 10 + OverlayTree.MAX_PENDING + 50; id++) {
+            index.put(location(id, 106.80 + id * 1e-5, 10.90));
+        }
+        index.remove(10L);
+        index.put(location(11L, 106.7501, 10.8500));
+
+        assertThat(ids(index.findWithinRadius(106.75, 10.85, 200))).containsExactlyInAnyOrder(1L, 2L, 11L);
+        assertThat(index.findInBoundingBox(106.79, 10.89, 106.82, 10.91)).hasSize(OverlayTree.MAX_PENDING + 48);
+        assertThat(ids(index.findNearest(106.7501, 10.85, 2))).containsExactly(11L, 1L);
+    }
+
+    @Test
+    void writeCommittedDuringLoadIsNotLost() throws InterruptedException {
+        LocationRepository repository = mock(LocationRepository.class);
+        LocationSpatialIndex loading = new LocationSpatialIndex(repository);
+        Thread writer = new Thread(() -> loading.put(location(9L, 106.7500, 10.8500)));
+        // Commit xảy ra sau khi findAll đã đọc: put của nó phải còn sau khi nạp xong
+        when(repository.findAll()).thenAnswer(invocation -> {
+            writer.start();
+            return List.of(location(1L, 106.7510, 10.8500));
+        });
+
+        loading.load();
+        writer.join();
+
+        assertThat(ids(loading.findNearest(106.75, 10.85, 5))).containsExactly(9L, 1L);
+    }
+
+    private Location location(Long id, double longitude, double latitude) {
+        return Location.builder()
+                .locationId(id)
+                .geom(geometryFactory.createPoint(new Coordinate(longitude, latitude)))
+                .build();
+    }
+
+    private static List<Long> ids(List<Location> locations) {
+        return locations.stream().map(Location::getLocationId).toList();
+    }
+}
@@ -0,0 +1,122 @@
+package com.floodguard.backend.spatial;
+
+import com.floodguard.backend.model.MedicalResource;
+import com.floodguard.backend.repository.MedicalResourceRepository;
+import com.floodguard.backend.util.GeoUtil;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MedicalResourceIndexTests {
+
+    private static final String[] SPECIALIZATIONS = {"Cấp cứu", "Nhi khoa", "Sản khoa", "Chấn thương"};
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @Test
+    void matchesBruteForceOnRandomResources() {
+        Random random = new Random(11);
+        List<MedicalResource> all = new ArrayList<>();
+        for (long id = 1; id <= 3_000; id++) {
+            all.add(resource(id, 106.6 + random.nextDouble() * 0.3, 10.7 + random.nextDouble() * 0.2,
+                    SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)], random.nextInt(5) != 0));
+        }
+        MedicalResourceIndex index = loaded(all);
+
+        for (int i = 0; i < 40; i++) {
+            // Một phần điểm truy vấn nằm ngoài vùng có resource
+            double lon = 106.5 + random.nextDouble() * 0.5;
+            double lat = 10.6 + random.nextDouble() * 0.4;
+            String specialization = i % 3 == 0 ? null : SPECIALIZATIONS[i % SPECIALIZATIONS.length].toUpperCase();
+            int k = 1 + random.nextInt(10);
+            double maxDistance = i % 4 == 0 ? 2_000 : Double.POSITIVE_INFINITY;
+
+            List<Long> expected = all.stream()
+                    .filter(resource -> resource.getIsActive())
+                    .filter(resource -> specialization == null
+                            || resource.getSpecialization().equalsIgnoreCase(specialization))
+                    .filter(resource -> distance(lon, lat, resource) <= maxDistance)
+                    .sorted(Comparator.<MedicalResource>comparingDouble(resource -> distance(lon, lat, resource))
+                            .thenComparing(MedicalResource::getResourceId))
+                    .limit(k)
+                    .map(MedicalResource::getResourceId)
+                    .toList();
+
+            assertThat(ids(index.findNearest(specialization, lon, lat, k, maxDistance))).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void reflectsAvailabilityChanges() {
+        MedicalResourceIndex index = loaded(List.of(
+                resource(1L, 106.7500, 10.8500, "Cấp cứu", true),
+                resource(2L, 106.7510, 10.8500, "Cấp cứu", true),     // ~109 m
+                resource(3L, 106.7505, 10.8500, "Nhi khoa", true),    // ~55 m
+                resource(4L, 106.7502, 10.8500, "Cấp cứu", false)));  // ~22 m, không hoạt động
+
+        assertThat(ids(index.findNearest(" cấp cứu ", 106.75, 10.85, 5, Double.POSITIVE_INFINITY)))
+                .containsExactly(1L, 2L);
+        assertThat(ids(index.findNearest(null, 106.75, 10.85, 3, Double.POSITIVE_INFINITY)))
+                .containsExactly(1L, 3L, 2L);
+
+        index.put(resource(4L, 106.7502, 10.8500, "Cấp cứu", true));
+        index.put(resource(1L, 106.7500, 10.8500, "Cấp cứu", false));
+        assertThat(ids(index.findNearest("Cấp cứu", 106.75, 10.85, 5, Double.POSITIVE_INFINITY)))
+                .containsExactly(4L, 2L);
+
+        // Đổi chuyên khoa: rời grid cũ, vào grid mới
+        index.put(resource(2L, 106.7510, 10.8500, "Nhi khoa", true));
+        index.remove(3L);
+        assertThat(ids(index.findNearest("Cấp cứu", 106.75, 10.85, 5, Double.POSITIVE_INFINITY)))
+                .containsExactly(4L);
+        assertThat(ids(index.findNearest("Nhi khoa", 106.75, 10.85, 5, 100))).isEmpty();
+        assertThat(ids(index.findNearest("Sản khoa", 106.75, 10.85, 5, Double.POSITIVE_INFINITY))).isEmpty();
+    }
+
+    @Test
+    void queryBeforeLoadReturnsNothing() {
+        MedicalResourceIndex index = new MedicalResourceIndex(mock(MedicalResourceRepository.class));
+        index.put(resource(1L, 106.7500, 10.8500, "Cấp cứu", true));
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.findNearest(null, 106.75, 10.85, 5, Double.POSITIVE_INFINITY)).isEmpty();
+    }
+
+    private MedicalResourceIndex loaded(List<MedicalResource> resources) {
+        MedicalResourceRepository repository = mock(MedicalResourceRepository.class);
+        when(repository.findAll()).thenReturn(resources);
+        MedicalResourceIndex index = new MedicalResourceIndex(repository);
+        index.load();
+        return index;
+    }
+
+    private MedicalResource resource(Long id, double longitude, double latitude, String specialization,
+                                     boolean active) {
+        return MedicalResource.builder()
+                .resourceId(id)
+                .name("Trạm " + id)
+                .type("STATION")
+                .specialization(specialization)
+                .isActive(active)
+                .geom(geometryFactory.createPoint(new Coordinate(longitude, latitude)))
+                .build();
+    }
+
+    private static double distance(double lon, double lat, MedicalResource resource) {
+        return GeoUtil.distanceMeters(lon, lat, resource.getGeom().getX(), resource.getGeom().getY());
+    }
+
+    private static List<Long> ids(List<MedicalResourceIndex.Nearest> nearest) {
+        return nearest.stream().map(MedicalResourceIndex.Nearest::resourceId).toList();
+    }
+}
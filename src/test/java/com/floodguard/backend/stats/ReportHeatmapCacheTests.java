@@ -0,0 +1,39 @@
+package com.floodguard.backend.stats;
+
+import com.floodguard.backend.dto.ReportDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportHeatmapCacheTests {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void writeInvalidatesOnlyGridsContainingThePoint() {
+        ReportHeatmapCache cache = new ReportHeatmapCache();
+        AtomicInteger loads = new AtomicInteger();
+        ReportHeatmapCache.Key hcm = key(106.6, 10.7, 106.9, 10.9);
+        ReportHeatmapCache.Key hanoi = key(105.7, 20.9, 106.0, 21.1);
+
+        cache.getOrLoad(hcm, key -> load(loads));
+        cache.getOrLoad(hanoi, key -> load(loads));
+        cache.invalidatePoint(106.75, 10.85);
+        cache.getOrLoad(hcm, key -> load(loads));
+        cache.getOrLoad(hanoi, key -> load(loads));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    private static ReportHeatmapCache.Key key(double minLon, double minLat, double maxLon, double maxLat) {
+        return new ReportHeatmapCache.Key(0.01, minLon, minLat, maxLon, maxLat, FROM, FROM.plusDays(1), null);
+    }
+
+    private static ReportDTO.HeatmapResponse load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return ReportDTO.HeatmapResponse.builder().build();
+    }
+}
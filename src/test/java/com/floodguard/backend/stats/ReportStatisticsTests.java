@@ -0,0 +1,150 @@
+package com.floodguard.backend.stats;
+
+import com.floodguard.backend.model.ReportStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class ReportStatisticsTests {
+
+    private static final ReportStatistics.Granularity HOUR = ReportStatistics.Granularity.HOUR;
+    private static final ReportStatistics.Granularity DAY = ReportStatistics.Granularity.DAY;
+
+    private JdbcTemplate jdbcTemplate;
+    private ReportStatistics statistics;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        statistics = new ReportStatistics(jdbcTemplate, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(statistics, "hourlyRetentionDays", 35);
+        ReflectionTestUtils.setField(statistics, "dailyRetentionDays", 1830);
+        now = HOUR.truncate(LocalDateTime.now()).minusHours(1);
+    }
+
+    @Test
+    void writesMoveCountersBetweenStatusesAndSeries() {
+        statistics.reconcile();
+        assertThat(statistics.isReady()).isTrue();
+
+        ReportStatistics.Snapshot flood = new ReportStatistics.Snapshot("Q1", "FLOOD", ReportStatus.UNVERIFIED, now);
+        ReportStatistics.Snapshot verified = new ReportStatistics.Snapshot("Q1", "FLOOD", ReportStatus.VERIFIED, now);
+        ReportStatistics.Snapshot guestFlood = new ReportStatistics.Snapshot(null, "FLOOD", ReportStatus.UNVERIFIED,
+                now.plusMinutes(30));
+        ReportStatistics.Snapshot landslide = new ReportStatistics.Snapshot("Q2", "LANDSLIDE",
+                ReportStatus.UNVERIFIED, now.minusDays(2));
+
+        statistics.apply(null, flood);
+        statistics.apply(null, guestFlood);
+        statistics.apply(null, landslide);
+        statistics.apply(flood, verified);
+        statistics.apply(landslide, null);
+
+        assertThat(statistics.countByEventType()).isEqualTo(Map.of("FLOOD", 2L));
+        assertThat(statistics.countByStatus()).isEqualTo(Map.of("UNVERIFIED", 1L, "VERIFIED", 1L));
+
+        long hour = HOUR.bucketOf(now);
+        assertThat(statistics.createdSeries(HOUR, hour - 1, 3, null, null)).containsExactly(0, 2, 0);
+        assertThat(statistics.createdSeries(HOUR, hour, 1, "Q1", null)).containsExactly(1);
+        assertThat(statistics.createdSeries(HOUR, hour, 1, ReportStatistics.NO_AREA, "FLOOD")).containsExactly(1);
+        assertThat(statistics.createdSeries(HOUR, hour, 1, "Q2", null)).containsExactly(0);
+
+        long day = DAY.bucketOf(now);
+        assertThat(statistics.createdSeries(DAY, day - 2, 3, null, null)).containsExactly(0, 0, 2);
+        assertThat(statistics.createdSeries(DAY, day - 2, 3, null, "LANDSLIDE")).containsExactly(0, 0, 0);
+    }
+
+    @Test
+    void reportsOlderThanHourlyRetentionOnlyCountInDailySeries() {
+        statistics.reconcile();
+        LocalDateTime old = now.minusDays(100);
+
+        statistics.apply(null, new ReportStatistics.Snapshot("Q1", "FLOOD", ReportStatus.UNVERIFIED, old));
+
+        assertThat(statistics.createdSeries(HOUR, HOUR.bucketOf(old), 1, null, null)).containsExactly(0);
+        assertThat(statistics.createdSeries(DAY, DAY.bucketOf(old), 1, null, null)).containsExactly(1);
+        assertThat(statistics.earliest(HOUR, now)).isAfter(old);
+    }
+
+    @Test
+    void bulkCreatedReportsAreCountedAsOneGroup() {
+        statistics.reconcile();
+        ReportStatistics.Snapshot flood = new ReportStatistics.Snapshot("Q1", "FLOOD", ReportStatus.UNVERIFIED, now);
+
+        statistics.applyCreated(flood, 500);
+        statistics.apply(flood, null);
+
+        assertThat(statistics.countByStatus()).isEqualTo(Map.of("UNVERIFIED", 499L));
+        assertThat(statistics.createdSeries(HOUR, HOUR.bucketOf(now), 1, "Q1", "FLOOD")).containsExactly(499);
+        assertThat(statistics.createdSeries(DAY, DAY.bucketOf(now), 1, null, null)).containsExactly(499);
+    }
+
+    @Test
+    void changeCommittedDuringReconcileIsKeptOnTheRebuiltCounters() {
+        statistics.reconcile();
+        ReportStatistics.Snapshot flood = new ReportStatistics.Snapshot("Q1", "FLOOD", ReportStatus.UNVERIFIED, now);
+        // Snapshot DB rỗng; một report được commit trong lúc đang đọc snapshot
+        doAnswer(invocation -> {
+            statistics.apply(null, flood);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        statistics.reconcile();
+        statistics.apply(flood, null);
+        statistics.apply(null, flood);
+
+        assertThat(statistics.countByEventType()).isEqualTo(Map.of("FLOOD", 1L));
+        assertThat(statistics.createdSeries(HOUR, HOUR.bucketOf(now), 1, "Q1", "FLOOD")).containsExactly(1);
+    }
+
+    @Test
+    void changeCommittedDuringTheFirstLoadIsKept() {
+        ReportStatistics.Snapshot flood = new ReportStatistics.Snapshot("Q1", "FLOOD", ReportStatus.UNVERIFIED, now);
+        // Lần nạp đầu (app đã nhận request): snapshot DB rỗng, một report được commit trong lúc đọc
+        doAnswer(invocation -> {
+            statistics.apply(null, flood);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        statistics.reconcile();
+
+        assertThat(statistics.isReady()).isTrue();
+        assertThat(statistics.countByEventType()).isEqualTo(Map.of("FLOOD", 1L));
+        assertThat(statistics.createdSeries(HOUR, HOUR.bucketOf(now), 1, "Q1", "FLOOD")).containsExactly(1);
+    }
+
+    @Test
+    void remoteWritesAreCoalescedIntoOneReconcile() {
+        ReflectionTestUtils.setField(statistics, "reconcileSeconds", 3600L);
+        ReflectionTestUtils.setField(statistics, "remoteReconcileDelaySeconds", 1L);
+        statistics.start();
+        try {
+            verify(jdbcTemplate, timeout(2000)).query(anyString(), any(RowCallbackHandler.class));
+
+            statistics.requestRemoteReconcile();
+            statistics.requestRemoteReconcile();
+            statistics.requestRemoteReconcile();
+
+            // Lần nạp lúc khởi động + một lần đối soát cho cả ba event
+            verify(jdbcTemplate, after(1500).times(2)).query(anyString(), any(RowCallbackHandler.class));
+        } finally {
+            statistics.stop();
+        }
+    }
+}
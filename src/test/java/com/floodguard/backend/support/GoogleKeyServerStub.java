@@ -0,0 +1,153 @@
+package com.floodguard.backend.support;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for https://www.googleapis.com/oauth2/v1/certs: serves the certificate of a freshly generated RSA
+ * key ({"kid": "PEM"}) with Cache-Control max-age, counts fetches, and signs Google-style ID tokens with that key.
+ */
+public class GoogleKeyServerStub implements AutoCloseable {
+
+    private static final String KEY_ID = "stub-key";
+    private static final String PASSWORD = "changeit";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final PrivateKey privateKey;
+    private final String certificatesJson;
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final long maxAgeSeconds;
+    private volatile long delayMillis;
+
+    public GoogleKeyServerStub(long maxAgeSeconds) throws Exception {
+        this.maxAgeSeconds = maxAgeSeconds;
+        KeyStore keyStore = generateKeyStore();
+        privateKey = (PrivateKey) keyStore.getKey(KEY_ID, PASSWORD.toCharArray());
+        certificatesJson = "{\"" + KEY_ID + "\": \"" + pem(keyStore.getCertificate(KEY_ID)).replace("\n", "\\n") + "\"}";
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/oauth2/v1/certs", exchange -> {
+            fetches.incrementAndGet();
+            try {
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = certificatesJson.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.getResponseHeaders().set("Cache-Control", "public, max-age=" + this.maxAgeSeconds);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    public String certsUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/oauth2/v1/certs";
+    }
+
+    public int fetches() {
+        return fetches.get();
+    }
+
+    // Mô phỏng endpoint certificate chậm
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    public String signIdToken(String audience, String email) {
+        return signIdToken(audience, email, privateKey);
+    }
+
+    public static String signIdToken(String audience, String email, PrivateKey key) {
+        JsonWebSignature.Header header = new JsonWebSignature.Header()
+                .setAlgorithm("RS256")
+                .setKeyId(KEY_ID);
+        long now = System.currentTimeMillis() / 1000;
+        JsonWebSignature.Payload payload = new JsonWebSignature.Payload()
+                .setIssuer("https://accounts.google.com")
+                .setAudience(audience)
+                .setSubject("google-" + email)
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + 3600);
+        payload.set("email", email);
+        payload.set("name", email.substring(0, email.indexOf('@')));
+        try {
+            return JsonWebSignature.signUsingRsaSha256(key, GsonFactory.getDefaultInstance(), header, payload);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // JDK không có API tạo certificate: dùng keytool đi kèm JDK để sinh key RSA + certificate tự ký
+    public static KeyStore generateKeyStore() throws Exception {
+        Path file = Files.createTempFile("google-stub", ".p12");
+        Files.delete(file);
+        try {
+            Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                    "-genkeypair", "-alias", KEY_ID, "-keyalg", "RSA", "-keysize", "2048", "-validity", "2",
+                    "-dname", "CN=google-stub", "-storetype", "PKCS12", "-keystore", file.toString(),
+                    "-storepass", PASSWORD, "-keypass", PASSWORD)
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(keytool.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (keytool.waitFor() != 0) {
+                throw new IllegalStateException("keytool failed: " + output);
+            }
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            try (InputStream in = Files.newInputStream(file)) {
+                keyStore.load(in, PASSWORD.toCharArray());
+            }
+            return keyStore;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public static PrivateKey privateKey(KeyStore keyStore) {
+        try {
+            return (PrivateKey) keyStore.getKey(KEY_ID, PASSWORD.toCharArray());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String pem(Certificate certificate) {
+        try {
+            return "-----BEGIN CERTIFICATE-----\n"
+                    + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII))
+                    .encodeToString(certificate.getEncoded())
+                    + "\n-----END CERTIFICATE-----\n";
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
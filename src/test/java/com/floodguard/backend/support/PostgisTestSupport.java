@@ -0,0 +1,30 @@
+package com.floodguard.backend.support;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * PostGIS container initialised with database.sql, shared by integration tests and benchmarks.
+ * Tests extending this class are skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgisTestSupport {
+
+    @Container
+    protected static final PostgreSQLContainer<?> POSTGIS = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgis/postgis:15-3.3").asCompatibleSubstituteFor("postgres"))
+            .withCopyFileToContainer(MountableFile.forHostPath("database.sql"),
+                    "/docker-entrypoint-initdb.d/database.sql");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGIS::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGIS::getUsername);
+        registry.add("spring.datasource.password", POSTGIS::getPassword);
+    }
+}
@@ -0,0 +1,73 @@
+package com.floodguard.backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeohashUtilTests {
+
+    @Test
+    void matchesReferenceGeohashesAndNeighbourCells() {
+        assertThat(GeohashUtil.encodeBase32(-5.6, 42.6, 5)).isEqualTo("ezs42");
+        assertThat(GeohashUtil.encodeBase32(10.40744, 57.64911, 11)).isEqualTo("u4pruydqqvj");
+
+        // Ô bên phải "ezs42" là "ezs43", ô phía trên là "ezs48"
+        long x = GeohashUtil.cellX(-5.6, 5);
+        long y = GeohashUtil.cellY(42.6, 5);
+        assertThat(GeohashUtil.toBase32(GeohashUtil.hash(x + 1, y, 5), 5)).isEqualTo("ezs43");
+        assertThat(GeohashUtil.toBase32(GeohashUtil.hash(x, y + 1, 5), 5)).isEqualTo("ezs48");
+    }
+
+    @Test
+    void cellRangesCoverEveryPointOfTheEnvelope() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            double longitude = 106.6 + random.nextDouble() * 0.3;
+            double latitude = 10.7 + random.nextDouble() * 0.2;
+            assertThat(GeohashUtil.cell(longitude, latitude))
+                    .isEqualTo(GeohashUtil.encode(longitude, latitude, GeohashUtil.MAX_PRECISION));
+        }
+
+        Envelope envelope = GeoUtil.radiusEnvelope(106.7, 10.8, 1000);
+        GeohashUtil.CellRanges ranges = GeohashUtil.cover(envelope, GeohashUtil.COVER_CELLS);
+        assertThat(ranges.lows().length).isBetween(1, GeohashUtil.COVER_CELLS);
+        for (int i = 0; i < 1000; i++) {
+            long cell = GeohashUtil.cell(envelope.getMinX() + random.nextDouble() * envelope.getWidth(),
+                    envelope.getMinY() + random.nextDouble() * envelope.getHeight());
+            assertThat(inRanges(ranges, cell)).isTrue();
+        }
+        assertThat(ranges.lowsLiteral()).startsWith("{").endsWith("}");
+    }
+
+    @Test
+    void lineCellIsFoundThroughAncestorsOfTheCoveringCells() {
+        // Đoạn cống ~2 km: ô của nó lớn hơn ô phủ một vòng bán kính 100 m quanh một điểm trên đoạn
+        LineString drain = new GeometryFactory().createLineString(new Coordinate[]{
+                new Coordinate(106.69, 10.79), new Coordinate(106.71, 10.79)});
+        long cell = GeohashUtil.cell(drain);
+        assertThat(cell).isEqualTo(GeohashUtil.cell(drain.getEnvelope()));
+
+        GeohashUtil.CellRanges ranges = GeohashUtil.cover(GeoUtil.radiusEnvelope(106.70, 10.79, 100),
+                GeohashUtil.COVER_CELLS);
+        boolean found = inRanges(ranges, cell);
+        for (long ancestor : ranges.ancestors()) {
+            found |= ancestor == cell;
+        }
+        assertThat(found).isTrue();
+    }
+
+    private static boolean inRanges(GeohashUtil.CellRanges ranges, long cell) {
+        for (int i = 0; i < ranges.lows().length; i++) {
+            if (ranges.lows()[i] <= cell && cell < ranges.highs()[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
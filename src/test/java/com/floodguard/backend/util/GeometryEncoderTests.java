@@ -0,0 +1,74 @@
+package com.floodguard.backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKTReader;
+
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeometryEncoderTests {
+
+    private final WKTReader wktReader = new WKTReader();
+
+    @Test
+    void twkbMatchesPostgisOutput() throws ParseException {
+        // SELECT ST_AsTWKB('POINT(1 2)'::geometry, 0) → \x01000204
+        assertThat(hex(GeometryEncoder.toTwkb(wktReader.read("POINT(1 2)"), 0))).isEqualTo("01000204");
+        // SELECT ST_AsTWKB('LINESTRING(1 1,5 5)'::geometry, 0) → \x02000202020808
+        assertThat(hex(GeometryEncoder.toTwkb(wktReader.read("LINESTRING(1 1,5 5)"), 0)))
+                .isEqualTo("02000202020808");
+        // Polygon: precision 1 ở 4 bit cao (zigzag 2), delta nối tiếp giữa các điểm
+        assertThat(hex(GeometryEncoder.toTwkb(wktReader.read("POLYGON((0 0,1 0,1 1,0 0))"), 1)))
+                .isEqualTo("230001040000140000141313");
+    }
+
+    @Test
+    void wkbAndGeoJsonRoundTripAtRequestedPrecision() throws ParseException {
+        Geometry polygon = wktReader.read("POLYGON((106.7012345 10.8012345, 106.71 10.80, 106.71 10.81, "
+                + "106.7012345 10.8012345))");
+
+        String wkb = (String) GeometryEncoder.encode(polygon, GeometryEncoder.Format.WKB, 6);
+        assertThat(new WKBReader().read(Base64.getDecoder().decode(wkb)).equalsExact(polygon)).isTrue();
+
+        Map<String, Object> geoJson = GeometryEncoder.toGeoJson(polygon, 3);
+        assertThat(geoJson.get("type")).isEqualTo("Polygon");
+        @SuppressWarnings("unchecked")
+        List<List<double[]>> rings = (List<List<double[]>>) geoJson.get("coordinates");
+        assertThat(rings.get(0).get(0)).containsExactly(106.701, 10.801);
+    }
+
+    @Test
+    void simplificationDropsSubPixelVerticesAndKeepsTopology() {
+        StringBuilder wkt = new StringBuilder("POLYGON((");
+        for (int i = 0; i < 2000; i++) {
+            double angle = 2 * Math.PI * i / 2000;
+            double radius = 0.05 + (i % 2 == 0 ? 0.00001 : -0.00001);
+            wkt.append(106.75 + radius * Math.cos(angle)).append(' ').append(10.85 + radius * Math.sin(angle)).append(',');
+        }
+        wkt.append("106.80001 10.85))");
+        Geometry circle;
+        try {
+            circle = wktReader.read(wkt.toString());
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Geometry zoom10 = GeometryEncoder.simplify(circle, 10);
+        Geometry zoom18 = GeometryEncoder.simplify(circle, 18);
+
+        assertThat(zoom10.getNumPoints()).isLessThan(200);
+        assertThat(zoom18.getNumPoints()).isGreaterThan(zoom10.getNumPoints());
+        assertThat(zoom10.isValid()).isTrue();
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
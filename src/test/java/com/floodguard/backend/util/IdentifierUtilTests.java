@@ -0,0 +1,17 @@
+package com.floodguard.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentifierUtilTests {
+
+    @Test
+    void classifiesIdentifierByShape() {
+        assertThat(IdentifierUtil.classify("nguyenvana@gmail.com")).isEqualTo(IdentifierUtil.Type.EMAIL);
+        assertThat(IdentifierUtil.classify("0901234567")).isEqualTo(IdentifierUtil.Type.PHONE);
+        assertThat(IdentifierUtil.classify("+84901234567")).isEqualTo(IdentifierUtil.Type.PHONE);
+        assertThat(IdentifierUtil.classify("1234")).isEqualTo(IdentifierUtil.Type.USERNAME);
+        assertThat(IdentifierUtil.classify("to_truong_kp3")).isEqualTo(IdentifierUtil.Type.USERNAME);
+    }
+}